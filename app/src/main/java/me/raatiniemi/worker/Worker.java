@@ -17,9 +17,14 @@
 package me.raatiniemi.worker;
 
 import android.app.Application;
+import android.os.StrictMode;
 
 import com.squareup.leakcanary.LeakCanary;
 
+import me.raatiniemi.worker.data.repository.ProjectCache;
+import me.raatiniemi.worker.data.repository.RepositoryCacheObserver;
+import me.raatiniemi.worker.data.repository.TimeCache;
+
 /**
  * Stores application constants.
  */
@@ -42,6 +47,21 @@ public final class Worker extends Application {
      */
     public static final int NOTIFICATION_ON_GOING_ID = 3;
 
+    /**
+     * Id for the export notification.
+     */
+    public static final int NOTIFICATION_EXPORT_SERVICE_ID = 4;
+
+    /**
+     * Id for the notification about clocked out duplicated active time.
+     */
+    public static final int NOTIFICATION_CLOCKED_OUT_ACTIVE_TIME_ID = 5;
+
+    /**
+     * Id for the scheduled automatic backup job.
+     */
+    public static final int JOB_AUTOMATIC_BACKUP_ID = 1;
+
     /**
      * Prefix for backup directories.
      */
@@ -53,15 +73,79 @@ public final class Worker extends Application {
     public static final String STORAGE_BACKUP_DIRECTORY_PATTERN
             = Worker.STORAGE_BACKUP_DIRECTORY_PREFIX + "(\\d+)";
 
+    /**
+     * Name of the directory for the backup snapshots.
+     */
+    public static final String STORAGE_SNAPSHOT_DIRECTORY = "snapshots";
+
+    /**
+     * Name of the directory for the exported timesheets.
+     */
+    public static final String STORAGE_EXPORT_DIRECTORY = "exports";
+
     /**
      * Intent action for restarting the application.
      */
     public static final String INTENT_ACTION_RESTART = "action_restart";
 
+    /**
+     * Maximum number of items kept in each of the repository caches.
+     */
+    private static final int REPOSITORY_CACHE_SIZE = 100;
+
+    /**
+     * Cache for projects, shared between the project repositories.
+     */
+    private final ProjectCache projectCache = new ProjectCache(REPOSITORY_CACHE_SIZE);
+
+    /**
+     * Cache for registered time, shared between the time repositories.
+     */
+    private final TimeCache timeCache = new TimeCache(REPOSITORY_CACHE_SIZE);
+
     @Override
     public void onCreate() {
         super.onCreate();
 
         LeakCanary.install(this);
+
+        // Disk and database access on the main thread is logged, e.g. when
+        // building notifications or reading the preferences.
+        if (BuildConfig.DEBUG) {
+            StrictMode.setThreadPolicy(
+                    new StrictMode.ThreadPolicy.Builder()
+                            .detectDiskReads()
+                            .detectDiskWrites()
+                            .penaltyLog()
+                            .build()
+            );
+        }
+
+        // The caches have to be invalidated when the provider content is
+        // changed, e.g. when restoring a backup.
+        RepositoryCacheObserver observer = new RepositoryCacheObserver(
+                null,
+                projectCache,
+                timeCache
+        );
+        observer.register(getContentResolver());
+    }
+
+    /**
+     * Get the cache for projects.
+     *
+     * @return Cache for projects.
+     */
+    public ProjectCache getProjectCache() {
+        return projectCache;
+    }
+
+    /**
+     * Get the cache for registered time.
+     *
+     * @return Cache for registered time.
+     */
+    public TimeCache getTimeCache() {
+        return timeCache;
     }
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.provider.BaseColumns;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+
+import me.raatiniemi.worker.data.WorkerContract.BackupStateColumns;
+import me.raatiniemi.worker.data.WorkerContract.ProjectColumns;
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+/**
+ * Import the projects and registered time from a backup into the database.
+ * <p>
+ * The backup is validated before anything is written, and the rows are
+ * streamed from the backup with compiled statements, i.e. the database is
+ * never replaced while connections to it are open. The import is applied
+ * within a single transaction, if the import fails the database is left
+ * untouched.
+ */
+final class BackupImporter {
+    /**
+     * Number of rows imported between each progress report.
+     */
+    static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_PROJECT = "INSERT INTO " + Tables.PROJECT + " (" +
+            BaseColumns._ID + "," +
+            ProjectColumns.NAME + "," +
+            ProjectColumns.DESCRIPTION + "," +
+            ProjectColumns.ARCHIVED + ") VALUES (?,?,?,?)";
+
+    private static final String INSERT_TIME = "INSERT INTO " + Tables.TIME + " (" +
+            BaseColumns._ID + "," +
+            TimeColumns.PROJECT_ID + "," +
+            TimeColumns.START + "," +
+            TimeColumns.STOP + "," +
+            TimeColumns.REGISTERED + "," +
+            TimeColumns.DAY + ") VALUES (?,?,?,?,?,?)";
+
+    private final SQLiteDatabase backup;
+
+    private final OnProgressListener onProgressListener;
+
+    private long progress;
+    private long max;
+
+    private int clockedOutActiveTime;
+
+    /**
+     * Constructor.
+     *
+     * @param backup             Backup from which to import.
+     * @param onProgressListener Listener for the import progress.
+     */
+    BackupImporter(@NonNull SQLiteDatabase backup, @Nullable OnProgressListener onProgressListener) {
+        this.backup = backup;
+        this.onProgressListener = onProgressListener;
+    }
+
+    /**
+     * Check that the backup is intact and have a structure that can be imported.
+     *
+     * @throws IOException If the backup is corrupt, or from a newer version.
+     */
+    void validate() throws IOException {
+        String integrity = DatabaseUtils.stringForQuery(backup, "PRAGMA integrity_check", null);
+        if (!"ok".equalsIgnoreCase(integrity)) {
+            throw new IOException("Backup failed the integrity check: " + integrity);
+        }
+
+        // Backups from older versions are upgraded while importing, but the
+        // structure from a newer version is unknown.
+        long version = DatabaseUtils.longForQuery(backup, "PRAGMA user_version", null);
+        if (1 > version || WorkerDatabase.DATABASE_VERSION < version) {
+            throw new IOException("Backup have unsupported version " + version);
+        }
+
+        if (!tableExists(Tables.PROJECT) || !tableExists(Tables.TIME)) {
+            throw new IOException("Backup is missing the project or time table");
+        }
+    }
+
+    private boolean tableExists(String table) {
+        return 0 < DatabaseUtils.longForQuery(
+                backup,
+                "SELECT COUNT(*) FROM sqlite_master WHERE type='table' AND name=?",
+                new String[]{table}
+        );
+    }
+
+    /**
+     * Replace the projects and registered time within the database with the
+     * rows from the backup.
+     *
+     * @param db Database to import into.
+     */
+    void importInto(@NonNull SQLiteDatabase db) {
+        clockedOutActiveTime = 0;
+        progress = 0;
+        max = DatabaseUtils.queryNumEntries(backup, Tables.PROJECT)
+                + DatabaseUtils.queryNumEntries(backup, Tables.TIME);
+        reportProgress();
+
+        db.beginTransaction();
+        try {
+            db.delete(Tables.TIME, null, null);
+            db.delete(Tables.PROJECT, null, null);
+            db.delete("sqlite_sequence", null, null);
+
+            // The index is dropped while importing since the time is written
+            // before the duplicated active time from older versions is
+            // clocked out, same as when upgrading to version 6.
+            WorkerDatabase.dropActiveTimeIndex(db);
+
+            importProjects(db);
+            importTime(db);
+
+            long version = DatabaseUtils.longForQuery(backup, "PRAGMA user_version", null);
+            if (6 > version) {
+                clockedOutActiveTime = WorkerDatabase.clockOutDuplicatedActiveTime(db);
+            }
+
+            WorkerDatabase.createActiveTimeIndex(db);
+
+            // The imported time is not part of any of the existing snapshots,
+            // i.e. the next snapshot have to be a full snapshot.
+            db.execSQL("UPDATE " + Tables.BACKUP_STATE + " SET " +
+                    BackupStateColumns.GENERATION + " = " + WorkerDatabase.NEW_GENERATION);
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Get the number of active time clocked out by the import, i.e. duplicated
+     * active time from backups older than version 6.
+     *
+     * @return Number of clocked out rows.
+     */
+    int getClockedOutActiveTime() {
+        return clockedOutActiveTime;
+    }
+
+    private void importProjects(SQLiteDatabase db) {
+        Cursor cursor = backup.rawQuery(
+                "SELECT " + BaseColumns._ID + "," +
+                        ProjectColumns.NAME + "," +
+                        ProjectColumns.DESCRIPTION + "," +
+                        ProjectColumns.ARCHIVED +
+                        " FROM " + Tables.PROJECT,
+                null
+        );
+        SQLiteStatement statement = db.compileStatement(INSERT_PROJECT);
+        try {
+            while (cursor.moveToNext()) {
+                statement.bindLong(1, cursor.getLong(0));
+                statement.bindString(2, cursor.getString(1));
+                if (cursor.isNull(2)) {
+                    statement.bindNull(3);
+                } else {
+                    statement.bindString(3, cursor.getString(2));
+                }
+                statement.bindLong(4, cursor.getLong(3));
+                statement.executeInsert();
+
+                incrementProgress();
+            }
+        } finally {
+            statement.close();
+            cursor.close();
+        }
+    }
+
+    private void importTime(SQLiteDatabase db) {
+        // The columns added after the first version are populated the same
+        // way as when the database is upgraded.
+        String registered = TimeColumns.REGISTERED;
+        if (!WorkerDatabase.columnExists(backup, Tables.TIME, TimeColumns.REGISTERED)) {
+            registered = "0";
+        }
+
+        String day = TimeColumns.DAY;
+        if (!WorkerDatabase.columnExists(backup, Tables.TIME, TimeColumns.DAY)) {
+            day = TimeColumns.START + " / " + TimeContract.DAY_IN_MILLISECONDS;
+        }
+
+        Cursor cursor = backup.rawQuery(
+                "SELECT " + BaseColumns._ID + "," +
+                        TimeColumns.PROJECT_ID + "," +
+                        TimeColumns.START + "," +
+                        TimeColumns.STOP + "," +
+                        registered + "," +
+                        day +
+                        " FROM " + Tables.TIME,
+                null
+        );
+        SQLiteStatement statement = db.compileStatement(INSERT_TIME);
+        try {
+            while (cursor.moveToNext()) {
+                for (int i = 0; i < 6; i++) {
+                    statement.bindLong(i + 1, cursor.getLong(i));
+                }
+                statement.executeInsert();
+
+                incrementProgress();
+            }
+        } finally {
+            statement.close();
+            cursor.close();
+        }
+
+        reportProgress();
+    }
+
+    private void incrementProgress() {
+        progress++;
+        if (0 == progress % BATCH_SIZE) {
+            reportProgress();
+        }
+    }
+
+    private void reportProgress() {
+        if (null == onProgressListener) {
+            return;
+        }
+
+        onProgressListener.onProgress(progress, max);
+    }
+
+    /**
+     * Listener for the import progress.
+     */
+    interface OnProgressListener {
+        /**
+         * Report the progress of the import.
+         *
+         * @param progress Number of imported rows.
+         * @param max      Number of rows within the backup.
+         */
+        void onProgress(long progress, long max);
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data;
+
+import android.content.ContentValues;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.provider.BaseColumns;
+import android.support.annotation.NonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+/**
+ * Compiled statements for the frequently used operations on the `time`-table.
+ * <p>
+ * The statements are compiled once and kept in a pool, i.e. the SQL do not
+ * have to be assembled from the content values for every call. A statement is
+ * only used by one thread at a time, since the bound arguments are part of
+ * the statement state.
+ * <p>
+ * The statements are bound to the database they were compiled for, and have
+ * to be closed before the database is closed.
+ */
+public class TimeStatements {
+    /**
+     * Maximum number of idle statements kept for each of the operations.
+     */
+    private static final int MAXIMUM_NUMBER_OF_IDLE_STATEMENTS = 4;
+
+    /**
+     * Columns written by the statements, in the order they are bound.
+     */
+    private static final String[] COLUMNS = new String[]{
+            TimeColumns.PROJECT_ID,
+            TimeColumns.START,
+            TimeColumns.STOP,
+            TimeColumns.REGISTERED,
+            TimeColumns.DAY
+    };
+
+    private static final String INSERT = "INSERT INTO " + Tables.TIME + " (" +
+            TimeColumns.PROJECT_ID + "," +
+            TimeColumns.START + "," +
+            TimeColumns.STOP + "," +
+            TimeColumns.REGISTERED + "," +
+            TimeColumns.DAY + ") VALUES (?,?,?,?,?)";
+
+    private static final String UPDATE = "UPDATE " + Tables.TIME + " SET " +
+            TimeColumns.PROJECT_ID + "=?," +
+            TimeColumns.START + "=?," +
+            TimeColumns.STOP + "=?," +
+            TimeColumns.REGISTERED + "=?," +
+            TimeColumns.DAY + "=? WHERE " + BaseColumns._ID + "=?";
+
+    /**
+     * Insert active time for a project, nothing is inserted if the project
+     * already have active time.
+     * <p>
+     * The check and insert are evaluated within the same statement, i.e. the
+     * unique index for the active time is not expected to fail and any
+     * constraint failure is reported.
+     */
+    private static final String CLOCK_IN = "INSERT INTO " + Tables.TIME + " (" +
+            TimeColumns.PROJECT_ID + "," +
+            TimeColumns.START + "," +
+            TimeColumns.STOP + "," +
+            TimeColumns.REGISTERED + "," +
+            TimeColumns.DAY + ") SELECT ?,?,0,0,? WHERE NOT EXISTS (" +
+            "SELECT 1 FROM " + Tables.TIME +
+            " WHERE " + TimeColumns.PROJECT_ID + "=? AND " + TimeContract.SELECTION_ACTIVE + ")";
+
+    /**
+     * Clock out the active time for a project, unless the time was started
+     * after the date for the clock out.
+     */
+    private static final String CLOCK_OUT = "UPDATE " + Tables.TIME + " SET " +
+            TimeColumns.STOP + "=? WHERE " +
+            TimeColumns.PROJECT_ID + "=? AND " +
+            TimeContract.SELECTION_ACTIVE + " AND " +
+            TimeColumns.START + "<=?";
+
+    private final SQLiteDatabase db;
+
+    private final Queue<SQLiteStatement> insertStatements = new ConcurrentLinkedQueue<>();
+
+    private final Queue<SQLiteStatement> updateStatements = new ConcurrentLinkedQueue<>();
+
+    private final Queue<SQLiteStatement> clockInStatements = new ConcurrentLinkedQueue<>();
+
+    private final Queue<SQLiteStatement> clockOutStatements = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor.
+     *
+     * @param db Database for which to compile the statements.
+     */
+    TimeStatements(@NonNull SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * Check whether the content values can be written with the statements,
+     * i.e. whether the values contain all of the columns and nothing else.
+     *
+     * @param values Content values to check.
+     * @return true if the values can be written with the statements, otherwise false.
+     */
+    static boolean isWritable(ContentValues values) {
+        if (null == values || COLUMNS.length != values.size()) {
+            return false;
+        }
+
+        for (String column : COLUMNS) {
+            if (!values.containsKey(column)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Check whether the statements have been compiled for the database.
+     *
+     * @param db Database to check.
+     * @return true if the statements belong to the database, otherwise false.
+     */
+    boolean isCompiledFor(SQLiteDatabase db) {
+        return this.db == db;
+    }
+
+    private static void bind(SQLiteStatement statement, ContentValues values) {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            Long value = values.getAsLong(COLUMNS[i]);
+            if (null == value) {
+                statement.bindNull(i + 1);
+                continue;
+            }
+
+            statement.bindLong(i + 1, value);
+        }
+    }
+
+    private SQLiteStatement acquire(Queue<SQLiteStatement> statements, String sql) {
+        SQLiteStatement statement = statements.poll();
+        if (null == statement) {
+            statement = db.compileStatement(sql);
+        }
+
+        return statement;
+    }
+
+    private static void release(Queue<SQLiteStatement> statements, SQLiteStatement statement) {
+        statement.clearBindings();
+
+        // The pool is only growing if statements are used concurrently, and
+        // the number of statements kept is limited since each of the
+        // statements are holding on to resources within the database.
+        if (MAXIMUM_NUMBER_OF_IDLE_STATEMENTS <= statements.size()) {
+            statement.close();
+            return;
+        }
+
+        statements.offer(statement);
+    }
+
+    /**
+     * Insert time.
+     *
+     * @param values Values for the time, see {@link #isWritable(ContentValues)}.
+     * @return Id for the inserted time.
+     */
+    public long insert(@NonNull ContentValues values) {
+        SQLiteStatement statement = acquire(insertStatements, INSERT);
+        try {
+            bind(statement, values);
+
+            return statement.executeInsert();
+        } finally {
+            release(insertStatements, statement);
+        }
+    }
+
+    /**
+     * Update time by id.
+     *
+     * @param id     Id for the time.
+     * @param values Values for the time, see {@link #isWritable(ContentValues)}.
+     * @return Number of updated rows.
+     */
+    public int update(long id, @NonNull ContentValues values) {
+        SQLiteStatement statement = acquire(updateStatements, UPDATE);
+        try {
+            bind(statement, values);
+            statement.bindLong(COLUMNS.length + 1, id);
+
+            return statement.executeUpdateDelete();
+        } finally {
+            release(updateStatements, statement);
+        }
+    }
+
+    /**
+     * Clock in a project with a single statement.
+     *
+     * @param projectId Id for the project.
+     * @param date      Date in milliseconds for the clock in.
+     * @return true if the project was clocked in, false if it's already active.
+     */
+    public boolean clockIn(long projectId, long date) {
+        SQLiteStatement statement = acquire(clockInStatements, CLOCK_IN);
+        try {
+            statement.bindLong(1, projectId);
+            statement.bindLong(2, date);
+            statement.bindLong(3, TimeContract.getDay(date));
+            statement.bindLong(4, projectId);
+
+            // The id is -1 if nothing was inserted, i.e. the project is active.
+            return 0 < statement.executeInsert();
+        } finally {
+            release(clockInStatements, statement);
+        }
+    }
+
+    /**
+     * Clock out a project with a single statement.
+     *
+     * @param projectId Id for the project.
+     * @param date      Date in milliseconds for the clock out.
+     * @return true if the project was clocked out, false if it's not active.
+     */
+    public boolean clockOut(long projectId, long date) {
+        SQLiteStatement statement = acquire(clockOutStatements, CLOCK_OUT);
+        try {
+            statement.bindLong(1, date);
+            statement.bindLong(2, projectId);
+            statement.bindLong(3, date);
+
+            return 0 < statement.executeUpdateDelete();
+        } finally {
+            release(clockOutStatements, statement);
+        }
+    }
+
+    /**
+     * Close the pooled statements.
+     */
+    void close() {
+        SQLiteStatement statement;
+        while (null != (statement = insertStatements.poll())) {
+            statement.close();
+        }
+
+        while (null != (statement = updateStatements.poll())) {
+            statement.close();
+        }
+
+        while (null != (statement = clockInStatements.poll())) {
+            statement.close();
+        }
+
+        while (null != (statement = clockOutStatements.poll())) {
+            statement.close();
+        }
+    }
+}
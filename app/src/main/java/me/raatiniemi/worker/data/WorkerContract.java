@@ -30,6 +30,97 @@ public class WorkerContract {
      */
     public static final String QUERY_PARAMETER_LIMIT = "limit";
 
+    /**
+     * Name for the provider method writing a backup snapshot of the database,
+     * the argument is the path for the snapshot directory.
+     */
+    public static final String METHOD_BACKUP = "backup";
+
+    /**
+     * Name for the provider method restoring the database from a backup, the
+     * argument is the path for the snapshot directory or the backup file.
+     */
+    public static final String METHOD_RESTORE = "restore";
+
+    /**
+     * Name for the provider method clocking in a project, the argument is the
+     * id for the project.
+     * <p>
+     * The time is inserted with a single statement, and the unique index on
+     * the active time prevents the project from being clocked in twice.
+     */
+    public static final String METHOD_CLOCK_IN = "clock_in";
+
+    /**
+     * Name for the provider method clocking out a project, the argument is
+     * the id for the project.
+     * <p>
+     * The active time is clocked out with a single conditional statement.
+     */
+    public static final String METHOD_CLOCK_OUT = "clock_out";
+
+    /**
+     * Key for the date in milliseconds, passed with the extras for
+     * {@link #METHOD_CLOCK_IN} and {@link #METHOD_CLOCK_OUT}.
+     */
+    public static final String EXTRA_DATE = "date";
+
+    /**
+     * Key for whether the project was clocked in or out, within the result
+     * for {@link #METHOD_CLOCK_IN} and {@link #METHOD_CLOCK_OUT}.
+     */
+    public static final String EXTRA_CLOCK_ACTIVITY_CHANGED = "clock_activity_changed";
+
+    /**
+     * Key for the number of snapshot chains to keep, passed with the extras
+     * for {@link #METHOD_BACKUP}.
+     */
+    public static final String EXTRA_RETENTION_CHAINS = "retention_chains";
+
+    /**
+     * Key for the number of incremental snapshots before a full snapshot is
+     * written, passed with the extras for {@link #METHOD_BACKUP}.
+     */
+    public static final String EXTRA_RETENTION_INCREMENTAL_SNAPSHOTS = "retention_incremental_snapshots";
+
+    /**
+     * Key for the path of the written snapshot, within the result for
+     * {@link #METHOD_BACKUP}.
+     */
+    public static final String EXTRA_SNAPSHOT = "snapshot";
+
+    /**
+     * Key for the size in bytes of the written snapshot, within the result
+     * for {@link #METHOD_BACKUP}.
+     */
+    public static final String EXTRA_SNAPSHOT_SIZE = "snapshot_size";
+
+    /**
+     * Key for skipping the snapshot if nothing have changed since the latest
+     * snapshot, for {@link #METHOD_BACKUP}.
+     * <p>
+     * If the snapshot is skipped, the result do not include the
+     * {@link #EXTRA_SNAPSHOT}.
+     */
+    public static final String EXTRA_SKIP_UNCHANGED = "skip_unchanged";
+
+    /**
+     * Key for the {@link android.os.ResultReceiver} receiving the progress
+     * while restoring the database, passed with the extras for
+     * {@link #METHOD_RESTORE}.
+     */
+    public static final String EXTRA_PROGRESS_RECEIVER = "progress_receiver";
+
+    /**
+     * Key for the number of restored rows, within the progress result.
+     */
+    public static final String EXTRA_PROGRESS = "progress";
+
+    /**
+     * Key for the number of rows to restore, within the progress result.
+     */
+    public static final String EXTRA_PROGRESS_MAX = "progress_max";
+
     public static final String AUTHORITY = "me.raatiniemi.worker";
 
     private static final Uri AUTHORITY_URI = Uri.parse("content://" + AUTHORITY);
@@ -40,6 +131,19 @@ public class WorkerContract {
 
     private static final String PATH_TIME = "time";
 
+    private static final String PATH_SUMMARY = "summary";
+
+    private static final String PATH_EXPORT = "export";
+
+    /**
+     * Get the authority URI, i.e. the base URI for all of the provider content.
+     *
+     * @return Authority URI.
+     */
+    public static Uri getAuthorityUri() {
+        return AUTHORITY_URI;
+    }
+
     /**
      * Name for the available tables within the database.
      */
@@ -54,10 +158,91 @@ public class WorkerContract {
          */
         public static final String TIME = "time";
 
+        /**
+         * Name for the backup state table, with a single row.
+         */
+        public static final String BACKUP_STATE = "backup_state";
+
+        /**
+         * Name for the removed time table, with the id and the change counter
+         * value for each of the removed rows.
+         */
+        public static final String DELETED_TIME = "deleted_time";
+
         private Tables() {
         }
     }
 
+    /**
+     * Name for the available indexes within the database.
+     */
+    public final class Indexes {
+        /**
+         * Name for the index on project and start for the time table.
+         */
+        public static final String TIME_PROJECT_START = "time_project_id_start";
+
+        /**
+         * Name for the index on project and day for the time table.
+         */
+        public static final String TIME_PROJECT_DAY = "time_project_id_day";
+
+        /**
+         * Name for the unique partial index on active time for the time
+         * table, i.e. a project can only have one active time.
+         */
+        public static final String TIME_PROJECT_ACTIVE = "time_project_id_active";
+
+        /**
+         * Name for the index on the change counter for the time table.
+         */
+        public static final String TIME_CHANGED = "time_changed";
+
+        private Indexes() {
+        }
+    }
+
+    public final class Triggers {
+        /**
+         * Name for the trigger incrementing the change counter when time is
+         * inserted.
+         */
+        public static final String TIME_INSERTED = "time_inserted";
+
+        /**
+         * Name for the trigger incrementing the change counter when time is
+         * updated.
+         */
+        public static final String TIME_UPDATED = "time_updated";
+
+        /**
+         * Name for the trigger incrementing the change counter when time is
+         * removed, and recording the removed time.
+         */
+        public static final String TIME_DELETED = "time_deleted";
+
+        /**
+         * Name for the trigger incrementing the change counter when a project
+         * is created.
+         */
+        public static final String PROJECT_INSERTED = "project_inserted";
+
+        /**
+         * Name for the trigger incrementing the change counter when a project
+         * is updated.
+         */
+        public static final String PROJECT_UPDATED = "project_updated";
+
+        /**
+         * Name for the trigger incrementing the change counter when a project
+         * is removed.
+         */
+        public static final String PROJECT_DELETED = "project_deleted";
+
+        private Triggers() {
+        }
+    }
+
     public final class ProjectColumns {
         public static final String NAME = "name";
 
@@ -78,10 +263,38 @@ public class WorkerContract {
 
         public static final String REGISTERED = "registered";
 
+        /**
+         * Precomputed day for the start timestamp, see {@link TimeContract#getDay(long)}.
+         */
+        public static final String DAY = "day";
+
+        /**
+         * Value of the change counter when the time was last written, see
+         * {@link BackupStateColumns#COUNTER}.
+         */
+        public static final String CHANGED = "changed";
+
         private TimeColumns() {
         }
     }
 
+    public final class BackupStateColumns {
+        /**
+         * Counter incremented for every write to the time table, used for
+         * finding the time changed since the last backup.
+         */
+        public static final String COUNTER = "counter";
+
+        /**
+         * Identifier for the sequence of counter values, replaced when the
+         * time is imported from a backup without the counter values.
+         */
+        public static final String GENERATION = "generation";
+
+        private BackupStateColumns() {
+        }
+    }
+
     public static class ProjectContract {
         public static final String STREAM_TYPE =
                 "vnd.android.cursor.dir/vnd.me.raatiniemi.worker.project";
@@ -100,8 +313,7 @@ public class WorkerContract {
         /**
          * Group by clause for timesheet.
          */
-        public static final String GROUP_BY_TIMESHEET =
-                "strftime('%Y%m%d', " + TimeColumns.START + " / 1000, 'unixepoch')";
+        public static final String GROUP_BY_TIMESHEET = TimeColumns.DAY;
 
         /**
          * Order by clause for timesheet.
@@ -109,6 +321,20 @@ public class WorkerContract {
         public static final String ORDER_BY_TIMESHEET =
                 TimeColumns.START + " DESC," + TimeColumns.STOP + " DESC";
 
+        /**
+         * Order by clause for timesheet segments, i.e. the grouped days.
+         * <p>
+         * Ordering by the group column allows for the segment to be read
+         * directly from the index on project and day.
+         */
+        public static final String ORDER_BY_TIMESHEET_SEGMENT = TimeColumns.DAY + " DESC";
+
+        /**
+         * Selection for timesheet days before a day, used for paginating
+         * the timesheet without having to skip the previous days.
+         */
+        public static final String SELECTION_TIMESHEET_BEFORE_DAY = TimeColumns.DAY + "<?";
+
         private static final Uri STREAM_URI = Uri.withAppendedPath(AUTHORITY_URI, PATH_PROJECTS);
 
         private ProjectContract() {
@@ -121,10 +347,30 @@ public class WorkerContract {
             };
         }
 
+        /**
+         * Get the columns for the timesheet segment query.
+         * <p>
+         * The segment query only determine which days that belong to the
+         * segment, i.e. the first and last timestamp for each of the days,
+         * the time rows are then retrieved with a single range query.
+         *
+         * @return Columns for the timesheet segment query.
+         */
         public static String[] getTimesheetColumns() {
             return new String[]{
                     "MIN(" + TimeColumns.START + ") AS date",
-                    "GROUP_CONCAT(" + BaseColumns._ID + ")"
+                    "MAX(" + TimeColumns.START + ")"
+            };
+        }
+
+        /**
+         * Get the columns for the project time summary.
+         *
+         * @return Columns for the project time summary.
+         */
+        public static String[] getSummaryColumns() {
+            return new String[]{
+                    "IFNULL(SUM(" + TimeColumns.STOP + " - " + TimeColumns.START + "), 0)"
             };
         }
 
@@ -167,6 +413,19 @@ public class WorkerContract {
             return Uri.withAppendedPath(getItemUri(id), PATH_TIMESHEET);
         }
 
+        /**
+         * Build the project time summary URI.
+         * <p>
+         * The summary only include time that have been clocked out, i.e.
+         * active time have to be handled separately.
+         *
+         * @param id Id for the project.
+         * @return Project time summary URI.
+         */
+        public static Uri getItemSummaryUri(final long id) {
+            return Uri.withAppendedPath(getItemUri(id), PATH_SUMMARY);
+        }
+
         /**
          * Retrieve the identifier from the project URI.
          *
@@ -185,8 +444,34 @@ public class WorkerContract {
         public static final String ITEM_TYPE =
                 "vnd.android.cursor.item/vnd.me.raatiniemi.worker.time";
 
+        /**
+         * Number of milliseconds within a day.
+         */
+        public static final long DAY_IN_MILLISECONDS = 86400000L;
+
+        /**
+         * Group by clause for time summary.
+         */
+        public static final String GROUP_BY_SUMMARY = TimeColumns.PROJECT_ID;
+
+        /**
+         * Selection for active time, i.e. time that have not been clocked out.
+         */
+        public static final String SELECTION_ACTIVE = TimeColumns.STOP + " = 0";
+
         private static final Uri STREAM_URI = Uri.withAppendedPath(AUTHORITY_URI, PATH_TIME);
 
+        private static final Uri SUMMARY_URI = Uri.withAppendedPath(STREAM_URI, PATH_SUMMARY);
+
+        private static final Uri EXPORT_URI = Uri.withAppendedPath(STREAM_URI, PATH_EXPORT);
+
+        /**
+         * Order by clause for the export, i.e. the time for each day is
+         * adjacent and can be aggregated while the rows are read.
+         */
+        public static final String ORDER_BY_EXPORT = Tables.TIME + "." + TimeColumns.DAY + " ASC," +
+                Tables.TIME + "." + TimeColumns.START + " ASC";
+
         private TimeContract() {
         }
 
@@ -200,6 +485,46 @@ public class WorkerContract {
             };
         }
 
+        /**
+         * Get the columns for the time summary, grouped by project.
+         *
+         * @return Columns for the time summary.
+         */
+        public static String[] getSummaryColumns() {
+            return new String[]{
+                    TimeColumns.PROJECT_ID,
+                    "IFNULL(SUM(" + TimeColumns.STOP + " - " + TimeColumns.START + "), 0)"
+            };
+        }
+
+        /**
+         * Get the columns for the export, i.e. the time with the project name.
+         *
+         * @return Columns for the export.
+         */
+        public static String[] getExportColumns() {
+            return new String[]{
+                    Tables.PROJECT + "." + ProjectColumns.NAME,
+                    Tables.TIME + "." + TimeColumns.START,
+                    Tables.TIME + "." + TimeColumns.STOP,
+                    Tables.TIME + "." + TimeColumns.REGISTERED,
+                    Tables.TIME + "." + TimeColumns.DAY
+            };
+        }
+
+        /**
+         * Get the day for a timestamp.
+         * <p>
+         * The day is the number of days since the epoch in UTC, and is used
+         * for grouping time by day without having to format each row.
+         *
+         * @param milliseconds Timestamp in milliseconds.
+         * @return Day for the timestamp.
+         */
+        public static long getDay(final long milliseconds) {
+            return milliseconds / DAY_IN_MILLISECONDS;
+        }
+
         /**
          * Get the time stream URI.
          *
@@ -209,6 +534,31 @@ public class WorkerContract {
             return STREAM_URI;
         }
 
+        /**
+         * Get the time summary URI.
+         * <p>
+         * The summary is grouped by project and only include time that
+         * have been clocked out, i.e. active time have to be handled
+         * separately.
+         *
+         * @return Time summary URI.
+         */
+        public static Uri getSummaryUri() {
+            return SUMMARY_URI;
+        }
+
+        /**
+         * Get the time export URI.
+         * <p>
+         * The export includes the time for every project, joined with the
+         * project name.
+         *
+         * @return Time export URI.
+         */
+        public static Uri getExportUri() {
+            return EXPORT_URI;
+        }
+
         /**
          * Build the URI for working with a specific time item.
          *
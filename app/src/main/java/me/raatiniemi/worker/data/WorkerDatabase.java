@@ -16,22 +16,57 @@
 
 package me.raatiniemi.worker.data;
 
+import android.app.NotificationManager;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.provider.BaseColumns;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.data.WorkerContract.BackupStateColumns;
+import me.raatiniemi.worker.data.WorkerContract.Indexes;
 import me.raatiniemi.worker.data.WorkerContract.ProjectColumns;
 import me.raatiniemi.worker.data.WorkerContract.Tables;
 import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+import me.raatiniemi.worker.data.WorkerContract.Triggers;
+import me.raatiniemi.worker.presentation.view.notification.ClockedOutActiveTimeNotification;
 
 /**
  * A helper class to manage database creation and version management.
  */
-class WorkerDatabase extends SQLiteOpenHelper {
-    static final int DATABASE_VERSION = 2;
+public class WorkerDatabase extends SQLiteOpenHelper {
+    static final int DATABASE_VERSION = 7;
+
+    /**
+     * Expression for a new random backup generation.
+     */
+    static final String NEW_GENERATION = "lower(hex(randomblob(16)))";
+
+    /**
+     * Lock for the database file, see {@link #getFileLock()}.
+     */
+    private static final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+
+    private static WorkerDatabase instance;
+
+    private final Context context;
+
+    /**
+     * Number of active time clocked out while upgrading the database.
+     */
+    private int clockedOutActiveTime;
+
+    /**
+     * Compiled statements for the time, see {@link #getTimeStatements()}.
+     */
+    private TimeStatements timeStatements;
 
     /**
      * Constructor.
@@ -40,6 +75,84 @@ class WorkerDatabase extends SQLiteOpenHelper {
      */
     public WorkerDatabase(Context context) {
         super(context, Worker.DATABASE_NAME, null, DATABASE_VERSION);
+
+        this.context = context;
+
+        // With write-ahead logging the readers do not have to wait for an
+        // ongoing write transaction, e.g. when clocking in or out while the
+        // timesheet is being loaded.
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Get the database shared within the process.
+     * <p>
+     * Both the provider and the repositories using the database directly
+     * have to use the same instance, i.e. the writes are serialized by the
+     * same connection pool.
+     *
+     * @param context Context used with the database.
+     * @return Database shared within the process.
+     */
+    public static synchronized WorkerDatabase getInstance(Context context) {
+        if (null == instance) {
+            instance = new WorkerDatabase(context.getApplicationContext());
+        }
+
+        return instance;
+    }
+
+    /**
+     * Get the compiled statements for the time.
+     * <p>
+     * The statements are shared by the provider and the repositories using
+     * the database directly, and are compiled for the current database, i.e.
+     * if the database have been reopened the statements are compiled again.
+     *
+     * @return Compiled statements for the time.
+     */
+    @NonNull
+    public final synchronized TimeStatements getTimeStatements() {
+        SQLiteDatabase db = getWritableDatabase();
+        if (null == timeStatements || !timeStatements.isCompiledFor(db)) {
+            closeTimeStatements();
+            timeStatements = new TimeStatements(db);
+        }
+
+        return timeStatements;
+    }
+
+    private synchronized void closeTimeStatements() {
+        if (null == timeStatements) {
+            return;
+        }
+
+        timeStatements.close();
+        timeStatements = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() {
+        // The statements have to be closed before the database.
+        closeTimeStatements();
+
+        super.close();
+    }
+
+    /**
+     * Get the lock for the database file.
+     * <p>
+     * The writes are holding the shared lock, while the backup and restore are
+     * holding the exclusive lock, i.e. nothing is written while the snapshot is
+     * written or the backup is imported.
+     *
+     * @return Lock for the database file.
+     */
+    public static ReadWriteLock getFileLock() {
+        return fileLock;
     }
 
     /**
@@ -50,7 +163,7 @@ class WorkerDatabase extends SQLiteOpenHelper {
      * @param column Name of the column.
      * @return true if column exists, otherwise false.
      */
-    private static boolean columnExists(SQLiteDatabase db, String table, String column) {
+    static boolean columnExists(SQLiteDatabase db, String table, String column) {
         boolean exists = false;
 
         // get the table structure and check if the column exists.
@@ -67,6 +180,203 @@ class WorkerDatabase extends SQLiteOpenHelper {
         return exists;
     }
 
+    /**
+     * Create the indexes for the `time`-table.
+     * <p>
+     * The indexes are created with `IF NOT EXISTS` since they are used both
+     * when creating and upgrading the database structure.
+     *
+     * @param db The database.
+     */
+    private static void createTimeIndexes(SQLiteDatabase db) {
+        // Used when retrieving time for a project since a starting point.
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.TIME_PROJECT_START +
+                " ON " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ")");
+
+        // Used when grouping the project timesheet by day.
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.TIME_PROJECT_DAY +
+                " ON " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.DAY + ")");
+
+        createActiveTimeIndex(db);
+    }
+
+    /**
+     * Create the unique index for the active time.
+     * <p>
+     * Only the active rows are included which keeps the index small, and
+     * since the index is unique a project can only have one active time, i.e.
+     * the clock in can be written with a single guarded insert.
+     *
+     * @param db The database.
+     */
+    public static void createActiveTimeIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS " + Indexes.TIME_PROJECT_ACTIVE +
+                " ON " + Tables.TIME + " (" + TimeColumns.PROJECT_ID + ")" +
+                " WHERE " + TimeContract.SELECTION_ACTIVE);
+    }
+
+    /**
+     * Clock out all but the latest active time for each project.
+     * <p>
+     * Before version 6 a project could have multiple active rows, which
+     * prevents the unique index for the active time from being created. The
+     * duplicated active time is clocked out at the start of the latest.
+     *
+     * @param db The database.
+     * @return Number of clocked out rows.
+     */
+    public static int clockOutDuplicatedActiveTime(SQLiteDatabase db) {
+        SQLiteStatement statement = db.compileStatement("UPDATE " + Tables.TIME +
+                " SET " + TimeColumns.STOP + " = (" +
+                "SELECT MAX(a." + TimeColumns.START + ") FROM " + Tables.TIME + " a" +
+                " WHERE a." + TimeColumns.PROJECT_ID + " = " +
+                Tables.TIME + "." + TimeColumns.PROJECT_ID +
+                " AND a." + TimeContract.SELECTION_ACTIVE + ")" +
+                " WHERE " + TimeContract.SELECTION_ACTIVE + " AND EXISTS (" +
+                "SELECT 1 FROM " + Tables.TIME + " a" +
+                " WHERE a." + TimeColumns.PROJECT_ID + " = " +
+                Tables.TIME + "." + TimeColumns.PROJECT_ID +
+                " AND a." + TimeContract.SELECTION_ACTIVE +
+                " AND (a." + TimeColumns.START + " > " + Tables.TIME + "." + TimeColumns.START +
+                " OR (a." + TimeColumns.START + " = " + Tables.TIME + "." + TimeColumns.START +
+                " AND a." + BaseColumns._ID + " > " + Tables.TIME + "." + BaseColumns._ID + ")))");
+        try {
+            return statement.executeUpdateDelete();
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Notify the user that duplicated active time have been clocked out.
+     *
+     * @param context              Context used with the notification.
+     * @param clockedOutActiveTime Number of clocked out rows.
+     */
+    static void notifyClockedOutActiveTime(Context context, int clockedOutActiveTime) {
+        NotificationManager manager = (NotificationManager) context.getSystemService(
+                Context.NOTIFICATION_SERVICE
+        );
+        if (null == manager) {
+            return;
+        }
+
+        manager.notify(
+                Worker.NOTIFICATION_CLOCKED_OUT_ACTIVE_TIME_ID,
+                ClockedOutActiveTimeNotification.build(context, clockedOutActiveTime)
+        );
+    }
+
+    /**
+     * Drop the unique index for the active time, e.g. while importing rows
+     * that are only consistent once every row have been written.
+     *
+     * @param db The database.
+     */
+    public static void dropActiveTimeIndex(SQLiteDatabase db) {
+        db.execSQL("DROP INDEX IF EXISTS " + Indexes.TIME_PROJECT_ACTIVE);
+    }
+
+    /**
+     * Create the backup state, and the triggers maintaining the change counter
+     * for the `time`-table.
+     * <p>
+     * The counter is incremented for every insert and update of the time, and
+     * the counter value is stored with the time. The time changed since the
+     * last backup can then be found with the index on the stored value.
+     * <p>
+     * Removed time is recorded with the counter value in the removed time
+     * table, i.e. the time removed since the last backup can be found without
+     * comparing the remaining time. Changes to the projects are only
+     * incrementing the counter, i.e. an unchanged counter means nothing have
+     * been written since the last backup.
+     *
+     * @param db The database.
+     */
+    private static void createBackupState(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + Tables.BACKUP_STATE + " ( " +
+                BackupStateColumns.COUNTER + " INTEGER NOT NULL DEFAULT 0, " +
+                BackupStateColumns.GENERATION + " TEXT NOT NULL)");
+        db.execSQL("INSERT INTO " + Tables.BACKUP_STATE + " (" +
+                BackupStateColumns.COUNTER + ", " + BackupStateColumns.GENERATION + ")" +
+                " SELECT 0, " + NEW_GENERATION +
+                " WHERE NOT EXISTS (SELECT 1 FROM " + Tables.BACKUP_STATE + ")");
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Indexes.TIME_CHANGED +
+                " ON " + Tables.TIME + " (" + TimeColumns.CHANGED + ")");
+
+        // The removed time is cleared when the snapshot is written, i.e. the
+        // table only holds the time removed since the last snapshot.
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + Tables.DELETED_TIME + " ( " +
+                BaseColumns._ID + " INTEGER PRIMARY KEY, " +
+                TimeColumns.CHANGED + " INTEGER NOT NULL)");
+
+        String increment = "UPDATE " + Tables.BACKUP_STATE + " SET " +
+                BackupStateColumns.COUNTER + " = " + BackupStateColumns.COUNTER + " + 1; " +
+                "UPDATE " + Tables.TIME + " SET " + TimeColumns.CHANGED + " = " +
+                "(SELECT " + BackupStateColumns.COUNTER + " FROM " + Tables.BACKUP_STATE + ")" +
+                " WHERE " + BaseColumns._ID + " = NEW." + BaseColumns._ID + "; ";
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + Triggers.TIME_INSERTED +
+                " AFTER INSERT ON " + Tables.TIME +
+                " BEGIN " + increment + "END");
+
+        // The trigger is only fired for the columns that are part of the
+        // backup, i.e. updating the stored counter value do not fire it.
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + Triggers.TIME_UPDATED +
+                " AFTER UPDATE OF " +
+                TimeColumns.PROJECT_ID + ", " +
+                TimeColumns.START + ", " +
+                TimeColumns.STOP + ", " +
+                TimeColumns.REGISTERED + ", " +
+                TimeColumns.DAY + " ON " + Tables.TIME +
+                " BEGIN " + increment + "END");
+
+        String incrementCounter = "UPDATE " + Tables.BACKUP_STATE + " SET " +
+                BackupStateColumns.COUNTER + " = " + BackupStateColumns.COUNTER + " + 1; ";
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + Triggers.TIME_DELETED +
+                " AFTER DELETE ON " + Tables.TIME +
+                " BEGIN " + incrementCounter +
+                "INSERT OR REPLACE INTO " + Tables.DELETED_TIME + " (" +
+                BaseColumns._ID + ", " + TimeColumns.CHANGED + ")" +
+                " VALUES (OLD." + BaseColumns._ID + ", " +
+                "(SELECT " + BackupStateColumns.COUNTER + " FROM " + Tables.BACKUP_STATE + ")); " +
+                "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + Triggers.PROJECT_INSERTED +
+                " AFTER INSERT ON " + Tables.PROJECT +
+                " BEGIN " + incrementCounter + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + Triggers.PROJECT_UPDATED +
+                " AFTER UPDATE ON " + Tables.PROJECT +
+                " BEGIN " + incrementCounter + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + Triggers.PROJECT_DELETED +
+                " AFTER DELETE ON " + Tables.PROJECT +
+                " BEGIN " + incrementCounter + "END");
+    }
+
+    /**
+     * Configure the database connection.
+     * <p>
+     * Since the database is using write-ahead logging, the `NORMAL` synchronous
+     * mode is durable against application crashes and only the most recent
+     * transactions can be lost on power failure, while avoiding the sync on
+     * every commit.
+     * <p>
+     * The configuration only applies to the primary connection, which is the
+     * connection used for every write, i.e. the synchronous mode applies to
+     * all of the commits. The read-only connections in the pool can't be
+     * configured and are using the platform defaults, the per-connection
+     * settings for reading, e.g. the page cache, are therefore left as is.
+     *
+     * @param db The database.
+     */
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        db.execSQL("PRAGMA synchronous = NORMAL");
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -86,7 +396,28 @@ class WorkerDatabase extends SQLiteOpenHelper {
                 TimeColumns.PROJECT_ID + " INTEGER NOT NULL, " +
                 TimeColumns.START + " INTEGER NOT NULL, " +
                 TimeColumns.STOP + " INTEGER DEFAULT 0, " +
-                TimeColumns.REGISTERED + " INTEGER NOT NULL DEFAULT 0)");
+                TimeColumns.REGISTERED + " INTEGER NOT NULL DEFAULT 0, " +
+                TimeColumns.DAY + " INTEGER NOT NULL DEFAULT 0, " +
+                TimeColumns.CHANGED + " INTEGER NOT NULL DEFAULT 0)");
+
+        createTimeIndexes(db);
+        createBackupState(db);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The user is notified of the active time clocked out while upgrading,
+     * since the upgrade have been committed when the database is opened.
+     */
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+
+        if (0 < clockedOutActiveTime) {
+            notifyClockedOutActiveTime(context, clockedOutActiveTime);
+            clockedOutActiveTime = 0;
+        }
     }
 
     /**
@@ -133,6 +464,49 @@ class WorkerDatabase extends SQLiteOpenHelper {
                     " ADD COLUMN " + TimeColumns.REGISTERED +
                     " INTEGER NOT NULL DEFAULT 0");
         }
+
+        if (!columnExists(db, Tables.TIME, TimeColumns.DAY)) {
+            // Add the `day`-column to the `time`-table, and populate it
+            // from the start timestamp for the existing rows.
+            db.execSQL("ALTER TABLE " + Tables.TIME +
+                    " ADD COLUMN " + TimeColumns.DAY +
+                    " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE " + Tables.TIME +
+                    " SET " + TimeColumns.DAY + " = " +
+                    TimeColumns.START + " / " + TimeContract.DAY_IN_MILLISECONDS);
+        }
+
+        if (!columnExists(db, Tables.TIME, TimeColumns.CHANGED)) {
+            // Add the `changed`-column to the `time`-table, the existing
+            // rows are included in the first backup since it's complete.
+            db.execSQL("ALTER TABLE " + Tables.TIME +
+                    " ADD COLUMN " + TimeColumns.CHANGED +
+                    " INTEGER NOT NULL DEFAULT 0");
+        }
+
+        if (6 > oldVersion) {
+            // The index for the active time was not unique before version 6,
+            // i.e. it have to be replaced and the duplicated active time have
+            // to be clocked out before the unique index can be created.
+            dropActiveTimeIndex(db);
+            clockedOutActiveTime = clockOutDuplicatedActiveTime(db);
+        }
+
+        if (7 > oldVersion) {
+            // The removed time was not recorded before version 7, i.e. the
+            // trigger have to be replaced.
+            db.execSQL("DROP TRIGGER IF EXISTS " + Triggers.TIME_DELETED);
+        }
+
+        createTimeIndexes(db);
+        createBackupState(db);
+
+        if (7 > oldVersion) {
+            // The time removed before the upgrade is not recorded, i.e. the
+            // next snapshot have to be a full snapshot.
+            db.execSQL("UPDATE " + Tables.BACKUP_STATE + " SET " +
+                    BackupStateColumns.GENERATION + " = " + NEW_GENERATION);
+        }
     }
 
     /**
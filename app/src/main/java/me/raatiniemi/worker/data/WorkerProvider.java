@@ -20,20 +20,35 @@ import android.content.ContentProvider;
 import android.content.ContentProviderOperation;
 import android.content.ContentProviderResult;
 import android.content.ContentValues;
+import android.content.Context;
+import android.os.Bundle;
 import android.content.OperationApplicationException;
 import android.content.UriMatcher;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
 import android.net.Uri;
+import android.os.ResultReceiver;
 import android.provider.BaseColumns;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 
 import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
 import me.raatiniemi.worker.data.WorkerContract.Tables;
 import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
 import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+import me.raatiniemi.worker.data.service.data.RetentionPolicy;
+import me.raatiniemi.worker.data.service.data.SnapshotBackup;
 import me.raatiniemi.worker.data.util.SelectionBuilder;
 
 public class WorkerProvider extends ContentProvider {
@@ -45,12 +60,32 @@ public class WorkerProvider extends ContentProvider {
 
     private static final int PROJECTS_TIMESHEET = 103;
 
+    private static final int PROJECTS_SUMMARY = 104;
+
     private static final int TIME = 200;
 
     private static final int TIME_ID = 201;
 
+    private static final int TIME_SUMMARY = 202;
+
+    private static final int TIME_EXPORT = 203;
+
     private static final UriMatcher uriMatcher = buildUriMatcher();
 
+    /**
+     * URIs with pending change notifications, populated while applying a batch.
+     * <p>
+     * The notifications are dispatched once the batch transaction have been
+     * committed, observers should never be able to see partially applied batches.
+     */
+    private final ThreadLocal<Set<Uri>> pendingNotifications = new ThreadLocal<>();
+
+    /**
+     * Lock for the database file, shared with the repositories writing to the
+     * database directly, see {@link WorkerDatabase#getFileLock()}.
+     */
+    private final ReadWriteLock databaseFileLock = WorkerDatabase.getFileLock();
+
     WorkerDatabase openHelper;
 
     private static UriMatcher buildUriMatcher() {
@@ -61,16 +96,19 @@ public class WorkerProvider extends ContentProvider {
         matcher.addURI(authority, "projects/#", PROJECTS_ID);
         matcher.addURI(authority, "projects/#/time", PROJECTS_TIME);
         matcher.addURI(authority, "projects/#/timesheet", PROJECTS_TIMESHEET);
+        matcher.addURI(authority, "projects/#/summary", PROJECTS_SUMMARY);
 
         matcher.addURI(authority, "time", TIME);
         matcher.addURI(authority, "time/#", TIME_ID);
+        matcher.addURI(authority, "time/summary", TIME_SUMMARY);
+        matcher.addURI(authority, "time/export", TIME_EXPORT);
 
         return matcher;
     }
 
     @Override
     public boolean onCreate() {
-        openHelper = new WorkerDatabase(getContext());
+        openHelper = WorkerDatabase.getInstance(getContext());
         return true;
     }
 
@@ -88,7 +126,10 @@ public class WorkerProvider extends ContentProvider {
                 break;
             case PROJECTS_TIME:
             case PROJECTS_TIMESHEET:
+            case PROJECTS_SUMMARY:
             case TIME:
+            case TIME_SUMMARY:
+            case TIME_EXPORT:
                 mimeType = TimeContract.STREAM_TYPE;
                 break;
             case TIME_ID:
@@ -142,29 +183,105 @@ public class WorkerProvider extends ContentProvider {
     private Uri insertProject(ContentValues values) {
         SQLiteDatabase db = openHelper.getWritableDatabase();
 
-        long id = db.insertOrThrow(Tables.PROJECT, null, values);
-        return ProjectContract.getItemUri(id);
+        long id;
+        Lock lock = databaseFileLock.readLock();
+        lock.lock();
+        try {
+            id = db.insertOrThrow(Tables.PROJECT, null, values);
+        } finally {
+            lock.unlock();
+        }
+
+        Uri uri = ProjectContract.getItemUri(id);
+        notifyChange(uri);
+
+        return uri;
     }
 
     private Uri insertTime(ContentValues values) {
         SQLiteDatabase db = openHelper.getWritableDatabase();
 
-        long id = db.insertOrThrow(Tables.TIME, null, values);
+        long id;
+        Lock lock = databaseFileLock.readLock();
+        lock.lock();
+        try {
+            if (TimeStatements.isWritable(values)) {
+                id = openHelper.getTimeStatements().insert(values);
+            } else {
+                id = db.insertOrThrow(Tables.TIME, null, values);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Observers are notified that the time for the project have changed,
+        // the id for the inserted row is not known before the insert.
+        Long projectId = values.getAsLong(TimeColumns.PROJECT_ID);
+        if (null == projectId) {
+            notifyChange(TimeContract.getStreamUri());
+        } else {
+            notifyChange(ProjectContract.getItemTimeUri(projectId));
+        }
+
         return TimeContract.getItemUri(id);
     }
 
     @Override
     public int update(@NonNull Uri uri, ContentValues values, String selection, String[] selectionArgs) {
-        return buildSelection(uri)
-                .where(selection, selectionArgs)
-                .update(openHelper.getWritableDatabase(), values);
+        int numberOfRows;
+        Lock lock = databaseFileLock.readLock();
+        lock.lock();
+        try {
+            if (isTimeItemUpdate(uri, values, selection)) {
+                long id = Long.parseLong(TimeContract.getItemId(uri));
+                numberOfRows = openHelper.getTimeStatements().update(id, values);
+            } else {
+                numberOfRows = buildSelection(uri)
+                        .where(selection, selectionArgs)
+                        .update(openHelper.getWritableDatabase(), values);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (0 < numberOfRows) {
+            notifyChange(uri);
+        }
+
+        return numberOfRows;
+    }
+
+    /**
+     * Check whether the update is for a specific time item, with all of the
+     * time columns, i.e. whether it can be written with the compiled statement.
+     *
+     * @param uri       URI for the update.
+     * @param values    Values for the update.
+     * @param selection Additional selection for the update.
+     * @return true if the update can use the compiled statement, otherwise false.
+     */
+    private static boolean isTimeItemUpdate(Uri uri, ContentValues values, String selection) {
+        return TIME_ID == uriMatcher.match(uri)
+                && (null == selection || selection.isEmpty())
+                && TimeStatements.isWritable(values);
     }
 
     @Override
     public int delete(@NonNull Uri uri, String selection, String[] selectionArgs) {
-        return buildSelection(uri)
-                .where(selection, selectionArgs)
-                .delete(openHelper.getWritableDatabase());
+        int numberOfRows;
+        Lock lock = databaseFileLock.readLock();
+        lock.lock();
+        try {
+            numberOfRows = buildSelection(uri)
+                    .where(selection, selectionArgs)
+                    .delete(openHelper.getWritableDatabase());
+        } finally {
+            lock.unlock();
+        }
+        if (0 < numberOfRows) {
+            notifyChange(uri);
+        }
+
+        return numberOfRows;
     }
 
     @Override
@@ -172,20 +289,322 @@ public class WorkerProvider extends ContentProvider {
     public ContentProviderResult[] applyBatch(@NonNull ArrayList<ContentProviderOperation> operations)
             throws OperationApplicationException {
 
-        final SQLiteDatabase db = openHelper.getWritableDatabase();
-        db.beginTransaction();
+        final Set<Uri> notifications = new LinkedHashSet<>();
+        pendingNotifications.set(notifications);
+
+        final Lock lock = databaseFileLock.readLock();
+        lock.lock();
         try {
-            final int numberOfOperations = operations.size();
-            final ContentProviderResult[] results = new ContentProviderResult[numberOfOperations];
-            for (int i = 0; i < numberOfOperations; i++) {
-                results[i] = operations.get(i).apply(this, results, i);
+            final SQLiteDatabase db = openHelper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                final int numberOfOperations = operations.size();
+                final ContentProviderResult[] results = new ContentProviderResult[numberOfOperations];
+                for (int i = 0; i < numberOfOperations; i++) {
+                    results[i] = operations.get(i).apply(this, results, i);
+                }
+                db.setTransactionSuccessful();
+
+                return results;
+            } finally {
+                db.endTransaction();
             }
-            db.setTransactionSuccessful();
+        } finally {
+            lock.unlock();
+            pendingNotifications.remove();
+
+            // If the transaction was rolled back, notifying the observers
+            // do not cause any harm, they'll only read the same data again.
+            for (Uri uri : notifications) {
+                notifyChange(uri);
+            }
+        }
+    }
 
-            return results;
+    @Override
+    public Bundle call(@NonNull String method, String arg, Bundle extras) {
+        try {
+            switch (method) {
+                case WorkerContract.METHOD_BACKUP:
+                    boolean skipUnchanged = null != extras
+                            && extras.getBoolean(WorkerContract.EXTRA_SKIP_UNCHANGED);
+                    File snapshot = backup(
+                            new File(arg),
+                            buildRetentionPolicy(extras),
+                            skipUnchanged
+                    );
+
+                    Bundle result = new Bundle();
+                    if (null != snapshot) {
+                        result.putString(WorkerContract.EXTRA_SNAPSHOT, snapshot.getPath());
+                        result.putLong(WorkerContract.EXTRA_SNAPSHOT_SIZE, snapshot.length());
+                    }
+                    return result;
+                case WorkerContract.METHOD_RESTORE:
+                    ResultReceiver receiver = null;
+                    if (null != extras) {
+                        receiver = extras.getParcelable(WorkerContract.EXTRA_PROGRESS_RECEIVER);
+                    }
+
+                    File backup = new File(arg);
+                    if (backup.isDirectory()) {
+                        restoreSnapshot(backup, receiver);
+                        return null;
+                    }
+
+                    restore(backup, receiver);
+                    return null;
+                case WorkerContract.METHOD_CLOCK_IN:
+                case WorkerContract.METHOD_CLOCK_OUT:
+                    return changeClockActivity(method, Long.parseLong(arg), extras);
+                default:
+                    return super.call(method, arg, extras);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Clock in or clock out a project with a single statement.
+     *
+     * @param method    Name of the provider method, clock in or clock out.
+     * @param projectId Id for the project.
+     * @param extras    Extras with the date for the clock activity.
+     * @return Result with whether the clock activity was changed.
+     */
+    @NonNull
+    private Bundle changeClockActivity(
+            @NonNull String method,
+            long projectId,
+            @Nullable Bundle extras
+    ) {
+        long date = System.currentTimeMillis();
+        if (null != extras) {
+            date = extras.getLong(WorkerContract.EXTRA_DATE, date);
+        }
+
+        boolean changed;
+        Lock lock = databaseFileLock.readLock();
+        lock.lock();
+        try {
+            if (WorkerContract.METHOD_CLOCK_IN.equals(method)) {
+                changed = openHelper.getTimeStatements().clockIn(projectId, date);
+            } else {
+                changed = openHelper.getTimeStatements().clockOut(projectId, date);
+            }
         } finally {
-            db.endTransaction();
+            lock.unlock();
         }
+        if (changed) {
+            notifyChange(ProjectContract.getItemTimeUri(projectId));
+        }
+
+        Bundle result = new Bundle();
+        result.putBoolean(WorkerContract.EXTRA_CLOCK_ACTIVITY_CHANGED, changed);
+        return result;
+    }
+
+    @NonNull
+    private static RetentionPolicy buildRetentionPolicy(@Nullable Bundle extras) {
+        if (null == extras) {
+            return RetentionPolicy.DEFAULT;
+        }
+
+        return new RetentionPolicy(
+                extras.getInt(
+                        WorkerContract.EXTRA_RETENTION_CHAINS,
+                        RetentionPolicy.DEFAULT.getNumberOfChains()
+                ),
+                extras.getInt(
+                        WorkerContract.EXTRA_RETENTION_INCREMENTAL_SNAPSHOTS,
+                        RetentionPolicy.DEFAULT.getNumberOfIncrementalSnapshots()
+                )
+        );
+    }
+
+    private static void sendProgress(@Nullable ResultReceiver receiver, long progress, long max) {
+        if (null == receiver) {
+            return;
+        }
+
+        Bundle resultData = new Bundle();
+        resultData.putLong(WorkerContract.EXTRA_PROGRESS, progress);
+        resultData.putLong(WorkerContract.EXTRA_PROGRESS_MAX, max);
+        receiver.send(0, resultData);
+    }
+
+    /**
+     * Write a backup snapshot to the snapshot directory.
+     * <p>
+     * The writes are blocked until the snapshot is written, i.e. the change
+     * counter for the snapshot matches the included time. Since only the time
+     * changed since the previous snapshot is included, the writes are usually
+     * only blocked for a short while.
+     *
+     * @param directory       Snapshot directory.
+     * @param retentionPolicy Policy for which of the snapshots to keep.
+     * @param skipUnchanged   Whether to skip the snapshot if nothing have
+     *                        changed since the latest snapshot.
+     * @return Snapshot file, or null if the snapshot was skipped.
+     * @throws IOException If unable to write the snapshot.
+     */
+    @Nullable
+    private File backup(
+            @NonNull File directory,
+            @NonNull RetentionPolicy retentionPolicy,
+            boolean skipUnchanged
+    ) throws IOException {
+        if (!directory.isDirectory()) {
+            throw new FileNotFoundException("Snapshot directory " + directory.getPath() + " is not available");
+        }
+
+        SnapshotBackup snapshotBackup = new SnapshotBackup(directory, retentionPolicy);
+
+        Lock lock = databaseFileLock.writeLock();
+        lock.lock();
+        try {
+            // The change counter is checked while holding the lock, i.e. a
+            // write can't slip in between the check and the snapshot.
+            SQLiteDatabase db = openHelper.getWritableDatabase();
+            if (skipUnchanged && !snapshotBackup.isChanged(db)) {
+                return null;
+            }
+
+            return snapshotBackup.write(db, new Date().getTime());
+        } catch (SQLiteException e) {
+            throw new IOException("Unable to write snapshot to " + directory.getPath(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replace the projects and registered time with the latest snapshot.
+     *
+     * @param directory Snapshot directory.
+     * @param receiver  Receiver for the progress, or null if not reported.
+     * @throws IOException If no snapshot is available, or a snapshot is invalid.
+     */
+    private void restoreSnapshot(@NonNull File directory, @Nullable final ResultReceiver receiver)
+            throws IOException {
+        SnapshotBackup snapshotBackup = new SnapshotBackup(directory, RetentionPolicy.DEFAULT);
+
+        int clockedOutActiveTime;
+        Lock lock = databaseFileLock.writeLock();
+        lock.lock();
+        try {
+            clockedOutActiveTime = snapshotBackup.restore(
+                    openHelper.getWritableDatabase(),
+                    new SnapshotBackup.OnProgressListener() {
+                        @Override
+                        public void onProgress(long progress, long max) {
+                            sendProgress(receiver, progress, max);
+                        }
+                    }
+            );
+        } catch (SQLiteException e) {
+            throw new IOException("Unable to restore snapshot from " + directory.getPath(), e);
+        } finally {
+            lock.unlock();
+        }
+
+        Context context = getContext();
+        if (null != context && 0 < clockedOutActiveTime) {
+            WorkerDatabase.notifyClockedOutActiveTime(context, clockedOutActiveTime);
+        }
+
+        notifyChange(WorkerContract.getAuthorityUri());
+    }
+
+    /**
+     * Replace the projects and registered time with the rows from the backup.
+     * <p>
+     * The backup is opened read-only and validated before the rows are
+     * imported into the open database, i.e. the database file is never
+     * replaced while there are open connections to it.
+     *
+     * @param backup   Backup file.
+     * @param receiver Receiver for the progress, or null if not reported.
+     * @throws IOException If the backup is unavailable or invalid.
+     */
+    private void restore(@NonNull File backup, @Nullable final ResultReceiver receiver)
+            throws IOException {
+        if (!backup.canRead()) {
+            throw new FileNotFoundException("Unable to read backup " + backup.getPath());
+        }
+
+        SQLiteDatabase source;
+        try {
+            source = SQLiteDatabase.openDatabase(
+                    backup.getPath(),
+                    null,
+                    SQLiteDatabase.OPEN_READONLY
+            );
+        } catch (SQLiteException e) {
+            throw new IOException("Unable to open backup " + backup.getPath(), e);
+        }
+
+        try {
+            BackupImporter importer = new BackupImporter(
+                    source,
+                    new BackupImporter.OnProgressListener() {
+                        @Override
+                        public void onProgress(long progress, long max) {
+                            sendProgress(receiver, progress, max);
+                        }
+                    }
+            );
+
+            // The validation is done before acquiring the lock, i.e. the
+            // writes are only blocked while the rows are imported.
+            importer.validate();
+
+            Lock lock = databaseFileLock.writeLock();
+            lock.lock();
+            try {
+                importer.importInto(openHelper.getWritableDatabase());
+            } finally {
+                lock.unlock();
+            }
+
+            Context context = getContext();
+            if (null != context && 0 < importer.getClockedOutActiveTime()) {
+                WorkerDatabase.notifyClockedOutActiveTime(
+                        context,
+                        importer.getClockedOutActiveTime()
+                );
+            }
+        } catch (SQLiteException e) {
+            throw new IOException("Unable to restore backup " + backup.getPath(), e);
+        } finally {
+            source.close();
+        }
+
+        notifyChange(WorkerContract.getAuthorityUri());
+    }
+
+    /**
+     * Notify registered observers that content have changed.
+     * <p>
+     * While applying a batch the notification is deferred until the batch is
+     * complete, and duplicated notifications are only dispatched once.
+     *
+     * @param uri URI for the changed content.
+     */
+    private void notifyChange(@NonNull Uri uri) {
+        Set<Uri> notifications = pendingNotifications.get();
+        if (null != notifications) {
+            notifications.add(uri);
+            return;
+        }
+
+        Context context = getContext();
+        if (null == context) {
+            return;
+        }
+
+        context.getContentResolver().notifyChange(uri, null, false);
     }
 
     /**
@@ -211,6 +630,18 @@ public class WorkerProvider extends ContentProvider {
             case PROJECTS_TIMESHEET:
                 builder = ProjectTimesheetSelection.build(uri);
                 break;
+            case PROJECTS_SUMMARY:
+                builder = ProjectSummarySelection.build(uri);
+                break;
+            case TIME:
+                builder = TimesSelection.build();
+                break;
+            case TIME_SUMMARY:
+                builder = TimeSummarySelection.build();
+                break;
+            case TIME_EXPORT:
+                builder = TimeExportSelection.build();
+                break;
             case TIME_ID:
                 builder = TimeSelection.build(uri);
                 break;
@@ -276,6 +707,55 @@ public class WorkerProvider extends ContentProvider {
         }
     }
 
+    private static class ProjectSummarySelection {
+        private ProjectSummarySelection() {
+        }
+
+        private static SelectionBuilder build(Uri uri) {
+            return new SelectionBuilder()
+                    .table(Tables.TIME)
+                    .where(
+                            TimeColumns.PROJECT_ID + "=?",
+                            ProjectContract.getItemId(uri)
+                    )
+                    .where(TimeColumns.STOP + " > 0");
+        }
+    }
+
+    private static class TimesSelection {
+        private TimesSelection() {
+        }
+
+        private static SelectionBuilder build() {
+            return new SelectionBuilder()
+                    .table(Tables.TIME);
+        }
+    }
+
+    private static class TimeSummarySelection {
+        private TimeSummarySelection() {
+        }
+
+        private static SelectionBuilder build() {
+            return new SelectionBuilder()
+                    .table(Tables.TIME)
+                    .where(TimeColumns.STOP + " > 0")
+                    .groupBy(TimeContract.GROUP_BY_SUMMARY);
+        }
+    }
+
+    private static class TimeExportSelection {
+        private TimeExportSelection() {
+        }
+
+        private static SelectionBuilder build() {
+            return new SelectionBuilder()
+                    .table(Tables.TIME + " INNER JOIN " + Tables.PROJECT +
+                            " ON " + Tables.TIME + "." + TimeColumns.PROJECT_ID +
+                            " = " + Tables.PROJECT + "." + BaseColumns._ID);
+        }
+    }
+
     private static class TimeSelection {
         private TimeSelection() {
         }
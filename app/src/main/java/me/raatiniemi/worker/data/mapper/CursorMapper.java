@@ -34,4 +34,17 @@ public interface CursorMapper<T> extends EntityMapper<T, Cursor> {
     @Override
     @NonNull
     T transform(@NonNull Cursor cursor) throws DomainException;
+
+    /**
+     * Get a mapper with the column indices resolved for the cursor.
+     * <p>
+     * The returned mapper can be used for every row within the cursor, or any
+     * other cursor with the same projection, without looking up the column
+     * indices for each of the rows.
+     *
+     * @param cursor Cursor for which to resolve the column indices.
+     * @return Mapper with the resolved column indices.
+     */
+    @NonNull
+    CursorMapper<T> forCursor(@NonNull Cursor cursor);
 }
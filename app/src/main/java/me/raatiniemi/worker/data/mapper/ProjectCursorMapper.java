@@ -28,14 +28,50 @@ import me.raatiniemi.worker.domain.model.Project;
  * Handle transformation from {@link Cursor} to {@link Project}.
  */
 public class ProjectCursorMapper implements CursorMapper<Project> {
+    /**
+     * Value for column indices that have not been resolved.
+     */
+    private static final int UNRESOLVED = -1;
+
+    private final int idIndex;
+    private final int nameIndex;
+
+    /**
+     * Constructor, the column indices are resolved for each transformation.
+     */
+    public ProjectCursorMapper() {
+        this(UNRESOLVED, UNRESOLVED);
+    }
+
+    private ProjectCursorMapper(int idIndex, int nameIndex) {
+        this.idIndex = idIndex;
+        this.nameIndex = nameIndex;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    @NonNull
+    public ProjectCursorMapper forCursor(@NonNull Cursor cursor) {
+        return new ProjectCursorMapper(
+                cursor.getColumnIndexOrThrow(BaseColumns._ID),
+                cursor.getColumnIndexOrThrow(ProjectColumns.NAME)
+        );
+    }
+
     /**
      * @inheritDoc
      */
     @Override
     @NonNull
     public Project transform(@NonNull Cursor cursor) throws InvalidProjectNameException {
-        long id = cursor.getLong(cursor.getColumnIndexOrThrow(BaseColumns._ID));
-        String name = cursor.getString(cursor.getColumnIndexOrThrow(ProjectColumns.NAME));
+        if (UNRESOLVED == idIndex) {
+            return forCursor(cursor).transform(cursor);
+        }
+
+        long id = cursor.getLong(idIndex);
+        String name = cursor.getString(nameIndex);
 
         return new Project.Builder(name)
                 .id(id)
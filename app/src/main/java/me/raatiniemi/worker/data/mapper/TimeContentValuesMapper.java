@@ -20,6 +20,7 @@ import android.content.ContentValues;
 import android.support.annotation.NonNull;
 
 import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
 import me.raatiniemi.worker.domain.model.Time;
 
 /**
@@ -37,6 +38,7 @@ public class TimeContentValuesMapper implements ContentValuesMapper<Time> {
         contentValues.put(TimeColumns.START, entity.getStartInMilliseconds());
         contentValues.put(TimeColumns.STOP, entity.getStopInMilliseconds());
         contentValues.put(TimeColumns.REGISTERED, entity.isRegistered() ? 1L : 0L);
+        contentValues.put(TimeColumns.DAY, TimeContract.getDay(entity.getStartInMilliseconds()));
 
         return contentValues;
     }
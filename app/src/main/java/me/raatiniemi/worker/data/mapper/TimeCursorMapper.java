@@ -28,20 +28,70 @@ import me.raatiniemi.worker.domain.model.Time;
  * Handle transformation from {@link Cursor} to {@link Time}.
  */
 public class TimeCursorMapper implements CursorMapper<Time> {
+    /**
+     * Value for column indices that have not been resolved.
+     */
+    private static final int UNRESOLVED = -1;
+
+    private final int idIndex;
+    private final int projectIdIndex;
+    private final int startIndex;
+    private final int stopIndex;
+    private final int registeredIndex;
+
+    /**
+     * Constructor, the column indices are resolved for each transformation.
+     */
+    public TimeCursorMapper() {
+        this(UNRESOLVED, UNRESOLVED, UNRESOLVED, UNRESOLVED, UNRESOLVED);
+    }
+
+    private TimeCursorMapper(
+            int idIndex,
+            int projectIdIndex,
+            int startIndex,
+            int stopIndex,
+            int registeredIndex
+    ) {
+        this.idIndex = idIndex;
+        this.projectIdIndex = projectIdIndex;
+        this.startIndex = startIndex;
+        this.stopIndex = stopIndex;
+        this.registeredIndex = registeredIndex;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    @NonNull
+    public TimeCursorMapper forCursor(@NonNull Cursor cursor) {
+        return new TimeCursorMapper(
+                cursor.getColumnIndexOrThrow(BaseColumns._ID),
+                cursor.getColumnIndexOrThrow(TimeColumns.PROJECT_ID),
+                cursor.getColumnIndexOrThrow(TimeColumns.START),
+                cursor.getColumnIndexOrThrow(TimeColumns.STOP),
+                cursor.getColumnIndexOrThrow(TimeColumns.REGISTERED)
+        );
+    }
+
     /**
      * @inheritDoc
      */
     @Override
     @NonNull
     public Time transform(@NonNull Cursor cursor) throws ClockOutBeforeClockInException {
-        long id = cursor.getLong(cursor.getColumnIndexOrThrow(BaseColumns._ID));
-        long projectId = cursor.getLong(cursor.getColumnIndexOrThrow(TimeColumns.PROJECT_ID));
-        long start = cursor.getLong(cursor.getColumnIndexOrThrow(TimeColumns.START));
+        if (UNRESOLVED == idIndex) {
+            return forCursor(cursor).transform(cursor);
+        }
+
+        long id = cursor.getLong(idIndex);
+        long projectId = cursor.getLong(projectIdIndex);
+        long start = cursor.getLong(startIndex);
 
         // Handle the nullability of the `stop`-column.
-        int stopIndex = cursor.getColumnIndexOrThrow(TimeColumns.STOP);
         long stop = !cursor.isNull(stopIndex) ? cursor.getLong(stopIndex) : 0;
-        long registered = cursor.getLong(cursor.getColumnIndexOrThrow(TimeColumns.REGISTERED));
+        long registered = cursor.getLong(registeredIndex);
 
         Time.Builder builder = new Time.Builder(projectId)
                 .id(id)
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.support.annotation.NonNull;
+
+import java.util.List;
+
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.repository.ProjectRepository;
+import me.raatiniemi.worker.domain.repository.query.Criteria;
+
+/**
+ * Project repository decorator, keeping recently used projects in a write-through cache.
+ */
+public class CachedProjectRepository implements ProjectRepository {
+    /**
+     * Repository used for retrieving and writing projects.
+     */
+    private final ProjectRepository repository;
+
+    /**
+     * Cache for the projects, shared between the repository instances.
+     */
+    private final ProjectCache cache;
+
+    /**
+     * Constructor.
+     *
+     * @param repository Repository used for retrieving and writing projects.
+     * @param cache      Cache for the projects.
+     */
+    public CachedProjectRepository(
+            @NonNull ProjectRepository repository,
+            @NonNull ProjectCache cache
+    ) {
+        this.repository = repository;
+        this.cache = cache;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Project> matching(Criteria criteria) throws DomainException {
+        return repository.matching(criteria);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Project> get() throws DomainException {
+        long generation = cache.getGeneration();
+        List<Project> projects = repository.get();
+        for (Project project : projects) {
+            cache.put(project, generation);
+        }
+
+        return projects;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Project get(long id) throws DomainException {
+        Project project = cache.get(id);
+        if (null != project) {
+            return project;
+        }
+
+        long generation = cache.getGeneration();
+        project = repository.get(id);
+        if (null != project) {
+            cache.put(project, generation);
+        }
+        return project;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Project add(Project project) throws DomainException {
+        Project addedProject = repository.add(project);
+        if (null != addedProject) {
+            cache.put(addedProject);
+        }
+
+        return addedProject;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void remove(long id) {
+        repository.remove(id);
+
+        cache.remove(id);
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.support.annotation.NonNull;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
+import me.raatiniemi.worker.domain.repository.TimeRepository;
+import me.raatiniemi.worker.domain.repository.query.Criteria;
+
+/**
+ * Time repository decorator, keeping recently used time in a write-through cache.
+ */
+public class CachedTimeRepository implements TimeRepository {
+    /**
+     * Repository used for retrieving and writing time.
+     */
+    private final TimeRepository repository;
+
+    /**
+     * Cache for the time, shared between the repository instances.
+     */
+    private final TimeCache cache;
+
+    /**
+     * Constructor.
+     *
+     * @param repository Repository used for retrieving and writing time.
+     * @param cache      Cache for the time.
+     */
+    public CachedTimeRepository(
+            @NonNull TimeRepository repository,
+            @NonNull TimeCache cache
+    ) {
+        this.repository = repository;
+        this.cache = cache;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> matching(Project project, Criteria criteria) throws DomainException {
+        return repository.matching(project, criteria);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public long getRegisteredTimeSummary(Project project, Criteria criteria)
+            throws DomainException {
+        return repository.getRegisteredTimeSummary(project, criteria);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Map<Long, Long> getRegisteredTimeSummary(List<Project> projects, Criteria criteria)
+            throws DomainException {
+        return repository.getRegisteredTimeSummary(projects, criteria);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Time get(long id) throws DomainException {
+        Time time = cache.get(id);
+        if (null != time) {
+            return time;
+        }
+
+        long generation = cache.getGeneration();
+        time = repository.get(id);
+        if (null != time) {
+            cache.put(time, generation);
+        }
+        return time;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Time add(Time time) throws DomainException {
+        Time addedTime = repository.add(time);
+        if (null != addedTime) {
+            cache.put(addedTime);
+        }
+
+        return addedTime;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Time update(Time time) throws DomainException {
+        Time updatedTime = repository.update(time);
+        if (null != updatedTime) {
+            cache.put(updatedTime);
+        }
+
+        return updatedTime;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> update(List<Time> times) throws DomainException {
+        List<Time> updatedTimes = repository.update(times);
+        for (Time time : updatedTimes) {
+            if (null != time) {
+                cache.put(time);
+            }
+        }
+
+        return updatedTimes;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> updateRegistered(List<Time> times) throws DomainException {
+        List<Time> updatedTimes = repository.updateRegistered(times);
+
+        // Only the written items are cached, the items without an existing
+        // row are removed from the cache instead.
+        for (int i = 0; i < updatedTimes.size(); i++) {
+            Time time = updatedTimes.get(i);
+            if (null == time) {
+                cache.remove(times.get(i).getId());
+                continue;
+            }
+
+            cache.put(time);
+        }
+
+        return updatedTimes;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void remove(long id) {
+        repository.remove(id);
+
+        cache.remove(id);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void remove(List<Time> times) {
+        if (times.isEmpty()) {
+            return;
+        }
+
+        repository.remove(times);
+
+        for (Time time : times) {
+            cache.remove(time.getId());
+        }
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> getProjectTimeSinceBeginningOfMonth(long projectId)
+            throws DomainException {
+        return repository.getProjectTimeSinceBeginningOfMonth(projectId);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Map<Long, List<Time>> getProjectTimeSinceBeginningOfMonth(List<Long> projectIds)
+            throws DomainException {
+        return repository.getProjectTimeSinceBeginningOfMonth(projectIds);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Map<Date, List<Time>> getTimesheet(
+            final long projectId,
+            final Date before,
+            final Criteria criteria
+    ) {
+        return repository.getTimesheet(projectId, before, criteria);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Time getActiveTimeForProject(long projectId) throws DomainException {
+        TimeCache.ActiveTime activeTime = cache.getActiveTimeForProject(projectId);
+        if (null != activeTime) {
+            return activeTime.getTime();
+        }
+
+        // The active time is only cached if the project have not been clocked
+        // in or out while reading, otherwise the read might be stale.
+        long generation = cache.getGeneration();
+        Time time = repository.getActiveTimeForProject(projectId);
+        cache.putActiveTimeForProject(projectId, time, generation);
+        return time;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public boolean clockIn(long projectId, Date date) {
+        boolean clockedIn = repository.clockIn(projectId, date);
+        if (clockedIn) {
+            invalidateForProject(projectId);
+        }
+
+        return clockedIn;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public boolean clockOut(long projectId, Date date) {
+        boolean clockedOut = repository.clockOut(projectId, date);
+        if (clockedOut) {
+            invalidateForProject(projectId);
+        }
+
+        return clockedOut;
+    }
+
+    private void invalidateForProject(long projectId) {
+        // The written time is not known, i.e. the cached time for the project
+        // is removed instead of being updated. The notification from the
+        // provider will invalidate the same entries.
+        cache.removeForProject(projectId);
+    }
+}
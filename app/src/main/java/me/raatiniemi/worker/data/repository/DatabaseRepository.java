@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.content.ContentResolver;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+import android.support.annotation.NonNull;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import me.raatiniemi.worker.data.TimeStatements;
+import me.raatiniemi.worker.data.WorkerDatabase;
+import me.raatiniemi.worker.data.mapper.CursorMapper;
+
+/**
+ * Base for repositories using the database directly as data source.
+ * <p>
+ * The database is accessed within the same process, i.e. the queries do not
+ * have to go through the content resolver and provider. The writes are going
+ * through {@link #write(Write)}, which holds the shared lock for the database
+ * file and notifies the observers with the same URIs as the provider would
+ * have used.
+ *
+ * @param <M> Type reference for the cursor mapper used.
+ */
+class DatabaseRepository<M extends CursorMapper> {
+    /**
+     * Database, have to be the same instance as the one used by the
+     * provider, see {@link WorkerDatabase#getInstance(android.content.Context)}.
+     */
+    private final WorkerDatabase database;
+
+    /**
+     * Content resolver used for notifying the observers.
+     */
+    private final ContentResolver contentResolver;
+
+    /**
+     * Cursor mapper used with the repository.
+     */
+    private final M cursorMapper;
+
+    /**
+     * Constructor.
+     *
+     * @param database        Database shared with the provider.
+     * @param contentResolver Content resolver used for notifying the observers.
+     * @param cursorMapper    Cursor mapper used with the repository.
+     */
+    DatabaseRepository(
+            @NonNull WorkerDatabase database,
+            @NonNull ContentResolver contentResolver,
+            @NonNull M cursorMapper
+    ) {
+        this.database = database;
+        this.contentResolver = contentResolver;
+        this.cursorMapper = cursorMapper;
+    }
+
+    /**
+     * Get the database for reading.
+     *
+     * @return Database for reading.
+     */
+    @NonNull
+    SQLiteDatabase getReadableDatabase() {
+        return database.getReadableDatabase();
+    }
+
+    /**
+     * Get the database for writing.
+     *
+     * @return Database for writing.
+     */
+    @NonNull
+    private SQLiteDatabase getWritableDatabase() {
+        return database.getWritableDatabase();
+    }
+
+    /**
+     * Get the compiled statements for the time, shared with the provider.
+     *
+     * @return Compiled statements for the time.
+     */
+    @NonNull
+    TimeStatements getTimeStatements() {
+        return database.getTimeStatements();
+    }
+
+    /**
+     * Get the lock that have to be held while writing.
+     *
+     * @return Lock that have to be held while writing.
+     */
+    @NonNull
+    private Lock getWriteLock() {
+        return WorkerDatabase.getFileLock().readLock();
+    }
+
+    /**
+     * Get the cursor mapper.
+     *
+     * @return Cursor mapper.
+     */
+    @NonNull
+    M getCursorMapper() {
+        return cursorMapper;
+    }
+
+    /**
+     * Write to the database within a transaction, while holding the shared
+     * lock for the database file.
+     * <p>
+     * The changes registered by the write are notified once the transaction
+     * have been committed and the lock is released, same as the provider does
+     * for the applied batches, i.e. each URI is only notified once and nothing
+     * is notified if the write fails.
+     *
+     * @param write Write to execute.
+     * @param <T>   Type reference for the result of the write.
+     * @return Result of the write.
+     */
+    <T> T write(@NonNull Write<T> write) {
+        Set<Uri> changes = new LinkedHashSet<>();
+
+        T result;
+        Lock lock = getWriteLock();
+        lock.lock();
+        try {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                result = write.execute(db, changes);
+
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Uri uri : changes) {
+            contentResolver.notifyChange(uri, null, false);
+        }
+        return result;
+    }
+
+    /**
+     * Write executed by {@link #write(Write)}.
+     *
+     * @param <T> Type reference for the result of the write.
+     */
+    interface Write<T> {
+        /**
+         * Execute the write.
+         *
+         * @param db      Database to write to.
+         * @param changes URIs for the changed content, notified after the write.
+         * @return Result of the write.
+         */
+        T execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.util.LruCache;
+
+import java.util.List;
+
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
+import me.raatiniemi.worker.domain.exception.InvalidProjectNameException;
+import me.raatiniemi.worker.domain.model.Project;
+
+/**
+ * In-memory cache for projects.
+ * <p>
+ * Projects are mutable, i.e. registered time can be added to them. The cache
+ * only keeps a snapshot of the project without the registered time, and a new
+ * instance is built each time a project is retrieved.
+ */
+public class ProjectCache extends RepositoryCache {
+    /**
+     * Recently used projects keyed by id.
+     */
+    private final LruCache<Long, Project> items;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize Maximum number of cached items.
+     */
+    public ProjectCache(int maxSize) {
+        items = new LruCache<>(maxSize);
+    }
+
+    private static Project copy(@NonNull Project project) throws InvalidProjectNameException {
+        return new Project.Builder(project.getName())
+                .id(project.getId())
+                .build();
+    }
+
+    /**
+     * Get cached project by id.
+     *
+     * @param id Id for the project.
+     * @return Cached project, or null if project is not cached.
+     * @throws InvalidProjectNameException If the name of the cached project is invalid.
+     */
+    Project get(long id) throws InvalidProjectNameException {
+        Project project = items.get(id);
+        if (null == project) {
+            return null;
+        }
+
+        return copy(project);
+    }
+
+    /**
+     * Cache written project.
+     *
+     * @param project Project to cache.
+     * @throws InvalidProjectNameException If the name of the project is invalid.
+     */
+    synchronized void put(@NonNull Project project) throws InvalidProjectNameException {
+        advanceGeneration();
+
+        items.put(project.getId(), copy(project));
+    }
+
+    /**
+     * Cache project read from the repository, unless the cache have changed
+     * since before the read.
+     *
+     * @param project    Project to cache.
+     * @param generation Generation from before reading the project.
+     * @throws InvalidProjectNameException If the name of the project is invalid.
+     */
+    synchronized void put(@NonNull Project project, long generation)
+            throws InvalidProjectNameException {
+        if (!isCurrentGeneration(generation)) {
+            return;
+        }
+
+        items.put(project.getId(), copy(project));
+    }
+
+    /**
+     * Remove cached project by id.
+     *
+     * @param id Id for the project.
+     */
+    synchronized void remove(long id) {
+        advanceGeneration();
+
+        items.remove(id);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    void invalidate(@NonNull Uri uri) {
+        List<String> segments = uri.getPathSegments();
+        if (segments.isEmpty()) {
+            clear();
+            return;
+        }
+
+        // Only changes to the projects are affecting the cache, i.e. changes
+        // to the registered time can be ignored.
+        String path = ProjectContract.getStreamUri().getLastPathSegment();
+        if (!path.equals(segments.get(0))) {
+            return;
+        }
+
+        if (2 != segments.size()) {
+            // Change to the registered time for the project.
+            if (3 == segments.size()) {
+                return;
+            }
+
+            clear();
+            return;
+        }
+
+        try {
+            remove(Long.parseLong(segments.get(1)));
+        } catch (NumberFormatException e) {
+            clear();
+        }
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public synchronized void clear() {
+        advanceGeneration();
+
+        items.evictAll();
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public int hitCount() {
+        return items.hitCount();
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public int missCount() {
+        return items.missCount();
+    }
+}
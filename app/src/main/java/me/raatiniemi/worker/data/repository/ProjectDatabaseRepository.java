@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.net.Uri;
+import android.provider.BaseColumns;
+import android.support.annotation.NonNull;
+
+import java.util.List;
+import java.util.Set;
+
+import me.raatiniemi.worker.data.WorkerContract.ProjectColumns;
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerDatabase;
+import me.raatiniemi.worker.data.mapper.ProjectCursorMapper;
+import me.raatiniemi.worker.data.repository.query.ContentResolverQuery;
+import me.raatiniemi.worker.data.util.SelectionBuilder;
+import me.raatiniemi.worker.domain.exception.InvalidProjectNameException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.repository.ProjectRepository;
+import me.raatiniemi.worker.domain.repository.query.Criteria;
+
+/**
+ * Project repository using the database directly, without going through the
+ * content resolver.
+ */
+public class ProjectDatabaseRepository extends DatabaseRepository<ProjectCursorMapper>
+        implements ProjectRepository {
+    private static final String COLUMNS = BaseColumns._ID + "," + ProjectColumns.NAME;
+
+    private static final String SELECT = "SELECT " + COLUMNS +
+            " FROM " + Tables.PROJECT +
+            " ORDER BY " + ProjectContract.ORDER_BY;
+
+    private static final String SELECT_BY_ID = "SELECT " + COLUMNS +
+            " FROM " + Tables.PROJECT +
+            " WHERE " + BaseColumns._ID + "=?";
+
+    private static final String INSERT = "INSERT INTO " + Tables.PROJECT + " (" +
+            ProjectColumns.NAME + ") VALUES (?)";
+
+    private static final String DELETE_TIME = "DELETE FROM " + Tables.TIME +
+            " WHERE " + TimeColumns.PROJECT_ID + "=?";
+
+    private static final String DELETE = "DELETE FROM " + Tables.PROJECT +
+            " WHERE " + BaseColumns._ID + "=?";
+
+    /**
+     * Constructor.
+     *
+     * @param database        Database shared with the provider.
+     * @param contentResolver Content resolver used for notifying the observers.
+     * @param cursorMapper    Cursor mapper used with the repository.
+     */
+    public ProjectDatabaseRepository(
+            @NonNull WorkerDatabase database,
+            @NonNull ContentResolver contentResolver,
+            @NonNull ProjectCursorMapper cursorMapper
+    ) {
+        super(database, contentResolver, cursorMapper);
+    }
+
+    private List<Project> readProjects(Cursor cursor) throws InvalidProjectNameException {
+        try {
+            return ProjectResolverRepository.readProjects(cursor, getCursorMapper());
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Project> matching(Criteria criteria) throws InvalidProjectNameException {
+        ContentResolverQuery query = ContentResolverQuery.from(criteria);
+        Cursor cursor = new SelectionBuilder()
+                .table(Tables.PROJECT)
+                .where(query.getSelection(), query.getSelectionArgs())
+                .query(getReadableDatabase(), ProjectContract.getColumns(), query.getSortOrder(), query.getLimit());
+
+        return readProjects(cursor);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Project> get() throws InvalidProjectNameException {
+        return readProjects(getReadableDatabase().rawQuery(SELECT, null));
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Project get(long id) throws InvalidProjectNameException {
+        List<Project> projects = readProjects(
+                getReadableDatabase().rawQuery(SELECT_BY_ID, new String[]{String.valueOf(id)})
+        );
+        if (projects.isEmpty()) {
+            return null;
+        }
+
+        return projects.get(0);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Project add(final Project project) throws InvalidProjectNameException {
+        long id = write(new Write<Long>() {
+            @Override
+            public Long execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                long id;
+                SQLiteStatement statement = db.compileStatement(INSERT);
+                try {
+                    statement.bindString(1, project.getName());
+                    id = statement.executeInsert();
+                } finally {
+                    statement.close();
+                }
+
+                changes.add(ProjectContract.getItemUri(id));
+                return id;
+            }
+        });
+
+        return new Project.Builder(project.getName())
+                .id(id)
+                .build();
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void remove(final long id) {
+        write(new Write<Void>() {
+            @Override
+            public Void execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                // The registered time have to be removed before the project.
+                if (0 < ProjectDatabaseRepository.execute(db, DELETE_TIME, id)) {
+                    changes.add(ProjectContract.getItemTimeUri(id));
+                }
+                if (0 < ProjectDatabaseRepository.execute(db, DELETE, id)) {
+                    changes.add(ProjectContract.getItemUri(id));
+                }
+
+                return null;
+            }
+        });
+    }
+
+    private static int execute(SQLiteDatabase db, String sql, long id) {
+        SQLiteStatement statement = db.compileStatement(sql);
+        try {
+            statement.bindLong(1, id);
+            return statement.executeUpdateDelete();
+        } finally {
+            statement.close();
+        }
+    }
+}
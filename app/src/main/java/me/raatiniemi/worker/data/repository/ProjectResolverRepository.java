@@ -56,29 +56,42 @@ public class ProjectResolverRepository
      */
     @Override
     public List<Project> matching(final Criteria criteria) throws InvalidProjectNameException {
-        final List<Project> projects = new ArrayList<>();
-
         ContentResolverQuery query = ContentResolverQuery.from(criteria);
         final Cursor cursor = getContentResolver().query(
-                ProjectContract.getStreamUri(),
+                query.applyLimit(ProjectContract.getStreamUri()),
                 ProjectContract.getColumns(),
                 query.getSelection(),
                 query.getSelectionArgs(),
-                null
+                query.getSortOrder()
         );
         if (null == cursor) {
-            return projects;
+            return new ArrayList<>();
         }
 
         try {
-            if (cursor.moveToFirst()) {
-                do {
-                    projects.add(getCursorMapper().transform(cursor));
-                } while (cursor.moveToNext());
-            }
+            return readProjects(cursor, getCursorMapper());
         } finally {
             cursor.close();
         }
+    }
+
+    /**
+     * Read the projects from the cursor, the column indices are resolved once
+     * for the cursor.
+     *
+     * @param cursor       Cursor with the projects.
+     * @param cursorMapper Mapper for the projects.
+     * @return Projects read from the cursor.
+     * @throws InvalidProjectNameException If the project violate domain rules.
+     */
+    static List<Project> readProjects(Cursor cursor, ProjectCursorMapper cursorMapper)
+            throws InvalidProjectNameException {
+        ProjectCursorMapper mapper = cursorMapper.forCursor(cursor);
+
+        List<Project> projects = new ArrayList<>(cursor.getCount());
+        while (cursor.moveToNext()) {
+            projects.add(mapper.transform(cursor));
+        }
 
         return projects;
     }
@@ -88,8 +101,6 @@ public class ProjectResolverRepository
      */
     @Override
     public List<Project> get() throws InvalidProjectNameException {
-        final List<Project> projects = new ArrayList<>();
-
         final Cursor cursor = getContentResolver().query(
                 ProjectContract.getStreamUri(),
                 ProjectContract.getColumns(),
@@ -98,20 +109,14 @@ public class ProjectResolverRepository
                 ProjectContract.ORDER_BY
         );
         if (null == cursor) {
-            return projects;
+            return new ArrayList<>();
         }
 
         try {
-            if (cursor.moveToFirst()) {
-                do {
-                    projects.add(getCursorMapper().transform(cursor));
-                } while (cursor.moveToNext());
-            }
+            return readProjects(cursor, getCursorMapper());
         } finally {
             cursor.close();
         }
-
-        return projects;
     }
 
     /**
@@ -151,7 +156,12 @@ public class ProjectResolverRepository
                 ProjectContract.getStreamUri(),
                 getContentValuesMapper().transform(project)
         );
-        return get(Long.parseLong(ProjectContract.getItemId(uri)));
+
+        // The written values are already available, i.e. we only
+        // need the generated id to build the added project.
+        return new Project.Builder(project.getName())
+                .id(Long.parseLong(ProjectContract.getItemId(uri)))
+                .build();
     }
 
     /**
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+
+/**
+ * Base for the in-memory caches used by the cached repositories.
+ * <p>
+ * The cache is updated by the cached repositories when writing, and
+ * invalidated via change notifications from the content provider. Every
+ * notification invalidates the affected items, including the notifications
+ * for changes written through the cache.
+ * <p>
+ * Each change to the cache advances its generation. Items read from the
+ * underlying repository are only cached if the generation is unchanged since
+ * before the read, otherwise the read might be older than the change.
+ */
+abstract class RepositoryCache {
+    /**
+     * Generation of the cached items, guarded by the cache instance.
+     */
+    private long generation;
+
+    /**
+     * Get the current generation of the cached items.
+     *
+     * @return Current generation.
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Advance the generation, used when the cached items have changed.
+     */
+    synchronized void advanceGeneration() {
+        generation++;
+    }
+
+    /**
+     * Check whether the cached items have changed since the generation.
+     *
+     * @param generation Generation from before reading the item.
+     * @return true if the cached items are unchanged, otherwise false.
+     */
+    synchronized boolean isCurrentGeneration(long generation) {
+        return this.generation == generation;
+    }
+
+    /**
+     * Handle change notification from the content provider.
+     *
+     * @param uri URI for the changed content, or null if unknown.
+     */
+    synchronized void onChange(Uri uri) {
+        advanceGeneration();
+
+        if (null == uri) {
+            clear();
+            return;
+        }
+
+        invalidate(uri);
+    }
+
+    /**
+     * Invalidate the cached items affected by change to URI.
+     *
+     * @param uri URI for the changed content.
+     */
+    abstract void invalidate(@NonNull Uri uri);
+
+    /**
+     * Remove all of the cached items.
+     */
+    public abstract void clear();
+
+    /**
+     * Get the number of times a cached item have been found.
+     *
+     * @return Number of cache hits.
+     */
+    public abstract int hitCount();
+
+    /**
+     * Get the number of times a cached item have not been found.
+     *
+     * @return Number of cache misses.
+     */
+    public abstract int missCount();
+}
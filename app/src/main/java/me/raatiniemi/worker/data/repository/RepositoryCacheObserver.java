@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.content.ContentResolver;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Handler;
+import android.support.annotation.NonNull;
+
+import me.raatiniemi.worker.data.WorkerContract;
+
+/**
+ * Invalidate the repository caches when the provider content is changed.
+ */
+public class RepositoryCacheObserver extends ContentObserver {
+    private final RepositoryCache[] caches;
+
+    /**
+     * Constructor.
+     *
+     * @param handler Handler to run the invalidation on, or null to run on any thread.
+     * @param caches  Caches to invalidate.
+     */
+    public RepositoryCacheObserver(Handler handler, RepositoryCache... caches) {
+        super(handler);
+
+        this.caches = caches;
+    }
+
+    /**
+     * Register the observer for changes to any of the provider content.
+     *
+     * @param contentResolver Content resolver to register the observer with.
+     */
+    public void register(@NonNull ContentResolver contentResolver) {
+        contentResolver.registerContentObserver(
+                WorkerContract.getAuthorityUri(),
+                true,
+                this
+        );
+    }
+
+    @Override
+    public void onChange(boolean selfChange) {
+        onChange(selfChange, null);
+    }
+
+    @Override
+    public void onChange(boolean selfChange, Uri uri) {
+        for (RepositoryCache cache : caches) {
+            cache.onChange(uri);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.data.WorkerDatabase;
+import me.raatiniemi.worker.data.mapper.ProjectContentValuesMapper;
+import me.raatiniemi.worker.data.mapper.ProjectCursorMapper;
+import me.raatiniemi.worker.data.mapper.TimeContentValuesMapper;
+import me.raatiniemi.worker.data.mapper.TimeCursorMapper;
+import me.raatiniemi.worker.domain.repository.ProjectRepository;
+import me.raatiniemi.worker.domain.repository.TimeRepository;
+
+/**
+ * Build the repositories used by the screens and services.
+ * <p>
+ * Whether the repositories are using the database directly, or going through
+ * the content resolver and provider, is configured with
+ * `BuildConfig.DATABASE_REPOSITORIES`. Since every repository is built by the
+ * factory, the writes from the different screens and services are taking the
+ * same path. The repositories are wrapped with the caches shared within the
+ * application.
+ */
+public final class RepositoryFactory {
+    private RepositoryFactory() {
+    }
+
+    private static Worker getApplication(@NonNull Context context) {
+        return (Worker) context.getApplicationContext();
+    }
+
+    /**
+     * Build the project repository.
+     *
+     * @param context Context used with the repository.
+     * @return Project repository.
+     */
+    @NonNull
+    public static ProjectRepository buildProjectRepository(@NonNull Context context) {
+        ContentResolver contentResolver = context.getContentResolver();
+
+        ProjectRepository repository;
+        if (BuildConfig.DATABASE_REPOSITORIES) {
+            repository = new ProjectDatabaseRepository(
+                    WorkerDatabase.getInstance(context),
+                    contentResolver,
+                    new ProjectCursorMapper()
+            );
+        } else {
+            repository = new ProjectResolverRepository(
+                    contentResolver,
+                    new ProjectCursorMapper(),
+                    new ProjectContentValuesMapper()
+            );
+        }
+
+        return new CachedProjectRepository(
+                repository,
+                getApplication(context).getProjectCache()
+        );
+    }
+
+    /**
+     * Build the time repository.
+     *
+     * @param context Context used with the repository.
+     * @return Time repository.
+     */
+    @NonNull
+    public static TimeRepository buildTimeRepository(@NonNull Context context) {
+        ContentResolver contentResolver = context.getContentResolver();
+
+        TimeRepository repository;
+        if (BuildConfig.DATABASE_REPOSITORIES) {
+            repository = new TimeDatabaseRepository(
+                    WorkerDatabase.getInstance(context),
+                    contentResolver,
+                    new TimeCursorMapper(),
+                    new TimeContentValuesMapper()
+            );
+        } else {
+            repository = new TimeResolverRepository(
+                    contentResolver,
+                    new TimeCursorMapper(),
+                    new TimeContentValuesMapper()
+            );
+        }
+
+        return new CachedTimeRepository(
+                repository,
+                getApplication(context).getTimeCache()
+        );
+    }
+}
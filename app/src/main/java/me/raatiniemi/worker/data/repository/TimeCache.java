@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.util.LruCache;
+
+import java.util.List;
+import java.util.Map;
+
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+import me.raatiniemi.worker.domain.model.Time;
+
+/**
+ * In-memory cache for registered time.
+ * <p>
+ * Keeps the recently used time keyed by id, and an index with the active time
+ * for the recently used projects.
+ */
+public class TimeCache extends RepositoryCache {
+    /**
+     * Recently used time keyed by id.
+     */
+    private final LruCache<Long, Time> items;
+
+    /**
+     * Active time keyed by the project id.
+     */
+    private final LruCache<Long, ActiveTime> activeTimeForProjects;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize Maximum number of cached items.
+     */
+    public TimeCache(int maxSize) {
+        items = new LruCache<>(maxSize);
+        activeTimeForProjects = new LruCache<>(maxSize);
+    }
+
+    private static boolean isProjectTimeUri(List<String> segments) {
+        return 3 == segments.size()
+                && ProjectContract.getStreamUri().getLastPathSegment().equals(segments.get(0))
+                && TimeContract.getStreamUri().getLastPathSegment().equals(segments.get(2));
+    }
+
+    private static boolean isProjectUri(List<String> segments) {
+        return 2 == segments.size()
+                && ProjectContract.getStreamUri().getLastPathSegment().equals(segments.get(0));
+    }
+
+    private static boolean isTimeUri(List<String> segments) {
+        return 2 == segments.size()
+                && TimeContract.getStreamUri().getLastPathSegment().equals(segments.get(0));
+    }
+
+    /**
+     * Get cached time by id.
+     *
+     * @param id Id for the time.
+     * @return Cached time, or null if time is not cached.
+     */
+    Time get(long id) {
+        return items.get(id);
+    }
+
+    /**
+     * Get the cached active time for a project.
+     *
+     * @param projectId Id for the project.
+     * @return Cached active time, or null if the active time is not cached.
+     */
+    ActiveTime getActiveTimeForProject(long projectId) {
+        return activeTimeForProjects.get(projectId);
+    }
+
+    /**
+     * Cache written time, the active time index for the project is updated
+     * accordingly.
+     *
+     * @param time Time to cache.
+     */
+    synchronized void put(@NonNull Time time) {
+        advanceGeneration();
+
+        cache(time);
+    }
+
+    /**
+     * Cache time read from the repository, unless the cache have changed
+     * since before the read.
+     *
+     * @param time       Time to cache.
+     * @param generation Generation from before reading the time.
+     */
+    synchronized void put(@NonNull Time time, long generation) {
+        if (!isCurrentGeneration(generation)) {
+            return;
+        }
+
+        cache(time);
+    }
+
+    private void cache(@NonNull Time time) {
+        items.put(time.getId(), time);
+
+        if (time.isActive()) {
+            activeTimeForProjects.put(time.getProjectId(), new ActiveTime(time));
+            return;
+        }
+
+        // If the time was the active time for the project, the project is no
+        // longer active since the time have been clocked out. The index entry
+        // is removed and put back to avoid affecting the hit/miss counters.
+        ActiveTime activeTime = activeTimeForProjects.remove(time.getProjectId());
+        if (null == activeTime) {
+            return;
+        }
+
+        if (activeTime.isSame(time)) {
+            activeTime = new ActiveTime(null);
+        }
+        activeTimeForProjects.put(time.getProjectId(), activeTime);
+    }
+
+    /**
+     * Cache the active time for a project read from the repository, unless
+     * the cache have changed since before the read.
+     *
+     * @param projectId  Id for the project.
+     * @param time       Active time for the project, or null if project is inactive.
+     * @param generation Generation from before reading the active time.
+     */
+    synchronized void putActiveTimeForProject(long projectId, Time time, long generation) {
+        if (!isCurrentGeneration(generation)) {
+            return;
+        }
+
+        if (null != time) {
+            items.put(time.getId(), time);
+        }
+
+        activeTimeForProjects.put(projectId, new ActiveTime(time));
+    }
+
+    /**
+     * Remove cached time by id.
+     *
+     * @param id Id for the time.
+     */
+    synchronized void remove(long id) {
+        advanceGeneration();
+
+        Time time = items.remove(id);
+        if (null == time) {
+            // Since we do not know to which project the time belonged, we
+            // can't tell whether it was active for the project.
+            activeTimeForProjects.evictAll();
+            return;
+        }
+
+        activeTimeForProjects.remove(time.getProjectId());
+    }
+
+    /**
+     * Remove cached time for a project, including the active time.
+     *
+     * @param projectId Id for the project.
+     */
+    synchronized void removeForProject(long projectId) {
+        advanceGeneration();
+
+        for (Map.Entry<Long, Time> entry : items.snapshot().entrySet()) {
+            if (projectId == entry.getValue().getProjectId()) {
+                items.remove(entry.getKey());
+            }
+        }
+
+        activeTimeForProjects.remove(projectId);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    void invalidate(@NonNull Uri uri) {
+        List<String> segments = uri.getPathSegments();
+
+        try {
+            if (isTimeUri(segments)) {
+                remove(Long.parseLong(segments.get(1)));
+                return;
+            }
+
+            if (isProjectTimeUri(segments)) {
+                removeForProject(Long.parseLong(segments.get(1)));
+                return;
+            }
+        } catch (NumberFormatException e) {
+            clear();
+            return;
+        }
+
+        // Changes to a specific project do not affect the registered time,
+        // time removed with the project is notified separately.
+        if (isProjectUri(segments)) {
+            return;
+        }
+
+        clear();
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public synchronized void clear() {
+        advanceGeneration();
+
+        items.evictAll();
+        activeTimeForProjects.evictAll();
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public int hitCount() {
+        return items.hitCount() + activeTimeForProjects.hitCount();
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public int missCount() {
+        return items.missCount() + activeTimeForProjects.missCount();
+    }
+
+    /**
+     * Cached active time for a project.
+     * <p>
+     * Used for distinguishing between projects without active time, and
+     * projects for which the active time is not cached.
+     */
+    static class ActiveTime {
+        private final Time time;
+
+        private ActiveTime(Time time) {
+            this.time = time;
+        }
+
+        /**
+         * Get the active time.
+         *
+         * @return Active time, or null if project is inactive.
+         */
+        Time getTime() {
+            return time;
+        }
+
+        private boolean isSame(@NonNull Time time) {
+            return null != this.time && this.time.getId().equals(time.getId());
+        }
+    }
+}
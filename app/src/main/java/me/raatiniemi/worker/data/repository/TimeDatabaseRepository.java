@@ -0,0 +1,616 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+import android.provider.BaseColumns;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+import me.raatiniemi.worker.data.WorkerDatabase;
+import me.raatiniemi.worker.data.mapper.TimeContentValuesMapper;
+import me.raatiniemi.worker.data.mapper.TimeCursorMapper;
+import me.raatiniemi.worker.data.repository.query.ContentResolverQuery;
+import me.raatiniemi.worker.data.util.SelectionBuilder;
+import me.raatiniemi.worker.domain.exception.ClockOutBeforeClockInException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
+import me.raatiniemi.worker.domain.repository.TimeRepository;
+import me.raatiniemi.worker.domain.repository.query.Criteria;
+
+/**
+ * Time repository using the database directly, without going through the
+ * content resolver.
+ * <p>
+ * The frequently used operations, i.e. clocking in and out and writing the
+ * time, are using the compiled statements shared with the provider, see
+ * {@link WorkerDatabase#getTimeStatements()}. The lookups are using fixed SQL
+ * that the database can keep in its statement cache, and the remaining
+ * operations are built with the same selections as the provider.
+ */
+public class TimeDatabaseRepository extends DatabaseRepository<TimeCursorMapper>
+        implements TimeRepository {
+    /**
+     * Number of days within each timesheet segment.
+     */
+    private static final String TIMESHEET_SEGMENT_LIMIT = "10";
+
+    private static final String COLUMNS = BaseColumns._ID + "," +
+            TimeColumns.PROJECT_ID + "," +
+            TimeColumns.START + "," +
+            TimeColumns.STOP + "," +
+            TimeColumns.REGISTERED;
+
+    private static final String SELECT_BY_ID = "SELECT " + COLUMNS +
+            " FROM " + Tables.TIME +
+            " WHERE " + BaseColumns._ID + "=?";
+
+    private static final String SELECTION_SINCE = TimeColumns.START + ">=? OR " +
+            TimeContract.SELECTION_ACTIVE;
+
+    private static final String SELECT_SINCE = "SELECT " + COLUMNS +
+            " FROM " + Tables.TIME +
+            " WHERE " + TimeColumns.PROJECT_ID + "=? AND (" + SELECTION_SINCE + ")" +
+            " ORDER BY " + ProjectContract.ORDER_BY_TIME;
+
+    private static final String SELECT_ACTIVE = "SELECT " + COLUMNS +
+            " FROM " + Tables.TIME +
+            " WHERE " + TimeColumns.PROJECT_ID + "=? AND " + TimeContract.SELECTION_ACTIVE;
+
+    private final TimeContentValuesMapper contentValuesMapper;
+
+    /**
+     * Constructor.
+     *
+     * @param database            Database shared with the provider.
+     * @param contentResolver     Content resolver used for notifying the observers.
+     * @param cursorMapper        Cursor mapper used with the repository.
+     * @param contentValuesMapper Content values mapper used with the repository.
+     */
+    public TimeDatabaseRepository(
+            @NonNull WorkerDatabase database,
+            @NonNull ContentResolver contentResolver,
+            @NonNull TimeCursorMapper cursorMapper,
+            @NonNull TimeContentValuesMapper contentValuesMapper
+    ) {
+        super(database, contentResolver, cursorMapper);
+
+        this.contentValuesMapper = contentValuesMapper;
+    }
+
+    private List<Time> readTime(Cursor cursor) throws ClockOutBeforeClockInException {
+        try {
+            return TimeResolverRepository.readTime(cursor, getCursorMapper());
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private Time readFirstTime(Cursor cursor) throws ClockOutBeforeClockInException {
+        try {
+            if (cursor.moveToFirst()) {
+                return getCursorMapper().transform(cursor);
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return null;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> matching(Project project, Criteria criteria)
+            throws ClockOutBeforeClockInException {
+        ContentResolverQuery query = ContentResolverQuery.from(criteria);
+        Cursor cursor = new SelectionBuilder()
+                .table(Tables.TIME)
+                .where(TimeColumns.PROJECT_ID + "=?", String.valueOf(project.getId()))
+                .where(query.getSelection(), query.getSelectionArgs())
+                .query(getReadableDatabase(), TimeContract.getColumns(), query.getSortOrder(), query.getLimit());
+
+        return readTime(cursor);
+    }
+
+    /**
+     * Get time for multiple projects, grouped by the project id.
+     *
+     * @param projectIds    Ids for the projects.
+     * @param selection     Additional selection, or null if none.
+     * @param selectionArgs Arguments for the additional selection.
+     * @param sortOrder     Order for the time within each project.
+     * @return Time grouped by the project id, every project is included.
+     */
+    private Map<Long, List<Time>> getTimeForProjects(
+            List<Long> projectIds,
+            String selection,
+            String[] selectionArgs,
+            String sortOrder
+    ) throws ClockOutBeforeClockInException {
+        Map<Long, List<Time>> result = new LinkedHashMap<>();
+        for (Long projectId : projectIds) {
+            result.put(projectId, new ArrayList<Time>());
+        }
+
+        for (List<Long> segment : SelectionBuilder.segmentInArguments(projectIds)) {
+            Cursor cursor = new SelectionBuilder()
+                    .table(Tables.TIME)
+                    .where(
+                            TimeResolverRepository.buildProjectsSelection(segment.size(), selection),
+                            TimeResolverRepository.buildProjectsSelectionArgs(segment, selectionArgs)
+                    )
+                    .query(getReadableDatabase(), TimeContract.getColumns(), sortOrder);
+
+            for (Time time : readTime(cursor)) {
+                List<Time> items = result.get(time.getProjectId());
+                if (null != items) {
+                    items.add(time);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public long getRegisteredTimeSummary(Project project, Criteria criteria) {
+        ContentResolverQuery query = ContentResolverQuery.from(criteria);
+        Cursor cursor = new SelectionBuilder()
+                .table(Tables.TIME)
+                .where(TimeColumns.PROJECT_ID + "=?", String.valueOf(project.getId()))
+                .where(TimeColumns.STOP + " > 0")
+                .where(query.getSelection(), query.getSelectionArgs())
+                .query(getReadableDatabase(), ProjectContract.getSummaryColumns(), null);
+
+        try {
+            if (cursor.moveToFirst()) {
+                return cursor.getLong(0);
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return 0L;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Map<Long, Long> getRegisteredTimeSummary(List<Project> projects, Criteria criteria) {
+        List<Long> projectIds = TimeResolverRepository.getIdsFromProjects(projects);
+
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (Long projectId : projectIds) {
+            result.put(projectId, 0L);
+        }
+
+        ContentResolverQuery query = ContentResolverQuery.from(criteria);
+        for (List<Long> segment : SelectionBuilder.segmentInArguments(projectIds)) {
+            Cursor cursor = new SelectionBuilder()
+                    .table(Tables.TIME)
+                    .where(TimeColumns.STOP + " > 0")
+                    .where(
+                            TimeResolverRepository.buildProjectsSelection(segment.size(), query.getSelection()),
+                            TimeResolverRepository.buildProjectsSelectionArgs(segment, query.getSelectionArgs())
+                    )
+                    .groupBy(TimeContract.GROUP_BY_SUMMARY)
+                    .query(getReadableDatabase(), TimeContract.getSummaryColumns(), null);
+
+            try {
+                while (cursor.moveToNext()) {
+                    result.put(cursor.getLong(0), cursor.getLong(1));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Time get(long id) throws ClockOutBeforeClockInException {
+        return readFirstTime(
+                getReadableDatabase().rawQuery(SELECT_BY_ID, new String[]{String.valueOf(id)})
+        );
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Time add(final Time time) throws ClockOutBeforeClockInException {
+        long id = write(new Write<Long>() {
+            @Override
+            public Long execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                changes.add(ProjectContract.getItemTimeUri(time.getProjectId()));
+
+                return getTimeStatements().insert(contentValuesMapper.transform(time));
+            }
+        });
+
+        return TimeResolverRepository.buildTimeWithId(time, id);
+    }
+
+    /**
+     * Update time by id, have to be called within a write.
+     *
+     * @param time Time to update.
+     * @return Number of updated rows.
+     */
+    private int updateTime(Time time) {
+        return getTimeStatements().update(time.getId(), contentValuesMapper.transform(time));
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Time update(final Time time) {
+        return write(new Write<Time>() {
+            @Override
+            public Time execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                if (0 == updateTime(time)) {
+                    return null;
+                }
+
+                changes.add(TimeContract.getItemUri(time.getId()));
+                return time;
+            }
+        });
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> update(final List<Time> times) {
+        return write(new Write<List<Time>>() {
+            @Override
+            public List<Time> execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                List<Time> updatedTimes = new ArrayList<>();
+                for (Time time : times) {
+                    if (0 == updateTime(time)) {
+                        updatedTimes.add(null);
+                        continue;
+                    }
+
+                    updatedTimes.add(time);
+                    changes.add(TimeContract.getItemUri(time.getId()));
+                }
+
+                return updatedTimes;
+            }
+        });
+    }
+
+    /**
+     * Update the registered state for the items, have to be called within a
+     * write.
+     *
+     * @param db         Database to update.
+     * @param ids        Ids for the items to update.
+     * @param registered Whether the items should be registered.
+     * @return Number of updated rows.
+     */
+    private static int updateRegistered(SQLiteDatabase db, List<String> ids, boolean registered) {
+        ContentValues values = new ContentValues();
+        values.put(TimeColumns.REGISTERED, registered ? 1L : 0L);
+
+        int numberOfRows = 0;
+        for (List<String> segment : SelectionBuilder.segmentInArguments(ids)) {
+            numberOfRows += new SelectionBuilder()
+                    .table(Tables.TIME)
+                    .where(
+                            SelectionBuilder.buildInSelection(BaseColumns._ID, segment.size()),
+                            segment.toArray(new String[segment.size()])
+                    )
+                    .update(db, values);
+        }
+
+        return numberOfRows;
+    }
+
+    private static Set<Long> getExistingIds(SQLiteDatabase db, List<String> ids) {
+        Set<Long> existingIds = new HashSet<>();
+
+        for (List<String> segment : SelectionBuilder.segmentInArguments(ids)) {
+            Cursor cursor = new SelectionBuilder()
+                    .table(Tables.TIME)
+                    .where(
+                            SelectionBuilder.buildInSelection(BaseColumns._ID, segment.size()),
+                            segment.toArray(new String[segment.size()])
+                    )
+                    .query(db, new String[]{BaseColumns._ID}, null);
+            try {
+                while (cursor.moveToNext()) {
+                    existingIds.add(cursor.getLong(0));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        return existingIds;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> updateRegistered(final List<Time> times) {
+        final List<String> registeredIds = new ArrayList<>();
+        final List<String> unregisteredIds = new ArrayList<>();
+        for (Time time : times) {
+            if (time.isRegistered()) {
+                registeredIds.add(String.valueOf(time.getId()));
+                continue;
+            }
+
+            unregisteredIds.add(String.valueOf(time.getId()));
+        }
+
+        return write(new Write<List<Time>>() {
+            @Override
+            public List<Time> execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                int numberOfRows = updateRegistered(db, registeredIds, true)
+                        + updateRegistered(db, unregisteredIds, false);
+                if (0 < numberOfRows) {
+                    changes.add(TimeContract.getStreamUri());
+                }
+
+                // Read back the existing rows within the same transaction,
+                // otherwise they might have been removed in between.
+                if (times.size() == numberOfRows) {
+                    return times;
+                }
+
+                return TimeResolverRepository.retainExistingTime(
+                        times,
+                        getExistingIds(db, TimeResolverRepository.getIdsFromTime(times))
+                );
+            }
+        });
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void remove(final long id) {
+        write(new Write<Void>() {
+            @Override
+            public Void execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                int numberOfRows = new SelectionBuilder()
+                        .table(Tables.TIME)
+                        .where(BaseColumns._ID + "=?", String.valueOf(id))
+                        .delete(db);
+                if (0 < numberOfRows) {
+                    changes.add(TimeContract.getItemUri(id));
+                }
+
+                return null;
+            }
+        });
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void remove(List<Time> times) {
+        final List<String> ids = new ArrayList<>();
+        for (Time time : times) {
+            ids.add(String.valueOf(time.getId()));
+        }
+
+        write(new Write<Void>() {
+            @Override
+            public Void execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                // Instead of removing each item with a separate statement, the
+                // items are removed with a single statement for each segment.
+                int numberOfRows = 0;
+                for (List<String> segment : SelectionBuilder.segmentInArguments(ids)) {
+                    numberOfRows += new SelectionBuilder()
+                            .table(Tables.TIME)
+                            .where(
+                                    SelectionBuilder.buildInSelection(BaseColumns._ID, segment.size()),
+                                    segment.toArray(new String[segment.size()])
+                            )
+                            .delete(db);
+                }
+                if (0 < numberOfRows) {
+                    changes.add(TimeContract.getStreamUri());
+                }
+
+                return null;
+            }
+        });
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> getProjectTimeSinceBeginningOfMonth(long projectId)
+            throws ClockOutBeforeClockInException {
+        return readTime(
+                getReadableDatabase().rawQuery(
+                        SELECT_SINCE,
+                        new String[]{
+                                String.valueOf(projectId),
+                                String.valueOf(TimeResolverRepository.getBeginningOfMonthInMilliseconds())
+                        }
+                )
+        );
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Map<Long, List<Time>> getProjectTimeSinceBeginningOfMonth(List<Long> projectIds)
+            throws ClockOutBeforeClockInException {
+        return getTimeForProjects(
+                projectIds,
+                SELECTION_SINCE,
+                new String[]{String.valueOf(TimeResolverRepository.getBeginningOfMonthInMilliseconds())},
+                ProjectContract.ORDER_BY_TIME
+        );
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Map<Date, List<Time>> getTimesheet(
+            final long projectId,
+            final Date before,
+            final Criteria criteria
+    ) {
+        Map<Date, List<Time>> result = new LinkedHashMap<>();
+        String id = String.valueOf(projectId);
+
+        // The segment starts from the day before the last retrieved day, see
+        // the resolver repository for the reasoning.
+        Criteria segmentCriteria = criteria;
+        if (null != before) {
+            segmentCriteria = Criteria.and(
+                    Criteria.lessThan(TimeColumns.DAY, TimeContract.getDay(before.getTime())),
+                    criteria
+            );
+        }
+
+        ContentResolverQuery query = ContentResolverQuery.from(segmentCriteria);
+        Cursor cursor = new SelectionBuilder()
+                .table(Tables.TIME)
+                .where(TimeColumns.PROJECT_ID + "=?", id)
+                .where(query.getSelection(), query.getSelectionArgs())
+                .groupBy(ProjectContract.GROUP_BY_TIMESHEET)
+                .query(
+                        getReadableDatabase(),
+                        ProjectContract.getTimesheetColumns(),
+                        ProjectContract.ORDER_BY_TIMESHEET_SEGMENT,
+                        TIMESHEET_SEGMENT_LIMIT
+                );
+
+        long lowerBound = Long.MAX_VALUE;
+        long upperBound = Long.MIN_VALUE;
+        try {
+            if (!cursor.moveToFirst()) {
+                return result;
+            }
+
+            do {
+                lowerBound = Math.min(lowerBound, cursor.getLong(0));
+                upperBound = Math.max(upperBound, cursor.getLong(1));
+            } while (cursor.moveToNext());
+        } finally {
+            cursor.close();
+        }
+
+        query = ContentResolverQuery.from(
+                Criteria.and(
+                        Criteria.between(TimeColumns.START, lowerBound, upperBound),
+                        criteria
+                )
+        );
+        cursor = new SelectionBuilder()
+                .table(Tables.TIME)
+                .where(TimeColumns.PROJECT_ID + "=?", id)
+                .where(query.getSelection(), query.getSelectionArgs())
+                .query(getReadableDatabase(), TimeContract.getColumns(), ProjectContract.ORDER_BY_TIMESHEET);
+
+        try {
+            TimeResolverRepository.readTimesheetItems(cursor, getCursorMapper(), result);
+        } finally {
+            cursor.close();
+        }
+
+        return result;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Time getActiveTimeForProject(long projectId) throws ClockOutBeforeClockInException {
+        return readFirstTime(
+                getReadableDatabase().rawQuery(SELECT_ACTIVE, new String[]{String.valueOf(projectId)})
+        );
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public boolean clockIn(final long projectId, final Date date) {
+        return write(new Write<Boolean>() {
+            @Override
+            public Boolean execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                boolean clockedIn = getTimeStatements().clockIn(projectId, date.getTime());
+                if (clockedIn) {
+                    changes.add(ProjectContract.getItemTimeUri(projectId));
+                }
+
+                return clockedIn;
+            }
+        });
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public boolean clockOut(final long projectId, final Date date) {
+        return write(new Write<Boolean>() {
+            @Override
+            public Boolean execute(@NonNull SQLiteDatabase db, @NonNull Set<Uri> changes) {
+                boolean clockedOut = getTimeStatements().clockOut(projectId, date.getTime());
+                if (clockedOut) {
+                    changes.add(ProjectContract.getItemTimeUri(projectId));
+                }
+
+                return clockedOut;
+            }
+        });
+    }
+}
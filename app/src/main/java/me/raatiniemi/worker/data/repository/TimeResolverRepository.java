@@ -17,21 +17,26 @@
 package me.raatiniemi.worker.data.repository;
 
 import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.ContentValues;
 import android.content.OperationApplicationException;
 import android.database.Cursor;
 import android.net.Uri;
+import android.os.Bundle;
 import android.os.RemoteException;
+import android.provider.BaseColumns;
 import android.support.annotation.NonNull;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import me.raatiniemi.worker.data.WorkerContract;
 import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
@@ -39,6 +44,7 @@ import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
 import me.raatiniemi.worker.data.WorkerContract.TimeContract;
 import me.raatiniemi.worker.data.mapper.TimeContentValuesMapper;
 import me.raatiniemi.worker.data.mapper.TimeCursorMapper;
+import me.raatiniemi.worker.data.util.SelectionBuilder;
 import me.raatiniemi.worker.data.repository.query.ContentResolverQuery;
 import me.raatiniemi.worker.domain.exception.ClockOutBeforeClockInException;
 import me.raatiniemi.worker.domain.exception.DomainException;
@@ -66,31 +72,237 @@ public class TimeResolverRepository
      */
     @Override
     public List<Time> matching(Project project, Criteria criteria) throws DomainException {
-        List<Time> time = new ArrayList<>();
-
         ContentResolverQuery query = ContentResolverQuery.from(criteria);
         Cursor cursor = getContentResolver().query(
-                ProjectContract.getItemTimeUri(project.getId()),
+                query.applyLimit(ProjectContract.getItemTimeUri(project.getId())),
                 TimeContract.getColumns(),
                 query.getSelection(),
                 query.getSelectionArgs(),
+                query.getSortOrder()
+        );
+        if (null == cursor) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return readTime(cursor, getCursorMapper());
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Read the time from the cursor.
+     * <p>
+     * The column indices are resolved once for the cursor, and the list is
+     * sized for the number of rows before the rows are mapped.
+     *
+     * @param cursor       Cursor with the time.
+     * @param cursorMapper Mapper for the time.
+     * @return Time read from the cursor.
+     * @throws ClockOutBeforeClockInException If the time violate domain rules.
+     */
+    static List<Time> readTime(Cursor cursor, TimeCursorMapper cursorMapper)
+            throws ClockOutBeforeClockInException {
+        TimeCursorMapper mapper = cursorMapper.forCursor(cursor);
+
+        List<Time> time = new ArrayList<>(cursor.getCount());
+        while (cursor.moveToNext()) {
+            time.add(mapper.transform(cursor));
+        }
+
+        return time;
+    }
+
+    /**
+     * Build the selection for matching time for a segment of projects.
+     *
+     * @param numberOfProjects Number of projects within the segment.
+     * @param selection        Additional selection, or null if none.
+     * @return Selection for matching time for the segment of projects.
+     */
+    static String buildProjectsSelection(int numberOfProjects, String selection) {
+        StringBuilder builder = new StringBuilder(
+                SelectionBuilder.buildInSelection(TimeColumns.PROJECT_ID, numberOfProjects)
+        );
+
+        if (null != selection) {
+            builder.append(" AND (")
+                    .append(selection)
+                    .append(")");
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Build the selection arguments for matching time for a segment of projects.
+     *
+     * @param projectIds    Ids for the projects within the segment.
+     * @param selectionArgs Arguments for the additional selection, or null if none.
+     * @return Selection arguments for matching time for the segment of projects.
+     */
+    static String[] buildProjectsSelectionArgs(List<Long> projectIds, String[] selectionArgs) {
+        List<String> args = new ArrayList<>();
+        for (Long projectId : projectIds) {
+            args.add(String.valueOf(projectId));
+        }
+
+        if (null != selectionArgs) {
+            Collections.addAll(args, selectionArgs);
+        }
+
+        return args.toArray(new String[args.size()]);
+    }
+
+    static List<Long> getIdsFromProjects(List<Project> projects) {
+        List<Long> projectIds = new ArrayList<>();
+        for (Project project : projects) {
+            projectIds.add(project.getId());
+        }
+
+        return projectIds;
+    }
+
+    static List<String> getIdsFromTime(List<Time> times) {
+        List<String> ids = new ArrayList<>();
+        for (Time time : times) {
+            ids.add(String.valueOf(time.getId()));
+        }
+
+        return ids;
+    }
+
+    static Time buildTimeWithId(Time time, long id) throws ClockOutBeforeClockInException {
+        Time.Builder builder = new Time.Builder(time.getProjectId())
+                .id(id)
+                .startInMilliseconds(time.getStartInMilliseconds())
+                .stopInMilliseconds(time.getStopInMilliseconds());
+
+        if (time.isRegistered()) {
+            builder.register();
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Get time for multiple projects, grouped by the project id.
+     * <p>
+     * The time is retrieved with a single query for each segment of
+     * {@link SelectionBuilder#MAXIMUM_NUMBER_OF_IN_ARGUMENTS} projects.
+     *
+     * @param projectIds    Ids for the projects.
+     * @param selection     Additional selection, or null if none.
+     * @param selectionArgs Arguments for the additional selection.
+     * @param sortOrder     Sort order for the time within each project.
+     * @return Time grouped by the project id.
+     * @throws ClockOutBeforeClockInException If clock out occur before clock in.
+     */
+    private Map<Long, List<Time>> getTimeForProjects(
+            final List<Long> projectIds,
+            final String selection,
+            final String[] selectionArgs,
+            final String sortOrder
+    ) throws ClockOutBeforeClockInException {
+        Map<Long, List<Time>> result = new LinkedHashMap<>();
+        for (Long projectId : projectIds) {
+            result.put(projectId, new ArrayList<Time>());
+        }
+
+        for (List<Long> segment : SelectionBuilder.segmentInArguments(projectIds)) {
+            final Cursor cursor = getContentResolver().query(
+                    TimeContract.getStreamUri(),
+                    TimeContract.getColumns(),
+                    buildProjectsSelection(segment.size(), selection),
+                    buildProjectsSelectionArgs(segment, selectionArgs),
+                    sortOrder
+            );
+            if (null == cursor) {
+                continue;
+            }
+
+            try {
+                TimeCursorMapper mapper = getCursorMapper().forCursor(cursor);
+                while (cursor.moveToNext()) {
+                    Time time = mapper.transform(cursor);
+
+                    List<Time> items = result.get(time.getProjectId());
+                    if (null != items) {
+                        items.add(time);
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public long getRegisteredTimeSummary(Project project, Criteria criteria) {
+        ContentResolverQuery query = ContentResolverQuery.from(criteria);
+        final Cursor cursor = getContentResolver().query(
+                ProjectContract.getItemSummaryUri(project.getId()),
+                ProjectContract.getSummaryColumns(),
+                query.getSelection(),
+                query.getSelectionArgs(),
                 null
         );
         if (null == cursor) {
-            return time;
+            return 0L;
         }
 
         try {
             if (cursor.moveToFirst()) {
-                do {
-                    time.add(getCursorMapper().transform(cursor));
-                } while (cursor.moveToNext());
+                return cursor.getLong(0);
             }
         } finally {
             cursor.close();
         }
 
-        return time;
+        return 0L;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Map<Long, Long> getRegisteredTimeSummary(List<Project> projects, Criteria criteria) {
+        List<Long> projectIds = getIdsFromProjects(projects);
+
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (Long projectId : projectIds) {
+            result.put(projectId, 0L);
+        }
+
+        ContentResolverQuery query = ContentResolverQuery.from(criteria);
+        for (List<Long> segment : SelectionBuilder.segmentInArguments(projectIds)) {
+            final Cursor cursor = getContentResolver().query(
+                    TimeContract.getSummaryUri(),
+                    TimeContract.getSummaryColumns(),
+                    buildProjectsSelection(segment.size(), query.getSelection()),
+                    buildProjectsSelectionArgs(segment, query.getSelectionArgs()),
+                    null
+            );
+            if (null == cursor) {
+                continue;
+            }
+
+            try {
+                while (cursor.moveToNext()) {
+                    result.put(cursor.getLong(0), cursor.getLong(1));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        return result;
     }
 
     /**
@@ -132,29 +344,35 @@ public class TimeResolverRepository
                 TimeContract.getStreamUri(),
                 values
         );
-        return get(Long.parseLong(TimeContract.getItemId(uri)));
+
+        // The written values are already available, i.e. we only
+        // need the generated id to build the added time.
+        return buildTimeWithId(time, Long.parseLong(TimeContract.getItemId(uri)));
     }
 
     /**
      * @inheritDoc
      */
     @Override
-    public Time update(final Time time) throws ClockOutBeforeClockInException {
-        getContentResolver().update(
+    public Time update(final Time time) {
+        final int numberOfRows = getContentResolver().update(
                 TimeContract.getItemUri(time.getId()),
                 getContentValuesMapper().transform(time),
                 null,
                 null
         );
+        if (0 == numberOfRows) {
+            return null;
+        }
 
-        return get(time.getId());
+        return time;
     }
 
     /**
      * @inheritDoc
      */
     @Override
-    public List<Time> update(List<Time> times) throws ClockOutBeforeClockInException {
+    public List<Time> update(List<Time> times) {
         ArrayList<ContentProviderOperation> batch = new ArrayList<>();
 
         for (Time time : times) {
@@ -166,20 +384,148 @@ public class TimeResolverRepository
             batch.add(operation);
         }
 
+        ContentProviderResult[] results;
         try {
-            getContentResolver().applyBatch(WorkerContract.AUTHORITY, batch);
+            results = getContentResolver().applyBatch(WorkerContract.AUTHORITY, batch);
+        } catch (RemoteException | OperationApplicationException e) {
+            throw new RuntimeException(e);
+        }
+
+        // The updated time is the same as the written time, unless the
+        // row is missing, i.e. no read back of the rows is needed.
+        List<Time> updatedTimes = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (null == results[i].count || 0 == results[i].count) {
+                updatedTimes.add(null);
+                continue;
+            }
+
+            updatedTimes.add(times.get(i));
+        }
+
+        return updatedTimes;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> updateRegistered(List<Time> times) {
+        List<String> registeredIds = new ArrayList<>();
+        List<String> unregisteredIds = new ArrayList<>();
+        for (Time time : times) {
+            if (time.isRegistered()) {
+                registeredIds.add(String.valueOf(time.getId()));
+                continue;
+            }
+
+            unregisteredIds.add(String.valueOf(time.getId()));
+        }
+
+        ArrayList<ContentProviderOperation> batch = new ArrayList<>();
+        batch.addAll(buildUpdateRegisteredOperations(registeredIds, true));
+        batch.addAll(buildUpdateRegisteredOperations(unregisteredIds, false));
+
+        ContentProviderResult[] results;
+        try {
+            results = getContentResolver().applyBatch(WorkerContract.AUTHORITY, batch);
         } catch (RemoteException | OperationApplicationException e) {
             throw new RuntimeException(e);
         }
 
+        int numberOfRows = 0;
+        for (ContentProviderResult result : results) {
+            if (null != result.count) {
+                numberOfRows += result.count;
+            }
+        }
+
+        // Unless some of the rows are missing every item have been updated,
+        // i.e. the existing rows only have to be read back if the number of
+        // updated rows differ.
+        if (times.size() == numberOfRows) {
+            return times;
+        }
+
+        return retainExistingTime(times, getExistingIds(getIdsFromTime(times)));
+    }
+
+    private Set<Long> getExistingIds(List<String> ids) {
+        Set<Long> existingIds = new HashSet<>();
+
+        for (List<String> segment : SelectionBuilder.segmentInArguments(ids)) {
+            Cursor cursor = getContentResolver().query(
+                    TimeContract.getStreamUri(),
+                    new String[]{BaseColumns._ID},
+                    SelectionBuilder.buildInSelection(BaseColumns._ID, segment.size()),
+                    segment.toArray(new String[segment.size()]),
+                    null
+            );
+            if (null == cursor) {
+                continue;
+            }
+
+            try {
+                while (cursor.moveToNext()) {
+                    existingIds.add(cursor.getLong(0));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        return existingIds;
+    }
+
+    /**
+     * Replace the time without an existing row with null, in the same way as
+     * when updating the time.
+     *
+     * @param times       Time that have been written.
+     * @param existingIds Ids for the existing rows.
+     * @return Written time, with null for the time without an existing row.
+     */
+    static List<Time> retainExistingTime(List<Time> times, Set<Long> existingIds) {
         List<Time> updatedTimes = new ArrayList<>();
         for (Time time : times) {
-            updatedTimes.add(get(time.getId()));
+            if (!existingIds.contains(time.getId())) {
+                updatedTimes.add(null);
+                continue;
+            }
+
+            updatedTimes.add(time);
         }
 
         return updatedTimes;
     }
 
+    /**
+     * Build operations for updating the registered state for items.
+     *
+     * @param ids        Ids for the items to update.
+     * @param registered Whether the items should be registered.
+     * @return Operations for updating the items, one for each segment of items.
+     */
+    private static List<ContentProviderOperation> buildUpdateRegisteredOperations(
+            List<String> ids,
+            boolean registered
+    ) {
+        List<ContentProviderOperation> operations = new ArrayList<>();
+
+        for (List<String> segment : SelectionBuilder.segmentInArguments(ids)) {
+            ContentProviderOperation operation = ContentProviderOperation.newUpdate(TimeContract.getStreamUri())
+                    .withValue(TimeColumns.REGISTERED, registered ? 1L : 0L)
+                    .withSelection(
+                            SelectionBuilder.buildInSelection(BaseColumns._ID, segment.size()),
+                            segment.toArray(new String[segment.size()])
+                    )
+                    .build();
+            operations.add(operation);
+        }
+
+        return operations;
+    }
+
     /**
      * @inheritDoc
      */
@@ -199,9 +545,16 @@ public class TimeResolverRepository
     public void remove(List<Time> times) {
         ArrayList<ContentProviderOperation> batch = new ArrayList<>();
 
-        for (Time time : times) {
-            Uri uri = TimeContract.getItemUri(time.getId());
-            batch.add(ContentProviderOperation.newDelete(uri).build());
+        // Instead of removing each item with a separate statement, the items
+        // are removed with a single statement for each segment of items.
+        for (List<String> segment : SelectionBuilder.segmentInArguments(getIdsFromTime(times))) {
+            ContentProviderOperation operation = ContentProviderOperation.newDelete(TimeContract.getStreamUri())
+                    .withSelection(
+                            SelectionBuilder.buildInSelection(BaseColumns._ID, segment.size()),
+                            segment.toArray(new String[segment.size()])
+                    )
+                    .build();
+            batch.add(operation);
         }
 
         try {
@@ -212,13 +565,11 @@ public class TimeResolverRepository
     }
 
     /**
-     * @inheritDoc
+     * Get the timestamp for the beginning of the current month.
+     *
+     * @return Timestamp for the beginning of the current month.
      */
-    @Override
-    public List<Time> getProjectTimeSinceBeginningOfMonth(long projectId)
-            throws ClockOutBeforeClockInException {
-        final List<Time> result = new ArrayList<>();
-
+    static long getBeginningOfMonthInMilliseconds() {
         // Reset the calendar to retrieve timestamp
         // of the beginning of the month.
         final Calendar calendar = Calendar.getInstance();
@@ -227,28 +578,45 @@ public class TimeResolverRepository
         calendar.set(Calendar.MINUTE, 0);
         calendar.set(Calendar.SECOND, 0);
 
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Time> getProjectTimeSinceBeginningOfMonth(long projectId)
+            throws ClockOutBeforeClockInException {
         final Cursor cursor = getContentResolver().query(
                 ProjectContract.getItemTimeUri(projectId),
                 TimeContract.getColumns(),
                 TimeColumns.START + ">=? OR " + TimeColumns.STOP + " = 0",
-                new String[]{String.valueOf(calendar.getTimeInMillis())},
+                new String[]{String.valueOf(getBeginningOfMonthInMilliseconds())},
                 ProjectContract.ORDER_BY_TIME
         );
         if (null == cursor) {
-            return result;
+            return new ArrayList<>();
         }
 
         try {
-            if (cursor.moveToFirst()) {
-                do {
-                    result.add(getCursorMapper().transform(cursor));
-                } while (cursor.moveToNext());
-            }
+            return readTime(cursor, getCursorMapper());
         } finally {
             cursor.close();
         }
+    }
 
-        return result;
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Map<Long, List<Time>> getProjectTimeSinceBeginningOfMonth(List<Long> projectIds)
+            throws ClockOutBeforeClockInException {
+        return getTimeForProjects(
+                projectIds,
+                TimeColumns.START + ">=? OR " + TimeColumns.STOP + " = 0",
+                new String[]{String.valueOf(getBeginningOfMonthInMilliseconds())},
+                ProjectContract.ORDER_BY_TIME
+        );
     }
 
     /**
@@ -257,7 +625,7 @@ public class TimeResolverRepository
     @Override
     public Map<Date, List<Time>> getTimesheet(
             final long projectId,
-            final int offset,
+            final Date before,
             final Criteria criteria
     ) {
         Map<Date, List<Time>> result = new LinkedHashMap<>();
@@ -265,52 +633,146 @@ public class TimeResolverRepository
         // TODO: Simplify the building of the URI with query parameters.
         Uri uri = ProjectContract.getItemTimesheetUri(projectId)
                 .buildUpon()
-                .appendQueryParameter(WorkerContract.QUERY_PARAMETER_OFFSET, String.valueOf(offset))
                 .appendQueryParameter(WorkerContract.QUERY_PARAMETER_LIMIT, "10")
                 .build();
 
-        ContentResolverQuery query = ContentResolverQuery.from(criteria);
+        // Instead of skipping the already retrieved days with an offset, which
+        // require the skipped days to be grouped again, the segment starts
+        // from the day before the last retrieved day.
+        Criteria segmentCriteria = criteria;
+        if (null != before) {
+            segmentCriteria = Criteria.and(
+                    Criteria.lessThan(TimeColumns.DAY, TimeContract.getDay(before.getTime())),
+                    criteria
+            );
+        }
+
+        // The timesheet have its own order and limit, i.e. only the selection
+        // from the criteria is used.
+        ContentResolverQuery query = ContentResolverQuery.from(segmentCriteria);
         final Cursor cursor = getContentResolver().query(
                 uri,
                 ProjectContract.getTimesheetColumns(),
                 query.getSelection(),
                 query.getSelectionArgs(),
-                ProjectContract.ORDER_BY_TIMESHEET
+                ProjectContract.ORDER_BY_TIMESHEET_SEGMENT
         );
         if (null == cursor) {
             return result;
         }
 
-        if (cursor.moveToFirst()) {
+        // Find the range of timestamps that are included in the segment,
+        // the range is used to retrieve the time rows with a single query.
+        long lowerBound = Long.MAX_VALUE;
+        long upperBound = Long.MIN_VALUE;
+        try {
+            if (!cursor.moveToFirst()) {
+                return result;
+            }
+
             do {
-                String ids = cursor.getString(1);
-                String[] rows = ids.split(",");
-                if (0 == rows.length) {
-                    continue;
-                }
+                lowerBound = Math.min(lowerBound, cursor.getLong(0));
+                upperBound = Math.max(upperBound, cursor.getLong(1));
+            } while (cursor.moveToNext());
+        } finally {
+            cursor.close();
+        }
 
-                List<Time> items = new ArrayList<>();
-                for (String id : rows) {
-                    try {
-                        items.add(get(Long.parseLong(id)));
-                    } catch (DomainException e) {
-                        // TODO: Handle exception properly.
-                    }
-                }
+        return getTimesheetItemsWithinRange(projectId, lowerBound, upperBound, criteria);
+    }
 
-                // Reverse the order of the children to put the latest
-                // item at the top of the list.
-                Collections.reverse(items);
+    /**
+     * Get the time within a range, grouped by day.
+     *
+     * @param projectId  Id for the project.
+     * @param lowerBound Lowest start timestamp to include.
+     * @param upperBound Highest start timestamp to include.
+     * @param criteria   Criteria for matching timesheet items.
+     * @return Time within range, grouped by day with the latest day first.
+     */
+    private Map<Date, List<Time>> getTimesheetItemsWithinRange(
+            final long projectId,
+            final long lowerBound,
+            final long upperBound,
+            final Criteria criteria
+    ) {
+        Map<Date, List<Time>> result = new LinkedHashMap<>();
 
-                Date date = new Date(cursor.getLong(0));
-                result.put(date, items);
-            } while (cursor.moveToNext());
+        ContentResolverQuery query = ContentResolverQuery.from(
+                Criteria.and(
+                        Criteria.between(TimeColumns.START, lowerBound, upperBound),
+                        criteria
+                )
+        );
+        final Cursor cursor = getContentResolver().query(
+                ProjectContract.getItemTimeUri(projectId),
+                TimeContract.getColumns(),
+                query.getSelection(),
+                query.getSelectionArgs(),
+                ProjectContract.ORDER_BY_TIMESHEET
+        );
+        if (null == cursor) {
+            return result;
+        }
+
+        try {
+            readTimesheetItems(cursor, getCursorMapper(), result);
+        } finally {
+            cursor.close();
         }
-        cursor.close();
 
         return result;
     }
 
+    /**
+     * Read the timesheet items from the cursor, grouped by day.
+     *
+     * @param cursor       Cursor with the time, ordered with the latest item first.
+     * @param cursorMapper Mapper for the time.
+     * @param result       Map to populate with the days.
+     */
+    static void readTimesheetItems(
+            Cursor cursor,
+            TimeCursorMapper cursorMapper,
+            Map<Date, List<Time>> result
+    ) {
+        // Since the rows are ordered with the latest item first, the
+        // day is complete as soon as the day key changes. The date for
+        // the day is the start of the earliest item, i.e. the last item.
+        TimeCursorMapper mapper = cursorMapper.forCursor(cursor);
+        List<Time> items = new ArrayList<>();
+        long currentDayKey = 0;
+
+        while (cursor.moveToNext()) {
+            Time time;
+            try {
+                time = mapper.transform(cursor);
+            } catch (DomainException e) {
+                // TODO: Handle exception properly.
+                continue;
+            }
+
+            long dayKey = TimeContract.getDay(time.getStartInMilliseconds());
+            if (!items.isEmpty() && dayKey != currentDayKey) {
+                putTimesheetItems(result, items);
+                items = new ArrayList<>();
+            }
+
+            currentDayKey = dayKey;
+            items.add(time);
+        }
+
+        if (!items.isEmpty()) {
+            putTimesheetItems(result, items);
+        }
+    }
+
+    private static void putTimesheetItems(Map<Date, List<Time>> result, List<Time> items) {
+        Time earliestTime = items.get(items.size() - 1);
+
+        result.put(new Date(earliestTime.getStartInMilliseconds()), items);
+    }
+
     /**
      * @inheritDoc
      */
@@ -320,7 +782,7 @@ public class TimeResolverRepository
         final Cursor cursor = getContentResolver().query(
                 ProjectContract.getItemTimeUri(projectId),
                 TimeContract.getColumns(),
-                TimeColumns.STOP + " = 0",
+                TimeContract.SELECTION_ACTIVE,
                 null,
                 null
         );
@@ -339,4 +801,35 @@ public class TimeResolverRepository
 
         return time;
     }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public boolean clockIn(long projectId, Date date) {
+        return changeClockActivity(WorkerContract.METHOD_CLOCK_IN, projectId, date);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public boolean clockOut(long projectId, Date date) {
+        return changeClockActivity(WorkerContract.METHOD_CLOCK_OUT, projectId, date);
+    }
+
+    private boolean changeClockActivity(String method, long projectId, Date date) {
+        Bundle extras = new Bundle();
+        extras.putLong(WorkerContract.EXTRA_DATE, date.getTime());
+
+        Bundle result = getContentResolver().call(
+                WorkerContract.getAuthorityUri(),
+                method,
+                String.valueOf(projectId),
+                extras
+        );
+
+        return null != result
+                && result.getBoolean(WorkerContract.EXTRA_CLOCK_ACTIVITY_CHANGED);
+    }
 }
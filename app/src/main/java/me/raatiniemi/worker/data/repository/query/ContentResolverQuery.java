@@ -16,32 +16,245 @@
 
 package me.raatiniemi.worker.data.repository.query;
 
+import android.net.Uri;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.raatiniemi.worker.data.WorkerContract;
 import me.raatiniemi.worker.domain.repository.query.Criteria;
 
+/**
+ * Selection, arguments, order and limit compiled from a criteria, used with
+ * the queries against the content resolver.
+ * <p>
+ * Only text values are matched without regard to case, the collation would
+ * otherwise prevent the database from using the indexes for numeric columns.
+ * <p>
+ * Since the criteria is immutable the compiled query is cached by the
+ * criteria, i.e. criteria used repeatedly is only compiled once.
+ * <p>
+ * Only the outermost criteria can be ordered and limited, the order and limit
+ * can't be expressed within the selection for nested criteria.
+ */
 public class ContentResolverQuery {
-    private final Criteria criteria;
+    /**
+     * Maximum number of compiled queries to keep.
+     */
+    private static final int MAXIMUM_NUMBER_OF_CACHED_QUERIES = 32;
+
+    private static final String COLLATE_NOCASE = " COLLATE NOCASE";
+
+    private static final ContentResolverQuery EMPTY_QUERY
+            = new ContentResolverQuery(null, new String[]{}, null, 0);
+
+    private static final Map<Criteria, ContentResolverQuery> cache
+            = new LinkedHashMap<Criteria, ContentResolverQuery>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Criteria, ContentResolverQuery> eldest) {
+            return MAXIMUM_NUMBER_OF_CACHED_QUERIES < size();
+        }
+    };
 
-    private ContentResolverQuery(Criteria criteria) {
-        this.criteria = criteria;
+    private final String selection;
+    private final String[] selectionArgs;
+    private final String sortOrder;
+    private final int limit;
+
+    private ContentResolverQuery(
+            String selection,
+            String[] selectionArgs,
+            String sortOrder,
+            int limit
+    ) {
+        this.selection = selection;
+        this.selectionArgs = selectionArgs;
+        this.sortOrder = sortOrder;
+        this.limit = limit;
     }
 
+    /**
+     * Get the compiled query for the criteria.
+     *
+     * @param criteria Criteria to compile.
+     * @return Compiled query, or an empty query if the criteria is null.
+     * @throws IllegalArgumentException If nested criteria is ordered or limited.
+     */
     public static ContentResolverQuery from(Criteria criteria) {
-        return new ContentResolverQuery(criteria);
+        if (null == criteria) {
+            return EMPTY_QUERY;
+        }
+
+        synchronized (cache) {
+            ContentResolverQuery query = cache.get(criteria);
+            if (null == query) {
+                query = compile(criteria);
+                cache.put(criteria, query);
+            }
+
+            return query;
+        }
     }
 
-    public String getSelection() {
-        if (null == criteria) {
+    private static ContentResolverQuery compile(Criteria criteria) {
+        StringBuilder selection = new StringBuilder();
+        List<String> selectionArgs = new ArrayList<>();
+        appendSelection(selection, selectionArgs, criteria);
+
+        return new ContentResolverQuery(
+                selection.toString(),
+                selectionArgs.toArray(new String[selectionArgs.size()]),
+                buildSortOrder(criteria.getOrder()),
+                criteria.getLimit()
+        );
+    }
+
+    private static void appendSelection(
+            StringBuilder selection,
+            List<String> selectionArgs,
+            Criteria criteria
+    ) {
+        if (criteria.isCombined()) {
+            List<Criteria> combined = criteria.getCriteria();
+            for (int i = 0; i < combined.size(); i++) {
+                if (0 < i) {
+                    selection.append(criteria.getOperator());
+                }
+
+                Criteria item = combined.get(i);
+                if (!item.getOrder().isEmpty() || 0 != item.getLimit()) {
+                    throw new IllegalArgumentException(
+                            "Nested criteria can't be ordered or limited: " + item
+                    );
+                }
+
+                if (item.isCombined()) {
+                    selection.append('(');
+                    appendSelection(selection, selectionArgs, item);
+                    selection.append(')');
+                    continue;
+                }
+                appendSelection(selection, selectionArgs, item);
+            }
+            return;
+        }
+
+        List<Object> values = criteria.getValues();
+        for (Object value : values) {
+            selectionArgs.add(toArgument(value));
+        }
+
+        // The collation is only used when every value is text, the values
+        // for a criteria are always of the same type.
+        String collation = isText(values) ? COLLATE_NOCASE : "";
+        switch (criteria.getOperator()) {
+            case Criteria.IN:
+                if (values.isEmpty()) {
+                    // Nothing can match an empty set of values.
+                    selection.append('0');
+                    return;
+                }
+
+                selection.append(criteria.getField()).append(collation)
+                        .append(criteria.getOperator()).append('(');
+                for (int i = 0; i < values.size(); i++) {
+                    selection.append(0 == i ? "?" : ",?");
+                }
+                selection.append(')');
+                return;
+            case Criteria.BETWEEN:
+                selection.append(criteria.getField()).append(collation)
+                        .append(criteria.getOperator()).append("? AND ?");
+                return;
+            default:
+                selection.append(criteria.getField())
+                        .append(criteria.getOperator()).append('?').append(collation);
+        }
+    }
+
+    private static boolean isText(List<Object> values) {
+        for (Object value : values) {
+            if (!(value instanceof CharSequence) && !(value instanceof Character)) {
+                return false;
+            }
+        }
+
+        return !values.isEmpty();
+    }
+
+    private static String toArgument(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        }
+
+        if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        }
+
+        return String.valueOf(value);
+    }
+
+    private static String buildSortOrder(List<Criteria.Order> order) {
+        if (order.isEmpty()) {
             return null;
         }
 
-        return criteria.getField() + criteria.getOperator() + "? COLLATE NOCASE";
+        StringBuilder sortOrder = new StringBuilder();
+        for (Criteria.Order item : order) {
+            if (0 < sortOrder.length()) {
+                sortOrder.append(',');
+            }
+
+            sortOrder.append(item.getField())
+                    .append(item.isAscending() ? " ASC" : " DESC");
+        }
+
+        return sortOrder.toString();
+    }
+
+    public String getSelection() {
+        return selection;
     }
 
     public String[] getSelectionArgs() {
-        if (null == criteria) {
-            return new String[]{};
+        // The arguments are shared between the uses of the cached query.
+        return selectionArgs.clone();
+    }
+
+    public String getSortOrder() {
+        return sortOrder;
+    }
+
+    /**
+     * Get the limit, used when the query is performed against the database.
+     *
+     * @return Limit for the query, or null if the query is without limit.
+     */
+    public String getLimit() {
+        if (0 == limit) {
+            return null;
+        }
+
+        return String.valueOf(limit);
+    }
+
+    /**
+     * Apply the limit to the URI, the provider reads the limit from the
+     * query parameter.
+     *
+     * @param uri URI for the query.
+     * @return URI with the limit, or the same URI if the query is without limit.
+     */
+    public Uri applyLimit(Uri uri) {
+        if (0 == limit) {
+            return uri;
         }
 
-        return new String[]{criteria.getValue()};
+        return uri.buildUpon()
+                .appendQueryParameter(WorkerContract.QUERY_PARAMETER_LIMIT, String.valueOf(limit))
+                .build();
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data;
+
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.greenrobot.eventbus.EventBus;
+
+import me.raatiniemi.worker.data.service.data.strategy.StorageBackupStrategy;
+import me.raatiniemi.worker.domain.interactor.BackupStrategy;
+import me.raatiniemi.worker.domain.interactor.CreateBackup;
+import me.raatiniemi.worker.presentation.settings.model.BackupStatistics;
+import me.raatiniemi.worker.presentation.util.PermissionUtil;
+import me.raatiniemi.worker.presentation.util.Settings;
+
+import static android.Manifest.permission.WRITE_EXTERNAL_STORAGE;
+
+/**
+ * Run the automatic backup scheduled by the {@link BackupScheduler}.
+ * <p>
+ * The backup is skipped if nothing have changed since the latest snapshot,
+ * and no notification is displayed since the user did not initiate the run.
+ * Failed runs are instead recorded in the {@link BackupStatistics}, which is
+ * displayed with the automatic backup setting.
+ */
+public class BackupJobService extends JobService {
+    private static final String TAG = "BackupJobService";
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public boolean onStartJob(final JobParameters params) {
+        if (!Settings.isAutomaticBackupEnabled(this)) {
+            BackupScheduler.cancel(this);
+            return false;
+        }
+
+        // The permission can be revoked after the automatic backup have been
+        // enabled, the run is recorded as failed until it have been granted.
+        if (!PermissionUtil.havePermission(this, WRITE_EXTERNAL_STORAGE)) {
+            Log.w(TAG, "Permission for writing to external storage is not granted");
+            Settings.setLatestBackupStatistics(this, BackupStatistics.failed(0L));
+            return false;
+        }
+
+        // The job is started on the main thread, i.e. the backup have to be
+        // written on a separate thread.
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                long startedAt = SystemClock.elapsedRealtime();
+                try {
+                    BackupStrategy backupStrategy = new StorageBackupStrategy(
+                            BackupJobService.this,
+                            EventBus.getDefault(),
+                            RetentionPolicy.DEFAULT,
+                            true
+                    );
+                    CreateBackup createBackup = new CreateBackup(backupStrategy);
+                    createBackup.execute();
+                } catch (Exception e) {
+                    Log.w(TAG, "Unable to run automatic backup", e);
+                    Settings.setLatestBackupStatistics(
+                            BackupJobService.this,
+                            BackupStatistics.failed(SystemClock.elapsedRealtime() - startedAt)
+                    );
+                } finally {
+                    jobFinished(params, false);
+                }
+            }
+        }, TAG).start();
+
+        return true;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // The run is left to finish, the snapshot is written to a temporary
+        // file and the provider is blocking the writes while it's written.
+        // There's no reason to reschedule, the next interval will do.
+        return false;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data;
+
+import android.app.AlarmManager;
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import me.raatiniemi.worker.Worker;
+
+/**
+ * Schedule the automatic backup with the job scheduler.
+ * <p>
+ * The backup is only run while the device is idle and charging, i.e. the
+ * backup never competes with the user for the disk or the battery. Scheduling
+ * is coalesced, if the job is already pending it's left untouched instead of
+ * restarting the interval.
+ */
+public final class BackupScheduler {
+    private static final String TAG = "BackupScheduler";
+
+    /**
+     * Interval between the automatic backups.
+     */
+    static final long INTERVAL = AlarmManager.INTERVAL_DAY;
+
+    private BackupScheduler() {
+    }
+
+    /**
+     * Schedule the automatic backup, unless it's already scheduled.
+     *
+     * @param context Context used to reach the job scheduler.
+     */
+    public static void schedule(@NonNull Context context) {
+        JobScheduler scheduler = getJobScheduler(context);
+        if (isScheduled(scheduler)) {
+            Log.d(TAG, "Automatic backup is already scheduled");
+            return;
+        }
+
+        JobInfo job = new JobInfo.Builder(
+                Worker.JOB_AUTOMATIC_BACKUP_ID,
+                new ComponentName(context, BackupJobService.class)
+        )
+                .setRequiresDeviceIdle(true)
+                .setRequiresCharging(true)
+                .setPeriodic(INTERVAL)
+                .setPersisted(true)
+                .build();
+
+        if (JobScheduler.RESULT_SUCCESS != scheduler.schedule(job)) {
+            Log.w(TAG, "Unable to schedule automatic backup");
+        }
+    }
+
+    /**
+     * Cancel the automatic backup.
+     *
+     * @param context Context used to reach the job scheduler.
+     */
+    public static void cancel(@NonNull Context context) {
+        getJobScheduler(context).cancel(Worker.JOB_AUTOMATIC_BACKUP_ID);
+    }
+
+    private static boolean isScheduled(JobScheduler scheduler) {
+        for (JobInfo job : scheduler.getAllPendingJobs()) {
+            if (Worker.JOB_AUTOMATIC_BACKUP_ID == job.getId()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static JobScheduler getJobScheduler(Context context) {
+        return (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+    }
+}
@@ -25,6 +25,8 @@ import android.util.Log;
 
 import org.greenrobot.eventbus.EventBus;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import me.raatiniemi.worker.R;
 import me.raatiniemi.worker.Worker;
 import me.raatiniemi.worker.data.service.data.strategy.StorageBackupStrategy;
@@ -36,11 +38,30 @@ import me.raatiniemi.worker.presentation.view.notification.ErrorNotification;
 public class BackupService extends IntentService {
     private static final String TAG = "BackupService";
 
+    /**
+     * Whether a backup is waiting to be handled, used for coalescing the
+     * requests made before the backup have started.
+     */
+    private static final AtomicBoolean pending = new AtomicBoolean();
+
     private EventBus eventBus;
 
     public static void startBackup(Context context) {
-        Intent intent = new Intent(context, BackupService.class);
-        context.startService(intent);
+        // Every request made before the backup have started is covered by
+        // the same backup, i.e. there's no need to queue another one.
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            Intent intent = new Intent(context, BackupService.class);
+            context.startService(intent);
+        } catch (RuntimeException e) {
+            // The backup will not be handled, i.e. the next request have to be
+            // able to start the service again.
+            pending.set(false);
+            throw e;
+        }
     }
 
     public BackupService() {
@@ -51,6 +72,8 @@ public class BackupService extends IntentService {
 
     @Override
     protected void onHandleIntent(Intent intent) {
+        pending.set(false);
+
         NotificationManager manager = null;
         Notification notification = null;
 
@@ -58,7 +81,11 @@ public class BackupService extends IntentService {
             manager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
 
             // Create the backup.
-            BackupStrategy backupStrategy = new StorageBackupStrategy(this, eventBus);
+            BackupStrategy backupStrategy = new StorageBackupStrategy(
+                    this,
+                    eventBus,
+                    RetentionPolicy.DEFAULT
+            );
             CreateBackup createBackup = new CreateBackup(backupStrategy);
             createBackup.execute();
 
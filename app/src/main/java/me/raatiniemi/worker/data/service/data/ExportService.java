@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data;
+
+import android.app.IntentService;
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import me.raatiniemi.worker.R;
+import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.data.service.data.strategy.StorageExportStrategy;
+import me.raatiniemi.worker.domain.interactor.CreateExport;
+import me.raatiniemi.worker.domain.interactor.ExportStrategy;
+import me.raatiniemi.worker.presentation.view.notification.ErrorNotification;
+import me.raatiniemi.worker.presentation.view.notification.ExportNotification;
+
+public class ExportService extends IntentService {
+    private static final String TAG = "ExportService";
+
+    /**
+     * Whether an export is waiting to be handled, used for coalescing the
+     * requests made before the export have started.
+     */
+    private static final AtomicBoolean pending = new AtomicBoolean();
+
+    public static void startExport(Context context) {
+        // Every request made before the export have started is covered by
+        // the same export, i.e. there's no need to queue another one.
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            Intent intent = new Intent(context, ExportService.class);
+            context.startService(intent);
+        } catch (RuntimeException e) {
+            // The export will not be handled, i.e. the next request have to be
+            // able to start the service again.
+            pending.set(false);
+            throw e;
+        }
+    }
+
+    public ExportService() {
+        super(TAG);
+    }
+
+    @Override
+    protected void onHandleIntent(Intent intent) {
+        pending.set(false);
+
+        NotificationManager manager = null;
+        Notification notification = null;
+
+        try {
+            manager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+
+            // Create the export.
+            ExportStrategy exportStrategy = new StorageExportStrategy(
+                    this,
+                    StorageExportStrategy.Format.CSV,
+                    false
+            );
+            CreateExport createExport = new CreateExport(exportStrategy);
+            createExport.execute();
+
+            notification = ExportNotification.build(this);
+        } catch (ClassCastException e) {
+            Log.w(TAG, "Unable to cast the NotificationManager", e);
+        } catch (Exception e) {
+            Log.w(TAG, "Unable to export", e);
+
+            notification = ErrorNotification.build(
+                    this,
+                    getString(R.string.error_notification_export_title),
+                    getString(R.string.error_notification_export_message)
+            );
+        } finally {
+            // Both the notification and notification manager must be
+            // available, otherwise we can't display the notification.
+            if (null != manager && null != notification) {
+                manager.notify(
+                        Worker.NOTIFICATION_EXPORT_SERVICE_ID,
+                        notification
+                );
+            }
+        }
+    }
+}
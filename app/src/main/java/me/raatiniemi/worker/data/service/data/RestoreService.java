@@ -52,7 +52,10 @@ public class RestoreService extends IntentService {
             manager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
 
             // Restore the backup.
-            RestoreStrategy restoreStrategy = new StorageRestoreStrategy(this);
+            RestoreStrategy restoreStrategy = new StorageRestoreStrategy(
+                    this,
+                    new ProgressNotifier(manager)
+            );
             RestoreBackup restoreBackup = new RestoreBackup(restoreStrategy);
             restoreBackup.execute();
 
@@ -85,4 +88,35 @@ public class RestoreService extends IntentService {
             }
         }
     }
+
+    /**
+     * Display the restore progress, the notification is only updated when
+     * the progress in percent have changed.
+     */
+    private class ProgressNotifier implements StorageRestoreStrategy.OnProgressListener {
+        private final NotificationManager manager;
+        private int percent = -1;
+
+        private ProgressNotifier(NotificationManager manager) {
+            this.manager = manager;
+        }
+
+        @Override
+        public void onProgress(long progress, long max) {
+            int percent = 100;
+            if (0 < max) {
+                percent = (int) (progress * 100 / max);
+            }
+
+            if (this.percent == percent) {
+                return;
+            }
+            this.percent = percent;
+
+            manager.notify(
+                    Worker.NOTIFICATION_RESTORE_SERVICE_ID,
+                    RestoreNotification.buildProgress(RestoreService.this, percent)
+            );
+        }
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Policy for which of the backup snapshots to keep.
+ * <p>
+ * The snapshots are kept as chains, each beginning with a full snapshot
+ * followed by the incremental snapshots based on it. A chain is only removed
+ * as a whole, i.e. every kept snapshot can be restored.
+ */
+public final class RetentionPolicy {
+    /**
+     * Policy keeping three chains with up to six incremental snapshots each.
+     */
+    public static final RetentionPolicy DEFAULT = new RetentionPolicy(3, 6);
+
+    /**
+     * Number of chains to keep.
+     */
+    private final int numberOfChains;
+
+    /**
+     * Number of incremental snapshots before a full snapshot is required.
+     */
+    private final int numberOfIncrementalSnapshots;
+
+    /**
+     * Constructor.
+     *
+     * @param numberOfChains               Number of chains to keep.
+     * @param numberOfIncrementalSnapshots Number of incremental snapshots before a full snapshot is required.
+     * @throws IllegalArgumentException If no chain is kept, or the number of incremental snapshots is negative.
+     */
+    public RetentionPolicy(int numberOfChains, int numberOfIncrementalSnapshots) {
+        if (1 > numberOfChains) {
+            throw new IllegalArgumentException("At least one chain have to be kept");
+        }
+
+        if (0 > numberOfIncrementalSnapshots) {
+            throw new IllegalArgumentException("Number of incremental snapshots cannot be negative");
+        }
+
+        this.numberOfChains = numberOfChains;
+        this.numberOfIncrementalSnapshots = numberOfIncrementalSnapshots;
+    }
+
+    public int getNumberOfChains() {
+        return numberOfChains;
+    }
+
+    public int getNumberOfIncrementalSnapshots() {
+        return numberOfIncrementalSnapshots;
+    }
+
+    /**
+     * Check whether the next snapshot have to be a full snapshot.
+     *
+     * @param chain      Latest chain of snapshots.
+     * @param generation Current generation of the change counter.
+     * @return true if a full snapshot is required, otherwise false.
+     */
+    boolean isFullSnapshotRequired(
+            @NonNull List<SnapshotManifest.Entry> chain,
+            @NonNull String generation
+    ) {
+        if (chain.isEmpty()) {
+            return true;
+        }
+
+        // The counter values from another generation can't be compared, e.g.
+        // if time have been imported since the last snapshot.
+        SnapshotManifest.Entry latest = chain.get(chain.size() - 1);
+        if (!generation.equals(latest.getGeneration())) {
+            return true;
+        }
+
+        // The chain begins with the full snapshot.
+        return numberOfIncrementalSnapshots < chain.size();
+    }
+
+    /**
+     * Get the entries outside of the kept chains.
+     * <p>
+     * Incremental snapshots without a preceding full snapshot can't be
+     * restored, and are included with the expired entries.
+     *
+     * @param entries Entries from the manifest, in the order they were written.
+     * @return Entries for the snapshots that should be removed.
+     */
+    @NonNull
+    List<SnapshotManifest.Entry> getExpiredEntries(@NonNull List<SnapshotManifest.Entry> entries) {
+        // Find the full snapshot beginning the oldest of the kept chains,
+        // every entry before it is expired.
+        int first = entries.size();
+        int chains = 0;
+        for (int i = entries.size() - 1; i >= 0 && chains < numberOfChains; i--) {
+            if (entries.get(i).isFull()) {
+                first = i;
+                chains++;
+            }
+        }
+
+        return new ArrayList<>(entries.subList(0, first));
+    }
+}
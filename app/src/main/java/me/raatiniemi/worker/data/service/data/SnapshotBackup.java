@@ -0,0 +1,610 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.provider.BaseColumns;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.data.WorkerContract.BackupStateColumns;
+import me.raatiniemi.worker.data.WorkerContract.ProjectColumns;
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerDatabase;
+
+/**
+ * Write and restore compressed backup snapshots.
+ * <p>
+ * Every write to the registered time increments a change counter stored with
+ * the time, i.e. an incremental snapshot only have to include the time
+ * changed since the counter value of the previous snapshot. The removed time
+ * is recorded with the counter value by the database, i.e. the incremental
+ * snapshot includes the ids of the time removed since the previous snapshot.
+ * The projects are few and always included.
+ * <p>
+ * The snapshots are streamed through gzip, as a header followed by tagged
+ * records, and the snapshot directory is indexed by the {@link SnapshotManifest}.
+ */
+public final class SnapshotBackup {
+    /**
+     * Magic number at the beginning of each snapshot, i.e. "WKSS".
+     */
+    private static final int MAGIC = 0x574b5353;
+
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Version for the snapshots written before the removed time was recorded,
+     * the incremental snapshots includes the ids of the remaining time.
+     */
+    private static final int FORMAT_VERSION_REMAINING_TIME_IDS = 1;
+
+    private static final String FILE_SUFFIX = ".gz";
+
+    private static final byte TAG_END = 0;
+    private static final byte TAG_PROJECT = 1;
+    private static final byte TAG_TIME = 2;
+    private static final byte TAG_TIME_ID = 3;
+    private static final byte TAG_DELETED_TIME_ID = 4;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Number of restored records between each progress report.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String TEMPORARY_TIME_IDS = "snapshot_time_id";
+
+    private static final String INSERT_PROJECT = "INSERT INTO " + Tables.PROJECT + " (" +
+            BaseColumns._ID + "," +
+            ProjectColumns.NAME + "," +
+            ProjectColumns.DESCRIPTION + "," +
+            ProjectColumns.ARCHIVED + ") VALUES (?,?,?,?)";
+
+    private static final String INSERT_TIME = "INSERT OR REPLACE INTO " + Tables.TIME + " (" +
+            BaseColumns._ID + "," +
+            TimeColumns.PROJECT_ID + "," +
+            TimeColumns.START + "," +
+            TimeColumns.STOP + "," +
+            TimeColumns.REGISTERED + "," +
+            TimeColumns.DAY + ") VALUES (?,?,?,?,?,?)";
+
+    private static final String DELETE_TIME = "DELETE FROM " + Tables.TIME +
+            " WHERE " + BaseColumns._ID + "=?";
+
+    private final File directory;
+
+    private final RetentionPolicy retentionPolicy;
+
+    /**
+     * Constructor.
+     *
+     * @param directory       Directory for the snapshots.
+     * @param retentionPolicy Policy for which of the snapshots to keep.
+     */
+    public SnapshotBackup(@NonNull File directory, @NonNull RetentionPolicy retentionPolicy) {
+        this.directory = directory;
+        this.retentionPolicy = retentionPolicy;
+    }
+
+    /**
+     * Check whether the database have changed since the latest snapshot.
+     *
+     * @param db Database to check.
+     * @return true if the database have changed, or no snapshot is available,
+     * otherwise false.
+     * @throws IOException If the manifest can't be read.
+     */
+    public boolean isChanged(@NonNull SQLiteDatabase db) throws IOException {
+        SnapshotManifest.Entry latest = SnapshotManifest.read(directory).getLatest();
+        if (null == latest) {
+            return true;
+        }
+
+        return latest.getCounter() != readCounter(db)
+                || !latest.getGeneration().equals(readGeneration(db));
+    }
+
+    private static long readCounter(SQLiteDatabase db) {
+        return DatabaseUtils.longForQuery(
+                db,
+                "SELECT " + BackupStateColumns.COUNTER + " FROM " + Tables.BACKUP_STATE,
+                null
+        );
+    }
+
+    private static String readGeneration(SQLiteDatabase db) {
+        return DatabaseUtils.stringForQuery(
+                db,
+                "SELECT " + BackupStateColumns.GENERATION + " FROM " + Tables.BACKUP_STATE,
+                null
+        );
+    }
+
+    /**
+     * Write a snapshot of the database, and remove the expired snapshots.
+     * <p>
+     * The database should not be written to while the snapshot is written,
+     * otherwise the counter value for the snapshot might not match the
+     * included time.
+     *
+     * @param db        Database to write the snapshot for.
+     * @param timestamp Timestamp for the snapshot.
+     * @return Snapshot file.
+     * @throws IOException If the snapshot or manifest can't be written.
+     */
+    @NonNull
+    public File write(@NonNull SQLiteDatabase db, long timestamp) throws IOException {
+        SnapshotManifest manifest = SnapshotManifest.read(directory);
+
+        long counter = readCounter(db);
+        String generation = readGeneration(db);
+
+        List<SnapshotManifest.Entry> chain = manifest.getChain();
+        boolean full = retentionPolicy.isFullSnapshotRequired(chain, generation);
+        long baseCounter = 0;
+        if (!full) {
+            baseCounter = chain.get(chain.size() - 1).getCounter();
+        }
+
+        // The timestamp is part of the name, i.e. the timestamp is adjusted
+        // if the snapshots are written within the same millisecond.
+        String name = buildName(timestamp);
+        while (new File(directory, name).exists()) {
+            timestamp++;
+            name = buildName(timestamp);
+        }
+        File file = new File(directory, name);
+
+        // The snapshot is written to a temporary file, i.e. an interrupted
+        // write never leaves a partial snapshot with the expected name.
+        File temporary = new File(directory, name + ".tmp");
+        long numberOfRecords;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(temporary), BUFFER_SIZE),
+                BUFFER_SIZE
+        ))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeBoolean(full);
+            out.writeUTF(generation);
+            out.writeLong(baseCounter);
+            out.writeLong(counter);
+            out.writeLong(timestamp);
+
+            numberOfRecords = writeProjects(db, out);
+            numberOfRecords += writeTime(db, out, full, baseCounter);
+            if (!full) {
+                numberOfRecords += writeDeletedTimeIds(db, out, baseCounter);
+            }
+            out.writeByte(TAG_END);
+        } catch (IOException e) {
+            if (!temporary.delete()) {
+                temporary.deleteOnExit();
+            }
+            throw e;
+        }
+
+        if (!temporary.renameTo(file)) {
+            throw new IOException("Unable to rename snapshot " + temporary.getPath());
+        }
+
+        manifest.add(new SnapshotManifest.Entry(
+                name,
+                timestamp,
+                full,
+                generation,
+                baseCounter,
+                counter,
+                numberOfRecords
+        ));
+        List<SnapshotManifest.Entry> expired = retentionPolicy.getExpiredEntries(
+                manifest.getEntries()
+        );
+        manifest.removeAll(expired);
+        manifest.write();
+
+        // The removed time is part of the snapshot, and the next snapshot is
+        // either based on this one or a full snapshot.
+        db.delete(
+                Tables.DELETED_TIME,
+                TimeColumns.CHANGED + " <= ?",
+                new String[]{String.valueOf(counter)}
+        );
+
+        // The expired snapshots are removed after the manifest have been
+        // written, i.e. the manifest never refers to a removed snapshot.
+        for (SnapshotManifest.Entry entry : expired) {
+            File expiredFile = entry.getFile(directory);
+            if (expiredFile.exists() && !expiredFile.delete()) {
+                throw new IOException("Unable to remove snapshot " + expiredFile.getPath());
+            }
+        }
+
+        return file;
+    }
+
+    @NonNull
+    private static String buildName(long timestamp) {
+        return Worker.STORAGE_BACKUP_DIRECTORY_PREFIX + timestamp + FILE_SUFFIX;
+    }
+
+    private static long writeProjects(SQLiteDatabase db, DataOutputStream out) throws IOException {
+        long numberOfRecords = 0;
+
+        try (Cursor cursor = db.rawQuery(
+                "SELECT " + BaseColumns._ID + "," +
+                        ProjectColumns.NAME + "," +
+                        ProjectColumns.DESCRIPTION + "," +
+                        ProjectColumns.ARCHIVED +
+                        " FROM " + Tables.PROJECT,
+                null
+        )) {
+            while (cursor.moveToNext()) {
+                out.writeByte(TAG_PROJECT);
+                out.writeLong(cursor.getLong(0));
+                out.writeUTF(cursor.getString(1));
+                out.writeBoolean(!cursor.isNull(2));
+                if (!cursor.isNull(2)) {
+                    out.writeUTF(cursor.getString(2));
+                }
+                out.writeLong(cursor.getLong(3));
+
+                numberOfRecords++;
+            }
+        }
+
+        return numberOfRecords;
+    }
+
+    private static long writeTime(
+            SQLiteDatabase db,
+            DataOutputStream out,
+            boolean full,
+            long baseCounter
+    ) throws IOException {
+        long numberOfRecords = 0;
+
+        // The full snapshot includes every row, including the rows without a
+        // counter value from before the counter was introduced.
+        String selection = "";
+        String[] selectionArgs = null;
+        if (!full) {
+            selection = " WHERE " + TimeColumns.CHANGED + " > ?";
+            selectionArgs = new String[]{String.valueOf(baseCounter)};
+        }
+
+        try (Cursor cursor = db.rawQuery(
+                "SELECT " + BaseColumns._ID + "," +
+                        TimeColumns.PROJECT_ID + "," +
+                        TimeColumns.START + "," +
+                        TimeColumns.STOP + "," +
+                        TimeColumns.REGISTERED + "," +
+                        TimeColumns.DAY +
+                        " FROM " + Tables.TIME + selection,
+                selectionArgs
+        )) {
+            while (cursor.moveToNext()) {
+                out.writeByte(TAG_TIME);
+                for (int i = 0; i < 6; i++) {
+                    out.writeLong(cursor.getLong(i));
+                }
+
+                numberOfRecords++;
+            }
+        }
+
+        return numberOfRecords;
+    }
+
+    private static long writeDeletedTimeIds(
+            SQLiteDatabase db,
+            DataOutputStream out,
+            long baseCounter
+    ) throws IOException {
+        long numberOfRecords = 0;
+
+        try (Cursor cursor = db.rawQuery(
+                "SELECT " + BaseColumns._ID + " FROM " + Tables.DELETED_TIME +
+                        " WHERE " + TimeColumns.CHANGED + " > ?",
+                new String[]{String.valueOf(baseCounter)}
+        )) {
+            while (cursor.moveToNext()) {
+                out.writeByte(TAG_DELETED_TIME_ID);
+                out.writeLong(cursor.getLong(0));
+
+                numberOfRecords++;
+            }
+        }
+
+        return numberOfRecords;
+    }
+
+    /**
+     * Replace the projects and registered time within the database with the
+     * latest snapshot.
+     * <p>
+     * The snapshots in the chain are applied in order within a single
+     * transaction, if any of the snapshots is invalid the database is left
+     * untouched.
+     *
+     * @param db                 Database to restore into.
+     * @param onProgressListener Listener for the restore progress.
+     * @return Number of clocked out active time, i.e. duplicated active time
+     * from snapshots written before the database version 6.
+     * @throws IOException If no snapshot is available, or a snapshot is invalid.
+     */
+    public int restore(@NonNull SQLiteDatabase db, @Nullable OnProgressListener onProgressListener)
+            throws IOException {
+        List<SnapshotManifest.Entry> chain = SnapshotManifest.read(directory).getChain();
+        if (chain.isEmpty()) {
+            throw new FileNotFoundException("Unable to find snapshot within " + directory.getPath());
+        }
+
+        Progress progress = new Progress(onProgressListener);
+        for (SnapshotManifest.Entry entry : chain) {
+            progress.max += entry.getNumberOfRecords();
+        }
+        progress.report();
+
+        SnapshotManifest.Entry latest = chain.get(chain.size() - 1);
+
+        int clockedOutActiveTime = 0;
+        db.beginTransaction();
+        try {
+            db.delete(Tables.TIME, null, null);
+            db.delete(Tables.PROJECT, null, null);
+            db.delete("sqlite_sequence", null, null);
+            db.execSQL("CREATE TEMP TABLE IF NOT EXISTS " + TEMPORARY_TIME_IDS +
+                    " (" + BaseColumns._ID + " INTEGER PRIMARY KEY)");
+            db.delete(TEMPORARY_TIME_IDS, null, null);
+
+            // The index is dropped while restoring since the time is replaced
+            // by the later snapshots, i.e. the active time is only consistent
+            // once every snapshot have been applied.
+            WorkerDatabase.dropActiveTimeIndex(db);
+
+            int version = FORMAT_VERSION;
+            for (SnapshotManifest.Entry entry : chain) {
+                version = restoreSnapshot(db, entry, entry == latest, progress);
+            }
+
+            // The time removed since the full snapshot is not part of the
+            // remaining time for the latest snapshot, for the snapshots
+            // written before the removed time was recorded.
+            if (!latest.isFull() && FORMAT_VERSION_REMAINING_TIME_IDS == version) {
+                db.execSQL("DELETE FROM " + Tables.TIME +
+                        " WHERE " + BaseColumns._ID + " NOT IN (" +
+                        "SELECT " + BaseColumns._ID + " FROM " + TEMPORARY_TIME_IDS + ")");
+            }
+            db.execSQL("DROP TABLE " + TEMPORARY_TIME_IDS);
+
+            // The snapshots written before the removed time was recorded can
+            // be from before version 6, same as the imported backups.
+            if (FORMAT_VERSION_REMAINING_TIME_IDS == version) {
+                clockedOutActiveTime = WorkerDatabase.clockOutDuplicatedActiveTime(db);
+            }
+            WorkerDatabase.createActiveTimeIndex(db);
+
+            // The restored time is part of the latest snapshot, i.e. the
+            // next snapshot can be based on it.
+            db.execSQL("UPDATE " + Tables.TIME + " SET " + TimeColumns.CHANGED + " = 0");
+            db.delete(Tables.DELETED_TIME, null, null);
+            db.execSQL(
+                    "UPDATE " + Tables.BACKUP_STATE + " SET " +
+                            BackupStateColumns.COUNTER + " = ?, " +
+                            BackupStateColumns.GENERATION + " = ?",
+                    new Object[]{latest.getCounter(), latest.getGeneration()}
+            );
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        progress.report();
+
+        return clockedOutActiveTime;
+    }
+
+    /**
+     * Apply the records from the snapshot.
+     *
+     * @return Format version for the snapshot.
+     */
+    private int restoreSnapshot(
+            SQLiteDatabase db,
+            SnapshotManifest.Entry entry,
+            boolean latest,
+            Progress progress
+    ) throws IOException {
+        File file = entry.getFile(directory);
+
+        SQLiteStatement insertProject = db.compileStatement(INSERT_PROJECT);
+        SQLiteStatement insertTime = db.compileStatement(INSERT_TIME);
+        SQLiteStatement deleteTime = db.compileStatement(DELETE_TIME);
+        SQLiteStatement insertTimeId = db.compileStatement(
+                "INSERT INTO " + TEMPORARY_TIME_IDS + " (" + BaseColumns._ID + ") VALUES (?)"
+        );
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE),
+                BUFFER_SIZE
+        ))) {
+            int version = readHeader(in, entry, file);
+
+            byte tag;
+            while (TAG_END != (tag = in.readByte())) {
+                switch (tag) {
+                    case TAG_PROJECT:
+                        readProject(in, latest ? insertProject : null);
+                        break;
+                    case TAG_TIME:
+                        for (int i = 1; i <= 6; i++) {
+                            insertTime.bindLong(i, in.readLong());
+                        }
+                        insertTime.executeInsert();
+                        break;
+                    case TAG_DELETED_TIME_ID:
+                        deleteTime.bindLong(1, in.readLong());
+                        deleteTime.executeUpdateDelete();
+                        break;
+                    case TAG_TIME_ID:
+                        long id = in.readLong();
+                        if (latest) {
+                            insertTimeId.bindLong(1, id);
+                            insertTimeId.executeInsert();
+                        }
+                        break;
+                    default:
+                        throw new IOException("Snapshot " + file.getPath() + " have unknown record " + tag);
+                }
+
+                progress.increment();
+            }
+
+            // The checksum is verified when the end of the stream is reached.
+            if (-1 != in.read()) {
+                throw new IOException("Snapshot " + file.getPath() + " have trailing data");
+            }
+
+            return version;
+        } catch (EOFException e) {
+            throw new IOException("Snapshot " + file.getPath() + " is truncated", e);
+        } finally {
+            insertTimeId.close();
+            deleteTime.close();
+            insertTime.close();
+            insertProject.close();
+        }
+    }
+
+    private static int readHeader(DataInputStream in, SnapshotManifest.Entry entry, File file)
+            throws IOException {
+        if (MAGIC != in.readInt()) {
+            throw new IOException(file.getPath() + " is not a snapshot");
+        }
+
+        int version = in.readInt();
+        if (FORMAT_VERSION != version && FORMAT_VERSION_REMAINING_TIME_IDS != version) {
+            throw new IOException("Snapshot " + file.getPath() + " have unsupported version " + version);
+        }
+
+        boolean full = in.readBoolean();
+        String generation = in.readUTF();
+        long baseCounter = in.readLong();
+        long counter = in.readLong();
+        in.readLong();
+
+        if (entry.isFull() != full
+                || !entry.getGeneration().equals(generation)
+                || entry.getBaseCounter() != baseCounter
+                || entry.getCounter() != counter) {
+            throw new IOException("Snapshot " + file.getPath() + " do not match the manifest");
+        }
+
+        return version;
+    }
+
+    private static void readProject(DataInputStream in, @Nullable SQLiteStatement insertProject)
+            throws IOException {
+        long id = in.readLong();
+        String name = in.readUTF();
+        String description = null;
+        if (in.readBoolean()) {
+            description = in.readUTF();
+        }
+        long archived = in.readLong();
+
+        // Only the projects from the latest snapshot are restored, the
+        // projects are always included in full.
+        if (null == insertProject) {
+            return;
+        }
+
+        insertProject.bindLong(1, id);
+        insertProject.bindString(2, name);
+        if (null == description) {
+            insertProject.bindNull(3);
+        } else {
+            insertProject.bindString(3, description);
+        }
+        insertProject.bindLong(4, archived);
+        insertProject.executeInsert();
+    }
+
+    /**
+     * Restore progress, reported for every batch of records.
+     */
+    private static final class Progress {
+        private final OnProgressListener onProgressListener;
+
+        private long progress;
+        private long max;
+
+        private Progress(@Nullable OnProgressListener onProgressListener) {
+            this.onProgressListener = onProgressListener;
+        }
+
+        private void increment() {
+            progress++;
+            if (0 == progress % BATCH_SIZE) {
+                report();
+            }
+        }
+
+        private void report() {
+            if (null == onProgressListener) {
+                return;
+            }
+
+            onProgressListener.onProgress(progress, max);
+        }
+    }
+
+    /**
+     * Listener for the restore progress.
+     */
+    public interface OnProgressListener {
+        /**
+         * Report the progress of the restore.
+         *
+         * @param progress Number of restored records.
+         * @param max      Number of records within the snapshots.
+         */
+        void onProgress(long progress, long max);
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of the backup snapshots within a directory.
+ * <p>
+ * The entries are kept in the order the snapshots were written, i.e. the
+ * latest snapshot is found without listing the directory or reading any of
+ * the snapshots. The manifest is replaced atomically when written, an
+ * interrupted write leaves the previous manifest intact.
+ */
+public final class SnapshotManifest {
+    /**
+     * Name of the manifest file within the snapshot directory.
+     */
+    static final String FILE_NAME = "manifest";
+
+    /**
+     * Version of the manifest format, written as the first line.
+     */
+    private static final String FORMAT_VERSION = "1";
+
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    private static final String SEPARATOR = "\t";
+
+    private final File directory;
+
+    private final List<Entry> entries;
+
+    private SnapshotManifest(@NonNull File directory, @NonNull List<Entry> entries) {
+        this.directory = directory;
+        this.entries = entries;
+    }
+
+    /**
+     * Read the manifest from the snapshot directory.
+     *
+     * @param directory Snapshot directory.
+     * @return Manifest for the directory, without entries if none have been written.
+     * @throws IOException If the manifest can't be read, or is malformed.
+     */
+    @NonNull
+    public static SnapshotManifest read(@NonNull File directory) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+
+        File file = new File(directory, FILE_NAME);
+        if (!file.exists()) {
+            return new SnapshotManifest(directory, entries);
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), CHARSET)
+        )) {
+            String version = reader.readLine();
+            if (!FORMAT_VERSION.equals(version)) {
+                throw new IOException("Manifest have unsupported version " + version);
+            }
+
+            String line;
+            while (null != (line = reader.readLine())) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                entries.add(Entry.parse(line));
+            }
+        }
+
+        return new SnapshotManifest(directory, entries);
+    }
+
+    /**
+     * Write the manifest to the snapshot directory.
+     * <p>
+     * The manifest is written to a temporary file which then replaces the
+     * previous manifest.
+     *
+     * @throws IOException If the manifest can't be written.
+     */
+    void write() throws IOException {
+        File file = new File(directory, FILE_NAME);
+        File temporary = new File(directory, FILE_NAME + ".tmp");
+
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(temporary), CHARSET)
+        )) {
+            writer.write(FORMAT_VERSION);
+            writer.write('\n');
+
+            for (Entry entry : entries) {
+                writer.write(entry.format());
+                writer.write('\n');
+            }
+        }
+
+        if (!temporary.renameTo(file)) {
+            throw new IOException("Unable to replace manifest " + file.getPath());
+        }
+    }
+
+    @NonNull
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the entries, in the order the snapshots were written.
+     *
+     * @return Entries within the manifest.
+     */
+    @NonNull
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Get the entry for the latest snapshot.
+     *
+     * @return Entry for the latest snapshot, or null if none have been written.
+     */
+    @Nullable
+    public Entry getLatest() {
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        return entries.get(entries.size() - 1);
+    }
+
+    /**
+     * Get the file for the latest snapshot.
+     *
+     * @return File for the latest snapshot, or null if none have been written.
+     */
+    @Nullable
+    public File getLatestFile() {
+        Entry latest = getLatest();
+        if (null == latest) {
+            return null;
+        }
+
+        return latest.getFile(directory);
+    }
+
+    /**
+     * Get the snapshots needed for restoring the latest snapshot.
+     * <p>
+     * The chain begins with the latest full snapshot, followed by each of the
+     * incremental snapshots based on the previous snapshot.
+     *
+     * @return Entries for the chain, or an empty list if the latest snapshot
+     * can't be restored, e.g. if one of the snapshots is missing.
+     */
+    @NonNull
+    List<Entry> getChain() {
+        List<Entry> chain = new ArrayList<>();
+
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Entry entry = entries.get(i);
+            if (!entry.getFile(directory).isFile()) {
+                return Collections.emptyList();
+            }
+
+            if (!chain.isEmpty() && !chain.get(0).isBasedOn(entry)) {
+                return Collections.emptyList();
+            }
+
+            chain.add(0, entry);
+            if (entry.isFull()) {
+                return chain;
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+    void add(@NonNull Entry entry) {
+        entries.add(entry);
+    }
+
+    void removeAll(@NonNull Collection<Entry> expired) {
+        entries.removeAll(expired);
+    }
+
+    /**
+     * Entry for a snapshot within the manifest.
+     */
+    public static final class Entry {
+        private final String name;
+        private final long timestamp;
+        private final boolean full;
+        private final String generation;
+        private final long baseCounter;
+        private final long counter;
+        private final long numberOfRecords;
+
+        /**
+         * Constructor.
+         *
+         * @param name            Name of the snapshot file.
+         * @param timestamp       Timestamp for when the snapshot was written.
+         * @param full            Whether the snapshot is a full snapshot.
+         * @param generation      Generation of the change counter.
+         * @param baseCounter     Counter value for the snapshot the incremental snapshot is based on.
+         * @param counter         Counter value when the snapshot was written.
+         * @param numberOfRecords Number of records within the snapshot.
+         */
+        Entry(
+                @NonNull String name,
+                long timestamp,
+                boolean full,
+                @NonNull String generation,
+                long baseCounter,
+                long counter,
+                long numberOfRecords
+        ) {
+            this.name = name;
+            this.timestamp = timestamp;
+            this.full = full;
+            this.generation = generation;
+            this.baseCounter = baseCounter;
+            this.counter = counter;
+            this.numberOfRecords = numberOfRecords;
+        }
+
+        @NonNull
+        private static Entry parse(@NonNull String line) throws IOException {
+            String[] values = line.split(SEPARATOR);
+            if (7 != values.length) {
+                throw new IOException("Malformed manifest entry: " + line);
+            }
+
+            try {
+                return new Entry(
+                        values[0],
+                        Long.parseLong(values[1]),
+                        "1".equals(values[2]),
+                        values[3],
+                        Long.parseLong(values[4]),
+                        Long.parseLong(values[5]),
+                        Long.parseLong(values[6])
+                );
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed manifest entry: " + line, e);
+            }
+        }
+
+        @NonNull
+        private String format() {
+            return name + SEPARATOR +
+                    timestamp + SEPARATOR +
+                    (full ? "1" : "0") + SEPARATOR +
+                    generation + SEPARATOR +
+                    baseCounter + SEPARATOR +
+                    counter + SEPARATOR +
+                    numberOfRecords;
+        }
+
+        private boolean isBasedOn(@NonNull Entry entry) {
+            return !full
+                    && generation.equals(entry.generation)
+                    && baseCounter == entry.counter;
+        }
+
+        @NonNull
+        public String getName() {
+            return name;
+        }
+
+        @NonNull
+        public File getFile(@NonNull File directory) {
+            return new File(directory, name);
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public boolean isFull() {
+            return full;
+        }
+
+        @NonNull
+        public String getGeneration() {
+            return generation;
+        }
+
+        public long getBaseCounter() {
+            return baseCounter;
+        }
+
+        public long getCounter() {
+            return counter;
+        }
+
+        public long getNumberOfRecords() {
+            return numberOfRecords;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data.strategy;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Write the exported timesheet as comma separated values.
+ * <p>
+ * Each time is written as a `time` record, and the aggregates for each day
+ * are written as a `day` record following the time for the day, with the
+ * registered duration in place of the registered flag. The durations are in
+ * milliseconds, and the active time is written without a stop.
+ */
+final class CsvExportWriter extends TextExportWriter {
+    private static final String HEADER = "record,date,project,start,stop,duration,registered,count";
+
+    /**
+     * Date for the day being written.
+     */
+    private String date;
+
+    CsvExportWriter(@NonNull Writer writer) {
+        super(writer);
+    }
+
+    /**
+     * Quote the value if it contains the separator, quotes or line breaks.
+     *
+     * @param value Value to escape.
+     * @return Escaped value.
+     */
+    @NonNull
+    static String escape(@NonNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (',' == c || '"' == c || '\n' == c || '\r' == c) {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeStart() throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeDayStart(long day) throws IOException {
+        date = formatDay(day);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeTime(@NonNull String project, long start, long stop, boolean registered)
+            throws IOException {
+        writer.write("time,");
+        writer.write(date);
+        writer.write(',');
+        writer.write(escape(project));
+        writer.write(',');
+        writer.write(formatTimestamp(start));
+        writer.write(',');
+        if (0 < stop) {
+            writer.write(formatTimestamp(stop));
+            writer.write(',');
+            writer.write(String.valueOf(stop - start));
+        } else {
+            writer.write(',');
+        }
+        writer.write(',');
+        writer.write(registered ? "1" : "0");
+        writer.write(",\n");
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeDayEnd(@NonNull ExportDay day) throws IOException {
+        writer.write("day,");
+        writer.write(date);
+        writer.write(",,,,");
+        writer.write(String.valueOf(day.getTimeInMilliseconds()));
+        writer.write(',');
+        writer.write(String.valueOf(day.getRegisteredTimeInMilliseconds()));
+        writer.write(',');
+        writer.write(String.valueOf(day.getNumberOfTimes()));
+        writer.write('\n');
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeEnd() throws IOException {
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data.strategy;
+
+/**
+ * Aggregates for the exported time within a day.
+ * <p>
+ * The same instance is reset for each day, i.e. the aggregates are computed
+ * while streaming without allocating for every day.
+ */
+final class ExportDay {
+    private long day;
+    private int numberOfTimes;
+    private long timeInMilliseconds;
+    private long registeredTimeInMilliseconds;
+
+    void reset(long day) {
+        this.day = day;
+        numberOfTimes = 0;
+        timeInMilliseconds = 0;
+        registeredTimeInMilliseconds = 0;
+    }
+
+    /**
+     * Add the time to the aggregates, active time is only counted.
+     *
+     * @param start      Timestamp when the time was clocked in.
+     * @param stop       Timestamp when the time was clocked out, or zero if active.
+     * @param registered Whether the time have been registered.
+     */
+    void add(long start, long stop, boolean registered) {
+        numberOfTimes++;
+        if (0 == stop) {
+            return;
+        }
+
+        long interval = stop - start;
+        timeInMilliseconds += interval;
+        if (registered) {
+            registeredTimeInMilliseconds += interval;
+        }
+    }
+
+    long getDay() {
+        return day;
+    }
+
+    int getNumberOfTimes() {
+        return numberOfTimes;
+    }
+
+    long getTimeInMilliseconds() {
+        return timeInMilliseconds;
+    }
+
+    long getRegisteredTimeInMilliseconds() {
+        return registeredTimeInMilliseconds;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data.strategy;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Writer for the exported timesheet, receiving the time in order by day.
+ * <p>
+ * The time is written as it is read from the cursor, i.e. the writers should
+ * not keep any of the time in memory.
+ */
+interface ExportWriter {
+    /**
+     * Write the beginning of the export.
+     *
+     * @throws IOException If unable to write.
+     */
+    void writeStart() throws IOException;
+
+    /**
+     * Write the beginning of a day, before the time for the day.
+     *
+     * @param day Number of days since the epoch.
+     * @throws IOException If unable to write.
+     */
+    void writeDayStart(long day) throws IOException;
+
+    /**
+     * Write the time.
+     *
+     * @param project    Name of the project.
+     * @param start      Timestamp when the time was clocked in.
+     * @param stop       Timestamp when the time was clocked out, or zero if active.
+     * @param registered Whether the time have been registered.
+     * @throws IOException If unable to write.
+     */
+    void writeTime(@NonNull String project, long start, long stop, boolean registered)
+            throws IOException;
+
+    /**
+     * Write the end of a day, with the aggregates for the day.
+     *
+     * @param day Aggregates for the day.
+     * @throws IOException If unable to write.
+     */
+    void writeDayEnd(@NonNull ExportDay day) throws IOException;
+
+    /**
+     * Write the end of the export.
+     *
+     * @throws IOException If unable to write.
+     */
+    void writeEnd() throws IOException;
+}
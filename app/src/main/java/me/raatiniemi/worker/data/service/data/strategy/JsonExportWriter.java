@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data.strategy;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Write the exported timesheet as JSON.
+ * <p>
+ * The timesheet is an array of days, each with the time for the day followed
+ * by the aggregates. The durations are in milliseconds, and the active time
+ * is written with a null stop.
+ */
+final class JsonExportWriter extends TextExportWriter {
+    private boolean firstDay;
+    private boolean firstTime;
+
+    JsonExportWriter(@NonNull Writer writer) {
+        super(writer);
+    }
+
+    /**
+     * Write the value as a JSON string.
+     *
+     * @param writer Writer for the string.
+     * @param value  Value to write.
+     * @throws IOException If unable to write.
+     */
+    static void writeString(@NonNull Writer writer, @NonNull String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (0x20 > c) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                        break;
+                    }
+                    writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeStart() throws IOException {
+        writer.write("{\"days\":[");
+        firstDay = true;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeDayStart(long day) throws IOException {
+        if (!firstDay) {
+            writer.write(',');
+        }
+        firstDay = false;
+        firstTime = true;
+
+        writer.write("{\"date\":");
+        writeString(writer, formatDay(day));
+        writer.write(",\"time\":[");
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeTime(@NonNull String project, long start, long stop, boolean registered)
+            throws IOException {
+        if (!firstTime) {
+            writer.write(',');
+        }
+        firstTime = false;
+
+        writer.write("{\"project\":");
+        writeString(writer, project);
+        writer.write(",\"start\":");
+        writeString(writer, formatTimestamp(start));
+        writer.write(",\"stop\":");
+        if (0 < stop) {
+            writeString(writer, formatTimestamp(stop));
+            writer.write(",\"duration\":");
+            writer.write(String.valueOf(stop - start));
+        } else {
+            writer.write("null,\"duration\":null");
+        }
+        writer.write(",\"registered\":");
+        writer.write(registered ? "true" : "false");
+        writer.write('}');
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeDayEnd(@NonNull ExportDay day) throws IOException {
+        writer.write("],\"duration\":");
+        writer.write(String.valueOf(day.getTimeInMilliseconds()));
+        writer.write(",\"registered\":");
+        writer.write(String.valueOf(day.getRegisteredTimeInMilliseconds()));
+        writer.write(",\"count\":");
+        writer.write(String.valueOf(day.getNumberOfTimes()));
+        writer.write('}');
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void writeEnd() throws IOException {
+        writer.write("]}");
+    }
+}
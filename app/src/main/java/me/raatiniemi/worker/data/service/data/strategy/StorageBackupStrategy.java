@@ -17,6 +17,8 @@
 package me.raatiniemi.worker.data.service.data.strategy;
 
 import android.content.Context;
+import android.os.Bundle;
+import android.os.SystemClock;
 
 import org.greenrobot.eventbus.EventBus;
 
@@ -24,12 +26,14 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
-import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.data.WorkerContract;
+import me.raatiniemi.worker.data.service.data.RetentionPolicy;
 import me.raatiniemi.worker.data.util.ExternalStorage;
-import me.raatiniemi.worker.data.util.FileUtils;
 import me.raatiniemi.worker.domain.interactor.BackupStrategy;
 import me.raatiniemi.worker.presentation.settings.model.Backup;
+import me.raatiniemi.worker.presentation.settings.model.BackupStatistics;
 import me.raatiniemi.worker.presentation.settings.model.BackupSuccessfulEvent;
+import me.raatiniemi.worker.presentation.util.Settings;
 
 /**
  * Backup strategy for storage device.
@@ -45,15 +49,47 @@ public class StorageBackupStrategy implements BackupStrategy {
      */
     private final EventBus eventBus;
 
+    /**
+     * Policy for which of the snapshots to keep.
+     */
+    private final RetentionPolicy retentionPolicy;
+
+    /**
+     * Whether to skip the backup if nothing have changed since the latest
+     * snapshot.
+     */
+    private final boolean skipUnchanged;
+
     /**
      * Constructor.
      *
-     * @param context  Application context.
-     * @param eventBus Event bus used for notification.
+     * @param context         Application context.
+     * @param eventBus        Event bus used for notification.
+     * @param retentionPolicy Policy for which of the snapshots to keep.
+     * @param skipUnchanged   Whether to skip the backup if nothing have
+     *                        changed since the latest snapshot.
      */
-    public StorageBackupStrategy(Context context, EventBus eventBus) {
+    public StorageBackupStrategy(
+            Context context,
+            EventBus eventBus,
+            RetentionPolicy retentionPolicy,
+            boolean skipUnchanged
+    ) {
         this.context = context;
         this.eventBus = eventBus;
+        this.retentionPolicy = retentionPolicy;
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    /**
+     * Constructor, the backup is always written.
+     *
+     * @param context         Application context.
+     * @param eventBus        Event bus used for notification.
+     * @param retentionPolicy Policy for which of the snapshots to keep.
+     */
+    public StorageBackupStrategy(Context context, EventBus eventBus, RetentionPolicy retentionPolicy) {
+        this(context, eventBus, retentionPolicy, false);
     }
 
     /**
@@ -62,27 +98,57 @@ public class StorageBackupStrategy implements BackupStrategy {
     @Override
     public void execute() {
         try {
+            long startedAt = SystemClock.elapsedRealtime();
+
             // Check that the external storage is writable.
             if (!ExternalStorage.isWritable()) {
                 throw new IOException("External storage is not writable");
             }
 
-            // Check that the backup directory is available.
-            File directory = ExternalStorage.getBackupDirectory();
+            // Check that the snapshot directory is available.
+            File directory = ExternalStorage.getSnapshotDirectory();
             if (null == directory) {
                 throw new FileNotFoundException("Directory for backup is not available");
             }
 
-            // Retrieve the source and destination file locations.
-            File from = context.getDatabasePath(Worker.DATABASE_NAME);
-            File to = new File(directory, Worker.DATABASE_NAME);
+            // The snapshot is written by the provider, since the writes have
+            // to be blocked while the changed time is collected.
+            Bundle extras = new Bundle();
+            extras.putInt(
+                    WorkerContract.EXTRA_RETENTION_CHAINS,
+                    retentionPolicy.getNumberOfChains()
+            );
+            extras.putInt(
+                    WorkerContract.EXTRA_RETENTION_INCREMENTAL_SNAPSHOTS,
+                    retentionPolicy.getNumberOfIncrementalSnapshots()
+            );
+            extras.putBoolean(WorkerContract.EXTRA_SKIP_UNCHANGED, skipUnchanged);
+            Bundle result = context.getContentResolver().call(
+                    WorkerContract.getAuthorityUri(),
+                    WorkerContract.METHOD_BACKUP,
+                    directory.getAbsolutePath(),
+                    extras
+            );
+            if (null == result) {
+                throw new IOException("Snapshot was not written");
+            }
+
+            // If the backup was skipped, the latest snapshot is still
+            // covering everything within the database.
+            String snapshot = result.getString(WorkerContract.EXTRA_SNAPSHOT);
+            boolean skipped = null == snapshot;
+            File file = skipped ? ExternalStorage.getLatestBackup() : new File(snapshot);
 
-            // Perform the file copy.
-            FileUtils.copy(from, to);
+            BackupStatistics statistics = new BackupStatistics(
+                    SystemClock.elapsedRealtime() - startedAt,
+                    result.getLong(WorkerContract.EXTRA_SNAPSHOT_SIZE, 0),
+                    skipped
+            );
+            Settings.setLatestBackupStatistics(context, statistics);
 
             // Assemble and post the successful backup event.
-            Backup backup = new Backup(directory);
-            eventBus.post(new BackupSuccessfulEvent(backup));
+            Backup backup = new Backup(file);
+            eventBus.post(new BackupSuccessfulEvent(backup, statistics));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data.strategy;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Date;
+import java.util.zip.GZIPOutputStream;
+
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+import me.raatiniemi.worker.data.util.ExternalStorage;
+import me.raatiniemi.worker.domain.interactor.ExportStrategy;
+
+/**
+ * Export strategy for storage device.
+ * <p>
+ * The time for every project is read with a single cursor, ordered by day, and
+ * written directly to the buffered output while the aggregates for each day
+ * are computed, i.e. the memory use is independent of the amount of time.
+ */
+public class StorageExportStrategy implements ExportStrategy {
+    /**
+     * Prefix for the export files.
+     */
+    private static final String FILE_PREFIX = "export-";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Application context.
+     */
+    private final Context context;
+
+    /**
+     * Format for the export.
+     */
+    private final Format format;
+
+    /**
+     * Whether the export should be compressed with gzip.
+     */
+    private final boolean compress;
+
+    /**
+     * Constructor.
+     *
+     * @param context  Application context.
+     * @param format   Format for the export.
+     * @param compress Whether the export should be compressed with gzip.
+     */
+    public StorageExportStrategy(Context context, Format format, boolean compress) {
+        this.context = context;
+        this.format = format;
+        this.compress = compress;
+    }
+
+    /**
+     * Write the time from the cursor, ordered by day.
+     *
+     * @param cursor Cursor with the export columns, see {@link TimeContract#getExportColumns()}.
+     * @param writer Writer for the export.
+     * @throws IOException If unable to write.
+     */
+    static void export(@NonNull Cursor cursor, @NonNull ExportWriter writer) throws IOException {
+        ExportDay day = new ExportDay();
+        boolean hasDay = false;
+
+        writer.writeStart();
+        while (cursor.moveToNext()) {
+            String project = cursor.getString(0);
+            long start = cursor.getLong(1);
+            long stop = cursor.getLong(2);
+            boolean registered = 1 == cursor.getLong(3);
+            long currentDay = cursor.getLong(4);
+
+            if (!hasDay || currentDay != day.getDay()) {
+                if (hasDay) {
+                    writer.writeDayEnd(day);
+                }
+
+                day.reset(currentDay);
+                writer.writeDayStart(currentDay);
+                hasDay = true;
+            }
+
+            day.add(start, stop, registered);
+            writer.writeTime(project, start, stop, registered);
+        }
+
+        if (hasDay) {
+            writer.writeDayEnd(day);
+        }
+        writer.writeEnd();
+    }
+
+    @NonNull
+    private File buildFile(@NonNull File directory) {
+        String name = FILE_PREFIX + new Date().getTime() + "." + format.getExtension();
+        if (compress) {
+            name += ".gz";
+        }
+
+        return new File(directory, name);
+    }
+
+    @NonNull
+    private OutputStream openStream(@NonNull File file) throws IOException {
+        OutputStream stream = new FileOutputStream(file);
+        if (compress) {
+            stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+        }
+
+        return stream;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void execute() {
+        try {
+            // Check that the external storage is writable.
+            if (!ExternalStorage.isWritable()) {
+                throw new IOException("External storage is not writable");
+            }
+
+            // Check that the export directory is available.
+            File directory = ExternalStorage.getExportDirectory();
+            if (null == directory) {
+                throw new FileNotFoundException("Directory for export is not available");
+            }
+
+            Cursor cursor = context.getContentResolver().query(
+                    TimeContract.getExportUri(),
+                    TimeContract.getExportColumns(),
+                    null,
+                    null,
+                    TimeContract.ORDER_BY_EXPORT
+            );
+            if (null == cursor) {
+                throw new IOException("Unable to query the time for export");
+            }
+
+            File file = buildFile(directory);
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(openStream(file), Charset.forName("UTF-8")),
+                    BUFFER_SIZE
+            )) {
+                export(cursor, format.buildWriter(writer));
+            } catch (IOException e) {
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+                throw e;
+            } finally {
+                cursor.close();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Format for the export.
+     */
+    public enum Format {
+        CSV("csv") {
+            @Override
+            ExportWriter buildWriter(@NonNull Writer writer) {
+                return new CsvExportWriter(writer);
+            }
+        },
+        JSON("json") {
+            @Override
+            ExportWriter buildWriter(@NonNull Writer writer) {
+                return new JsonExportWriter(writer);
+            }
+        };
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        @NonNull
+        String getExtension() {
+            return extension;
+        }
+
+        @NonNull
+        abstract ExportWriter buildWriter(@NonNull Writer writer);
+    }
+}
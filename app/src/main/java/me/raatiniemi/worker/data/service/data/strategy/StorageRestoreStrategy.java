@@ -17,14 +17,18 @@
 package me.raatiniemi.worker.data.service.data.strategy;
 
 import android.content.Context;
+import android.os.Bundle;
+import android.os.ResultReceiver;
+import android.support.annotation.Nullable;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
 import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.data.WorkerContract;
+import me.raatiniemi.worker.data.service.data.SnapshotManifest;
 import me.raatiniemi.worker.data.util.ExternalStorage;
-import me.raatiniemi.worker.data.util.FileUtils;
 import me.raatiniemi.worker.domain.interactor.RestoreStrategy;
 
 /**
@@ -36,13 +40,64 @@ public class StorageRestoreStrategy implements RestoreStrategy {
      */
     private final Context context;
 
+    /**
+     * Listener for the restore progress.
+     */
+    private final OnProgressListener onProgressListener;
+
     /**
      * Constructor.
      *
-     * @param context Application context.
+     * @param context            Application context.
+     * @param onProgressListener Listener for the restore progress.
      */
-    public StorageRestoreStrategy(Context context) {
+    public StorageRestoreStrategy(Context context, @Nullable OnProgressListener onProgressListener) {
         this.context = context;
+        this.onProgressListener = onProgressListener;
+    }
+
+    private Bundle buildExtras() {
+        if (null == onProgressListener) {
+            return null;
+        }
+
+        // The receiver is called on the restoring thread, since the restore
+        // is done synchronously by the provider.
+        Bundle extras = new Bundle();
+        extras.putParcelable(
+                WorkerContract.EXTRA_PROGRESS_RECEIVER,
+                new ResultReceiver(null) {
+                    @Override
+                    protected void onReceiveResult(int resultCode, Bundle resultData) {
+                        onProgressListener.onProgress(
+                                resultData.getLong(WorkerContract.EXTRA_PROGRESS),
+                                resultData.getLong(WorkerContract.EXTRA_PROGRESS_MAX)
+                        );
+                    }
+                }
+        );
+
+        return extras;
+    }
+
+    /**
+     * Get the snapshot directory, if any snapshot have been written.
+     *
+     * @return Snapshot directory, or null if no snapshot is available.
+     * @throws IOException If the snapshot manifest can't be read.
+     */
+    @Nullable
+    private static File getSnapshotDirectory() throws IOException {
+        File directory = ExternalStorage.getSnapshotDirectory();
+        if (null == directory) {
+            return null;
+        }
+
+        if (null == SnapshotManifest.read(directory).getLatest()) {
+            return null;
+        }
+
+        return directory;
     }
 
     /**
@@ -56,20 +111,41 @@ public class StorageRestoreStrategy implements RestoreStrategy {
                 throw new IOException("External storage is not readable");
             }
 
-            // Check that we have backup to restore from.
-            File directory = ExternalStorage.getLatestBackupDirectory();
-            if (null == directory) {
-                throw new FileNotFoundException("Unable to find backup from which to restore");
-            }
+            // The snapshots are restored from the snapshot directory, with a
+            // fallback to the backup directories written before the snapshots.
+            File from = getSnapshotDirectory();
+            if (null == from) {
+                File directory = ExternalStorage.getLatestBackupDirectory();
+                if (null == directory) {
+                    throw new FileNotFoundException("Unable to find backup from which to restore");
+                }
 
-            // Retrieve the source and destination file locations.
-            File from = new File(directory, Worker.DATABASE_NAME);
-            File to = context.getDatabasePath(Worker.DATABASE_NAME);
+                from = new File(directory, Worker.DATABASE_NAME);
+            }
 
-            // Perform the file copy.
-            FileUtils.copy(from, to);
+            // The backup is validated and imported by the provider, since
+            // the rows have to be written through the open database.
+            context.getContentResolver().call(
+                    WorkerContract.getAuthorityUri(),
+                    WorkerContract.METHOD_RESTORE,
+                    from.getAbsolutePath(),
+                    buildExtras()
+            );
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Listener for the restore progress.
+     */
+    public interface OnProgressListener {
+        /**
+         * Report the progress of the restore.
+         *
+         * @param progress Number of restored rows.
+         * @param max      Number of rows to restore.
+         */
+        void onProgress(long progress, long max);
+    }
 }
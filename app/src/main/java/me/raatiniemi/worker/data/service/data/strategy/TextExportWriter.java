@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data.strategy;
+
+import android.support.annotation.NonNull;
+
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+/**
+ * Base for the text based export writers.
+ * <p>
+ * The dates and timestamps are formatted in UTC, the same as the day used for
+ * grouping the time, i.e. the time is always exported within its day.
+ */
+abstract class TextExportWriter implements ExportWriter {
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    final Writer writer;
+
+    private final SimpleDateFormat dayFormat;
+    private final SimpleDateFormat timestampFormat;
+
+    /**
+     * The date is reused for formatting, avoiding allocation for every row.
+     */
+    private final Date date = new Date();
+
+    TextExportWriter(@NonNull Writer writer) {
+        this.writer = writer;
+
+        dayFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        dayFormat.setTimeZone(UTC);
+
+        timestampFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        timestampFormat.setTimeZone(UTC);
+    }
+
+    @NonNull
+    String formatDay(long day) {
+        date.setTime(day * TimeContract.DAY_IN_MILLISECONDS);
+        return dayFormat.format(date);
+    }
+
+    @NonNull
+    String formatTimestamp(long timestamp) {
+        date.setTime(timestamp);
+        return timestampFormat.format(date);
+    }
+}
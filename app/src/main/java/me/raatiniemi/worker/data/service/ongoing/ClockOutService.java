@@ -23,6 +23,7 @@ import java.util.Date;
 
 import me.raatiniemi.worker.R;
 import me.raatiniemi.worker.domain.interactor.ClockOut;
+import me.raatiniemi.worker.presentation.model.OngoingNotificationActionEvent;
 import me.raatiniemi.worker.presentation.view.notification.ErrorNotification;
 
 public class ClockOutService extends OngoingService {
@@ -41,7 +42,10 @@ public class ClockOutService extends OngoingService {
             clockOut.execute(projectId, new Date());
 
             dismissPauseNotification(projectId);
-            updateUserInterface(projectId);
+            updateUserInterface(
+                    projectId,
+                    OngoingNotificationActionEvent.ACTION_CLOCK_OUT
+            );
         } catch (Exception e) {
             Log.w(TAG, "Unable to clock out project", e);
 
@@ -26,12 +26,7 @@ import org.greenrobot.eventbus.EventBus;
 
 import me.raatiniemi.worker.Worker;
 import me.raatiniemi.worker.data.WorkerContract;
-import me.raatiniemi.worker.data.mapper.ProjectContentValuesMapper;
-import me.raatiniemi.worker.data.mapper.ProjectCursorMapper;
-import me.raatiniemi.worker.data.mapper.TimeContentValuesMapper;
-import me.raatiniemi.worker.data.mapper.TimeCursorMapper;
-import me.raatiniemi.worker.data.repository.ProjectResolverRepository;
-import me.raatiniemi.worker.data.repository.TimeResolverRepository;
+import me.raatiniemi.worker.data.repository.RepositoryFactory;
 import me.raatiniemi.worker.domain.repository.ProjectRepository;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
 import me.raatiniemi.worker.presentation.model.OngoingNotificationActionEvent;
@@ -57,19 +52,11 @@ abstract class OngoingService extends IntentService {
     }
 
     TimeRepository getTimeRepository() {
-        return new TimeResolverRepository(
-                getContentResolver(),
-                new TimeCursorMapper(),
-                new TimeContentValuesMapper()
-        );
+        return RepositoryFactory.buildTimeRepository(this);
     }
 
     ProjectRepository getProjectRepository() {
-        return new ProjectResolverRepository(
-                getContentResolver(),
-                new ProjectCursorMapper(),
-                new ProjectContentValuesMapper()
-        );
+        return RepositoryFactory.buildProjectRepository(this);
     }
 
     void sendNotification(long projectId, Notification notification) {
@@ -97,9 +84,9 @@ abstract class OngoingService extends IntentService {
         return Settings.isOngoingNotificationEnabled(this);
     }
 
-    void updateUserInterface(long projectId) {
+    void updateUserInterface(long projectId, int action) {
         getEventBus().post(
-                new OngoingNotificationActionEvent(projectId)
+                new OngoingNotificationActionEvent(projectId, action)
         );
     }
 
@@ -25,6 +25,7 @@ import me.raatiniemi.worker.R;
 import me.raatiniemi.worker.domain.interactor.ClockOut;
 import me.raatiniemi.worker.domain.interactor.GetProject;
 import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.presentation.model.OngoingNotificationActionEvent;
 import me.raatiniemi.worker.presentation.view.notification.ErrorNotification;
 import me.raatiniemi.worker.presentation.view.notification.ResumeNotification;
 
@@ -43,7 +44,10 @@ public class PauseService extends OngoingService {
             ClockOut clockOut = buildClockOutUseCase();
             clockOut.execute(projectId, new Date());
 
-            updateUserInterface(projectId);
+            updateUserInterface(
+                    projectId,
+                    OngoingNotificationActionEvent.ACTION_CLOCK_OUT
+            );
 
             if (isOngoingNotificationEnabled()) {
                 GetProject getProject = buildGetProjectUseCase();
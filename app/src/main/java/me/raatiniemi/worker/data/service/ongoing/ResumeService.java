@@ -25,6 +25,7 @@ import me.raatiniemi.worker.R;
 import me.raatiniemi.worker.domain.interactor.ClockIn;
 import me.raatiniemi.worker.domain.interactor.GetProject;
 import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.presentation.model.OngoingNotificationActionEvent;
 import me.raatiniemi.worker.presentation.view.notification.ErrorNotification;
 import me.raatiniemi.worker.presentation.view.notification.PauseNotification;
 
@@ -43,7 +44,10 @@ public class ResumeService extends OngoingService {
             ClockIn clockIn = buildClockInUseCase();
             clockIn.execute(projectId, new Date());
 
-            updateUserInterface(projectId);
+            updateUserInterface(
+                    projectId,
+                    OngoingNotificationActionEvent.ACTION_CLOCK_IN
+            );
 
             if (isOngoingNotificationEnabled()) {
                 GetProject getProject = buildGetProjectUseCase();
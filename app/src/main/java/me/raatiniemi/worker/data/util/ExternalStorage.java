@@ -23,6 +23,7 @@ import android.util.Log;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -30,6 +31,7 @@ import java.util.Date;
 import java.util.List;
 
 import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.data.service.data.SnapshotManifest;
 
 /**
  * Methods for working with the device external storage.
@@ -121,6 +123,51 @@ public class ExternalStorage {
         return getDirectory(name);
     }
 
+    /**
+     * Get the snapshot directory on the external storage. If it do not
+     * exists, it will be created.
+     *
+     * @return Snapshot directory, or null if it can't be created.
+     */
+    @Nullable
+    public static File getSnapshotDirectory() {
+        return getDirectory(Worker.STORAGE_SNAPSHOT_DIRECTORY);
+    }
+
+    /**
+     * Get the export directory on the external storage. If it do not exists,
+     * it will be created.
+     *
+     * @return Export directory, or null if it can't be created.
+     */
+    @Nullable
+    public static File getExportDirectory() {
+        return getDirectory(Worker.STORAGE_EXPORT_DIRECTORY);
+    }
+
+    /**
+     * Get the latest backup, i.e. the latest snapshot from the manifest or the
+     * last created backup directory if no snapshot have been written.
+     *
+     * @return Latest backup, or null if none can be found.
+     */
+    @Nullable
+    public static File getLatestBackup() {
+        File directory = getSnapshotDirectory();
+        if (null != directory) {
+            try {
+                File snapshot = SnapshotManifest.read(directory).getLatestFile();
+                if (null != snapshot) {
+                    return snapshot;
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Unable to read the snapshot manifest", e);
+            }
+        }
+
+        return getLatestBackupDirectory();
+    }
+
     /**
      * Get a list of directories from the application directory on the external storage.
      *
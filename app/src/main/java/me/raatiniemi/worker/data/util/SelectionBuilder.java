@@ -26,6 +26,14 @@ import java.util.Collections;
 import java.util.List;
 
 public class SelectionBuilder {
+    /**
+     * Maximum number of arguments for a single IN selection.
+     * <p>
+     * SQLite have a limit of 999 variables for each statement, the maximum
+     * number of arguments is kept well below to allow for additional selections.
+     */
+    public static final int MAXIMUM_NUMBER_OF_IN_ARGUMENTS = 500;
+
     private String table;
 
     private final StringBuilder selection = new StringBuilder();
@@ -62,6 +70,50 @@ public class SelectionBuilder {
         return this;
     }
 
+    /**
+     * Build an IN selection for a column.
+     *
+     * @param column            Column for the selection.
+     * @param numberOfArguments Number of arguments for the selection.
+     * @return IN selection for the column.
+     */
+    public static String buildInSelection(String column, int numberOfArguments) {
+        StringBuilder builder = new StringBuilder(column)
+                .append(" IN (");
+
+        for (int i = 0; i < numberOfArguments; i++) {
+            if (0 < i) {
+                builder.append(",");
+            }
+            builder.append("?");
+        }
+
+        return builder.append(")").toString();
+    }
+
+    /**
+     * Split arguments into segments, each segment can be used with a single IN selection.
+     *
+     * @param arguments Arguments to segment.
+     * @param <T>       Type of the arguments.
+     * @return Segments with at most {@link #MAXIMUM_NUMBER_OF_IN_ARGUMENTS} arguments.
+     */
+    public static <T> List<List<T>> segmentInArguments(List<T> arguments) {
+        List<List<T>> segments = new ArrayList<>();
+
+        final int numberOfArguments = arguments.size();
+        for (int offset = 0; offset < numberOfArguments; offset += MAXIMUM_NUMBER_OF_IN_ARGUMENTS) {
+            segments.add(
+                    arguments.subList(
+                            offset,
+                            Math.min(offset + MAXIMUM_NUMBER_OF_IN_ARGUMENTS, numberOfArguments)
+                    )
+            );
+        }
+
+        return segments;
+    }
+
     private String selection() {
         return selection.toString();
     }
@@ -37,18 +37,34 @@ public class ClockActivityChange {
      */
     private final TimeRepository timeRepository;
 
+    /**
+     * Use case for clocking in project.
+     */
+    private final ClockIn clockIn;
+
+    /**
+     * Use case for clocking out project.
+     */
+    private final ClockOut clockOut;
+
     /**
      * Constructor.
      *
      * @param projectRepository Project repository.
      * @param timeRepository    Time repository.
+     * @param clockIn           Use case for clocking in project.
+     * @param clockOut          Use case for clocking out project.
      */
     public ClockActivityChange(
             ProjectRepository projectRepository,
-            TimeRepository timeRepository
+            TimeRepository timeRepository,
+            ClockIn clockIn,
+            ClockOut clockOut
     ) {
         this.projectRepository = projectRepository;
         this.timeRepository = timeRepository;
+        this.clockIn = clockIn;
+        this.clockOut = clockOut;
     }
 
     /**
@@ -66,11 +82,12 @@ public class ClockActivityChange {
         // clock out on different days.
         //
         // Depending on whether the project is active we have
-        // to clock in or clock out at the given date.
+        // to clock in or clock out at the given date. Both are written with
+        // a single statement, i.e. a stale project can't clock in twice.
         if (!project.isActive()) {
-            timeRepository.add(project.clockInAt(date));
+            clockIn.execute(project.getId(), date);
         } else {
-            timeRepository.update(project.clockOutAt(date));
+            clockOut.execute(project.getId(), date);
         }
 
         // Reload the project and populate it with the registered time.
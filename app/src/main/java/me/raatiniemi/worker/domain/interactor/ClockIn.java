@@ -20,7 +20,6 @@ import java.util.Date;
 
 import me.raatiniemi.worker.domain.exception.ClockActivityException;
 import me.raatiniemi.worker.domain.exception.DomainException;
-import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
 
 /**
@@ -35,15 +34,10 @@ public class ClockIn {
 
     public void execute(long projectId, Date date)
             throws DomainException {
-        Time time = timeRepository.getActiveTimeForProject(projectId);
-        if (null != time) {
+        // The active time is created with a single write, i.e. there's no
+        // window between checking and adding the time.
+        if (!timeRepository.clockIn(projectId, date)) {
             throw new ClockActivityException("Project is active");
         }
-
-        timeRepository.add(
-                new Time.Builder(projectId)
-                        .startInMilliseconds(date.getTime())
-                        .build()
-        );
     }
 }
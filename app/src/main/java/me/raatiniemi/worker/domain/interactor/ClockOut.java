@@ -19,6 +19,7 @@ package me.raatiniemi.worker.domain.interactor;
 import java.util.Date;
 
 import me.raatiniemi.worker.domain.exception.ClockActivityException;
+import me.raatiniemi.worker.domain.exception.ClockOutBeforeClockInException;
 import me.raatiniemi.worker.domain.exception.DomainException;
 import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
@@ -42,13 +43,17 @@ public class ClockOut {
      */
     public void execute(long projectId, Date date)
             throws DomainException {
+        if (timeRepository.clockOut(projectId, date)) {
+            return;
+        }
+
+        // The clock out failed, the active time is only retrieved to tell
+        // the reason for the failure.
         Time time = timeRepository.getActiveTimeForProject(projectId);
         if (null == time) {
             throw new ClockActivityException("Project is not active");
         }
 
-        timeRepository.update(
-                time.clockOutAt(date)
-        );
+        throw new ClockOutBeforeClockInException();
     }
 }
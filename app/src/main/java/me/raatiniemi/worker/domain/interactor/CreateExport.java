@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.domain.interactor;
+
+/**
+ * Export operation.
+ */
+public class CreateExport {
+    /**
+     * Strategy for creating an export.
+     */
+    private final ExportStrategy strategy;
+
+    /**
+     * Constructor.
+     *
+     * @param strategy Strategy for creating an export.
+     */
+    public CreateExport(ExportStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Create export via the strategy.
+     */
+    public void execute() {
+        strategy.execute();
+    }
+}
@@ -42,7 +42,7 @@ public class GetProjectTimeSince {
         this.timeRepository = timeRepository;
     }
 
-    private static Criteria buildStartingPointCriteria(int startingPoint) {
+    static Criteria buildStartingPointCriteria(int startingPoint) {
         // TODO: Remove dependency on `TimeColumns.START`
         // The domain package should not depend on outside definitions.
         return Criteria.moreThanOrEqualTo(
@@ -51,7 +51,7 @@ public class GetProjectTimeSince {
         );
     }
 
-    private static long getMillisecondsForStartingPoint(int startingPoint) {
+    static long getMillisecondsForStartingPoint(int startingPoint) {
         Calendar calendar = Calendar.getInstance();
         calendar.set(Calendar.HOUR_OF_DAY, 0);
         calendar.set(Calendar.MINUTE, 0);
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.domain.interactor;
+
+import java.util.List;
+import java.util.Map;
+
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
+import me.raatiniemi.worker.domain.repository.TimeRepository;
+
+/**
+ * Get the summarized registered time for projects since a defined starting point, i.e.
+ * {@link GetProjectTimeSince#DAY}, {@link GetProjectTimeSince#WEEK}, or
+ * {@link GetProjectTimeSince#MONTH}.
+ * <p>
+ * The summary only include time that have been clocked out, i.e. the active time have to be
+ * handled separately.
+ */
+public class GetProjectTimeSummarySince {
+    private final TimeRepository timeRepository;
+
+    public GetProjectTimeSummarySince(TimeRepository timeRepository) {
+        this.timeRepository = timeRepository;
+    }
+
+    /**
+     * Get the summarized registered time for a project since the starting point.
+     *
+     * @param project       Project for which to summarize the registered time.
+     * @param startingPoint Starting point, i.e. {@link GetProjectTimeSince#DAY},
+     *                      {@link GetProjectTimeSince#WEEK}, or {@link GetProjectTimeSince#MONTH}.
+     * @return Summarized registered time in milliseconds.
+     * @throws DomainException If domain rules are violated.
+     */
+    public long execute(Project project, int startingPoint) throws DomainException {
+        return timeRepository.getRegisteredTimeSummary(
+                project,
+                GetProjectTimeSince.buildStartingPointCriteria(startingPoint)
+        );
+    }
+
+    /**
+     * Check whether the summary since the starting point can be calculated
+     * from the time populated on the projects, i.e. the time since the
+     * beginning of the month, see {@link GetProjects}.
+     *
+     * @param startingPoint Starting point, i.e. {@link GetProjectTimeSince#DAY},
+     *                      {@link GetProjectTimeSince#WEEK}, or {@link GetProjectTimeSince#MONTH}.
+     * @return true if the starting point is within the populated time, otherwise false.
+     */
+    public boolean isCalculableFromProjectTime(int startingPoint) {
+        return GetProjectTimeSince.getMillisecondsForStartingPoint(startingPoint)
+                >= GetProjectTimeSince.getMillisecondsForStartingPoint(GetProjectTimeSince.MONTH);
+    }
+
+    /**
+     * Calculate the summarized registered time for a project since the
+     * starting point, from the time populated on the project instead of
+     * going through the repository.
+     * <p>
+     * The summary is only complete if the populated time cover the starting
+     * point, see {@link #isCalculableFromProjectTime(int)}.
+     *
+     * @param project       Project for which to summarize the registered time.
+     * @param startingPoint Starting point, i.e. {@link GetProjectTimeSince#DAY},
+     *                      {@link GetProjectTimeSince#WEEK}, or {@link GetProjectTimeSince#MONTH}.
+     * @return Summarized registered time in milliseconds.
+     */
+    public long calculateFromProjectTime(Project project, int startingPoint) {
+        long milliseconds = GetProjectTimeSince.getMillisecondsForStartingPoint(startingPoint);
+
+        long summary = 0;
+        for (Time time : project.getTime()) {
+            if (time.isActive() || milliseconds > time.getStartInMilliseconds()) {
+                continue;
+            }
+
+            summary += time.getTime();
+        }
+
+        return summary;
+    }
+
+    /**
+     * Get the summarized registered time for multiple projects since the starting point.
+     *
+     * @param projects      Projects for which to summarize the registered time.
+     * @param startingPoint Starting point, i.e. {@link GetProjectTimeSince#DAY},
+     *                      {@link GetProjectTimeSince#WEEK}, or {@link GetProjectTimeSince#MONTH}.
+     * @return Summarized registered time in milliseconds, grouped by the project id.
+     * @throws DomainException If domain rules are violated.
+     */
+    public Map<Long, Long> execute(List<Project> projects, int startingPoint)
+            throws DomainException {
+        return timeRepository.getRegisteredTimeSummary(
+                projects,
+                GetProjectTimeSince.buildStartingPointCriteria(startingPoint)
+        );
+    }
+}
@@ -16,10 +16,13 @@
 
 package me.raatiniemi.worker.domain.interactor;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import me.raatiniemi.worker.domain.exception.DomainException;
 import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.domain.repository.ProjectRepository;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
 
@@ -59,14 +62,46 @@ public class GetProjects {
      */
     public List<Project> execute() throws DomainException {
         List<Project> projects = projectRepository.get();
+        if (projects.isEmpty()) {
+            return projects;
+        }
+
+        List<Long> projectIds = new ArrayList<>();
+        for (Project project : projects) {
+            projectIds.add(project.getId());
+        }
 
+        // Retrieve the registered time for all of the projects at once,
+        // instead of querying the repository for each of the projects.
+        Map<Long, List<Time>> time = timeRepository.getProjectTimeSinceBeginningOfMonth(projectIds);
         for (Project project : projects) {
+            List<Time> registeredTime = time.get(project.getId());
+            if (null == registeredTime) {
+                continue;
+            }
+
             // Populate the project with the registered time.
-            project.addTime(
-                    timeRepository.getProjectTimeSinceBeginningOfMonth(project.getId())
-            );
+            project.addTime(registeredTime);
         }
 
         return projects;
     }
+
+    /**
+     * Get a project, populated with the registered time in the same way as
+     * the projects.
+     *
+     * @param projectId Id of the project to get.
+     * @return Project with id, or null if not found.
+     * @throws DomainException If domain rules are violated.
+     */
+    public Project execute(long projectId) throws DomainException {
+        Project project = projectRepository.get(projectId);
+        if (null == project) {
+            return null;
+        }
+
+        project.addTime(timeRepository.getProjectTimeSinceBeginningOfMonth(projectId));
+        return project;
+    }
 }
@@ -47,21 +47,21 @@ public class GetTimesheet {
      * Get segment from project timesheet.
      *
      * @param projectId Id for project.
-     * @param offset Offset for segment.
+     * @param before Date within the oldest day already retrieved, or null for the latest segment.
      * @param hideRegisteredTime Should registered time be hidden.
      * @return Segment of project timesheet.
      */
     public Map<Date, List<Time>> execute(
             final Long projectId,
-            final int offset,
+            final Date before,
             boolean hideRegisteredTime
     ) {
         Criteria criteria = null;
         if (hideRegisteredTime) {
             // TODO: Refactor to remove dependency on the data-package for column name.
-            criteria = Criteria.equalTo(TimeColumns.REGISTERED, "0");
+            criteria = Criteria.equalTo(TimeColumns.REGISTERED, 0);
         }
 
-        return timeRepository.getTimesheet(projectId, offset, criteria);
+        return timeRepository.getTimesheet(projectId, before, criteria);
     }
 }
@@ -83,6 +83,6 @@ public class MarkRegisteredTime {
 
     public List<Time> execute(List<Time> times) throws DomainException {
         List<Time> timeToUpdate = collectTimeToUpdate(times);
-        return timeRepository.update(timeToUpdate);
+        return timeRepository.updateRegistered(timeToUpdate);
     }
 }
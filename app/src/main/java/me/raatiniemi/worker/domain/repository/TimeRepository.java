@@ -39,6 +39,34 @@ public interface TimeRepository {
      */
     List<Time> matching(Project project, Criteria criteria) throws DomainException;
 
+    /**
+     * Get the summarized registered time for a project matching criteria.
+     * <p>
+     * Only time that have been clocked out is included, i.e. the active time
+     * have to be handled separately.
+     *
+     * @param project  Project for which to summarize the registered time.
+     * @param criteria Criteria for matching time intervals.
+     * @return Summarized registered time in milliseconds.
+     * @throws DomainException If domain rules are violated.
+     */
+    long getRegisteredTimeSummary(Project project, Criteria criteria) throws DomainException;
+
+    /**
+     * Get the summarized registered time for multiple projects matching criteria.
+     * <p>
+     * Only time that have been clocked out is included, i.e. the active time
+     * have to be handled separately.
+     *
+     * @param projects Projects for which to summarize the registered time.
+     * @param criteria Criteria for matching time intervals.
+     * @return Summarized registered time in milliseconds, grouped by the project id. Every
+     * project is included, even if no time is matching the criteria.
+     * @throws DomainException If domain rules are violated.
+     */
+    Map<Long, Long> getRegisteredTimeSummary(List<Project> projects, Criteria criteria)
+            throws DomainException;
+
     /**
      * Get time by id.
      *
@@ -75,6 +103,18 @@ public interface TimeRepository {
      */
     List<Time> update(List<Time> times) throws DomainException;
 
+    /**
+     * Update the registered state for items.
+     * <p>
+     * Only the registered state is written, any other change to the items is
+     * ignored. Items sharing the same registered state are updated together.
+     *
+     * @param times Items to update.
+     * @return Updated items, with null for items that do not exist.
+     * @throws DomainException If domain rules are violated.
+     */
+    List<Time> updateRegistered(List<Time> times) throws DomainException;
+
     /**
      * Remove time by id.
      *
@@ -99,19 +139,32 @@ public interface TimeRepository {
      */
     List<Time> getProjectTimeSinceBeginningOfMonth(long projectId) throws DomainException;
 
+    /**
+     * Get the time registered for multiple projects since the beginning of the current month.
+     *
+     * @param projectIds Ids for the projects.
+     * @return Registered time grouped by the project id. Every project is included, even if
+     * no time have been registered.
+     * @throws DomainException If domain rules are violated.
+     * TODO: Replace with query/criteria method.
+     */
+    Map<Long, List<Time>> getProjectTimeSinceBeginningOfMonth(List<Long> projectIds)
+            throws DomainException;
+
     /**
      * Get timesheet segment for a project.
      * <p>
      * TODO: Move to separate repository?
      *
      * @param projectId Id for the project.
-     * @param offset    Offset for segment.
+     * @param before    Date within the oldest day already retrieved, the segment
+     *                  will begin with the day before. Null for the latest segment.
      * @param criteria  Criteria for matching timesheet items.
      * @return Project timesheet segment.
      */
     Map<Date, List<Time>> getTimesheet(
             final long projectId,
-            final int offset,
+            final Date before,
             final Criteria criteria
     );
 
@@ -124,4 +177,28 @@ public interface TimeRepository {
      * TODO: Replace with query/criteria method.
      */
     Time getActiveTimeForProject(long projectId) throws DomainException;
+
+    /**
+     * Clock in a project.
+     * <p>
+     * The active time is created with a single write, i.e. the project can't
+     * be clocked in twice even if the clock in is attempted concurrently.
+     *
+     * @param projectId Id for the project.
+     * @param date      Date for the clock in.
+     * @return true if the project was clocked in, false if it's already active.
+     */
+    boolean clockIn(long projectId, Date date);
+
+    /**
+     * Clock out a project.
+     * <p>
+     * The active time is clocked out with a single write, unless the time was
+     * started after the date for the clock out.
+     *
+     * @param projectId Id for the project.
+     * @param date      Date for the clock out.
+     * @return true if the project was clocked out, otherwise false.
+     */
+    boolean clockOut(long projectId, Date date);
 }
@@ -16,12 +16,46 @@
 
 package me.raatiniemi.worker.domain.repository.query;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Criteria used for matching values.
+ * <p>
+ * Criteria can be combined with {@link #and(Criteria...)} and
+ * {@link #or(Criteria...)} into a tree, and the matching values can be
+ * ordered and limited. The criteria is immutable, i.e. every method returns a
+ * new instance, which allows the compiled query to be cached by the criteria.
+ * <p>
+ * The values keep their type, e.g. a numeric value is matched as a number
+ * while a text value is matched without regard to case.
  */
 public class Criteria {
     /**
-     * Name of the criteria field.
+     * Operator for matching any of the values.
+     */
+    public static final String IN = " IN ";
+
+    /**
+     * Operator for matching the values within a range, inclusive.
+     */
+    public static final String BETWEEN = " BETWEEN ";
+
+    /**
+     * Operator for combined criteria, where every criteria have to match.
+     */
+    public static final String AND = " AND ";
+
+    /**
+     * Operator for combined criteria, where any of the criteria have to match.
+     */
+    public static final String OR = " OR ";
+
+    /**
+     * Name of the criteria field, or null for combined criteria.
      */
     private final String field;
 
@@ -31,21 +65,57 @@ public class Criteria {
     private final String operator;
 
     /**
-     * Value to match against the field.
+     * Values to match against the field, empty for combined criteria.
      */
-    private final String value;
+    private final List<Object> values;
+
+    /**
+     * Criteria combined with the operator, empty unless combined criteria.
+     */
+    private final List<Criteria> criteria;
+
+    /**
+     * Order for the matching values.
+     */
+    private final List<Order> order;
+
+    /**
+     * Maximum number of matching values, or zero without limit.
+     */
+    private final int limit;
+
+    private Criteria(
+            final String field,
+            final String operator,
+            final List<Object> values,
+            final List<Criteria> criteria,
+            final List<Order> order,
+            final int limit
+    ) {
+        this.field = field;
+        this.operator = operator;
+        this.values = Collections.unmodifiableList(values);
+        this.criteria = Collections.unmodifiableList(criteria);
+        this.order = Collections.unmodifiableList(order);
+        this.limit = limit;
+    }
 
     /**
      * Constructor.
      *
      * @param field    Name of the criteria field.
      * @param operator Operator to use.
-     * @param value    Value to match against the field.
+     * @param values   Values to match against the field.
      */
-    private Criteria(final String field, final String operator, final String value) {
-        this.field = field;
-        this.operator = operator;
-        this.value = value;
+    private Criteria(final String field, final String operator, final Object... values) {
+        this(
+                field,
+                operator,
+                Arrays.asList(values),
+                Collections.<Criteria>emptyList(),
+                Collections.<Order>emptyList(),
+                0
+        );
     }
 
     /**
@@ -57,7 +127,7 @@ public class Criteria {
      * @return Criteria where the field is less than the value.
      */
     public static <T> Criteria lessThan(String field, T value) {
-        return new Criteria(field, "<", String.valueOf(value));
+        return new Criteria(field, "<", value);
     }
 
     /**
@@ -69,7 +139,7 @@ public class Criteria {
      * @return Criteria where the field is less than or equal to the value.
      */
     public static <T> Criteria lessThanOrEqualTo(String field, T value) {
-        return new Criteria(field, "<=", String.valueOf(value));
+        return new Criteria(field, "<=", value);
     }
 
     /**
@@ -81,7 +151,7 @@ public class Criteria {
      * @return Criteria for field equal to the value.
      */
     public static <T> Criteria equalTo(final String field, final T value) {
-        return new Criteria(field, "=", String.valueOf(value));
+        return new Criteria(field, "=", value);
     }
 
     /**
@@ -93,7 +163,7 @@ public class Criteria {
      * @return Criteria where the field is more than or equal to the value.
      */
     public static <T> Criteria moreThanOrEqualTo(String field, T value) {
-        return new Criteria(field, ">=", String.valueOf(value));
+        return new Criteria(field, ">=", value);
     }
 
     /**
@@ -105,13 +175,141 @@ public class Criteria {
      * @return Criteria where the field is more than the value.
      */
     public static <T> Criteria moreThan(String field, T value) {
-        return new Criteria(field, ">", String.valueOf(value));
+        return new Criteria(field, ">", value);
+    }
+
+    /**
+     * Create a criteria where the field is equal to any of the values.
+     *
+     * @param field  Name of the criteria field.
+     * @param values Values to match against the field.
+     * @param <T>    Type reference for the values.
+     * @return Criteria where the field is equal to any of the values.
+     */
+    public static <T> Criteria in(String field, Collection<T> values) {
+        return new Criteria(field, IN, values.toArray());
+    }
+
+    /**
+     * Create a criteria where the field is within the range, inclusive.
+     *
+     * @param field Name of the criteria field.
+     * @param from  Lowest value to match.
+     * @param to    Highest value to match.
+     * @param <T>   Type reference for the values.
+     * @return Criteria where the field is within the range.
+     */
+    public static <T> Criteria between(String field, T from, T to) {
+        return new Criteria(field, BETWEEN, from, to);
+    }
+
+    /**
+     * Create a criteria where every criteria have to match.
+     * <p>
+     * Null criteria are ignored, i.e. optional criteria can be passed without
+     * checking them first.
+     *
+     * @param criteria Criteria to combine.
+     * @return Combined criteria, or null if no criteria was available.
+     */
+    public static Criteria and(Criteria... criteria) {
+        return combine(AND, criteria);
+    }
+
+    /**
+     * Create a criteria where any of the criteria have to match.
+     * <p>
+     * Null criteria are ignored, i.e. optional criteria can be passed without
+     * checking them first.
+     *
+     * @param criteria Criteria to combine.
+     * @return Combined criteria, or null if no criteria was available.
+     */
+    public static Criteria or(Criteria... criteria) {
+        return combine(OR, criteria);
+    }
+
+    private static Criteria combine(String operator, Criteria... criteria) {
+        List<Criteria> combined = new ArrayList<>();
+        for (Criteria item : criteria) {
+            if (null == item) {
+                continue;
+            }
+
+            // Criteria combined with the same operator is flattened, which
+            // keeps the compiled selection free from redundant parentheses.
+            if (item.isCombined() && operator.equals(item.getOperator()) && item.isUnordered()) {
+                combined.addAll(item.getCriteria());
+                continue;
+            }
+
+            combined.add(item);
+        }
+
+        if (combined.isEmpty()) {
+            return null;
+        }
+
+        if (1 == combined.size()) {
+            return combined.get(0);
+        }
+
+        return new Criteria(
+                null,
+                operator,
+                Collections.<Object>emptyList(),
+                combined,
+                Collections.<Order>emptyList(),
+                0
+        );
+    }
+
+    /**
+     * Order the matching values by the field, in ascending order.
+     *
+     * @param field Name of the field to order by.
+     * @return Criteria with the added order.
+     */
+    public Criteria orderBy(String field) {
+        return withOrder(new Order(field, true));
+    }
+
+    /**
+     * Order the matching values by the field, in descending order.
+     *
+     * @param field Name of the field to order by.
+     * @return Criteria with the added order.
+     */
+    public Criteria orderByDescending(String field) {
+        return withOrder(new Order(field, false));
+    }
+
+    private Criteria withOrder(Order item) {
+        List<Order> order = new ArrayList<>(this.order);
+        order.add(item);
+
+        return new Criteria(field, operator, values, criteria, order, limit);
+    }
+
+    /**
+     * Limit the number of matching values.
+     *
+     * @param limit Maximum number of matching values.
+     * @return Criteria with the limit.
+     * @throws IllegalArgumentException If limit is less than 1.
+     */
+    public Criteria limit(int limit) {
+        if (1 > limit) {
+            throw new IllegalArgumentException("Limit have to be more than zero");
+        }
+
+        return new Criteria(field, operator, values, criteria, order, limit);
     }
 
     /**
      * Get the name of the criteria field.
      *
-     * @return Name of the criteria field.
+     * @return Name of the criteria field, or null for combined criteria.
      */
     public String getField() {
         return field;
@@ -129,15 +327,94 @@ public class Criteria {
     /**
      * Get the value to match against the field.
      *
-     * @return Value to match against the field.
+     * @return Value to match against the field, or null for combined criteria.
      */
     public String getValue() {
-        return value;
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        return String.valueOf(values.get(0));
+    }
+
+    /**
+     * Get the values to match against the field, with their original type.
+     *
+     * @return Values to match against the field.
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * Get the criteria combined with the operator.
+     *
+     * @return Combined criteria, empty unless the criteria is combined.
+     */
+    public List<Criteria> getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Check whether the criteria is combined from other criteria.
+     *
+     * @return true if the criteria is combined, otherwise false.
+     */
+    public boolean isCombined() {
+        return null == field;
+    }
+
+    /**
+     * Get the order for the matching values.
+     *
+     * @return Order for the matching values.
+     */
+    public List<Order> getOrder() {
+        return order;
+    }
+
+    /**
+     * Get the maximum number of matching values.
+     *
+     * @return Maximum number of matching values, or zero without limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    private boolean isUnordered() {
+        return order.isEmpty() && 0 == limit;
     }
 
     @Override
     public String toString() {
-        return getField() + getOperator() + getValue();
+        StringBuilder builder = new StringBuilder();
+        if (isCombined()) {
+            builder.append('(');
+            for (int i = 0; i < criteria.size(); i++) {
+                if (0 < i) {
+                    builder.append(operator);
+                }
+                builder.append(criteria.get(i));
+            }
+            builder.append(')');
+        } else if (IN.equals(operator)) {
+            builder.append(field).append(operator).append(values);
+        } else if (BETWEEN.equals(operator)) {
+            builder.append(field).append(operator)
+                    .append(values.get(0)).append(AND).append(values.get(1));
+        } else {
+            builder.append(field).append(operator).append(getValue());
+        }
+
+        for (Order item : order) {
+            builder.append(' ').append(item);
+        }
+        if (0 < limit) {
+            builder.append(" limit ").append(limit);
+        }
+
+        return builder.toString();
     }
 
     @Override
@@ -151,18 +428,74 @@ public class Criteria {
         }
 
         Criteria criteria = (Criteria) o;
-        return field.equals(criteria.getField())
+        return (null == field ? null == criteria.getField() : field.equals(criteria.getField()))
                 && operator.equals(criteria.getOperator())
-                && value.equals(criteria.getValue());
+                && values.equals(criteria.getValues())
+                && this.criteria.equals(criteria.getCriteria())
+                && order.equals(criteria.getOrder())
+                && limit == criteria.getLimit();
     }
 
     @Override
     public int hashCode() {
         int result = 17;
-        result = 31 * result + field.hashCode();
+        result = 31 * result + (null == field ? 0 : field.hashCode());
         result = 31 * result + operator.hashCode();
-        result = 31 * result + value.hashCode();
+        result = 31 * result + values.hashCode();
+        result = 31 * result + criteria.hashCode();
+        result = 31 * result + order.hashCode();
+        result = 31 * result + limit;
 
         return result;
     }
+
+    /**
+     * Order by a field, either ascending or descending.
+     */
+    public static final class Order {
+        private final String field;
+        private final boolean ascending;
+
+        private Order(String field, boolean ascending) {
+            this.field = field;
+            this.ascending = ascending;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public boolean isAscending() {
+            return ascending;
+        }
+
+        @Override
+        public String toString() {
+            return field + (ascending ? " asc" : " desc");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Order)) {
+                return false;
+            }
+
+            Order order = (Order) o;
+            return field.equals(order.getField())
+                    && ascending == order.isAscending();
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 17;
+            result = 31 * result + field.hashCode();
+            result = 31 * result + (ascending ? 1 : 0);
+
+            return result;
+        }
+    }
 }
@@ -36,6 +36,40 @@ public class CalculateTime {
         return calculateTime.calculateTime();
     }
 
+    /**
+     * Calculate the number of minutes for an interval, rounded the same way
+     * as with {@link #calculateTime(long)} but without allocating.
+     *
+     * @param milliseconds Interval in milliseconds.
+     * @return Number of minutes, including the minutes for the hours.
+     */
+    public static long calculateMinutes(long milliseconds) {
+        long seconds = milliseconds / 1000;
+
+        return (seconds + SECONDS_IN_MINUTE / 2) / SECONDS_IN_MINUTE;
+    }
+
+    /**
+     * Calculate the number of milliseconds until the rounded number of
+     * minutes for an interval changes, i.e. when a running interval have to
+     * be formatted again.
+     *
+     * @param milliseconds Interval in milliseconds.
+     * @return Number of milliseconds until the number of minutes changes.
+     */
+    public static long calculateMillisecondsUntilNextMinute(long milliseconds) {
+        // With the rounding, the number of minutes changes when the seconds
+        // are passing the middle of the minute.
+        long millisecondsInMinute = SECONDS_IN_MINUTE * 1000;
+        long remaining = (millisecondsInMinute / 2 - milliseconds % millisecondsInMinute
+                + millisecondsInMinute) % millisecondsInMinute;
+        if (0 == remaining) {
+            return millisecondsInMinute;
+        }
+
+        return remaining;
+    }
+
     private CalculatedTime calculateTime() {
         long minutes = calculateMinutes();
         long hours = calculateHours();
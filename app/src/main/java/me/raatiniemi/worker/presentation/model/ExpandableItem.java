@@ -24,12 +24,15 @@ import java.util.List;
 
 /**
  * Base type for the combined group and child item.
+ * <p>
+ * The item is immutable, i.e. changes to the child items are made by building
+ * a new item with the changes.
  *
  * @param <G> Reference type for the group item.
  * @param <C> Reference type for the child item.
  */
 public class ExpandableItem<G, C> {
-    private final List<C> items = new ArrayList<>();
+    private final List<C> items;
 
     /**
      * Group item.
@@ -42,7 +45,18 @@ public class ExpandableItem<G, C> {
      * @param group Group item.
      */
     protected ExpandableItem(@NonNull G group) {
+        this(group, Collections.<C>emptyList());
+    }
+
+    /**
+     * Constructor, initialize with the group and child items.
+     *
+     * @param group Group item.
+     * @param items Child items.
+     */
+    protected ExpandableItem(@NonNull G group, @NonNull List<C> items) {
         this.group = group;
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
     }
 
     /**
@@ -55,27 +69,15 @@ public class ExpandableItem<G, C> {
         return group;
     }
 
-    public boolean add(C item) {
-        return items.add(item);
-    }
-
     public C get(int index) {
         return items.get(index);
     }
 
-    public void set(int index, C item) {
-        items.set(index, item);
-    }
-
-    public C remove(int index) {
-        return items.remove(index);
-    }
-
     public int size() {
         return items.size();
     }
 
     protected List<C> getItems() {
-        return Collections.unmodifiableList(items);
+        return items;
     }
 }
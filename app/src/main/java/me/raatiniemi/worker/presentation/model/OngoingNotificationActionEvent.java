@@ -16,14 +16,41 @@
 
 package me.raatiniemi.worker.presentation.model;
 
+/**
+ * Event for changes made through the ongoing notification actions.
+ */
 public class OngoingNotificationActionEvent {
+    /**
+     * Action clocking in the project, i.e. the summary of the registered
+     * time is not affected by the change.
+     */
+    public static final int ACTION_CLOCK_IN = 0;
+
+    /**
+     * Action clocking out the project.
+     */
+    public static final int ACTION_CLOCK_OUT = 1;
+
     private final long projectId;
+    private final int action;
 
-    public OngoingNotificationActionEvent(long projectId) {
+    /**
+     * Constructor.
+     *
+     * @param projectId Id for the changed project.
+     * @param action    Action that changed the project, i.e. {@link #ACTION_CLOCK_IN}
+     *                  or {@link #ACTION_CLOCK_OUT}.
+     */
+    public OngoingNotificationActionEvent(long projectId, int action) {
         this.projectId = projectId;
+        this.action = action;
     }
 
     public long getProjectId() {
         return projectId;
     }
+
+    public int getAction() {
+        return action;
+    }
 }
@@ -20,79 +20,85 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 
-import me.raatiniemi.worker.domain.model.CalculatedTime;
 import me.raatiniemi.worker.domain.model.Time;
-import me.raatiniemi.worker.domain.util.CalculateTime;
 import me.raatiniemi.worker.presentation.util.DateIntervalFormat;
 import me.raatiniemi.worker.presentation.util.FractionIntervalFormat;
 
+/**
+ * Child item for the timesheet.
+ * <p>
+ * The title and summary are formatted when the model is built, i.e. the model
+ * should be built in the background and binding it only read the fields.
+ * For active time the interval is calculated when the model is built.
+ */
 public class TimesheetChildModel {
     private static final String TIME_SEPARATOR = " - ";
     private static final DateIntervalFormat intervalFormat;
 
+    /**
+     * Format for the start and stop time, since the format is not thread
+     * safe each of the threads building models are using their own instance.
+     */
+    private static final ThreadLocal<SimpleDateFormat> timeFormat = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat("HH:mm", Locale.getDefault());
+        }
+    };
+
     static {
         intervalFormat = new FractionIntervalFormat();
     }
 
-    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
     private final Time time;
+    private final String title;
+    private final String timeSummary;
+    private final long intervalInHundredths;
 
     public TimesheetChildModel(Time time) {
         this.time = time;
-    }
-
-    private static Date buildDateFromMilliseconds(long milliseconds) {
-        return new Date(milliseconds);
-    }
 
-    public Time asTime() {
-        return time;
+        long interval = time.getInterval();
+        title = buildTitle(time);
+        timeSummary = intervalFormat.format(interval);
+        intervalInHundredths = FractionIntervalFormat.calculateHundredths(interval);
     }
 
-    public long getId() {
-        return time.getId();
-    }
+    private static String buildTitle(Time time) {
+        SimpleDateFormat format = timeFormat.get();
 
-    public String getTitle() {
-        StringBuilder title = buildTitleFromStartTime();
+        StringBuilder title = new StringBuilder();
+        title.append(format.format(new Date(time.getStartInMilliseconds())));
 
         if (!time.isActive()) {
-            appendStopTimeWithSeparator(title);
+            title.append(TIME_SEPARATOR);
+            title.append(format.format(new Date(time.getStopInMilliseconds())));
         }
 
         return title.toString();
     }
 
-    private StringBuilder buildTitleFromStartTime() {
-        StringBuilder builder = new StringBuilder();
-        builder.append(timeFormat.format(buildDateFromStartTime()));
-
-        return builder;
-    }
-
-    private Date buildDateFromStartTime() {
-        return buildDateFromMilliseconds(time.getStartInMilliseconds());
+    public Time asTime() {
+        return time;
     }
 
-    private void appendStopTimeWithSeparator(StringBuilder title) {
-        title.append(TIME_SEPARATOR);
-        title.append(timeFormat.format(buildDateFromStopTime()));
+    public long getId() {
+        return time.getId();
     }
 
-    private Date buildDateFromStopTime() {
-        return buildDateFromMilliseconds(time.getStopInMilliseconds());
+    public String getTitle() {
+        return title;
     }
 
     public String getTimeSummary() {
-        return intervalFormat.format(time.getInterval());
+        return timeSummary;
     }
 
     public boolean isRegistered() {
         return time.isRegistered();
     }
 
-    long calculateIntervalInMilliseconds() {
-        CalculatedTime calculatedTime = CalculateTime.calculateTime(time.getInterval());
-        return calculatedTime.asMilliseconds();
+    long calculateIntervalInHundredths() {
+        return intervalInHundredths;
     }
 }
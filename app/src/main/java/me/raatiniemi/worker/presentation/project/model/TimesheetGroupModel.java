@@ -2,107 +2,165 @@ package me.raatiniemi.worker.presentation.project.model;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
 import me.raatiniemi.worker.presentation.model.ExpandableItem;
-import me.raatiniemi.worker.presentation.util.DateIntervalFormat;
 import me.raatiniemi.worker.presentation.util.FractionIntervalFormat;
 
+/**
+ * Group item for the timesheet, i.e. the time registered during a day.
+ * <p>
+ * The model is immutable and the title, summary and registered state are
+ * calculated when the model is built, i.e. the model should be built in the
+ * background and binding it only read the fields. Changes to the children
+ * are made by building a new model, see {@link #withChild(int, TimesheetChildModel)}
+ * and {@link #withoutChild(int)}.
+ */
 public class TimesheetGroupModel
         extends ExpandableItem<Date, TimesheetChildModel> {
-    private static final DateIntervalFormat intervalFormat;
+    /**
+     * Number of hundredths of hours expected for a day, i.e. eight hours.
+     */
+    private static final long EXPECTED_HUNDREDTHS_FOR_DAY = 800;
+
+    /**
+     * Capacity for the builder with the summary and difference.
+     */
+    private static final int TIME_SUMMARY_CAPACITY = 24;
+
+    private static final FractionIntervalFormat intervalFormat;
 
     static {
         intervalFormat = new FractionIntervalFormat();
     }
 
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("EEEE (MMMM d)", Locale.getDefault());
+    private final String title;
+    private final String firstLetterFromTitle;
+    private final String timeSummaryWithDifference;
+    private final boolean registered;
 
     public TimesheetGroupModel(Date group) {
-        super(group);
+        this(group, Collections.<TimesheetChildModel>emptyList());
     }
 
-    private static float calculateFractionFromMilliseconds(long intervalInMilliseconds) {
-        String fraction = intervalFormat.format(intervalInMilliseconds);
+    public TimesheetGroupModel(Date group, List<TimesheetChildModel> children) {
+        super(group, children);
 
-        return Float.parseFloat(fraction);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("EEEE (MMMM d)", Locale.getDefault());
+        title = dateFormat.format(group);
+        firstLetterFromTitle = String.valueOf(title.charAt(0));
+        timeSummaryWithDifference = buildTimeSummaryWithDifference(children);
+        registered = isRegistered(children);
     }
 
-    private static float calculateTimeDifference(String timeSummary) {
-        return Float.parseFloat(timeSummary) - 8;
+    private static boolean isRegistered(List<TimesheetChildModel> children) {
+        for (TimesheetChildModel child : children) {
+            if (!child.isRegistered()) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
-    private static String getFormattedTimeDifference(float difference) {
-        return String.format(
-                getTimeDifferenceFormat(difference),
-                difference
-        );
+    private static String buildTimeSummaryWithDifference(List<TimesheetChildModel> children) {
+        long timeSummary = calculateTimeSummaryInHundredths(children);
+
+        StringBuilder builder = new StringBuilder(TIME_SUMMARY_CAPACITY);
+        intervalFormat.formatHundredths(timeSummary, builder);
+        appendTimeDifference(timeSummary - EXPECTED_HUNDREDTHS_FOR_DAY, builder);
+
+        return builder.toString();
     }
 
-    private static String getTimeDifferenceFormat(float difference) {
-        if (0 == Float.compare(0, difference)) {
-            return "";
+    /**
+     * Summarize the time for the children, each of the children are rounded
+     * to hundredths of hours before the summary, i.e. the summary match the
+     * sum of the formatted child summaries.
+     * <p>
+     * The summary is not aggregated by the provider, the children are already
+     * loaded for the group and a sum of the unrounded intervals would not
+     * match the child summaries.
+     *
+     * @param children Children to summarize.
+     * @return Summarized time in hundredths of hours.
+     */
+    private static long calculateTimeSummaryInHundredths(List<TimesheetChildModel> children) {
+        long interval = 0;
+
+        for (TimesheetChildModel child : children) {
+            interval += child.calculateIntervalInHundredths();
         }
 
+        return interval;
+    }
+
+    private static void appendTimeDifference(long difference, StringBuilder builder) {
+        if (0 == difference) {
+            return;
+        }
+
+        builder.append(" (");
         if (0 < difference) {
-            return " (+%.2f)";
+            builder.append('+');
         }
 
-        return " (%.2f)";
+        intervalFormat.formatHundredths(difference, builder)
+                .append(')');
+    }
+
+    /**
+     * Build a group with the child at index replaced.
+     *
+     * @param index Index of the child to replace.
+     * @param child Child to replace with.
+     * @return Group with the child replaced.
+     */
+    public TimesheetGroupModel withChild(int index, TimesheetChildModel child) {
+        List<TimesheetChildModel> children = new ArrayList<>(getItems());
+        children.set(index, child);
+
+        return new TimesheetGroupModel(getGroup(), children);
+    }
+
+    /**
+     * Build a group without the child at index.
+     *
+     * @param index Index of the child to remove.
+     * @return Group without the child.
+     */
+    public TimesheetGroupModel withoutChild(int index) {
+        List<TimesheetChildModel> children = new ArrayList<>(getItems());
+        children.remove(index);
+
+        return new TimesheetGroupModel(getGroup(), children);
     }
 
     public long getId() {
         return getGroup().getTime();
     }
 
+    public Date getDate() {
+        return getGroup();
+    }
+
     public String getTitle() {
-        return dateFormat.format(getGroup());
+        return title;
     }
 
     public String getFirstLetterFromTitle() {
-        return String.valueOf(getTitle().charAt(0));
+        return firstLetterFromTitle;
     }
 
     public boolean isRegistered() {
-        boolean registered = true;
-
-        for (TimesheetChildModel child : getItems()) {
-            if (!child.isRegistered()) {
-                registered = false;
-                break;
-            }
-        }
-
         return registered;
     }
 
     public String getTimeSummaryWithDifference() {
-        String timeSummary = getTimeSummary();
-
-        float difference = calculateTimeDifference(timeSummary);
-        return timeSummary + getFormattedTimeDifference(difference);
-    }
-
-    private String getTimeSummary() {
-        return String.format(
-                Locale.getDefault(),
-                "%.2f",
-                calculateTimeIntervalSummary()
-        );
-    }
-
-    private float calculateTimeIntervalSummary() {
-        float interval = 0;
-
-        for (TimesheetChildModel child : getItems()) {
-            interval += calculateFractionFromMilliseconds(
-                    child.calculateIntervalInMilliseconds()
-            );
-        }
-
-        return interval;
+        return timeSummaryWithDifference;
     }
 
     public List<TimeInAdapterResult> buildItemResultsWithGroupIndex(int groupIndex) {
@@ -122,6 +180,6 @@ public class TimesheetGroupModel
             childIndex++;
         }
 
-        return results;
+        return Collections.unmodifiableList(results);
     }
 }
@@ -117,7 +117,7 @@ public class TimesheetPresenter extends RxPresenter<TimesheetView> {
         eventBus.unregister(this);
     }
 
-    public void getTimesheet(final Long id, final int offset) {
+    public void getTimesheet(final Long id, final Date before) {
         // Before we setup the timesheet subscription we have to cancel
         // the previous one, if available.
         unsubscribe();
@@ -129,21 +129,26 @@ public class TimesheetPresenter extends RxPresenter<TimesheetView> {
                     public Observable<Map<Date, List<Time>>> call() {
                         boolean hideRegisteredTime = Settings.shouldHideRegisteredTime(getContext());
                         return Observable.just(
-                                getTimesheet.execute(id, offset, hideRegisteredTime)
+                                getTimesheet.execute(id, before, hideRegisteredTime)
                         );
                     }
                 })
                 .map(new Func1<Map<Date, List<Time>>, List<TimesheetGroupModel>>() {
                     @Override
                     public List<TimesheetGroupModel> call(Map<Date, List<Time>> result) {
-                        List<TimesheetGroupModel> items = new ArrayList<>();
+                        // The models are formatting the titles and summaries
+                        // when built, i.e. the work is done on the background
+                        // thread and binding the views only read the fields.
+                        List<TimesheetGroupModel> items = new ArrayList<>(result.size());
                         for (Map.Entry<Date, List<Time>> date : result.entrySet()) {
-                            TimesheetGroupModel item = new TimesheetGroupModel(date.getKey());
-                            for (Time time : date.getValue()) {
-                                item.add(new TimesheetChildModel(time));
+                            List<Time> times = date.getValue();
+
+                            List<TimesheetChildModel> children = new ArrayList<>(times.size());
+                            for (Time time : times) {
+                                children.add(new TimesheetChildModel(time));
                             }
 
-                            items.add(item);
+                            items.add(new TimesheetGroupModel(date.getKey(), children));
                         }
                         return items;
                     }
@@ -17,6 +17,7 @@
 package me.raatiniemi.worker.presentation.project.view;
 
 import android.graphics.Point;
+import android.support.annotation.NonNull;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -28,6 +29,8 @@ import com.h6ah4i.android.widget.advrecyclerview.utils.AbstractExpandableItemVie
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import me.raatiniemi.worker.R;
 import me.raatiniemi.worker.domain.model.Time;
@@ -37,6 +40,7 @@ import me.raatiniemi.worker.presentation.project.model.TimesheetGroupModel;
 import me.raatiniemi.worker.presentation.util.SelectionListener;
 import me.raatiniemi.worker.presentation.util.SelectionManagerAdapterDecorator;
 import me.raatiniemi.worker.presentation.view.adapter.ExpandableListAdapter;
+import me.raatiniemi.worker.presentation.view.adapter.ListDiff;
 import me.raatiniemi.worker.presentation.view.widget.LetterDrawable;
 
 public class TimesheetAdapter extends ExpandableListAdapter<
@@ -48,8 +52,27 @@ public class TimesheetAdapter extends ExpandableListAdapter<
         > {
     private final SelectionManagerAdapterDecorator<TimeInAdapterResult> selectionManager;
 
+    /**
+     * Results for the children of the bound groups, the results are depending
+     * on the position of the group within the adapter and are only rebuilt if
+     * the group have been replaced or the position change.
+     */
+    private final Map<TimesheetGroupModel, List<TimeInAdapterResult>> itemResults
+            = new WeakHashMap<>();
+
     public TimesheetAdapter(SelectionListener selectionListener) {
-        selectionManager = new SelectionManagerAdapterDecorator<>(this, selectionListener);
+        selectionManager = new SelectionManagerAdapterDecorator<>(
+                new SelectionManagerAdapterDecorator.SelectionNotifier<TimeInAdapterResult>() {
+                    @Override
+                    public void notifySelectionChanged(TimeInAdapterResult result) {
+                        TimesheetAdapter.this.notifySelectionChanged(
+                                result.getGroup(),
+                                result.getChild()
+                        );
+                    }
+                },
+                selectionListener
+        );
 
         setHasStableIds(true);
     }
@@ -101,7 +124,7 @@ public class TimesheetAdapter extends ExpandableListAdapter<
                 LetterDrawable.build(item.getFirstLetterFromTitle())
         );
 
-        final List<TimeInAdapterResult> results = item.buildItemResultsWithGroupIndex(group);
+        final List<TimeInAdapterResult> results = getItemResults(group, item);
 
         vh.letter.setOnLongClickListener(new View.OnLongClickListener() {
             @Override
@@ -140,6 +163,18 @@ public class TimesheetAdapter extends ExpandableListAdapter<
         }
     }
 
+    private List<TimeInAdapterResult> getItemResults(int group, TimesheetGroupModel item) {
+        List<TimeInAdapterResult> results = itemResults.get(item);
+        if (null != results && !results.isEmpty() && group == results.get(0).getGroup()) {
+            return results;
+        }
+
+        results = item.buildItemResultsWithGroupIndex(group);
+        itemResults.put(item, results);
+
+        return results;
+    }
+
     @Override
     public void onBindChildViewHolder(ItemViewHolder vh, final int group, final int child, int viewType) {
         final TimesheetChildModel item = get(group, child);
@@ -192,6 +227,28 @@ public class TimesheetAdapter extends ExpandableListAdapter<
         vh.summarize.setText(item.getTimeSummary());
     }
 
+    @NonNull
+    @Override
+    protected ListDiff.Callback<TimesheetChildModel> getChildDiffCallback() {
+        return new ListDiff.Callback<TimesheetChildModel>() {
+            @Override
+            public boolean areItemsTheSame(
+                    @NonNull TimesheetChildModel oldItem,
+                    @NonNull TimesheetChildModel newItem
+            ) {
+                return oldItem.getId() == newItem.getId();
+            }
+
+            @Override
+            public boolean areContentsTheSame(
+                    @NonNull TimesheetChildModel oldItem,
+                    @NonNull TimesheetChildModel newItem
+            ) {
+                return oldItem.asTime().equals(newItem.asTime());
+            }
+        };
+    }
+
     @Override
     public int getGroupItemViewType(int group) {
         return R.layout.fragment_timesheet_group_item;
@@ -224,7 +281,17 @@ public class TimesheetAdapter extends ExpandableListAdapter<
         Collections.reverse(results);
 
         for (TimeInAdapterResult result : results) {
-            remove(result.getGroup(), result.getChild());
+            int group = result.getGroup();
+            TimesheetGroupModel groupModel = get(group);
+
+            // The group models are immutable, i.e. the group have to be
+            // replaced with a group without the child.
+            if (1 == groupModel.size()) {
+                remove(group);
+                continue;
+            }
+
+            set(group, groupModel.withoutChild(result.getChild()));
         }
     }
 
@@ -232,10 +299,14 @@ public class TimesheetAdapter extends ExpandableListAdapter<
         Collections.sort(results);
 
         for (TimeInAdapterResult result : results) {
+            int group = result.getGroup();
+
             set(
-                    result.getGroup(),
-                    result.getChild(),
-                    new TimesheetChildModel(result.getTime())
+                    group,
+                    get(group).withChild(
+                            result.getChild(),
+                            new TimesheetChildModel(result.getTime())
+                    )
             );
         }
     }
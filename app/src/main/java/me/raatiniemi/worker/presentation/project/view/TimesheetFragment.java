@@ -37,12 +37,12 @@ import com.h6ah4i.android.widget.advrecyclerview.expandable.RecyclerViewExpandab
 
 import org.greenrobot.eventbus.EventBus;
 
+import java.util.Date;
 import java.util.List;
 
+import me.raatiniemi.worker.BuildConfig;
 import me.raatiniemi.worker.R;
-import me.raatiniemi.worker.data.mapper.TimeContentValuesMapper;
-import me.raatiniemi.worker.data.mapper.TimeCursorMapper;
-import me.raatiniemi.worker.data.repository.TimeResolverRepository;
+import me.raatiniemi.worker.data.repository.RepositoryFactory;
 import me.raatiniemi.worker.domain.interactor.GetTimesheet;
 import me.raatiniemi.worker.domain.interactor.MarkRegisteredTime;
 import me.raatiniemi.worker.domain.interactor.RemoveTime;
@@ -50,6 +50,7 @@ import me.raatiniemi.worker.domain.repository.TimeRepository;
 import me.raatiniemi.worker.presentation.project.model.TimeInAdapterResult;
 import me.raatiniemi.worker.presentation.project.model.TimesheetGroupModel;
 import me.raatiniemi.worker.presentation.project.presenter.TimesheetPresenter;
+import me.raatiniemi.worker.presentation.util.FrameTimeLogger;
 import me.raatiniemi.worker.presentation.util.SelectionListener;
 import me.raatiniemi.worker.presentation.view.fragment.MvpFragment;
 
@@ -152,6 +153,7 @@ public class TimesheetFragment extends MvpFragment<TimesheetPresenter>
         recyclerView.setLayoutManager(linearLayoutManager);
         recyclerView.setHasFixedSize(false);
         recyclerView.setAdapter(recyclerViewExpandableItemManager.createWrappedAdapter(getAdapter()));
+        getAdapter().setExpandableItemManager(recyclerViewExpandableItemManager);
         recyclerView.addItemDecoration(
                 new SimpleListDividerDecorator(
                         getResources().getDrawable(
@@ -181,30 +183,33 @@ public class TimesheetFragment extends MvpFragment<TimesheetPresenter>
                         // to block additional loading requests.
                         loading = true;
 
-                        // Retrieve the total number of groups within the view, we need to
-                        // exclude the children otherwise the offset will be wrong.
-                        int offset = getAdapter().getGroupCount();
-
-                        // Retrieve additional timesheet items with offset.
-                        getPresenter().getTimesheet(getProjectId(), offset);
+                        // The next segment begins with the day before the last
+                        // group within the view, i.e. the oldest retrieved day.
+                        int groupCount = getAdapter().getGroupCount();
+                        if (0 == groupCount) {
+                            loading = false;
+                            return;
+                        }
+                        Date before = getAdapter().get(groupCount - 1).getDate();
+
+                        // Retrieve additional timesheet items before the day.
+                        getPresenter().getTimesheet(getProjectId(), before);
                     }
                 }
             }
         });
+        if (BuildConfig.DEBUG) {
+            recyclerView.addOnScrollListener(new FrameTimeLogger(TAG));
+        }
         recyclerViewExpandableItemManager.attachRecyclerView(recyclerView);
 
         getPresenter().attachView(this);
-        getPresenter().getTimesheet(getProjectId(), 0);
+        getPresenter().getTimesheet(getProjectId(), null);
     }
 
     @Override
     protected TimesheetPresenter createPresenter() {
-        // Create the time repository.
-        TimeRepository timeRepository = new TimeResolverRepository(
-                getActivity().getContentResolver(),
-                new TimeCursorMapper(),
-                new TimeContentValuesMapper()
-        );
+        TimeRepository timeRepository = RepositoryFactory.buildTimeRepository(getActivity());
 
         return new TimesheetPresenter(
                 getActivity(),
@@ -291,7 +296,7 @@ public class TimesheetFragment extends MvpFragment<TimesheetPresenter>
     public void refresh() {
         // Clear the items from the list and start loading from the beginning...
         getAdapter().clear();
-        getPresenter().getTimesheet(getProjectId(), 0);
+        getPresenter().getTimesheet(getProjectId(), null);
     }
 
     @Override
@@ -27,6 +27,7 @@ import java.util.Locale;
 import me.raatiniemi.worker.R;
 import me.raatiniemi.worker.domain.model.Project;
 import me.raatiniemi.worker.domain.model.Time;
+import me.raatiniemi.worker.domain.util.CalculateTime;
 import me.raatiniemi.worker.presentation.util.DateIntervalFormat;
 import me.raatiniemi.worker.presentation.util.HoursMinutesIntervalFormat;
 
@@ -47,6 +48,12 @@ public class ProjectsModel {
         calculateTimeSummaryFromRegisteredTime(registeredTime);
     }
 
+    public ProjectsModel(Project project, long registeredTimeSummary) {
+        this.project = project;
+
+        timeSummary = registeredTimeSummary;
+    }
+
     public ProjectsModel(Project project) {
         this(project, project.getTime());
     }
@@ -81,6 +88,15 @@ public class ProjectsModel {
         return project.isActive();
     }
 
+    /**
+     * Get the summary of the registered time.
+     *
+     * @return Summary of the registered time in milliseconds.
+     */
+    public long getRegisteredTimeSummary() {
+        return timeSummary;
+    }
+
     public String getTimeSummary() {
         return intervalFormat.format(timeSummary);
     }
@@ -124,6 +140,16 @@ public class ProjectsModel {
         return intervalFormat.format(project.getElapsed());
     }
 
+    /**
+     * Get the number of milliseconds until the formatted elapsed time
+     * changes, i.e. when the clocked in since text have to be refreshed.
+     *
+     * @return Number of milliseconds until the elapsed time changes.
+     */
+    public long getMillisecondsUntilElapsedTimeChange() {
+        return CalculateTime.calculateMillisecondsUntilNextMinute(project.getElapsed());
+    }
+
     public void setVisibilityForClockedInSinceView(TextView clockedInSinceView) {
         if (isActive()) {
             showTextView(clockedInSinceView);
@@ -18,7 +18,9 @@ package me.raatiniemi.worker.presentation.projects.presenter;
 
 import android.app.NotificationManager;
 import android.content.Context;
+import android.support.annotation.NonNull;
 import android.util.Log;
+import android.util.Pair;
 
 import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
@@ -27,24 +29,26 @@ import org.greenrobot.eventbus.ThreadMode;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
-import me.raatiniemi.worker.Worker;
 import me.raatiniemi.worker.domain.exception.DomainException;
 import me.raatiniemi.worker.domain.interactor.ClockActivityChange;
-import me.raatiniemi.worker.domain.interactor.GetProjectTimeSince;
+import me.raatiniemi.worker.domain.interactor.GetProjectTimeSummarySince;
 import me.raatiniemi.worker.domain.interactor.GetProjects;
 import me.raatiniemi.worker.domain.interactor.RemoveProject;
 import me.raatiniemi.worker.domain.model.Project;
-import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.presentation.model.OngoingNotificationActionEvent;
 import me.raatiniemi.worker.presentation.presenter.RxPresenter;
 import me.raatiniemi.worker.presentation.projects.model.ProjectsModel;
 import me.raatiniemi.worker.presentation.projects.view.ProjectsView;
 import me.raatiniemi.worker.presentation.settings.model.TimeSummaryStartingPointChangeEvent;
 import me.raatiniemi.worker.presentation.util.Settings;
-import me.raatiniemi.worker.presentation.view.notification.PauseNotification;
+import me.raatiniemi.worker.presentation.view.adapter.ListDiff;
+import me.raatiniemi.worker.presentation.view.notification.OngoingNotificationPublisher;
 import rx.Observable;
 import rx.Subscriber;
 import rx.Subscription;
@@ -53,6 +57,7 @@ import rx.functions.Action1;
 import rx.functions.Func0;
 import rx.functions.Func1;
 import rx.schedulers.Schedulers;
+import rx.subscriptions.CompositeSubscription;
 
 /**
  * Presenter for the projects module, handles loading of projects.
@@ -63,6 +68,35 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
      */
     private static final String TAG = "ProjectsPresenter";
 
+    /**
+     * Tolerance for refreshing active projects together, i.e. if the elapsed
+     * time for the projects are changing within a second of each other.
+     */
+    private static final long ELAPSED_TIME_TOLERANCE_IN_MILLISECONDS = 1000;
+
+    /**
+     * Callback for comparing the projects when the projects are updated.
+     */
+    private static final ListDiff.Callback<ProjectsModel> diffCallback =
+            new ListDiff.Callback<ProjectsModel>() {
+                @Override
+                public boolean areItemsTheSame(
+                        @NonNull ProjectsModel oldItem,
+                        @NonNull ProjectsModel newItem
+                ) {
+                    return oldItem.asProject().getId().equals(newItem.asProject().getId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(
+                        @NonNull ProjectsModel oldItem,
+                        @NonNull ProjectsModel newItem
+                ) {
+                    return oldItem.getRegisteredTimeSummary() == newItem.getRegisteredTimeSummary()
+                            && oldItem.equals(newItem);
+                }
+            };
+
     private final EventBus eventBus;
 
     /**
@@ -71,9 +105,9 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
     private final GetProjects getProjects;
 
     /**
-     * Use case for getting registered project time.
+     * Use case for getting summarized registered project time.
      */
-    private final GetProjectTimeSince getProjectTimeSince;
+    private final GetProjectTimeSummarySince getProjectTimeSummarySince;
 
     /**
      * Use case for project clock in/out.
@@ -90,21 +124,45 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
      */
     private Subscription refreshProjects;
 
+    /**
+     * Subscriptions for refreshing single projects, e.g. after the project
+     * have been changed through the ongoing notification.
+     */
+    private final CompositeSubscription refreshProject = new CompositeSubscription();
+
+    /**
+     * Subscription for refreshing the summarized registered time, only the
+     * latest refresh is kept since it supersedes the previous refreshes.
+     */
+    private Subscription refreshTimeSummaries;
+
+    /**
+     * Whether the active projects should be refreshed, i.e. between the
+     * begin and stop of the refresh.
+     */
+    private boolean refreshingActiveProjects;
+
+    /**
+     * Publisher for the ongoing notifications, created when the first
+     * notifications are posted.
+     */
+    private OngoingNotificationPublisher ongoingNotificationPublisher;
+
     /**
      * Constructor.
      *
-     * @param context             Context used with the presenter.
-     * @param eventBus            Event bus.
-     * @param getProjects         Use case for getting projects.
-     * @param getProjectTimeSince Use case for getting registered project time.
-     * @param clockActivityChange Use case for project clock in/out.
-     * @param removeProject       Use case for removing projects.
+     * @param context                    Context used with the presenter.
+     * @param eventBus                   Event bus.
+     * @param getProjects                Use case for getting projects.
+     * @param getProjectTimeSummarySince Use case for getting summarized registered project time.
+     * @param clockActivityChange        Use case for project clock in/out.
+     * @param removeProject              Use case for removing projects.
      */
     public ProjectsPresenter(
             Context context,
             EventBus eventBus,
             GetProjects getProjects,
-            GetProjectTimeSince getProjectTimeSince,
+            GetProjectTimeSummarySince getProjectTimeSummarySince,
             ClockActivityChange clockActivityChange,
             RemoveProject removeProject
     ) {
@@ -112,7 +170,7 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
 
         this.eventBus = eventBus;
         this.getProjects = getProjects;
-        this.getProjectTimeSince = getProjectTimeSince;
+        this.getProjectTimeSummarySince = getProjectTimeSummarySince;
         this.clockActivityChange = clockActivityChange;
         this.removeProject = removeProject;
     }
@@ -135,33 +193,9 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
         super.detachView();
 
         eventBus.unregister(this);
-    }
-
-    /**
-     * Get the positions for the active projects from the view.
-     *
-     * @return Positions for the active projects.
-     */
-    private List<Integer> getPositionsForActiveProjects() {
-        List<Integer> positions = new ArrayList<>();
-
-        // Check that we still have the view attached.
-        if (isViewDetached()) {
-            Log.d(TAG, "View is not attached, skip checking active projects");
-            return positions;
-        }
-
-        // Iterate the projects and collect the index of active projects.
-        List<ProjectsModel> projects = getView().getProjects();
-        for (ProjectsModel project : projects) {
-            if (!project.isActive()) {
-                continue;
-            }
-
-            Log.d(TAG, "Queuing refresh of project: " + project.getTitle());
-            positions.add(projects.indexOf(project));
-        }
-        return positions;
+        stopRefreshingActiveProjects();
+        refreshProject.clear();
+        unsubscribeRefreshOfTimeSummaries();
     }
 
     /**
@@ -188,50 +222,93 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
     }
 
     /**
-     * Setup the subscription for refreshing active projects.
+     * Schedule the refresh of the active projects for when the next elapsed
+     * time changes, i.e. instead of refreshing at a fixed interval.
+     * <p>
+     * Active projects with elapsed time changing within the tolerance are
+     * refreshed together, after the latest of the changes.
      */
-    public void beginRefreshingActiveProjects() {
-        // Before we create a new subscription for refreshing active projects
-        // we have to unsubscribe to the existing one, if one is available.
-        stopRefreshingActiveProjects();
+    private void scheduleRefreshOfActiveProjects() {
+        unsubscribeRefreshOfActiveProjects();
 
-        Log.d(TAG, "Subscribe to the refresh of active projects");
-        refreshProjects = Observable.interval(60, TimeUnit.SECONDS, Schedulers.newThread())
-                .map(new Func1<Long, List<Integer>>() {
-                    @Override
-                    public List<Integer> call(Long aLong) {
-                        return getPositionsForActiveProjects();
-                    }
-                })
+        // Check that we still have the view attached.
+        if (isViewDetached()) {
+            Log.d(TAG, "View is not attached, skip scheduling refresh of active projects");
+            return;
+        }
+
+        List<ProjectsModel> projects = getView().getProjects();
+        List<Integer> positions = getView().getPositionsForActiveProjects();
+        if (positions.isEmpty()) {
+            Log.d(TAG, "No projects are active, nothing to schedule");
+            return;
+        }
+
+        long nextChange = Long.MAX_VALUE;
+        for (Integer position : positions) {
+            ProjectsModel project = projects.get(position);
+            nextChange = Math.min(nextChange, project.getMillisecondsUntilElapsedTimeChange());
+        }
+
+        long delay = nextChange;
+        final Set<Long> projectIds = new HashSet<>();
+        for (Integer position : positions) {
+            ProjectsModel project = projects.get(position);
+
+            long change = project.getMillisecondsUntilElapsedTimeChange();
+            if (change - nextChange > ELAPSED_TIME_TOLERANCE_IN_MILLISECONDS) {
+                continue;
+            }
+
+            delay = Math.max(delay, change);
+            projectIds.add(project.asProject().getId());
+        }
+
+        Log.d(TAG, "Schedule refresh of active projects in " + delay + " ms");
+        refreshProjects = Observable.timer(delay, TimeUnit.MILLISECONDS, Schedulers.computation())
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(new Subscriber<List<Integer>>() {
+                .subscribe(new Subscriber<Long>() {
                     @Override
-                    public void onNext(List<Integer> positions) {
-                        Log.d(TAG, "beginRefreshingActiveProjects onNext");
+                    public void onNext(Long tick) {
+                        Log.d(TAG, "scheduleRefreshOfActiveProjects onNext");
+
+                        // Check that we still have the view attached.
+                        if (isViewDetached()) {
+                            Log.d(TAG, "View is not attached, skip refreshing active projects");
+                            return;
+                        }
 
-                        // Push the data to the view.
+                        // Only the projects with changed elapsed time are
+                        // refreshed, the positions might have changed since
+                        // the refresh was scheduled.
+                        List<ProjectsModel> projects = getView().getProjects();
+                        List<Integer> positions = new ArrayList<>();
+                        for (Integer position : getView().getPositionsForActiveProjects()) {
+                            if (projectIds.contains(projects.get(position).asProject().getId())) {
+                                positions.add(position);
+                            }
+                        }
                         refreshActiveProjects(positions);
+
+                        scheduleRefreshOfActiveProjects();
                     }
 
                     @Override
                     public void onError(Throwable e) {
-                        Log.d(TAG, "beginRefreshingActiveProjects onError");
+                        Log.d(TAG, "scheduleRefreshOfActiveProjects onError");
 
                         // Log the error even if the view have been detached.
-                        Log.w(TAG, "Failed to get positions", e);
+                        Log.w(TAG, "Failed to refresh active projects", e);
                     }
 
                     @Override
                     public void onCompleted() {
-                        Log.d(TAG, "beginRefreshingActiveProjects onCompleted");
+                        Log.d(TAG, "scheduleRefreshOfActiveProjects onCompleted");
                     }
                 });
     }
 
-    /**
-     * Unsubscribe to the refresh of active projects.
-     */
-    public void stopRefreshingActiveProjects() {
+    private void unsubscribeRefreshOfActiveProjects() {
         if (null != refreshProjects && !refreshProjects.isUnsubscribed()) {
             Log.d(TAG, "Unsubscribe to the refresh of active projects");
             refreshProjects.unsubscribe();
@@ -240,38 +317,49 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
     }
 
     /**
-     * Refresh active projects.
+     * Setup the subscription for refreshing active projects.
      */
-    public void refreshActiveProjects() {
-        Log.d(TAG, "Refreshing active projects");
-        Observable.defer(new Func0<Observable<List<Integer>>>() {
-            @Override
-            public Observable<List<Integer>> call() {
-                return Observable.just(getPositionsForActiveProjects());
-            }
-        }).compose(this.<List<Integer>>applySchedulers())
-                .subscribe(new Subscriber<List<Integer>>() {
-                    @Override
-                    public void onNext(List<Integer> positions) {
-                        Log.d(TAG, "refreshActiveProjects onNext");
+    public void beginRefreshingActiveProjects() {
+        // Before we create a new subscription for refreshing active projects
+        // we have to unsubscribe to the existing one, if one is available.
+        stopRefreshingActiveProjects();
 
-                        // Push the data to the view.
-                        refreshActiveProjects(positions);
-                    }
+        Log.d(TAG, "Subscribe to the refresh of active projects");
+        refreshingActiveProjects = true;
+        scheduleRefreshOfActiveProjects();
+    }
 
-                    @Override
-                    public void onError(Throwable e) {
-                        Log.d(TAG, "refreshActiveProjects onError");
+    /**
+     * Unsubscribe to the refresh of active projects.
+     */
+    public void stopRefreshingActiveProjects() {
+        refreshingActiveProjects = false;
+        unsubscribeRefreshOfActiveProjects();
+    }
 
-                        // Log the error even if the view have been detached.
-                        Log.w(TAG, "Failed to get positions", e);
-                    }
+    /**
+     * Reschedule the refresh of active projects, e.g. after a project have
+     * been clocked in or out.
+     */
+    public void activeProjectsChanged() {
+        if (!refreshingActiveProjects) {
+            return;
+        }
 
-                    @Override
-                    public void onCompleted() {
-                        Log.d(TAG, "refreshActiveProjects onCompleted");
-                    }
-                });
+        scheduleRefreshOfActiveProjects();
+    }
+
+    /**
+     * Refresh active projects.
+     */
+    public void refreshActiveProjects() {
+        // Check that we still have the view attached.
+        if (isViewDetached()) {
+            Log.d(TAG, "View is not attached, skip refreshing active projects");
+            return;
+        }
+
+        refreshActiveProjects(getView().getPositionsForActiveProjects());
     }
 
     /**
@@ -298,11 +386,18 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
                     @Override
                     public List<ProjectsModel> call(List<Project> projects) {
                         List<ProjectsModel> items = new ArrayList<>();
+                        if (projects.isEmpty()) {
+                            return items;
+                        }
 
+                        Map<Long, Long> registeredTime = getRegisteredTimeSummary(projects);
                         for (Project project : projects) {
-                            List<Time> registeredTime = getRegisteredTime(project);
+                            Long timeSummary = registeredTime.get(project.getId());
+                            if (null == timeSummary) {
+                                timeSummary = 0L;
+                            }
 
-                            items.add(new ProjectsModel(project, registeredTime));
+                            items.add(new ProjectsModel(project, timeSummary));
                         }
 
                         return items;
@@ -312,9 +407,12 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
                 .doOnNext(new Action1<List<ProjectsModel>>() {
                     @Override
                     public void call(List<ProjectsModel> projectsModels) {
+                        List<Project> projects = new ArrayList<>(projectsModels.size());
                         for (ProjectsModel projectsModel : projectsModels) {
-                            postOngoingNotification(projectsModel.asProject());
+                            projects.add(projectsModel.asProject());
                         }
+
+                        postOngoingNotifications(projects);
                     }
                 })
                 .subscribe(new Subscriber<List<ProjectsModel>>() {
@@ -354,16 +452,28 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
                 });
     }
 
-    private List<Time> getRegisteredTime(Project project) {
+    private long getRegisteredTimeSummary(Project project) {
         try {
             int startingPointForTimeSummary = Settings.getStartingPointForTimeSummary(getContext());
 
-            return getProjectTimeSince.execute(project, startingPointForTimeSummary);
+            return getProjectTimeSummarySince.execute(project, startingPointForTimeSummary);
         } catch (DomainException e) {
             Log.w(TAG, "Unable to get registered time for project", e);
         }
 
-        return Collections.emptyList();
+        return 0L;
+    }
+
+    private Map<Long, Long> getRegisteredTimeSummary(List<Project> projects) {
+        try {
+            int startingPointForTimeSummary = Settings.getStartingPointForTimeSummary(getContext());
+
+            return getProjectTimeSummarySince.execute(projects, startingPointForTimeSummary);
+        } catch (DomainException e) {
+            Log.w(TAG, "Unable to get registered time for projects", e);
+        }
+
+        return Collections.emptyMap();
     }
 
     /**
@@ -460,7 +570,7 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
                 .map(new Func1<Project, ProjectsModel>() {
                     @Override
                     public ProjectsModel call(Project project) {
-                        List<Time> registeredTime = getRegisteredTime(project);
+                        long registeredTime = getRegisteredTimeSummary(project);
 
                         return new ProjectsModel(project, registeredTime);
                     }
@@ -470,7 +580,7 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
                     @Override
                     public void call(ProjectsModel projectsModel) {
                         Project project = projectsModel.asProject();
-                        postOngoingNotification(project);
+                        postOngoingNotifications(Collections.singletonList(project));
                     }
                 })
                 .subscribe(new Subscriber<ProjectsModel>() {
@@ -515,45 +625,270 @@ public class ProjectsPresenter extends RxPresenter<ProjectsView> {
                 });
     }
 
-    private void postOngoingNotification(Project project) {
-        NotificationManager manager = (NotificationManager) getContext()
-                .getSystemService(Context.NOTIFICATION_SERVICE);
+    /**
+     * Post the ongoing notifications for the projects.
+     * <p>
+     * The notifications are built and posted on a background thread, i.e.
+     * this is safe to call from the main thread.
+     *
+     * @param projects Projects, populated with the time since the beginning of the month.
+     */
+    private void postOngoingNotifications(List<Project> projects) {
+        if (null == ongoingNotificationPublisher) {
+            NotificationManager manager = (NotificationManager) getContext()
+                    .getSystemService(Context.NOTIFICATION_SERVICE);
+
+            ongoingNotificationPublisher = new OngoingNotificationPublisher(
+                    getContext(),
+                    manager,
+                    getProjectTimeSummarySince,
+                    Schedulers.io()
+            );
+        }
+
+        ongoingNotificationPublisher.publish(projects);
+    }
+
+    /**
+     * Get the summarized registered time for a project populated with the
+     * time since the beginning of the month, the summary is calculated from
+     * the populated time unless the starting point is before the month.
+     *
+     * @param project Project populated with the time since the beginning of the month.
+     * @return Summarized registered time for the project.
+     */
+    private long getRegisteredTimeSummaryFromProjectTime(Project project) {
+        int startingPoint = Settings.getStartingPointForTimeSummary(getContext());
+        if (getProjectTimeSummarySince.isCalculableFromProjectTime(startingPoint)) {
+            return getProjectTimeSummarySince.calculateFromProjectTime(project, startingPoint);
+        }
 
-        manager.cancel(
-                String.valueOf(project.getId()),
-                Worker.NOTIFICATION_ON_GOING_ID
-        );
+        return getRegisteredTimeSummary(project);
+    }
 
-        if (!Settings.isOngoingNotificationEnabled(getContext())) {
+    private ProjectsModel findProject(long projectId) {
+        for (ProjectsModel project : getView().getProjects()) {
+            if (projectId == project.asProject().getId()) {
+                return project;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isSameProjects(List<ProjectsModel> lhs, List<ProjectsModel> rhs) {
+        if (lhs.size() != rhs.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < lhs.size(); i++) {
+            if (lhs.get(i) != rhs.get(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Refresh a single project, e.g. after the project have been changed
+     * through the ongoing notification.
+     *
+     * @param projectId Id for the project to refresh.
+     * @param action    Action that changed the project, see {@link OngoingNotificationActionEvent}.
+     */
+    private void refreshProject(final long projectId, final int action) {
+        final ProjectsModel previousProject = findProject(projectId);
+        if (null == previousProject) {
+            Log.d(TAG, "Project is not available, skip refreshing project");
             return;
         }
 
-        if (project.isActive()) {
-            manager.notify(
-                    String.valueOf(project.getId()),
-                    Worker.NOTIFICATION_ON_GOING_ID,
-                    PauseNotification.build(getContext(), project)
-            );
+        Subscriber<ProjectsModel> subscriber = new Subscriber<ProjectsModel>() {
+            @Override
+            public void onNext(ProjectsModel project) {
+                Log.d(TAG, "refreshProject onNext");
+
+                // Check that we still have the view attached.
+                if (isViewDetached()) {
+                    Log.d(TAG, "View is not attached, skip updating project");
+                    return;
+                }
+
+                getView().updateProject(project);
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                Log.d(TAG, "refreshProject onError");
+                Log.w(TAG, "Failed to refresh project", e);
+
+                refreshProject.remove(this);
+            }
+
+            @Override
+            public void onCompleted() {
+                Log.d(TAG, "refreshProject onCompleted");
+
+                refreshProject.remove(this);
+            }
+        };
+        refreshProject.add(subscriber);
+
+        Observable
+                .defer(new Func0<Observable<Project>>() {
+                    @Override
+                    public Observable<Project> call() {
+                        try {
+                            Project project = getProjects.execute(projectId);
+                            if (null == project) {
+                                return Observable.empty();
+                            }
+
+                            return Observable.just(project);
+                        } catch (DomainException e) {
+                            return Observable.error(e);
+                        }
+                    }
+                })
+                .map(new Func1<Project, ProjectsModel>() {
+                    @Override
+                    public ProjectsModel call(Project project) {
+                        // Only clocked out time is summarized, i.e. clocking
+                        // in do not affect the summary.
+                        if (OngoingNotificationActionEvent.ACTION_CLOCK_IN == action) {
+                            return new ProjectsModel(
+                                    project,
+                                    previousProject.getRegisteredTimeSummary()
+                            );
+                        }
+
+                        return new ProjectsModel(
+                                project,
+                                getRegisteredTimeSummaryFromProjectTime(project)
+                        );
+                    }
+                })
+                .compose(this.<ProjectsModel>applySchedulers())
+                .subscribe(subscriber);
+    }
+
+    /**
+     * Refresh the summarized registered time for the projects, e.g. after
+     * the starting point for the summary have changed.
+     * <p>
+     * The summaries are calculated from the time populated on the projects
+     * when the starting point is within the month, i.e. without going
+     * through the repositories.
+     */
+    private void refreshTimeSummaries() {
+        // The previous refresh is calculated from the projects before the
+        // change, i.e. its result is no longer of interest.
+        unsubscribeRefreshOfTimeSummaries();
+
+        final List<ProjectsModel> projects = new ArrayList<>(getView().getProjects());
+        if (projects.isEmpty()) {
+            return;
+        }
+
+        refreshTimeSummaries = Observable.just(projects)
+                .map(new Func1<List<ProjectsModel>, Pair<List<ProjectsModel>, ListDiff>>() {
+                    @Override
+                    public Pair<List<ProjectsModel>, ListDiff> call(List<ProjectsModel> projects) {
+                        List<ProjectsModel> items = new ArrayList<>(projects.size());
+
+                        int startingPoint = Settings.getStartingPointForTimeSummary(getContext());
+                        if (getProjectTimeSummarySince.isCalculableFromProjectTime(startingPoint)) {
+                            for (ProjectsModel item : projects) {
+                                Project project = item.asProject();
+                                long timeSummary = getProjectTimeSummarySince.calculateFromProjectTime(
+                                        project,
+                                        startingPoint
+                                );
+
+                                items.add(new ProjectsModel(project, timeSummary));
+                            }
+                        } else {
+                            List<Project> projectsToSummarize = new ArrayList<>(projects.size());
+                            for (ProjectsModel item : projects) {
+                                projectsToSummarize.add(item.asProject());
+                            }
+
+                            Map<Long, Long> registeredTime = getRegisteredTimeSummary(projectsToSummarize);
+                            for (Project project : projectsToSummarize) {
+                                Long timeSummary = registeredTime.get(project.getId());
+                                if (null == timeSummary) {
+                                    timeSummary = 0L;
+                                }
+
+                                items.add(new ProjectsModel(project, timeSummary));
+                            }
+                        }
+
+                        return Pair.create(items, ListDiff.calculate(projects, items, diffCallback));
+                    }
+                })
+                .compose(this.<Pair<List<ProjectsModel>, ListDiff>>applySchedulers())
+                .subscribe(new Subscriber<Pair<List<ProjectsModel>, ListDiff>>() {
+                    @Override
+                    public void onNext(Pair<List<ProjectsModel>, ListDiff> result) {
+                        Log.d(TAG, "refreshTimeSummaries onNext");
+
+                        // Check that we still have the view attached.
+                        if (isViewDetached()) {
+                            Log.d(TAG, "View is not attached, skip updating projects");
+                            return;
+                        }
+
+                        // The difference is only valid for the projects it
+                        // was calculated from, if the projects have changed
+                        // in the meantime the summaries have to be refreshed.
+                        if (!isSameProjects(projects, getView().getProjects())) {
+                            refreshTimeSummaries();
+                            return;
+                        }
+
+                        getView().updateProjects(result.first, result.second);
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        Log.d(TAG, "refreshTimeSummaries onError");
+                        Log.w(TAG, "Failed to refresh time summaries", e);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        Log.d(TAG, "refreshTimeSummaries onCompleted");
+                    }
+                });
+    }
+
+    private void unsubscribeRefreshOfTimeSummaries() {
+        if (null != refreshTimeSummaries && !refreshTimeSummaries.isUnsubscribed()) {
+            Log.d(TAG, "Unsubscribe to the refresh of time summaries");
+            refreshTimeSummaries.unsubscribe();
         }
+        refreshTimeSummaries = null;
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEventMainThread(TimeSummaryStartingPointChangeEvent event) {
         if (isViewDetached()) {
-            Log.d(TAG, "View is not attached, skip reloading projects");
+            Log.d(TAG, "View is not attached, skip refreshing time summaries");
             return;
         }
 
-        getView().reloadProjects();
+        refreshTimeSummaries();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEventMainThread(OngoingNotificationActionEvent event) {
         if (isViewDetached()) {
-            Log.d(TAG, "View is not attached, skip reloading projects");
+            Log.d(TAG, "View is not attached, skip refreshing project");
             return;
         }
 
-        getView().reloadProjects();
+        refreshProject(event.getProjectId(), event.getAction());
     }
 }
@@ -30,9 +30,7 @@ import android.widget.EditText;
 import android.widget.TextView;
 
 import me.raatiniemi.worker.R;
-import me.raatiniemi.worker.data.mapper.ProjectContentValuesMapper;
-import me.raatiniemi.worker.data.mapper.ProjectCursorMapper;
-import me.raatiniemi.worker.data.repository.ProjectResolverRepository;
+import me.raatiniemi.worker.data.repository.RepositoryFactory;
 import me.raatiniemi.worker.domain.interactor.CreateProject;
 import me.raatiniemi.worker.domain.model.Project;
 import me.raatiniemi.worker.domain.repository.ProjectRepository;
@@ -64,11 +62,7 @@ public class NewProjectFragment extends DialogFragment implements NewProjectView
      */
     private NewProjectPresenter getPresenter() {
         if (null == presenter) {
-            ProjectRepository projectRepository = new ProjectResolverRepository(
-                    getActivity().getContentResolver(),
-                    new ProjectCursorMapper(),
-                    new ProjectContentValuesMapper()
-            );
+            ProjectRepository projectRepository = RepositoryFactory.buildProjectRepository(getActivity());
 
             presenter = new NewProjectPresenter(
                     getActivity(),
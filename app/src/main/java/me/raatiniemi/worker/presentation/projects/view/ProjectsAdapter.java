@@ -26,8 +26,12 @@ import android.view.ViewGroup;
 import android.widget.ImageButton;
 import android.widget.TextView;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import me.raatiniemi.worker.R;
 import me.raatiniemi.worker.domain.comparator.ProjectComparator;
@@ -40,6 +44,18 @@ import me.raatiniemi.worker.presentation.view.adapter.SimpleListAdapter;
  * Adapter for listing available projects.
  */
 public class ProjectsAdapter extends SimpleListAdapter<ProjectsModel, ProjectsAdapter.ItemViewHolder> {
+    /**
+     * Payload for refreshing only the clocked in since text, i.e. the
+     * elapsed time for an active project.
+     */
+    public static final Object PAYLOAD_CLOCKED_IN_SINCE = new Object();
+
+    /**
+     * Positions for the active projects, kept in sync with the item
+     * notifications instead of iterating the projects.
+     */
+    private final SortedSet<Integer> activePositions = new TreeSet<>();
+
     /**
      * Listener for project actions.
      */
@@ -51,6 +67,11 @@ public class ProjectsAdapter extends SimpleListAdapter<ProjectsModel, ProjectsAd
      */
     private HintedImageButtonListener hintedImageButtonListener;
 
+    /**
+     * Listener for changes to which projects are active.
+     */
+    private OnActiveProjectsChangeListener onActiveProjectsChangeListener;
+
     /**
      * Construct the ProjectsAdapter.
      *
@@ -65,6 +86,8 @@ public class ProjectsAdapter extends SimpleListAdapter<ProjectsModel, ProjectsAd
 
         onProjectActionListener = projectActionListener;
         resources = getContext().getResources();
+
+        registerAdapterDataObserver(new ActivePositionsObserver());
     }
 
     @Override
@@ -125,6 +148,25 @@ public class ProjectsAdapter extends SimpleListAdapter<ProjectsModel, ProjectsAd
         vh.delete.setOnLongClickListener(hintedImageButtonListener);
     }
 
+    @Override
+    public void onBindViewHolder(ItemViewHolder vh, int index, List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(vh, index);
+            return;
+        }
+
+        for (Object payload : payloads) {
+            if (PAYLOAD_CLOCKED_IN_SINCE != payload) {
+                onBindViewHolder(vh, index);
+                return;
+            }
+        }
+
+        // Only the elapsed time have changed, i.e. there's no need
+        // to rebind the rest of the view.
+        vh.clockedInSince.setText(get(index).getClockedInSince(resources));
+    }
+
     public int findProject(final ProjectsModel project) {
         // TODO: Clean up the comparator.
         final ProjectComparator comparator = new ProjectComparator();
@@ -154,6 +196,35 @@ public class ProjectsAdapter extends SimpleListAdapter<ProjectsModel, ProjectsAd
         this.hintedImageButtonListener = hintedImageButtonListener;
     }
 
+    /**
+     * Get the positions for the active projects.
+     *
+     * @return Positions for the active projects, in ascending order.
+     */
+    @NonNull
+    public List<Integer> getPositionsForActiveProjects() {
+        return new ArrayList<>(activePositions);
+    }
+
+    /**
+     * Set the listener for changes to which projects are active.
+     *
+     * @param onActiveProjectsChangeListener Listener for changes to the active projects.
+     */
+    public void setOnActiveProjectsChangeListener(
+            OnActiveProjectsChangeListener onActiveProjectsChangeListener
+    ) {
+        this.onActiveProjectsChangeListener = onActiveProjectsChangeListener;
+    }
+
+    private void notifyActiveProjectsChange() {
+        if (null == onActiveProjectsChangeListener) {
+            return;
+        }
+
+        onActiveProjectsChangeListener.onActiveProjectsChange();
+    }
+
     /**
      * View holder for the project item view.
      */
@@ -225,4 +296,132 @@ public class ProjectsAdapter extends SimpleListAdapter<ProjectsModel, ProjectsAd
          */
         void onDelete(@NonNull ProjectsModel project);
     }
+
+    /**
+     * Interface for changes to which projects are active.
+     */
+    public interface OnActiveProjectsChangeListener {
+        /**
+         * Handle that a project have been clocked in or out, or that an
+         * active project have been added or removed.
+         */
+        void onActiveProjectsChange();
+    }
+
+    /**
+     * Observer keeping the positions for the active projects in sync with
+     * the item notifications.
+     * <p>
+     * Only the positions of the active projects are shifted, i.e. the
+     * projects are only iterated when the whole data set have changed.
+     */
+    private class ActivePositionsObserver extends RecyclerView.AdapterDataObserver {
+        /**
+         * Shift the active positions, starting from a position.
+         *
+         * @param start Position from which to shift.
+         * @param end   Position before which to stop shifting.
+         * @param delta Number of positions to shift with.
+         */
+        private void shift(int start, int end, int delta) {
+            SortedSet<Integer> positions = activePositions.subSet(start, end);
+            if (positions.isEmpty()) {
+                return;
+            }
+
+            List<Integer> shiftedPositions = new ArrayList<>(positions.size());
+            for (Integer position : positions) {
+                shiftedPositions.add(position + delta);
+            }
+
+            positions.clear();
+            activePositions.addAll(shiftedPositions);
+        }
+
+        /**
+         * Check the projects within the range, and update the active positions.
+         *
+         * @param positionStart Position for the first project to check.
+         * @param itemCount     Number of projects to check.
+         * @return true if any of the projects have been clocked in or out, otherwise false.
+         */
+        private boolean check(int positionStart, int itemCount) {
+            boolean changed = false;
+            for (int position = positionStart; position < positionStart + itemCount; position++) {
+                if (get(position).isActive()) {
+                    changed |= activePositions.add(position);
+                    continue;
+                }
+
+                changed |= activePositions.remove(position);
+            }
+
+            return changed;
+        }
+
+        @Override
+        public void onChanged() {
+            activePositions.clear();
+            check(0, getItemCount());
+
+            notifyActiveProjectsChange();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            if (check(positionStart, itemCount)) {
+                notifyActiveProjectsChange();
+            }
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            // Refreshing the elapsed time do not change the active projects.
+            if (PAYLOAD_CLOCKED_IN_SINCE == payload) {
+                return;
+            }
+
+            onItemRangeChanged(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            shift(positionStart, Integer.MAX_VALUE, itemCount);
+
+            if (check(positionStart, itemCount)) {
+                notifyActiveProjectsChange();
+            }
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            SortedSet<Integer> removedPositions = activePositions.subSet(
+                    positionStart,
+                    positionStart + itemCount
+            );
+            boolean changed = !removedPositions.isEmpty();
+            removedPositions.clear();
+
+            shift(positionStart + itemCount, Integer.MAX_VALUE, -itemCount);
+
+            if (changed) {
+                notifyActiveProjectsChange();
+            }
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            // The recycler view only supports moving a single item.
+            boolean active = activePositions.remove(fromPosition);
+            if (fromPosition < toPosition) {
+                shift(fromPosition + 1, toPosition + 1, -1);
+            } else {
+                shift(toPosition, fromPosition, 1);
+            }
+
+            if (active) {
+                activePositions.add(toPosition);
+            }
+        }
+    }
 }
@@ -37,14 +37,11 @@ import java.util.Date;
 import java.util.List;
 
 import me.raatiniemi.worker.R;
-import me.raatiniemi.worker.data.mapper.ProjectContentValuesMapper;
-import me.raatiniemi.worker.data.mapper.ProjectCursorMapper;
-import me.raatiniemi.worker.data.mapper.TimeContentValuesMapper;
-import me.raatiniemi.worker.data.mapper.TimeCursorMapper;
-import me.raatiniemi.worker.data.repository.ProjectResolverRepository;
-import me.raatiniemi.worker.data.repository.TimeResolverRepository;
+import me.raatiniemi.worker.data.repository.RepositoryFactory;
 import me.raatiniemi.worker.domain.interactor.ClockActivityChange;
-import me.raatiniemi.worker.domain.interactor.GetProjectTimeSince;
+import me.raatiniemi.worker.domain.interactor.ClockIn;
+import me.raatiniemi.worker.domain.interactor.ClockOut;
+import me.raatiniemi.worker.domain.interactor.GetProjectTimeSummarySince;
 import me.raatiniemi.worker.domain.interactor.GetProjects;
 import me.raatiniemi.worker.domain.interactor.RemoveProject;
 import me.raatiniemi.worker.domain.model.Project;
@@ -55,6 +52,7 @@ import me.raatiniemi.worker.presentation.projects.model.ProjectsModel;
 import me.raatiniemi.worker.presentation.projects.presenter.ProjectsPresenter;
 import me.raatiniemi.worker.presentation.util.HintedImageButtonListener;
 import me.raatiniemi.worker.presentation.util.Settings;
+import me.raatiniemi.worker.presentation.view.adapter.ListDiff;
 import me.raatiniemi.worker.presentation.view.adapter.SimpleListAdapter;
 import me.raatiniemi.worker.presentation.view.fragment.MvpFragment;
 
@@ -115,26 +113,20 @@ public class ProjectsFragment extends MvpFragment<ProjectsPresenter>
 
     @Override
     protected ProjectsPresenter createPresenter() {
-        // Create the project repository.
-        ProjectRepository projectRepository = new ProjectResolverRepository(
-                getActivity().getContentResolver(),
-                new ProjectCursorMapper(),
-                new ProjectContentValuesMapper()
-        );
-
-        // Create the time repository.
-        TimeRepository timeRepository = new TimeResolverRepository(
-                getActivity().getContentResolver(),
-                new TimeCursorMapper(),
-                new TimeContentValuesMapper()
-        );
+        ProjectRepository projectRepository = RepositoryFactory.buildProjectRepository(getActivity());
+        TimeRepository timeRepository = RepositoryFactory.buildTimeRepository(getActivity());
 
         return new ProjectsPresenter(
                 getActivity(),
                 EventBus.getDefault(),
                 new GetProjects(projectRepository, timeRepository),
-                new GetProjectTimeSince(timeRepository),
-                new ClockActivityChange(projectRepository, timeRepository),
+                new GetProjectTimeSummarySince(timeRepository),
+                new ClockActivityChange(
+                        projectRepository,
+                        timeRepository,
+                        new ClockIn(timeRepository),
+                        new ClockOut(timeRepository)
+                ),
                 new RemoveProject(projectRepository)
         );
     }
@@ -147,6 +139,14 @@ public class ProjectsFragment extends MvpFragment<ProjectsPresenter>
                     new HintedImageButtonListener(getActivity())
             );
             adapter.setOnItemClickListener(this);
+            adapter.setOnActiveProjectsChangeListener(
+                    new ProjectsAdapter.OnActiveProjectsChangeListener() {
+                        @Override
+                        public void onActiveProjectsChange() {
+                            getPresenter().activeProjectsChanged();
+                        }
+                    }
+            );
         }
 
         return adapter;
@@ -294,6 +294,14 @@ public class ProjectsFragment extends MvpFragment<ProjectsPresenter>
         newProject.show(getFragmentManager().beginTransaction(), FRAGMENT_NEW_PROJECT_TAG);
     }
 
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public List<Integer> getPositionsForActiveProjects() {
+        return getAdapter().getPositionsForActiveProjects();
+    }
+
     @Override
     public void refreshPositions(List<Integer> positions) {
         // Check that we have positions to refresh.
@@ -304,10 +312,10 @@ public class ProjectsFragment extends MvpFragment<ProjectsPresenter>
             return;
         }
 
-        // Iterate and refresh every position.
+        // Iterate and refresh the elapsed time for every position.
         Log.d(TAG, "Refreshing " + positions.size() + " projects");
         for (Integer position : positions) {
-            getAdapter().notifyItemChanged(position);
+            getAdapter().notifyItemChanged(position, ProjectsAdapter.PAYLOAD_CLOCKED_IN_SINCE);
         }
     }
 
@@ -315,9 +323,8 @@ public class ProjectsFragment extends MvpFragment<ProjectsPresenter>
      * @inheritDoc
      */
     @Override
-    public void reloadProjects() {
-        getAdapter().clear();
-        getPresenter().getProjects();
+    public void updateProjects(List<ProjectsModel> projects, ListDiff diff) {
+        getAdapter().update(projects, diff);
     }
 
     @Override
@@ -22,6 +22,7 @@ import java.util.List;
 
 import me.raatiniemi.worker.domain.model.Project;
 import me.raatiniemi.worker.presentation.projects.model.ProjectsModel;
+import me.raatiniemi.worker.presentation.view.adapter.ListDiff;
 import me.raatiniemi.worker.presentation.view.MvpView;
 
 /**
@@ -110,14 +111,24 @@ public interface ProjectsView extends MvpView {
     void createNewProject();
 
     /**
-     * Refresh view for projects within the adapter.
+     * Get the positions for the active projects.
+     *
+     * @return Positions for the active projects.
+     */
+    List<Integer> getPositionsForActiveProjects();
+
+    /**
+     * Refresh the elapsed time for projects within the adapter.
      *
      * @param positions Positions for the project to refresh.
      */
     void refreshPositions(List<Integer> positions);
 
     /**
-     * Reload projects.
+     * Update the projects, only the changed projects are refreshed.
+     *
+     * @param projects Projects to update with.
+     * @param diff     Difference between the current and the updated projects.
      */
-    void reloadProjects();
+    void updateProjects(List<ProjectsModel> projects, ListDiff diff);
 }
@@ -20,28 +20,33 @@ import android.support.annotation.Nullable;
 
 import java.io.File;
 import java.util.Date;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import me.raatiniemi.worker.Worker;
 
 public class Backup {
+    private static final Pattern TIMESTAMP_PATTERN
+            = Pattern.compile(Worker.STORAGE_BACKUP_DIRECTORY_PATTERN);
+
     /**
-     * Backup directory.
+     * Backup directory or snapshot.
      */
     private File backup;
 
     /**
      * Constructor.
      *
-     * @param backup Backup directory.
+     * @param backup Backup directory or snapshot.
      */
     public Backup(@Nullable File backup) {
         this.backup = backup;
     }
 
     /**
-     * Get the backup directory.
+     * Get the backup directory or snapshot.
      *
-     * @return Backup directory, or null if none have been supplied.
+     * @return Backup directory or snapshot, or null if none have been supplied.
      */
     @Nullable
     private File getBackup() {
@@ -59,12 +64,14 @@ public class Backup {
             return null;
         }
 
-        String timestamp = getBackup().getName().replaceFirst(
-                Worker.STORAGE_BACKUP_DIRECTORY_PATTERN,
-                "$1"
-        );
+        // The snapshots are named with the same pattern as the backup
+        // directories, followed by the file extension.
+        Matcher matcher = TIMESTAMP_PATTERN.matcher(getBackup().getName());
+        if (!matcher.find()) {
+            return null;
+        }
 
-        return Long.valueOf(timestamp);
+        return Long.valueOf(matcher.group(1));
     }
 
     /**
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.presentation.settings.model;
+
+/**
+ * Statistics for the latest backup run.
+ */
+public class BackupStatistics {
+    /**
+     * Duration of the run, in milliseconds.
+     */
+    private final long duration;
+
+    /**
+     * Number of bytes written by the run.
+     */
+    private final long numberOfBytes;
+
+    /**
+     * Whether the run was skipped since nothing had changed.
+     */
+    private final boolean skipped;
+
+    /**
+     * Whether the run failed to write the backup.
+     */
+    private final boolean failed;
+
+    /**
+     * Constructor.
+     *
+     * @param duration      Duration of the run, in milliseconds.
+     * @param numberOfBytes Number of bytes written by the run.
+     * @param skipped       Whether the run was skipped since nothing had changed.
+     * @param failed        Whether the run failed to write the backup.
+     */
+    public BackupStatistics(long duration, long numberOfBytes, boolean skipped, boolean failed) {
+        this.duration = duration;
+        this.numberOfBytes = numberOfBytes;
+        this.skipped = skipped;
+        this.failed = failed;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param duration      Duration of the run, in milliseconds.
+     * @param numberOfBytes Number of bytes written by the run.
+     * @param skipped       Whether the run was skipped since nothing had changed.
+     */
+    public BackupStatistics(long duration, long numberOfBytes, boolean skipped) {
+        this(duration, numberOfBytes, skipped, false);
+    }
+
+    /**
+     * Build the statistics for a run that failed to write the backup.
+     *
+     * @param duration Duration of the run, in milliseconds.
+     * @return Statistics for the failed run.
+     */
+    public static BackupStatistics failed(long duration) {
+        return new BackupStatistics(duration, 0L, false, true);
+    }
+
+    /**
+     * Get the duration of the run.
+     *
+     * @return Duration of the run, in milliseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get the number of bytes written by the run.
+     *
+     * @return Number of bytes written, zero if the run was skipped.
+     */
+    public long getNumberOfBytes() {
+        return numberOfBytes;
+    }
+
+    /**
+     * Check whether the run was skipped since nothing had changed.
+     *
+     * @return true if the run was skipped, otherwise false.
+     */
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Check whether the run failed to write the backup.
+     *
+     * @return true if the run failed, otherwise false.
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+}
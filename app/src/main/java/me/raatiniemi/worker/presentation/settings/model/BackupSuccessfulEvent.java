@@ -17,16 +17,29 @@
 package me.raatiniemi.worker.presentation.settings.model;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 public class BackupSuccessfulEvent {
     private final Backup backup;
 
+    private final BackupStatistics statistics;
+
     public BackupSuccessfulEvent(@NonNull Backup backup) {
+        this(backup, null);
+    }
+
+    public BackupSuccessfulEvent(@NonNull Backup backup, @Nullable BackupStatistics statistics) {
         this.backup = backup;
+        this.statistics = statistics;
     }
 
     @NonNull
     public Backup getBackup() {
         return backup;
     }
+
+    @Nullable
+    public BackupStatistics getStatistics() {
+        return statistics;
+    }
 }
@@ -30,6 +30,7 @@ import me.raatiniemi.worker.domain.exception.InvalidStartingPointException;
 import me.raatiniemi.worker.domain.interactor.GetProjectTimeSince;
 import me.raatiniemi.worker.presentation.presenter.RxPresenter;
 import me.raatiniemi.worker.presentation.settings.model.Backup;
+import me.raatiniemi.worker.presentation.settings.model.BackupStatistics;
 import me.raatiniemi.worker.presentation.settings.model.BackupSuccessfulEvent;
 import me.raatiniemi.worker.presentation.settings.model.TimeSummaryStartingPointChangeEvent;
 import me.raatiniemi.worker.presentation.settings.view.SettingsView;
@@ -78,8 +79,8 @@ public class SettingsPresenter extends RxPresenter<SettingsView> {
         Observable.defer(new Func0<Observable<Backup>>() {
             @Override
             public Observable<Backup> call() {
-                File directory = ExternalStorage.getLatestBackupDirectory();
-                return Observable.just(new Backup(directory));
+                File backup = ExternalStorage.getLatestBackup();
+                return Observable.just(new Backup(backup));
             }
         }).compose(this.<Backup>applySchedulers())
                 .subscribe(new Subscriber<Backup>() {
@@ -122,6 +123,18 @@ public class SettingsPresenter extends RxPresenter<SettingsView> {
                 });
     }
 
+    /**
+     * Retrieve the statistics for the latest backup run and update the view.
+     */
+    public void getLatestBackupStatistics() {
+        if (isViewDetached()) {
+            Log.d(TAG, "View is not attached, skip pushing the latest backup statistics");
+            return;
+        }
+
+        getView().setLatestBackupStatistics(Settings.getLatestBackupStatistics(getContext()));
+    }
+
     @SuppressWarnings("unused")
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEventMainThread(BackupSuccessfulEvent event) {
@@ -133,6 +146,11 @@ public class SettingsPresenter extends RxPresenter<SettingsView> {
 
         // Push the latest backup to the view for update.
         getView().setLatestBackup(event.getBackup());
+
+        BackupStatistics statistics = event.getStatistics();
+        if (null != statistics) {
+            getView().setLatestBackupStatistics(statistics);
+        }
     }
 
     public void changeTimeSummaryStartingPoint(int newStartingPoint) {
@@ -31,6 +31,7 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.design.widget.Snackbar;
 import android.support.v4.app.ActivityCompat;
+import android.text.format.Formatter;
 import android.util.Log;
 import android.view.MenuItem;
 import android.view.View;
@@ -42,9 +43,12 @@ import java.util.Date;
 import java.util.Locale;
 
 import me.raatiniemi.worker.R;
+import me.raatiniemi.worker.data.service.data.BackupScheduler;
 import me.raatiniemi.worker.data.service.data.BackupService;
+import me.raatiniemi.worker.data.service.data.ExportService;
 import me.raatiniemi.worker.data.service.data.RestoreService;
 import me.raatiniemi.worker.presentation.settings.model.Backup;
+import me.raatiniemi.worker.presentation.settings.model.BackupStatistics;
 import me.raatiniemi.worker.presentation.settings.presenter.SettingsPresenter;
 import me.raatiniemi.worker.presentation.util.PermissionUtil;
 import me.raatiniemi.worker.presentation.util.Settings;
@@ -101,6 +105,16 @@ public class SettingsActivity extends MvpActivity<SettingsPresenter>
      */
     private static final String SETTINGS_DATA_RESTORE_KEY = "settings_data_restore";
 
+    /**
+     * Key for the data automatic backup preference.
+     */
+    private static final String SETTINGS_DATA_AUTOMATIC_BACKUP_KEY = "settings_data_automatic_backup";
+
+    /**
+     * Key for the data export preference.
+     */
+    private static final String SETTINGS_DATA_EXPORT_KEY = "settings_data_export";
+
     /**
      * Code for requesting permission for reading external storage.
      */
@@ -111,6 +125,16 @@ public class SettingsActivity extends MvpActivity<SettingsPresenter>
      */
     private static final int REQUEST_WRITE_EXTERNAL_STORAGE = 2;
 
+    /**
+     * Code for requesting permission for writing the export to external storage.
+     */
+    private static final int REQUEST_WRITE_EXTERNAL_STORAGE_EXPORT = 3;
+
+    /**
+     * Code for requesting permission for writing the automatic backup to external storage.
+     */
+    private static final int REQUEST_WRITE_EXTERNAL_STORAGE_AUTOMATIC_BACKUP = 4;
+
     public static Intent newIntent(Context context) {
         return new Intent(context, SettingsActivity.class);
     }
@@ -166,6 +190,18 @@ public class SettingsActivity extends MvpActivity<SettingsPresenter>
                     fragment.runBackup();
                 }
                 break;
+            case REQUEST_WRITE_EXTERNAL_STORAGE_EXPORT:
+                if (PermissionUtil.verifyPermissions(grantResults)) {
+                    fragment.runExport();
+                }
+                break;
+            case REQUEST_WRITE_EXTERNAL_STORAGE_AUTOMATIC_BACKUP:
+                // The automatic backup is left disabled if the permission
+                // have not been granted.
+                if (PermissionUtil.verifyPermissions(grantResults)) {
+                    fragment.changeAutomaticBackup(true);
+                }
+                break;
             default:
                 super.onRequestPermissionsResult(requestCode, permissions, grantResults);
                 break;
@@ -287,6 +323,17 @@ public class SettingsActivity extends MvpActivity<SettingsPresenter>
         fragment.setRestoreSummary(backup);
     }
 
+    @Override
+    public void setLatestBackupStatistics(@Nullable BackupStatistics statistics) {
+        DataFragment fragment = getDataFragment();
+        if (null == fragment) {
+            Log.d(TAG, "DataFragment is not available");
+            return;
+        }
+
+        fragment.setAutomaticBackupSummary(statistics);
+    }
+
     @Override
     public void showChangeTimeSummaryStartingPointToWeekSuccessMessage() {
         View contentView = findViewById(android.R.id.content);
@@ -504,8 +551,18 @@ public class SettingsActivity extends MvpActivity<SettingsPresenter>
 
             addPreferencesFromResource(R.xml.settings_data);
 
+            try {
+                CheckBoxPreference automaticBackup =
+                        (CheckBoxPreference) findPreference(SETTINGS_DATA_AUTOMATIC_BACKUP_KEY);
+                automaticBackup.setChecked(Settings.isAutomaticBackupEnabled(getActivity()));
+            } catch (ClassCastException e) {
+                Log.w(TAG, "Unable to get value for 'automatic_backup'", e);
+            }
+
             // Check for the latest backup.
             checkLatestBackup();
+            getSettingsActivity().getPresenter()
+                    .getLatestBackupStatistics();
         }
 
         @Override
@@ -519,6 +576,18 @@ public class SettingsActivity extends MvpActivity<SettingsPresenter>
                 case SETTINGS_DATA_RESTORE_KEY:
                     runRestore();
                     break;
+                case SETTINGS_DATA_EXPORT_KEY:
+                    runExport();
+                    break;
+                case SETTINGS_DATA_AUTOMATIC_BACKUP_KEY:
+                    try {
+                        boolean checked = ((CheckBoxPreference) preference).isChecked();
+                        changeAutomaticBackup(checked);
+                        return true;
+                    } catch (ClassCastException e) {
+                        Log.w(TAG, "Unable to set value for 'automatic_backup'", e);
+                    }
+                    break;
                 default:
                     return super.onPreferenceTreeClick(preferenceScreen, preference);
             }
@@ -568,6 +637,99 @@ public class SettingsActivity extends MvpActivity<SettingsPresenter>
             }).show();
         }
 
+        /**
+         * Initiate the export action.
+         */
+        private void runExport() {
+            // We should only attempt to export if permission to write
+            // to the external storage have been granted.
+            if (PermissionUtil.havePermission(getActivity(), WRITE_EXTERNAL_STORAGE)) {
+                Log.d(TAG, "Permission for writing to external storage is granted");
+                Snackbar.make(
+                        getActivity().findViewById(android.R.id.content),
+                        R.string.message_exporting_data,
+                        Snackbar.LENGTH_SHORT
+                ).show();
+
+                ExportService.startExport(getActivity());
+                return;
+            }
+
+            Log.d(TAG, "Permission for writing to external storage is not granted");
+            Snackbar.make(
+                    getActivity().findViewById(android.R.id.content),
+                    R.string.message_permission_write_export,
+                    Snackbar.LENGTH_INDEFINITE
+            ).setAction(android.R.string.ok, new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    ActivityCompat.requestPermissions(
+                            getActivity(),
+                            new String[]{WRITE_EXTERNAL_STORAGE},
+                            REQUEST_WRITE_EXTERNAL_STORAGE_EXPORT
+                    );
+                }
+            }).show();
+        }
+
+        /**
+         * Enable or disable the scheduled automatic backup.
+         * <p>
+         * The automatic backup is only enabled if permission to write to the
+         * external storage have been granted, otherwise every run would fail.
+         *
+         * @param enable Whether the automatic backup should be enabled.
+         */
+        private void changeAutomaticBackup(boolean enable) {
+            if (!enable) {
+                Settings.disableAutomaticBackup(getActivity());
+                BackupScheduler.cancel(getActivity());
+                return;
+            }
+
+            if (PermissionUtil.havePermission(getActivity(), WRITE_EXTERNAL_STORAGE)) {
+                Log.d(TAG, "Permission for writing to external storage is granted");
+                Settings.enableAutomaticBackup(getActivity());
+                BackupScheduler.schedule(getActivity());
+                setAutomaticBackupChecked(true);
+                return;
+            }
+
+            // Keep the automatic backup disabled until the permission have
+            // been granted, the request result will enable it.
+            Log.d(TAG, "Permission for writing to external storage is not granted");
+            setAutomaticBackupChecked(false);
+            Snackbar.make(
+                    getActivity().findViewById(android.R.id.content),
+                    R.string.message_permission_write_automatic_backup,
+                    Snackbar.LENGTH_INDEFINITE
+            ).setAction(android.R.string.ok, new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    ActivityCompat.requestPermissions(
+                            getActivity(),
+                            new String[]{WRITE_EXTERNAL_STORAGE},
+                            REQUEST_WRITE_EXTERNAL_STORAGE_AUTOMATIC_BACKUP
+                    );
+                }
+            }).show();
+        }
+
+        /**
+         * Set the checked state for the automatic backup preference.
+         *
+         * @param checked Whether the preference should be checked.
+         */
+        private void setAutomaticBackupChecked(boolean checked) {
+            try {
+                CheckBoxPreference automaticBackup =
+                        (CheckBoxPreference) findPreference(SETTINGS_DATA_AUTOMATIC_BACKUP_KEY);
+                automaticBackup.setChecked(checked);
+            } catch (ClassCastException e) {
+                Log.w(TAG, "Unable to set value for 'automatic_backup'", e);
+            }
+        }
+
         /**
          * Initiate the restore action.
          */
@@ -681,5 +843,43 @@ public class SettingsActivity extends MvpActivity<SettingsPresenter>
             preference.setSummary(text);
             preference.setEnabled(enable);
         }
+
+        /**
+         * Set the automatic backup summary based on the latest backup run.
+         *
+         * @param statistics Statistics for the latest backup run.
+         */
+        void setAutomaticBackupSummary(@Nullable BackupStatistics statistics) {
+            Preference preference = findPreference(SETTINGS_DATA_AUTOMATIC_BACKUP_KEY);
+            if (null == preference) {
+                Log.w(TAG, "Unable to find preference with key: " + SETTINGS_DATA_AUTOMATIC_BACKUP_KEY);
+                return;
+            }
+
+            String text = getString(R.string.activity_settings_backup_automatic_summary);
+            if (null != statistics) {
+                text = getString(
+                        R.string.activity_settings_backup_automatic_statistics,
+                        statistics.getDuration(),
+                        Formatter.formatShortFileSize(getActivity(), statistics.getNumberOfBytes())
+                );
+
+                if (statistics.isSkipped()) {
+                    text = getString(
+                            R.string.activity_settings_backup_automatic_skipped,
+                            statistics.getDuration()
+                    );
+                }
+
+                if (statistics.isFailed()) {
+                    text = getString(
+                            R.string.activity_settings_backup_automatic_failed,
+                            statistics.getDuration()
+                    );
+                }
+            }
+
+            preference.setSummary(text);
+        }
     }
 }
@@ -19,6 +19,7 @@ package me.raatiniemi.worker.presentation.settings.view;
 import android.support.annotation.Nullable;
 
 import me.raatiniemi.worker.presentation.settings.model.Backup;
+import me.raatiniemi.worker.presentation.settings.model.BackupStatistics;
 import me.raatiniemi.worker.presentation.view.MvpView;
 
 /**
@@ -32,6 +33,13 @@ public interface SettingsView extends MvpView {
      */
     void setLatestBackup(@Nullable Backup backup);
 
+    /**
+     * Update the view with the statistics for the latest backup run.
+     *
+     * @param statistics Statistics for the latest backup run, or null if no run have been recorded.
+     */
+    void setLatestBackupStatistics(@Nullable BackupStatistics statistics);
+
     /**
      * Show message for successful time summary starting point change to week.
      */
@@ -27,4 +27,16 @@ public interface DateIntervalFormat {
      * @return Formatted interval.
      */
     String format(long milliseconds);
+
+    /**
+     * Format an interval in milliseconds, and append it to the builder.
+     * <p>
+     * Since the builder can be reused between the intervals, formatting
+     * multiple intervals do not have to allocate for each of the intervals.
+     *
+     * @param milliseconds Interval in milliseconds to format.
+     * @param builder      Builder to which the formatted interval is appended.
+     * @return Builder with the formatted interval.
+     */
+    StringBuilder format(long milliseconds, StringBuilder builder);
 }
@@ -16,37 +16,87 @@
 
 package me.raatiniemi.worker.presentation.util;
 
-import java.util.Locale;
+import java.text.DecimalFormatSymbols;
 
-import me.raatiniemi.worker.domain.model.CalculatedTime;
 import me.raatiniemi.worker.domain.util.CalculateTime;
 
 /**
  * Format a time interval into hours with fraction, i.e. 1.5 for one hour and 30 minutes.
+ * <p>
+ * The interval is calculated as hundredths of hours, which allows for
+ * summarizing rounded intervals without having to format and parse them.
  */
 public class FractionIntervalFormat implements DateIntervalFormat {
-    private static final String FRACTION_FORMAT = "%.2f";
-    private static final float MINUTES_IN_HOUR = 60;
+    private static final long MINUTES_IN_HOUR = 60;
+    private static final long HUNDREDTHS_IN_HOUR = 100;
+
+    /**
+     * Capacity for the builder when formatting a single interval.
+     */
+    private static final int FORMATTED_CAPACITY = 8;
+
+    private final char decimalSeparator;
+
+    /**
+     * Constructor.
+     */
+    public FractionIntervalFormat() {
+        decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+    }
+
+    /**
+     * Calculate an interval as hundredths of hours.
+     * <p>
+     * The interval is rounded to minutes before being converted, i.e. the
+     * hundredths match the formatted interval.
+     *
+     * @param milliseconds Interval in milliseconds.
+     * @return Interval in hundredths of hours.
+     */
+    public static long calculateHundredths(long milliseconds) {
+        long minutes = CalculateTime.calculateMinutes(milliseconds);
+
+        return (minutes * HUNDREDTHS_IN_HOUR + MINUTES_IN_HOUR / 2) / MINUTES_IN_HOUR;
+    }
 
     /**
      * @inheritDoc
      */
     @Override
     public String format(long milliseconds) {
-        CalculatedTime calculatedTime = CalculateTime.calculateTime(milliseconds);
-
-        return String.format(
-                Locale.getDefault(),
-                FRACTION_FORMAT,
-                calculateHoursWithFraction(calculatedTime)
-        );
+        return format(milliseconds, new StringBuilder(FORMATTED_CAPACITY))
+                .toString();
     }
 
-    private static float calculateHoursWithFraction(CalculatedTime calculatedTime) {
-        return calculatedTime.getHours() + calculateFraction(calculatedTime.getMinutes());
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public StringBuilder format(long milliseconds, StringBuilder builder) {
+        return formatHundredths(calculateHundredths(milliseconds), builder);
     }
 
-    private static float calculateFraction(long minutes) {
-        return (float) minutes / MINUTES_IN_HOUR;
+    /**
+     * Format hundredths of hours, and append it to the builder.
+     *
+     * @param hundredths Hundredths of hours to format, can be negative.
+     * @param builder    Builder to which the formatted hundredths is appended.
+     * @return Builder with the formatted hundredths.
+     */
+    public StringBuilder formatHundredths(long hundredths, StringBuilder builder) {
+        if (0 > hundredths) {
+            builder.append('-');
+            hundredths = -hundredths;
+        }
+
+        builder.append(hundredths / HUNDREDTHS_IN_HOUR)
+                .append(decimalSeparator);
+
+        long fraction = hundredths % HUNDREDTHS_IN_HOUR;
+        if (10 > fraction) {
+            builder.append('0');
+        }
+
+        return builder.append(fraction);
     }
 }
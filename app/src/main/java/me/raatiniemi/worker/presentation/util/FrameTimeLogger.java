@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.presentation.util;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.view.Choreographer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log the frame times while a recycler view is scrolling.
+ * <p>
+ * The frames are measured between the frame callbacks, and when the scroll
+ * have settled the number of frames, the number of frames exceeding the frame
+ * budget and the slowest frame is logged.
+ */
+public class FrameTimeLogger extends RecyclerView.OnScrollListener
+        implements Choreographer.FrameCallback {
+    /**
+     * Frame budget for a display with a refresh rate of 60 Hz.
+     */
+    private static final long FRAME_BUDGET_IN_NANOSECONDS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private final String tag;
+
+    private boolean measuring;
+    private long lastFrameTimeInNanoseconds;
+    private int numberOfFrames;
+    private int numberOfSlowFrames;
+    private long slowestFrameInNanoseconds;
+
+    /**
+     * Constructor.
+     *
+     * @param tag Tag used when logging the frame times.
+     */
+    public FrameTimeLogger(@NonNull String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (RecyclerView.SCROLL_STATE_IDLE == newState) {
+            stop();
+            return;
+        }
+
+        start();
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!measuring) {
+            return;
+        }
+
+        if (0 < lastFrameTimeInNanoseconds) {
+            long frameTime = frameTimeNanos - lastFrameTimeInNanoseconds;
+
+            numberOfFrames++;
+            if (FRAME_BUDGET_IN_NANOSECONDS < frameTime) {
+                numberOfSlowFrames++;
+            }
+            slowestFrameInNanoseconds = Math.max(slowestFrameInNanoseconds, frameTime);
+        }
+        lastFrameTimeInNanoseconds = frameTimeNanos;
+
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void start() {
+        if (measuring) {
+            return;
+        }
+
+        measuring = true;
+        lastFrameTimeInNanoseconds = 0;
+        numberOfFrames = 0;
+        numberOfSlowFrames = 0;
+        slowestFrameInNanoseconds = 0;
+
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void stop() {
+        if (!measuring) {
+            return;
+        }
+
+        measuring = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+
+        if (0 == numberOfFrames) {
+            return;
+        }
+
+        Log.d(tag, "Scrolled " + numberOfFrames + " frames, "
+                + numberOfSlowFrames + " exceeded the frame budget, slowest frame "
+                + TimeUnit.NANOSECONDS.toMillis(slowestFrameInNanoseconds) + " ms");
+    }
+}
@@ -16,35 +16,40 @@
 
 package me.raatiniemi.worker.presentation.util;
 
-import me.raatiniemi.worker.domain.model.CalculatedTime;
 import me.raatiniemi.worker.domain.util.CalculateTime;
 
 /**
  * Format a time interval into hours and minutes, i.e. 1h 30m.
  */
 public class HoursMinutesIntervalFormat implements DateIntervalFormat {
-    private static final String HOURS_MINUTES_FORMAT = "%1$dh %2$dm";
-    private static final String MINUTES_FORMAT = "%2$dm";
+    private static final long MINUTES_IN_HOUR = 60;
+
+    /**
+     * Capacity for the builder when formatting a single interval.
+     */
+    private static final int FORMATTED_CAPACITY = 12;
 
     /**
      * @inheritDoc
      */
     @Override
     public String format(long milliseconds) {
-        CalculatedTime calculatedTime = CalculateTime.calculateTime(milliseconds);
-
-        return String.format(
-                getFormatTemplate(calculatedTime),
-                calculatedTime.getHours(),
-                calculatedTime.getMinutes()
-        );
+        return format(milliseconds, new StringBuilder(FORMATTED_CAPACITY))
+                .toString();
     }
 
-    private static String getFormatTemplate(CalculatedTime calculatedTime) {
-        if (0 == calculatedTime.getHours()) {
-            return MINUTES_FORMAT;
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public StringBuilder format(long milliseconds, StringBuilder builder) {
+        long minutes = CalculateTime.calculateMinutes(milliseconds);
+
+        long hours = minutes / MINUTES_IN_HOUR;
+        if (0 != hours) {
+            builder.append(hours).append("h ");
         }
 
-        return HOURS_MINUTES_FORMAT;
+        return builder.append(minutes % MINUTES_IN_HOUR).append('m');
     }
 }
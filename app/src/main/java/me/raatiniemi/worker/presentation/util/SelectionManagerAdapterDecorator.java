@@ -18,8 +18,11 @@ package me.raatiniemi.worker.presentation.util;
 
 import android.support.v7.widget.RecyclerView;
 
+import java.util.List;
+
 public class SelectionManagerAdapterDecorator<T> extends SelectionManager<T> {
     private RecyclerView.Adapter adapter;
+    private SelectionNotifier<T> selectionNotifier;
     private SelectionListener selectionListener;
 
     public SelectionManagerAdapterDecorator(
@@ -30,11 +33,34 @@ public class SelectionManagerAdapterDecorator<T> extends SelectionManager<T> {
         this.selectionListener = selectionListener;
     }
 
+    /**
+     * Constructor, the changes are notified for the affected items only.
+     *
+     * @param selectionNotifier Notifier for the items with changed selection.
+     * @param selectionListener Listener for selection events.
+     */
+    public SelectionManagerAdapterDecorator(
+            SelectionNotifier<T> selectionNotifier,
+            SelectionListener selectionListener
+    ) {
+        this.selectionNotifier = selectionNotifier;
+        this.selectionListener = selectionListener;
+    }
+
+    private void notifySelectionChanged(T result) {
+        if (null == selectionNotifier) {
+            adapter.notifyDataSetChanged();
+            return;
+        }
+
+        selectionNotifier.notifySelectionChanged(result);
+    }
+
     @Override
     public void selectItem(T result) {
         super.selectItem(result);
 
-        adapter.notifyDataSetChanged();
+        notifySelectionChanged(result);
         selectionListener.onSelect();
     }
 
@@ -42,14 +68,39 @@ public class SelectionManagerAdapterDecorator<T> extends SelectionManager<T> {
     public void deselectItem(T result) {
         super.deselectItem(result);
 
-        adapter.notifyDataSetChanged();
+        notifySelectionChanged(result);
         selectionListener.onDeselect();
     }
 
     @Override
     public void deselectItems() {
+        if (null == selectionNotifier) {
+            super.deselectItems();
+
+            adapter.notifyDataSetChanged();
+            return;
+        }
+
+        List<T> results = getSelectedItems();
         super.deselectItems();
 
-        adapter.notifyDataSetChanged();
+        for (T result : results) {
+            selectionNotifier.notifySelectionChanged(result);
+        }
+    }
+
+    /**
+     * Notifier for items with changed selection, used for only rebinding the
+     * affected items instead of the whole adapter.
+     *
+     * @param <T> Type of the selected items.
+     */
+    public interface SelectionNotifier<T> {
+        /**
+         * Notify that the selection for the item have changed.
+         *
+         * @param result Item with changed selection.
+         */
+        void notifySelectionChanged(T result);
     }
 }
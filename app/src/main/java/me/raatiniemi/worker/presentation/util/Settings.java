@@ -19,8 +19,11 @@ package me.raatiniemi.worker.presentation.util;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import me.raatiniemi.worker.domain.interactor.GetProjectTimeSince;
+import me.raatiniemi.worker.presentation.settings.model.BackupStatistics;
 
 /**
  * Communicate with the shared preferences.
@@ -52,6 +55,31 @@ public class Settings {
      */
     private static final String PREF_TIME_SUMMARY = "pref_time_summary";
 
+    /**
+     * Preference key to check if automatic backup is enabled.
+     */
+    private static final String PREF_AUTOMATIC_BACKUP_ENABLED = "pref_automatic_backup_enabled";
+
+    /**
+     * Preference key for the duration of the latest backup run.
+     */
+    private static final String PREF_LATEST_BACKUP_DURATION = "pref_latest_backup_duration";
+
+    /**
+     * Preference key for the number of bytes written by the latest backup run.
+     */
+    private static final String PREF_LATEST_BACKUP_BYTES = "pref_latest_backup_bytes";
+
+    /**
+     * Preference key to check if the latest backup run was skipped.
+     */
+    private static final String PREF_LATEST_BACKUP_SKIPPED = "pref_latest_backup_skipped";
+
+    /**
+     * Preference key to check if the latest backup run failed.
+     */
+    private static final String PREF_LATEST_BACKUP_FAILED = "pref_latest_backup_failed";
+
     private Settings() {
     }
 
@@ -191,4 +219,72 @@ public class Settings {
         SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
         sp.edit().putInt(PREF_TIME_SUMMARY, GetProjectTimeSince.MONTH).apply();
     }
+
+    /**
+     * Check if automatic backup is enabled.
+     *
+     * @param context Context to be used to look up the {@link SharedPreferences}.
+     * @return 'true' if automatic backup is enabled, otherwise 'false'.
+     */
+    public static boolean isAutomaticBackupEnabled(Context context) {
+        SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+        return sp.getBoolean(PREF_AUTOMATIC_BACKUP_ENABLED, false);
+    }
+
+    /**
+     * Enable automatic backup.
+     *
+     * @param context Context to be used to edit the {@link SharedPreferences}.
+     */
+    public static void enableAutomaticBackup(Context context) {
+        SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+        sp.edit().putBoolean(PREF_AUTOMATIC_BACKUP_ENABLED, true).apply();
+    }
+
+    /**
+     * Disable automatic backup.
+     *
+     * @param context Context to be used to edit the {@link SharedPreferences}.
+     */
+    public static void disableAutomaticBackup(Context context) {
+        SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+        sp.edit().putBoolean(PREF_AUTOMATIC_BACKUP_ENABLED, false).apply();
+    }
+
+    /**
+     * Get the statistics for the latest backup run.
+     *
+     * @param context Context to be used to read from the {@link SharedPreferences}.
+     * @return Statistics for the latest backup run, or null if no run have been recorded.
+     */
+    @Nullable
+    public static BackupStatistics getLatestBackupStatistics(Context context) {
+        SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+        if (!sp.contains(PREF_LATEST_BACKUP_DURATION)) {
+            return null;
+        }
+
+        return new BackupStatistics(
+                sp.getLong(PREF_LATEST_BACKUP_DURATION, 0),
+                sp.getLong(PREF_LATEST_BACKUP_BYTES, 0),
+                sp.getBoolean(PREF_LATEST_BACKUP_SKIPPED, false),
+                sp.getBoolean(PREF_LATEST_BACKUP_FAILED, false)
+        );
+    }
+
+    /**
+     * Set the statistics for the latest backup run.
+     *
+     * @param context    Context to be used to edit the {@link SharedPreferences}.
+     * @param statistics Statistics for the latest backup run.
+     */
+    public static void setLatestBackupStatistics(Context context, @NonNull BackupStatistics statistics) {
+        SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+        sp.edit()
+                .putLong(PREF_LATEST_BACKUP_DURATION, statistics.getDuration())
+                .putLong(PREF_LATEST_BACKUP_BYTES, statistics.getNumberOfBytes())
+                .putBoolean(PREF_LATEST_BACKUP_SKIPPED, statistics.isSkipped())
+                .putBoolean(PREF_LATEST_BACKUP_FAILED, statistics.isFailed())
+                .apply();
+    }
 }
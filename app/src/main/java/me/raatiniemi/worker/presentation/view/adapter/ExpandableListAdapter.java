@@ -17,8 +17,10 @@
 package me.raatiniemi.worker.presentation.view.adapter;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView.ViewHolder;
 
+import com.h6ah4i.android.widget.advrecyclerview.expandable.RecyclerViewExpandableItemManager;
 import com.h6ah4i.android.widget.advrecyclerview.utils.AbstractExpandableItemAdapter;
 
 import java.util.ArrayList;
@@ -49,6 +51,150 @@ public abstract class ExpandableListAdapter<
      */
     private final List<T> items = new ArrayList<>();
 
+    /**
+     * Item manager for the expandable RecyclerView, used for notifying the
+     * changes to individual groups and children.
+     */
+    private RecyclerViewExpandableItemManager expandableItemManager;
+
+    /**
+     * Set the item manager used for notifying changes to individual groups
+     * and children. Without the item manager every change is notified as a
+     * change to the whole data set.
+     *
+     * @param expandableItemManager Item manager for the expandable RecyclerView.
+     */
+    public void setExpandableItemManager(
+            @Nullable RecyclerViewExpandableItemManager expandableItemManager
+    ) {
+        this.expandableItemManager = expandableItemManager;
+    }
+
+    /**
+     * Get the callback for comparing the children within a group, used for
+     * only notifying the children that have changed when a group is updated.
+     * <p>
+     * The default callback compares the children with equals.
+     *
+     * @return Callback for comparing the children.
+     */
+    @NonNull
+    protected ListDiff.Callback<C> getChildDiffCallback() {
+        return new ListDiff.Callback<C>() {
+            @Override
+            public boolean areItemsTheSame(@NonNull C oldItem, @NonNull C newItem) {
+                return oldItem.equals(newItem);
+            }
+
+            @Override
+            public boolean areContentsTheSame(@NonNull C oldItem, @NonNull C newItem) {
+                return true;
+            }
+        };
+    }
+
+    private static <I> List<I> getChildren(ExpandableItem<?, I> group) {
+        List<I> children = new ArrayList<>(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            children.add(group.get(i));
+        }
+
+        return children;
+    }
+
+    /**
+     * Notify the changes between the old and new group.
+     *
+     * @param index    Index of the group.
+     * @param oldGroup Group before the change.
+     * @param newGroup Group after the change.
+     */
+    private void notifyGroupChanged(final int index, T oldGroup, T newGroup) {
+        if (null == expandableItemManager) {
+            notifyDataSetChanged();
+            return;
+        }
+
+        expandableItemManager.notifyGroupItemChanged(index);
+
+        ListDiff diff = ListDiff.calculate(
+                getChildren(oldGroup),
+                getChildren(newGroup),
+                getChildDiffCallback()
+        );
+        diff.dispatchUpdatesTo(new ListDiff.UpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                for (int i = 0; i < count; i++) {
+                    expandableItemManager.notifyChildItemInserted(index, position + i);
+                }
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                for (int i = 0; i < count; i++) {
+                    expandableItemManager.notifyChildItemRemoved(index, position);
+                }
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                expandableItemManager.notifyChildItemRemoved(index, fromPosition);
+                expandableItemManager.notifyChildItemInserted(index, toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                for (int i = 0; i < count; i++) {
+                    expandableItemManager.notifyChildItemChanged(index, position + i);
+                }
+            }
+        });
+    }
+
+    private void notifyGroupsInserted(int index, int count) {
+        if (null == expandableItemManager) {
+            notifyDataSetChanged();
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            expandableItemManager.notifyGroupItemInserted(index + i);
+        }
+    }
+
+    private void notifyGroupsRemoved(int index, int count) {
+        if (null == expandableItemManager) {
+            notifyDataSetChanged();
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            expandableItemManager.notifyGroupItemRemoved(index);
+        }
+    }
+
+    /**
+     * Notify that the selection for a child have changed, i.e. both the
+     * child and the group have to be rebound.
+     *
+     * @param group Index of the group.
+     * @param child Index of the child.
+     */
+    protected void notifySelectionChanged(int group, int child) {
+        if (null == expandableItemManager) {
+            notifyDataSetChanged();
+            return;
+        }
+
+        if (!has(group, child)) {
+            return;
+        }
+
+        expandableItemManager.notifyGroupItemChanged(group);
+        expandableItemManager.notifyChildItemChanged(group, child);
+    }
+
     /**
      * Get number of groups.
      *
@@ -157,30 +303,8 @@ public abstract class ExpandableListAdapter<
         }
 
         // Update the item and notify the adapter.
-        items.set(index, item);
-        notifyDataSetChanged();
-    }
-
-    /**
-     * Update item at combined index.
-     *
-     * @param group Index of the group.
-     * @param child Index of the child.
-     * @param item  Item to update.
-     * @throws IndexOutOfBoundsException if index do not exists.
-     */
-    protected void set(int group, int child, @NonNull C item) {
-        // Check that the group/child index exists.
-        if (!has(group, child)) {
-            throwChildIndexOutOfBounds(group, child);
-        }
-
-        // Update the child item within the group item.
-        T groupItem = get(group);
-        groupItem.set(child, item);
-
-        // Trigger the adapter update on the group item.
-        set(group, groupItem);
+        T previousItem = items.set(index, item);
+        notifyGroupChanged(index, previousItem, item);
     }
 
     /**
@@ -194,7 +318,7 @@ public abstract class ExpandableListAdapter<
         items.add(item);
 
         // Notify the adapter, a new item have been added.
-        notifyItemInserted(index);
+        notifyGroupsInserted(index, 1);
 
         // Return the index for the new item.
         return index;
@@ -220,7 +344,7 @@ public abstract class ExpandableListAdapter<
         this.items.addAll(items);
 
         // Notify the adapter of the new items.
-        notifyDataSetChanged();
+        notifyGroupsInserted(index, items.size());
 
         // Return the reference point for the location of the new items.
         return index;
@@ -238,34 +362,56 @@ public abstract class ExpandableListAdapter<
 
         // Remove the group and notify the change.
         T item = items.remove(index);
-        notifyDataSetChanged();
+        notifyGroupsRemoved(index, 1);
 
         return item;
     }
 
     /**
-     * Remove item at combined index.
-     *
-     * @param group Index of the group.
-     * @param child Index of the child.
-     * @throws IndexOutOfBoundsException if index do not exists.
+     * @inheritDoc
      */
-    protected void remove(int group, int child) {
-        if (!has(group, child)) {
-            throwChildIndexOutOfBounds(group, child);
-        }
-
-        // Remove the child item from the group.
-        get(group).remove(child);
-
-        // If there are no more child items within the
-        // group, remove the group as well.
-        if (0 == getChildCount(group)) {
-            remove(group);
+    @Override
+    public void update(@NonNull final List<T> newItems, @NonNull ListDiff diff) {
+        // The items are updated along with the notifications, since the item
+        // manager reads the number of children when a group is inserted.
+        diff.dispatchUpdatesTo(new ListDiff.UpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                items.addAll(position, newItems.subList(position, position + count));
+                notifyGroupsInserted(position, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                items.subList(position, position + count).clear();
+                notifyGroupsRemoved(position, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                T item = items.remove(fromPosition);
+                notifyGroupsRemoved(fromPosition, 1);
+
+                items.add(toPosition, item);
+                notifyGroupsInserted(toPosition, 1);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                for (int index = position; index < position + count; index++) {
+                    T item = newItems.get(index);
+                    T previousItem = items.set(index, item);
+
+                    notifyGroupChanged(index, previousItem, item);
+                }
+            }
+        });
+
+        // Items with the same contents have not been notified, but the
+        // adapter should still reference the new items.
+        for (int index = 0; index < newItems.size(); index++) {
+            items.set(index, newItems.get(index));
         }
-
-        // Notify the adapter.
-        notifyDataSetChanged();
     }
 
     /**
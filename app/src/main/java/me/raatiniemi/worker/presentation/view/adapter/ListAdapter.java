@@ -77,6 +77,15 @@ public interface ListAdapter<T> {
      */
     int add(@NonNull List<T> items);
 
+    /**
+     * Replace the items, the adapter is only notified of the changes
+     * described by the difference.
+     *
+     * @param items Items to replace with.
+     * @param diff  Difference between the current and the new items.
+     */
+    void update(@NonNull List<T> items, @NonNull ListDiff diff);
+
     /**
      * Remove item at index.
      *
@@ -0,0 +1,561 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.presentation.view.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Difference between two lists, expressed as the insert, remove, move and
+ * change operations needed for transforming the old list into the new list.
+ * <p>
+ * The items that keep their relative order are found with the longest common
+ * subsequence, after the common beginning and end of the lists have been
+ * skipped. The subsequence is found with the linear space variant of the
+ * Myers difference algorithm, i.e. the memory is proportional to the number
+ * of items rather than the product of the list sizes. Surviving items outside
+ * of the subsequence are moved, i.e. each item is moved at most once.
+ * <p>
+ * The difference do not depend on any adapter state, i.e. it can be
+ * calculated on a background thread and dispatched on the main thread.
+ */
+public final class ListDiff {
+    /**
+     * Value for items without a position within the other list.
+     */
+    private static final int NO_POSITION = -1;
+
+    /**
+     * Position within the new list for each of the items in the old list.
+     */
+    private final int[] newPositions;
+
+    /**
+     * Position within the old list for each of the items in the new list.
+     */
+    private final int[] oldPositions;
+
+    /**
+     * Whether the item in the old list is kept in place, i.e. part of the
+     * longest common subsequence.
+     */
+    private final boolean[] inPlace;
+
+    /**
+     * Payload for each of the changed items in the new list.
+     */
+    private final Object[] payloads;
+
+    /**
+     * Whether the item in the new list have changed.
+     */
+    private final boolean[] changed;
+
+    private ListDiff(int oldSize, int newSize) {
+        newPositions = new int[oldSize];
+        oldPositions = new int[newSize];
+        inPlace = new boolean[oldSize];
+        payloads = new Object[newSize];
+        changed = new boolean[newSize];
+
+        for (int i = 0; i < oldSize; i++) {
+            newPositions[i] = NO_POSITION;
+        }
+        for (int i = 0; i < newSize; i++) {
+            oldPositions[i] = NO_POSITION;
+        }
+    }
+
+    /**
+     * Calculate the difference between the lists.
+     *
+     * @param oldItems Items before the change.
+     * @param newItems Items after the change.
+     * @param callback Callback for comparing the items.
+     * @param <T>      Type of the items.
+     * @return Difference between the lists.
+     */
+    @NonNull
+    public static <T> ListDiff calculate(
+            @NonNull List<T> oldItems,
+            @NonNull List<T> newItems,
+            @NonNull Callback<T> callback
+    ) {
+        int oldSize = oldItems.size();
+        int newSize = newItems.size();
+        ListDiff diff = new ListDiff(oldSize, newSize);
+
+        // Most of the changes are affecting a few items, i.e. the common
+        // beginning and end can be matched without building the table.
+        int start = 0;
+        while (start < oldSize && start < newSize
+                && callback.areItemsTheSame(oldItems.get(start), newItems.get(start))) {
+            diff.match(start, start, true);
+            start++;
+        }
+
+        int oldEnd = oldSize;
+        int newEnd = newSize;
+        while (oldEnd > start && newEnd > start
+                && callback.areItemsTheSame(oldItems.get(oldEnd - 1), newItems.get(newEnd - 1))) {
+            oldEnd--;
+            newEnd--;
+            diff.match(oldEnd, newEnd, true);
+        }
+
+        diff.matchSubsequence(oldItems, newItems, callback, start, oldEnd, newEnd);
+        diff.matchMoves(oldItems, newItems, callback, start, oldEnd, newEnd);
+
+        for (int newPosition = 0; newPosition < newSize; newPosition++) {
+            int oldPosition = diff.oldPositions[newPosition];
+            if (NO_POSITION == oldPosition) {
+                continue;
+            }
+
+            T oldItem = oldItems.get(oldPosition);
+            T newItem = newItems.get(newPosition);
+            if (!callback.areContentsTheSame(oldItem, newItem)) {
+                diff.changed[newPosition] = true;
+                diff.payloads[newPosition] = callback.getChangePayload(oldItem, newItem);
+            }
+        }
+
+        return diff;
+    }
+
+    private void match(int oldPosition, int newPosition, boolean kept) {
+        newPositions[oldPosition] = newPosition;
+        oldPositions[newPosition] = oldPosition;
+        inPlace[oldPosition] = kept;
+    }
+
+    private <T> void matchSubsequence(
+            List<T> oldItems,
+            List<T> newItems,
+            Callback<T> callback,
+            int start,
+            int oldEnd,
+            int newEnd
+    ) {
+        int oldSize = oldEnd - start;
+        int newSize = newEnd - start;
+        if (0 == oldSize || 0 == newSize) {
+            return;
+        }
+
+        // The furthest reaching paths are indexed by diagonal, i.e. the
+        // offset have to cover both the number of differences and the
+        // difference in size between the lists.
+        int offset = oldSize + newSize + Math.abs(oldSize - newSize) + 1;
+        int[] forward = new int[offset * 2];
+        int[] backward = new int[offset * 2];
+
+        // The ranges are divided at the middle snake until they are empty,
+        // with a stack rather than recursion for the number of differences.
+        List<int[]> ranges = new ArrayList<>();
+        ranges.add(new int[]{start, oldEnd, start, newEnd});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.remove(ranges.size() - 1);
+            int[] snake = findMiddleSnake(
+                    oldItems,
+                    newItems,
+                    callback,
+                    range,
+                    forward,
+                    backward,
+                    offset
+            );
+            if (null == snake) {
+                continue;
+            }
+
+            for (int i = 0; i < snake[2]; i++) {
+                match(snake[0] + i, snake[1] + i, true);
+            }
+
+            // The items on either side of the snake, excluding the inserted
+            // or removed item leading to it, are matched independently.
+            ranges.add(new int[]{range[0], snake[3], range[2], snake[4]});
+            ranges.add(new int[]{snake[5], range[1], snake[6], range[3]});
+        }
+    }
+
+    /**
+     * Find the middle snake for the range, i.e. the matching items where the
+     * furthest reaching paths from the beginning and the end of the range
+     * overlap.
+     *
+     * @return Old position, new position and number of the matching items,
+     * followed by the end of the range before and the start of the range
+     * after the snake, or null if either of the lists within the range is
+     * empty.
+     */
+    @Nullable
+    private static <T> int[] findMiddleSnake(
+            List<T> oldItems,
+            List<T> newItems,
+            Callback<T> callback,
+            int[] range,
+            int[] forward,
+            int[] backward,
+            int offset
+    ) {
+        int oldStart = range[0];
+        int newStart = range[2];
+        int oldSize = range[1] - oldStart;
+        int newSize = range[3] - newStart;
+        if (1 > oldSize || 1 > newSize) {
+            return null;
+        }
+
+        int delta = oldSize - newSize;
+        int limit = (oldSize + newSize + 1) / 2;
+        Arrays.fill(forward, offset - limit - 1, offset + limit + 1, 0);
+        Arrays.fill(backward, offset - limit - 1 + delta, offset + limit + 1 + delta, oldSize);
+
+        // With an odd delta the paths can only overlap after the forward
+        // path have been extended, otherwise after the backward path.
+        boolean checkForward = 0 != delta % 2;
+        for (int d = 0; d <= limit; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int previousX;
+                int previousY;
+                int x;
+                if (k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])) {
+                    previousX = forward[offset + k + 1];
+                    previousY = previousX - k - 1;
+                    x = previousX;
+                } else {
+                    previousX = forward[offset + k - 1];
+                    previousY = previousX - k + 1;
+                    x = previousX + 1;
+                }
+                int snakeX = x;
+                int y = x - k;
+                while (x < oldSize && y < newSize
+                        && callback.areItemsTheSame(
+                        oldItems.get(oldStart + x),
+                        newItems.get(newStart + y)
+                )) {
+                    x++;
+                    y++;
+                }
+                forward[offset + k] = x;
+
+                if (checkForward && k >= delta - d + 1 && k <= delta + d - 1
+                        && forward[offset + k] >= backward[offset + k]) {
+                    return new int[]{
+                            oldStart + snakeX,
+                            newStart + snakeX - k,
+                            x - snakeX,
+                            oldStart + previousX,
+                            newStart + previousY,
+                            oldStart + x,
+                            newStart + y
+                    };
+                }
+            }
+
+            for (int k = -d; k <= d; k += 2) {
+                int backwardK = k + delta;
+                int previousX;
+                int previousY;
+                int x;
+                if (backwardK == d + delta || (backwardK != -d + delta
+                        && backward[offset + backwardK - 1] < backward[offset + backwardK + 1])) {
+                    previousX = backward[offset + backwardK - 1];
+                    previousY = previousX - backwardK + 1;
+                    x = previousX;
+                } else {
+                    previousX = backward[offset + backwardK + 1];
+                    previousY = previousX - backwardK - 1;
+                    x = previousX - 1;
+                }
+                int snakeX = x;
+                int y = x - backwardK;
+                if (0 == d) {
+                    previousX = x;
+                    previousY = y;
+                }
+                while (x > 0 && y > 0
+                        && callback.areItemsTheSame(
+                        oldItems.get(oldStart + x - 1),
+                        newItems.get(newStart + y - 1)
+                )) {
+                    x--;
+                    y--;
+                }
+                backward[offset + backwardK] = x;
+
+                if (!checkForward && backwardK >= -d && backwardK <= d
+                        && forward[offset + backwardK] >= backward[offset + backwardK]) {
+                    return new int[]{
+                            oldStart + x,
+                            newStart + y,
+                            snakeX - x,
+                            oldStart + x,
+                            newStart + y,
+                            oldStart + previousX,
+                            newStart + previousY
+                    };
+                }
+            }
+        }
+
+        throw new IllegalStateException("Unable to find the middle snake");
+    }
+
+    private <T> void matchMoves(
+            List<T> oldItems,
+            List<T> newItems,
+            Callback<T> callback,
+            int start,
+            int oldEnd,
+            int newEnd
+    ) {
+        for (int oldPosition = start; oldPosition < oldEnd; oldPosition++) {
+            if (NO_POSITION != newPositions[oldPosition]) {
+                continue;
+            }
+
+            T oldItem = oldItems.get(oldPosition);
+            for (int newPosition = start; newPosition < newEnd; newPosition++) {
+                if (NO_POSITION != oldPositions[newPosition]) {
+                    continue;
+                }
+
+                if (callback.areItemsTheSame(oldItem, newItems.get(newPosition))) {
+                    match(oldPosition, newPosition, false);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Dispatch the operations to the callback.
+     * <p>
+     * The positions for each operation are relative to the list after the
+     * previous operations have been applied, i.e. the operations can be
+     * forwarded to the adapter notifications in order.
+     *
+     * @param callback Callback for the operations.
+     */
+    public void dispatchUpdatesTo(@NonNull UpdateCallback callback) {
+        dispatchRemovals(callback);
+        dispatchMoves(callback);
+        dispatchInsertions(callback);
+        dispatchChanges(callback);
+    }
+
+    private void dispatchRemovals(UpdateCallback callback) {
+        // Removals are dispatched from the end of the list, i.e. the
+        // positions for the remaining removals are not affected.
+        int position = newPositions.length - 1;
+        while (position >= 0) {
+            if (NO_POSITION != newPositions[position]) {
+                position--;
+                continue;
+            }
+
+            int count = 0;
+            while (position >= 0 && NO_POSITION == newPositions[position]) {
+                count++;
+                position--;
+            }
+            callback.onRemoved(position + 1, count);
+        }
+    }
+
+    private void dispatchMoves(UpdateCallback callback) {
+        // After the removals, the current list consists of runs beginning
+        // with each of the items kept in place. Each run continues with the
+        // moved items that have been placed after the item, in the same order
+        // as in the new list, followed by the items not yet moved in the same
+        // order as in the old list.
+        int numberOfKept = 0;
+        for (boolean kept : inPlace) {
+            if (kept) {
+                numberOfKept++;
+            }
+        }
+
+        int[] keptOldPositions = new int[numberOfKept];
+        int[] keptNewPositions = new int[numberOfKept];
+        int[] placed = new int[oldPositions.length + 1];
+        int[] pending = new int[newPositions.length + 1];
+        int index = 0;
+        for (int oldPosition = 0; oldPosition < inPlace.length; oldPosition++) {
+            int newPosition = newPositions[oldPosition];
+            if (inPlace[oldPosition]) {
+                keptOldPositions[index] = oldPosition;
+                keptNewPositions[index] = newPosition;
+                index++;
+
+                increment(placed, newPosition);
+                continue;
+            }
+
+            if (NO_POSITION != newPosition) {
+                increment(pending, oldPosition);
+            }
+        }
+
+        // The positions are calculated by counting the placed and pending
+        // items preceding the item, i.e. without keeping the current list.
+        for (int oldPosition = 0; oldPosition < inPlace.length; oldPosition++) {
+            int newPosition = newPositions[oldPosition];
+            if (inPlace[oldPosition] || NO_POSITION == newPosition) {
+                continue;
+            }
+
+            int run = Arrays.binarySearch(keptOldPositions, oldPosition);
+            run = -run - 1;
+            int fromPosition = count(pending, oldPosition);
+            if (run < numberOfKept) {
+                fromPosition += count(placed, keptNewPositions[run]);
+            } else {
+                fromPosition += count(placed, oldPositions.length);
+            }
+            decrement(pending, oldPosition);
+
+            // The item is moved to the run of the last kept item preceding
+            // it within the new list, after the already placed items.
+            run = Arrays.binarySearch(keptNewPositions, newPosition);
+            run = -run - 1;
+            int toPosition = count(placed, newPosition);
+            if (run > 0) {
+                toPosition += count(pending, keptOldPositions[run - 1]);
+            }
+            increment(placed, newPosition);
+
+            if (fromPosition != toPosition) {
+                callback.onMoved(fromPosition, toPosition);
+            }
+        }
+    }
+
+    /**
+     * Increment the number of items at position within the binary indexed tree.
+     */
+    private static void increment(int[] tree, int position) {
+        for (int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+    }
+
+    /**
+     * Decrement the number of items at position within the binary indexed tree.
+     */
+    private static void decrement(int[] tree, int position) {
+        for (int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i]--;
+        }
+    }
+
+    /**
+     * Count the number of items before position within the binary indexed tree.
+     */
+    private static int count(int[] tree, int position) {
+        int count = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private void dispatchInsertions(UpdateCallback callback) {
+        // Every remaining item is in the same order as in the new list, i.e.
+        // the items are inserted at their position within the new list.
+        int newPosition = 0;
+        while (newPosition < oldPositions.length) {
+            if (NO_POSITION != oldPositions[newPosition]) {
+                newPosition++;
+                continue;
+            }
+
+            int start = newPosition;
+            while (newPosition < oldPositions.length && NO_POSITION == oldPositions[newPosition]) {
+                newPosition++;
+            }
+            callback.onInserted(start, newPosition - start);
+        }
+    }
+
+    private void dispatchChanges(UpdateCallback callback) {
+        for (int newPosition = 0; newPosition < changed.length; newPosition++) {
+            if (changed[newPosition]) {
+                callback.onChanged(newPosition, 1, payloads[newPosition]);
+            }
+        }
+    }
+
+    /**
+     * Callback for comparing the items within the lists.
+     *
+     * @param <T> Type of the items.
+     */
+    public abstract static class Callback<T> {
+        /**
+         * Check whether the items represent the same entity, e.g. by the id.
+         *
+         * @param oldItem Item from the old list.
+         * @param newItem Item from the new list.
+         * @return true if the items represent the same entity, otherwise false.
+         */
+        public abstract boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem);
+
+        /**
+         * Check whether the items would be displayed the same.
+         *
+         * @param oldItem Item from the old list.
+         * @param newItem Item from the new list.
+         * @return true if the contents are the same, otherwise false.
+         */
+        public abstract boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem);
+
+        /**
+         * Get the payload for a changed item, used for binding only the
+         * parts of the view that have changed.
+         *
+         * @param oldItem Item from the old list.
+         * @param newItem Item from the new list.
+         * @return Payload for the change, or null for a full rebind.
+         */
+        @Nullable
+        public Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+            return null;
+        }
+    }
+
+    /**
+     * Callback for the operations transforming the old list into the new list.
+     */
+    public interface UpdateCallback {
+        void onInserted(int position, int count);
+
+        void onRemoved(int position, int count);
+
+        void onMoved(int fromPosition, int toPosition);
+
+        void onChanged(int position, int count, @Nullable Object payload);
+    }
+}
@@ -198,6 +198,37 @@ public abstract class SimpleListAdapter<T, V extends RecyclerView.ViewHolder>
         return index;
     }
 
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public void update(@NonNull List<T> items, @NonNull ListDiff diff) {
+        this.items.clear();
+        this.items.addAll(items);
+
+        diff.dispatchUpdatesTo(new ListDiff.UpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                notifyItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                notifyItemRangeRemoved(position, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                notifyItemMoved(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                notifyItemRangeChanged(position, count, payload);
+            }
+        });
+    }
+
     /**
      * @inheritDoc
      */
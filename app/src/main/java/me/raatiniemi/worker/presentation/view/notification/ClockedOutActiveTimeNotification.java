@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.presentation.view.notification;
+
+import android.app.Notification;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.support.v4.app.NotificationCompat;
+
+import me.raatiniemi.worker.R;
+import me.raatiniemi.worker.presentation.projects.view.ProjectsActivity;
+
+public class ClockedOutActiveTimeNotification {
+    private static final int TITLE = R.string.notification_clocked_out_active_time_title;
+    private static final int MESSAGE = R.plurals.notification_clocked_out_active_time_message;
+
+    private static final int SMALL_ICON = R.drawable.ic_error_notification;
+
+    private ClockedOutActiveTimeNotification() {
+    }
+
+    public static Notification build(Context context, int clockedOutActiveTime) {
+        return new NotificationCompat.Builder(context)
+                .setContentTitle(context.getString(TITLE))
+                .setContentText(context.getResources().getQuantityString(
+                        MESSAGE,
+                        clockedOutActiveTime,
+                        clockedOutActiveTime
+                ))
+                .setSmallIcon(SMALL_ICON)
+                .setContentIntent(buildContentAction(context))
+                .setAutoCancel(true)
+                .build();
+    }
+
+    private static PendingIntent buildContentAction(Context context) {
+        Intent intent = new Intent(context, ProjectsActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
+
+        return PendingIntent.getActivity(
+                context,
+                0,
+                intent,
+                PendingIntent.FLAG_UPDATE_CURRENT
+        );
+    }
+}
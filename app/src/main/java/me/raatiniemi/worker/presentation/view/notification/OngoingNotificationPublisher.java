@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.presentation.view.notification;
+
+import android.app.NotificationManager;
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.domain.interactor.GetProjectTimeSince;
+import me.raatiniemi.worker.domain.interactor.GetProjectTimeSummarySince;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.presentation.util.Settings;
+import rx.Scheduler;
+import rx.functions.Action0;
+
+/**
+ * Post the ongoing notifications for a batch of projects.
+ * <p>
+ * The notifications are built on the scheduler, and the registered time is
+ * calculated from the time populated on the projects, i.e. neither the
+ * preferences nor the database is read on the calling thread. The contents of
+ * the posted notifications are kept, and only the notifications that have
+ * changed since the previous batch are posted again.
+ */
+public class OngoingNotificationPublisher {
+    private static final String TAG = "OngoingNotification";
+
+    /**
+     * Contents for a project without a posted notification.
+     */
+    private static final long CANCELLED = -1L;
+
+    /**
+     * Contents for a posted notification without the chronometer.
+     */
+    private static final long WITHOUT_CHRONOMETER = 0L;
+
+    private final Context context;
+
+    private final NotificationManager manager;
+
+    private final GetProjectTimeSummarySince getProjectTimeSummarySince;
+
+    private final Scheduler scheduler;
+
+    /**
+     * Number of the latest batch, used for ignoring batches that are handled
+     * after a newer batch for the same project.
+     */
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * Posted notifications, grouped by the project id.
+     */
+    private final Map<Long, PostedNotification> notifications = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param context                    Context used to build the notifications.
+     * @param manager                    Manager used to post the notifications.
+     * @param getProjectTimeSummarySince Use case for summarizing the registered time.
+     * @param scheduler                  Scheduler on which the notifications are built.
+     */
+    public OngoingNotificationPublisher(
+            @NonNull Context context,
+            @NonNull NotificationManager manager,
+            @NonNull GetProjectTimeSummarySince getProjectTimeSummarySince,
+            @NonNull Scheduler scheduler
+    ) {
+        this.context = context;
+        this.manager = manager;
+        this.getProjectTimeSummarySince = getProjectTimeSummarySince;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Post the notifications for the projects.
+     * <p>
+     * Active projects get the pause notification, and the notification is
+     * removed for the inactive projects.
+     *
+     * @param projects Projects, populated with the time since the beginning of the month.
+     */
+    public void publish(@NonNull List<Project> projects) {
+        final List<Project> batch = new ArrayList<>(projects);
+        final long number = batches.incrementAndGet();
+
+        final Scheduler.Worker worker = scheduler.createWorker();
+        worker.schedule(new Action0() {
+            @Override
+            public void call() {
+                try {
+                    publishBatch(number, batch);
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Unable to post ongoing notifications", e);
+                } finally {
+                    worker.unsubscribe();
+                }
+            }
+        });
+    }
+
+    private synchronized void publishBatch(long number, List<Project> projects) {
+        boolean enabled = Settings.isOngoingNotificationEnabled(context);
+        boolean useChronometer = Settings.isOngoingNotificationChronometerEnabled(context);
+
+        for (Project project : projects) {
+            PostedNotification previous = notifications.get(project.getId());
+            if (null != previous && previous.batch > number) {
+                continue;
+            }
+
+            if (!enabled || !project.isActive()) {
+                if (null == previous || CANCELLED != previous.contents) {
+                    manager.cancel(
+                            String.valueOf(project.getId()),
+                            Worker.NOTIFICATION_ON_GOING_ID
+                    );
+                }
+                notifications.put(project.getId(), new PostedNotification(number, CANCELLED));
+                continue;
+            }
+
+            // The time populated on the projects covers the whole day, i.e.
+            // the summary do not have to go through the repository.
+            long registeredTime = getProjectTimeSummarySince.calculateFromProjectTime(
+                    project,
+                    GetProjectTimeSince.DAY
+            );
+
+            // The start of the chronometer is fixed while the project is
+            // active, i.e. the notification only changes when the project is
+            // clocked in again or the chronometer is toggled.
+            long contents = WITHOUT_CHRONOMETER;
+            if (useChronometer) {
+                contents = project.getClockedInSince().getTime() - registeredTime;
+            }
+
+            if (null == previous || contents != previous.contents) {
+                manager.notify(
+                        String.valueOf(project.getId()),
+                        Worker.NOTIFICATION_ON_GOING_ID,
+                        PauseNotification.build(context, project, registeredTime)
+                );
+            }
+            notifications.put(project.getId(), new PostedNotification(number, contents));
+        }
+    }
+
+    private static final class PostedNotification {
+        private final long batch;
+        private final long contents;
+
+        private PostedNotification(long batch, long contents) {
+            this.batch = batch;
+            this.contents = contents;
+        }
+    }
+}
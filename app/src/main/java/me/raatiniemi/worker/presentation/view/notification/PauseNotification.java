@@ -24,16 +24,14 @@ import android.support.v4.app.NotificationCompat;
 import android.util.Log;
 
 import java.util.Date;
-import java.util.List;
 
 import me.raatiniemi.worker.R;
-import me.raatiniemi.worker.data.mapper.TimeContentValuesMapper;
-import me.raatiniemi.worker.data.mapper.TimeCursorMapper;
-import me.raatiniemi.worker.data.repository.TimeResolverRepository;
+import me.raatiniemi.worker.data.repository.RepositoryFactory;
 import me.raatiniemi.worker.data.service.ongoing.ClockOutService;
 import me.raatiniemi.worker.data.service.ongoing.PauseService;
 import me.raatiniemi.worker.domain.exception.DomainException;
 import me.raatiniemi.worker.domain.interactor.GetProjectTimeSince;
+import me.raatiniemi.worker.domain.interactor.GetProjectTimeSummarySince;
 import me.raatiniemi.worker.domain.model.Project;
 import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
@@ -52,7 +50,7 @@ public class PauseNotification extends OngoingNotification {
 
     private boolean useChronometer;
     private long registeredTime;
-    private TimeResolverRepository repository;
+    private TimeRepository repository;
 
     private PauseNotification(Context context, Project project) {
         super(context, project);
@@ -63,31 +61,46 @@ public class PauseNotification extends OngoingNotification {
         }
     }
 
+    private PauseNotification(Context context, Project project, long registeredTime) {
+        super(context, project);
+
+        useChronometer = Settings.isOngoingNotificationChronometerEnabled(getContext());
+        this.registeredTime = registeredTime + project.getElapsed();
+    }
+
     public static Notification build(Context context, Project project) {
         PauseNotification notification = new PauseNotification(context, project);
         return notification.build();
     }
 
+    /**
+     * Build the notification with the registered time already known, i.e.
+     * without going through the repository.
+     *
+     * @param context        Context used to build the notification.
+     * @param project        Active project, populated with the time.
+     * @param registeredTime Registered time for the project since the beginning of the day.
+     * @return Notification for pausing or clocking out the project.
+     */
+    public static Notification build(Context context, Project project, long registeredTime) {
+        PauseNotification notification = new PauseNotification(context, project, registeredTime);
+        return notification.build();
+    }
+
     private void populateRegisteredTime() {
         useChronometer = true;
 
         try {
-            long registeredTime = 0L;
-
-            for (Time time : getRegisteredTime()) {
-                registeredTime += time.getTime();
-            }
-
-            this.registeredTime = includeActiveTime(registeredTime);
+            this.registeredTime = includeActiveTime(getRegisteredTime());
         } catch (DomainException e) {
             Log.w(TAG, "Unable to populate registered time", e);
             useChronometer = false;
         }
     }
 
-    private List<Time> getRegisteredTime() throws DomainException {
+    private long getRegisteredTime() throws DomainException {
         TimeRepository repository = getTimeRepository();
-        GetProjectTimeSince registeredTimeUseCase = buildRegisteredTimeUseCase(repository);
+        GetProjectTimeSummarySince registeredTimeUseCase = buildRegisteredTimeUseCase(repository);
 
         return registeredTimeUseCase.execute(
                 getProject(),
@@ -97,18 +110,14 @@ public class PauseNotification extends OngoingNotification {
 
     private TimeRepository getTimeRepository() {
         if (null == repository) {
-            repository = new TimeResolverRepository(
-                    getContext().getContentResolver(),
-                    new TimeCursorMapper(),
-                    new TimeContentValuesMapper()
-            );
+            repository = RepositoryFactory.buildTimeRepository(getContext());
         }
 
         return repository;
     }
 
-    private GetProjectTimeSince buildRegisteredTimeUseCase(TimeRepository repository) {
-        return new GetProjectTimeSince(repository);
+    private GetProjectTimeSummarySince buildRegisteredTimeUseCase(TimeRepository repository) {
+        return new GetProjectTimeSummarySince(repository);
     }
 
     private long includeActiveTime(long registeredTime) throws DomainException {
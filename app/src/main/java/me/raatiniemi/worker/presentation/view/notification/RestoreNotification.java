@@ -45,6 +45,23 @@ public class RestoreNotification {
                 .build();
     }
 
+    /**
+     * Build the notification for an ongoing restore.
+     *
+     * @param context  Context used to build the notification.
+     * @param progress Restore progress in percent.
+     * @return Notification for an ongoing restore.
+     */
+    public static Notification buildProgress(Context context, int progress) {
+        return new NotificationCompat.Builder(context)
+                .setContentTitle(context.getString(TITLE))
+                .setSmallIcon(SMALL_ICON)
+                .setProgress(100, progress, false)
+                .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .build();
+    }
+
     private static PendingIntent buildContentAction(Context context) {
         Intent intent = new Intent(context, ProjectsActivity.class);
         intent.setAction(Worker.INTENT_ACTION_RESTART);
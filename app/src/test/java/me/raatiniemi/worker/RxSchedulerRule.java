@@ -43,6 +43,11 @@ public class RxSchedulerRule implements TestRule {
         public Scheduler getNewThreadScheduler() {
             return testScheduler;
         }
+
+        @Override
+        public Scheduler getComputationScheduler() {
+            return testScheduler;
+        }
     };
 
     private final RxAndroidSchedulersHook rxAndroidSchedulersHook = new RxAndroidSchedulersHook() {
@@ -74,4 +79,8 @@ public class RxSchedulerRule implements TestRule {
     public void advanceTimeTo(long delayTime, TimeUnit unit) {
         testScheduler.advanceTimeTo(delayTime, unit);
     }
+
+    public void advanceTimeBy(long delayTime, TimeUnit unit) {
+        testScheduler.advanceTimeBy(delayTime, unit);
+    }
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+import android.provider.BaseColumns;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+
+import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.data.WorkerContract.ProjectColumns;
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+import static junit.framework.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class BackupImporterTest {
+    private SQLiteDatabase backup;
+    private SQLiteDatabase database;
+
+    private static SQLiteDatabase openDatabase() {
+        return SQLiteDatabase.openDatabase(
+                ":memory:",
+                null,
+                SQLiteDatabase.CREATE_IF_NECESSARY
+        );
+    }
+
+    private static SQLiteDatabase createDatabase() {
+        SQLiteDatabase db = openDatabase();
+
+        WorkerDatabase helper = new WorkerDatabase(mock(Context.class));
+        helper.onCreate(db);
+        db.setVersion(WorkerDatabase.DATABASE_VERSION);
+
+        return db;
+    }
+
+    @Before
+    public void setUp() {
+        backup = createDatabase();
+        database = createDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        backup.close();
+        database.close();
+    }
+
+    private static long insertProject(SQLiteDatabase db, String name) {
+        ContentValues values = new ContentValues();
+        values.put(ProjectColumns.NAME, name);
+
+        return db.insertOrThrow(Tables.PROJECT, null, values);
+    }
+
+    private static long insertTime(SQLiteDatabase db, long projectId, long start, long stop) {
+        ContentValues values = new ContentValues();
+        values.put(TimeColumns.PROJECT_ID, projectId);
+        values.put(TimeColumns.START, start);
+        values.put(TimeColumns.STOP, stop);
+        values.put(TimeColumns.REGISTERED, 1L);
+        values.put(TimeColumns.DAY, TimeContract.getDay(start));
+
+        return db.insertOrThrow(Tables.TIME, null, values);
+    }
+
+    @Test
+    public void validate() throws IOException {
+        BackupImporter importer = new BackupImporter(backup, null);
+
+        importer.validate();
+    }
+
+    @Test(expected = IOException.class)
+    public void validate_withNewerVersion() throws IOException {
+        backup.setVersion(WorkerDatabase.DATABASE_VERSION + 1);
+        BackupImporter importer = new BackupImporter(backup, null);
+
+        importer.validate();
+    }
+
+    @Test(expected = IOException.class)
+    public void validate_withoutTables() throws IOException {
+        SQLiteDatabase db = openDatabase();
+        db.setVersion(WorkerDatabase.DATABASE_VERSION);
+        try {
+            BackupImporter importer = new BackupImporter(db, null);
+
+            importer.validate();
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    public void importInto() {
+        insertProject(database, "Project to replace");
+        long projectId = insertProject(backup, "Project #1");
+        insertProject(backup, "Project #2");
+        long timeId = insertTime(backup, projectId, 1L, 2L);
+        insertTime(backup, projectId, 3L, 0L);
+        BackupImporter.OnProgressListener listener = mock(BackupImporter.OnProgressListener.class);
+        BackupImporter importer = new BackupImporter(backup, listener);
+
+        importer.importInto(database);
+
+        assertEquals(2, DatabaseUtils.queryNumEntries(database, Tables.PROJECT));
+        assertEquals(2, DatabaseUtils.queryNumEntries(database, Tables.TIME));
+        assertEquals(
+                "Project #1",
+                DatabaseUtils.stringForQuery(
+                        database,
+                        "SELECT " + ProjectColumns.NAME + " FROM " + Tables.PROJECT +
+                                " WHERE " + BaseColumns._ID + "=?",
+                        new String[]{String.valueOf(projectId)}
+                )
+        );
+        assertEquals(
+                2L,
+                DatabaseUtils.longForQuery(
+                        database,
+                        "SELECT " + TimeColumns.STOP + " FROM " + Tables.TIME +
+                                " WHERE " + BaseColumns._ID + "=?",
+                        new String[]{String.valueOf(timeId)}
+                )
+        );
+        verify(listener).onProgress(0L, 4L);
+        verify(listener).onProgress(4L, 4L);
+    }
+
+    @Test
+    public void importInto_withDuplicatedActiveTime() {
+        backup.execSQL("DROP INDEX " + WorkerContract.Indexes.TIME_PROJECT_ACTIVE);
+        backup.setVersion(5);
+        long projectId = insertProject(backup, "Project #1");
+        long timeId = insertTime(backup, projectId, 1L, 0L);
+        insertTime(backup, projectId, 3L, 0L);
+        BackupImporter importer = new BackupImporter(backup, null);
+
+        importer.importInto(database);
+
+        assertEquals(1, importer.getClockedOutActiveTime());
+
+        assertEquals(
+                3L,
+                DatabaseUtils.longForQuery(
+                        database,
+                        "SELECT " + TimeColumns.STOP + " FROM " + Tables.TIME +
+                                " WHERE " + BaseColumns._ID + "=?",
+                        new String[]{String.valueOf(timeId)}
+                )
+        );
+        assertEquals(
+                1L,
+                DatabaseUtils.longForQuery(
+                        database,
+                        "SELECT COUNT(*) FROM " + Tables.TIME +
+                                " WHERE " + TimeContract.SELECTION_ACTIVE,
+                        null
+                )
+        );
+    }
+
+    @Test(expected = SQLiteConstraintException.class)
+    public void importInto_withDuplicatedActiveTimeFromCurrentVersion() {
+        backup.execSQL("DROP INDEX " + WorkerContract.Indexes.TIME_PROJECT_ACTIVE);
+        long projectId = insertProject(backup, "Project #1");
+        insertTime(backup, projectId, 1L, 0L);
+        insertTime(backup, projectId, 3L, 0L);
+        BackupImporter importer = new BackupImporter(backup, null);
+
+        importer.importInto(database);
+    }
+
+    @Test
+    public void importInto_withFirstVersion() {
+        SQLiteDatabase db = openDatabase();
+        db.execSQL("CREATE TABLE " + Tables.PROJECT + " ( " +
+                BaseColumns._ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                ProjectColumns.NAME + " TEXT NOT NULL, " +
+                ProjectColumns.DESCRIPTION + " TEXT NULL, " +
+                ProjectColumns.ARCHIVED + " INTEGER DEFAULT 0)");
+        db.execSQL("CREATE TABLE " + Tables.TIME + " ( " +
+                BaseColumns._ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                TimeColumns.PROJECT_ID + " INTEGER NOT NULL, " +
+                TimeColumns.START + " INTEGER NOT NULL, " +
+                TimeColumns.STOP + " INTEGER DEFAULT 0)");
+        db.setVersion(1);
+        long projectId = insertProject(db, "Project #1");
+        ContentValues values = new ContentValues();
+        values.put(TimeColumns.PROJECT_ID, projectId);
+        values.put(TimeColumns.START, 2 * TimeContract.DAY_IN_MILLISECONDS);
+        db.insertOrThrow(Tables.TIME, null, values);
+
+        try {
+            BackupImporter importer = new BackupImporter(db, null);
+
+            importer.importInto(database);
+        } finally {
+            db.close();
+        }
+
+        assertEquals(
+                0L,
+                DatabaseUtils.longForQuery(
+                        database,
+                        "SELECT " + TimeColumns.REGISTERED + " FROM " + Tables.TIME,
+                        null
+                )
+        );
+        assertEquals(
+                2L,
+                DatabaseUtils.longForQuery(
+                        database,
+                        "SELECT " + TimeColumns.DAY + " FROM " + Tables.TIME,
+                        null
+                )
+        );
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+import android.provider.BaseColumns;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class TimeStatementsTest {
+    private SQLiteDatabase database;
+    private TimeStatements statements;
+
+    @Before
+    public void setUp() {
+        database = SQLiteDatabase.openDatabase(
+                ":memory:",
+                null,
+                SQLiteDatabase.CREATE_IF_NECESSARY
+        );
+
+        WorkerDatabase helper = new WorkerDatabase(mock(Context.class));
+        helper.onCreate(database);
+
+        statements = new TimeStatements(database);
+    }
+
+    @After
+    public void tearDown() {
+        statements.close();
+
+        if (null != database && database.isOpen()) {
+            database.close();
+        }
+        database = null;
+    }
+
+    private static ContentValues buildValues(long projectId, long start, long stop) {
+        ContentValues values = new ContentValues();
+        values.put(TimeColumns.PROJECT_ID, projectId);
+        values.put(TimeColumns.START, start);
+        values.put(TimeColumns.STOP, stop);
+        values.put(TimeColumns.REGISTERED, 0L);
+        values.put(TimeColumns.DAY, TimeContract.getDay(start));
+
+        return values;
+    }
+
+    private long getStop(long id) {
+        Cursor cursor = database.query(
+                Tables.TIME,
+                new String[]{TimeColumns.STOP},
+                BaseColumns._ID + "=?",
+                new String[]{String.valueOf(id)},
+                null,
+                null,
+                null
+        );
+        try {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void isWritable_withAllColumns() {
+        assertTrue(TimeStatements.isWritable(buildValues(1L, 1L, 0L)));
+    }
+
+    @Test
+    public void isWritable_withMissingColumn() {
+        ContentValues values = buildValues(1L, 1L, 0L);
+        values.remove(TimeColumns.DAY);
+
+        assertFalse(TimeStatements.isWritable(values));
+    }
+
+    @Test
+    public void isWritable_withAdditionalColumn() {
+        ContentValues values = buildValues(1L, 1L, 0L);
+        values.put(BaseColumns._ID, 1L);
+
+        assertFalse(TimeStatements.isWritable(values));
+    }
+
+    @Test
+    public void insert() {
+        long firstId = statements.insert(buildValues(1L, 1L, 2L));
+        long secondId = statements.insert(buildValues(1L, 3L, 0L));
+
+        assertEquals(1L, firstId);
+        assertEquals(2L, secondId);
+        assertEquals(2L, getStop(firstId));
+        assertEquals(0L, getStop(secondId));
+    }
+
+    @Test
+    public void update() {
+        long id = statements.insert(buildValues(1L, 1L, 0L));
+
+        assertEquals(1, statements.update(id, buildValues(1L, 1L, 2L)));
+        assertEquals(2L, getStop(id));
+    }
+
+    @Test
+    public void update_withoutRow() {
+        assertEquals(0, statements.update(1L, buildValues(1L, 1L, 2L)));
+    }
+
+    @Test
+    public void clockIn() {
+        assertTrue(statements.clockIn(1L, 1L));
+
+        assertEquals(0L, getStop(1L));
+    }
+
+    @Test
+    public void clockIn_withActiveTime() {
+        statements.insert(buildValues(1L, 1L, 0L));
+
+        assertFalse(statements.clockIn(1L, 2L));
+        assertTrue(statements.clockIn(2L, 2L));
+    }
+
+    @Test(expected = SQLiteConstraintException.class)
+    public void clockIn_withConstraintFailure() {
+        database.execSQL("CREATE TRIGGER time_constraint BEFORE INSERT ON " + Tables.TIME +
+                " BEGIN SELECT RAISE(ABORT, 'constraint failed'); END");
+
+        statements.clockIn(1L, 1L);
+    }
+
+    @Test
+    public void clockOut() {
+        long id = statements.insert(buildValues(1L, 1L, 0L));
+
+        assertTrue(statements.clockOut(1L, 2L));
+        assertEquals(2L, getStop(id));
+    }
+
+    @Test
+    public void clockOut_withoutActiveTime() {
+        statements.insert(buildValues(1L, 1L, 2L));
+
+        assertFalse(statements.clockOut(1L, 3L));
+    }
+
+    @Test
+    public void clockOut_beforeClockIn() {
+        long id = statements.insert(buildValues(1L, 2L, 0L));
+
+        assertFalse(statements.clockOut(1L, 1L));
+        assertEquals(0L, getStop(id));
+    }
+
+    @Test
+    public void isCompiledFor() {
+        assertTrue(statements.isCompiledFor(database));
+        assertFalse(statements.isCompiledFor(mock(SQLiteDatabase.class)));
+    }
+}
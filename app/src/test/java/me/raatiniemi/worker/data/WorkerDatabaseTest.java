@@ -16,7 +16,10 @@
 
 package me.raatiniemi.worker.data;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteConstraintException;
 import android.database.sqlite.SQLiteDatabase;
 import android.provider.BaseColumns;
 
@@ -25,13 +28,25 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.data.WorkerContract.BackupStateColumns;
+import me.raatiniemi.worker.data.WorkerContract.Indexes;
 import me.raatiniemi.worker.data.WorkerContract.ProjectColumns;
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
 import me.raatiniemi.worker.data.WorkerContract.Tables;
 import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
 
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 @RunWith(RobolectricGradleTestRunner.class)
@@ -66,6 +81,299 @@ public class WorkerDatabaseTest {
         helper.onCreate(database);
     }
 
+    @Test
+    public void getTimeStatements_withReopenedDatabase() {
+        final SQLiteDatabase[] current = new SQLiteDatabase[]{database};
+        WorkerDatabase helper = new WorkerDatabase(RuntimeEnvironment.application) {
+            @Override
+            public SQLiteDatabase getWritableDatabase() {
+                return current[0];
+            }
+        };
+        helper.onCreate(database);
+
+        TimeStatements statements = helper.getTimeStatements();
+        assertSame(statements, helper.getTimeStatements());
+
+        current[0] = SQLiteDatabase.openDatabase(":memory:", null, SQLiteDatabase.CREATE_IF_NECESSARY);
+        try {
+            assertNotSame(statements, helper.getTimeStatements());
+            assertTrue(helper.getTimeStatements().isCompiledFor(current[0]));
+        } finally {
+            helper.getTimeStatements().close();
+            current[0].close();
+        }
+    }
+
+    /**
+     * Get the query plan for a query.
+     *
+     * @param sql  Query for which to get the plan.
+     * @param args Arguments for the query.
+     * @return Details from the query plan.
+     */
+    private String getQueryPlan(String sql, String... args) {
+        StringBuilder plan = new StringBuilder();
+
+        Cursor cursor = database.rawQuery("EXPLAIN QUERY PLAN " + sql, args);
+        try {
+            int detailIndex = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detailIndex)).append("\n");
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return plan.toString();
+    }
+
+    private void assertQueryPlanUsingIndex(String index, String sql, String... args) {
+        String plan = getQueryPlan(sql, args);
+
+        assertTrue(
+                "Query plan is not using index " + index + ": " + plan,
+                plan.contains(index)
+        );
+    }
+
+    @Test
+    public void onCreate_timeSinceStartingPointIsUsingIndex() {
+        Context context = mock(Context.class);
+        WorkerDatabase helper = new WorkerDatabase(context);
+        helper.onCreate(database);
+
+        assertQueryPlanUsingIndex(
+                Indexes.TIME_PROJECT_START,
+                "SELECT * FROM " + Tables.TIME +
+                        " WHERE " + TimeColumns.PROJECT_ID + "=?" +
+                        " AND " + TimeColumns.START + ">=?",
+                "1",
+                "1451606400000"
+        );
+    }
+
+    @Test
+    public void onCreate_activeTimeIsUsingIndex() {
+        Context context = mock(Context.class);
+        WorkerDatabase helper = new WorkerDatabase(context);
+        helper.onCreate(database);
+
+        assertQueryPlanUsingIndex(
+                Indexes.TIME_PROJECT_ACTIVE,
+                "SELECT * FROM " + Tables.TIME +
+                        " WHERE " + TimeColumns.PROJECT_ID + "=?" +
+                        " AND " + TimeColumns.STOP + " = 0",
+                "1"
+        );
+    }
+
+    @Test
+    public void onCreate_timesheetIsUsingIndex() {
+        Context context = mock(Context.class);
+        WorkerDatabase helper = new WorkerDatabase(context);
+        helper.onCreate(database);
+
+        assertQueryPlanUsingIndex(
+                Indexes.TIME_PROJECT_DAY,
+                "SELECT " + TimeColumns.DAY + " FROM " + Tables.TIME +
+                        " WHERE " + TimeColumns.PROJECT_ID + "=?" +
+                        " GROUP BY " + ProjectContract.GROUP_BY_TIMESHEET,
+                "1"
+        );
+    }
+
+    @Test
+    public void onCreate_timesheetSegmentBeforeDayIsUsingIndex() {
+        Context context = mock(Context.class);
+        WorkerDatabase helper = new WorkerDatabase(context);
+        helper.onCreate(database);
+
+        String sql = "SELECT " + TimeColumns.DAY + " FROM " + Tables.TIME +
+                " WHERE " + TimeColumns.PROJECT_ID + "=?" +
+                " AND " + ProjectContract.SELECTION_TIMESHEET_BEFORE_DAY +
+                " GROUP BY " + ProjectContract.GROUP_BY_TIMESHEET +
+                " ORDER BY " + ProjectContract.ORDER_BY_TIMESHEET_SEGMENT +
+                " LIMIT 10";
+        assertQueryPlanUsingIndex(Indexes.TIME_PROJECT_DAY, sql, "1", "16802");
+    }
+
+    private long queryLong(String sql) {
+        Cursor cursor = database.rawQuery(sql, null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void onCreate_incrementChangeCounterForTime() {
+        Context context = mock(Context.class);
+        WorkerDatabase helper = new WorkerDatabase(context);
+        helper.onCreate(database);
+
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 1)");
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (2, 2)");
+        database.execSQL("UPDATE " + Tables.TIME + " SET " + TimeColumns.STOP + " = 3" +
+                " WHERE " + BaseColumns._ID + " = 1");
+
+        assertEquals(3L, queryLong("SELECT " + BackupStateColumns.COUNTER +
+                " FROM " + Tables.BACKUP_STATE));
+        assertEquals(3L, queryLong("SELECT " + TimeColumns.CHANGED +
+                " FROM " + Tables.TIME + " WHERE " + BaseColumns._ID + " = 1"));
+        assertEquals(2L, queryLong("SELECT " + TimeColumns.CHANGED +
+                " FROM " + Tables.TIME + " WHERE " + BaseColumns._ID + " = 2"));
+    }
+
+    @Test
+    public void onCreate_incrementChangeCounterForRemovedTimeAndProjects() {
+        Context context = mock(Context.class);
+        WorkerDatabase helper = new WorkerDatabase(context);
+        helper.onCreate(database);
+
+        database.execSQL("INSERT INTO " + Tables.PROJECT + " (" +
+                ProjectColumns.NAME + ") VALUES ('Name')");
+        database.execSQL("UPDATE " + Tables.PROJECT + " SET " +
+                ProjectColumns.ARCHIVED + " = 1");
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 1)");
+        database.execSQL("DELETE FROM " + Tables.TIME);
+        database.execSQL("DELETE FROM " + Tables.PROJECT);
+
+        assertEquals(5L, queryLong("SELECT " + BackupStateColumns.COUNTER +
+                " FROM " + Tables.BACKUP_STATE));
+    }
+
+    @Test
+    public void onCreate_recordRemovedTime() {
+        Context context = mock(Context.class);
+        WorkerDatabase helper = new WorkerDatabase(context);
+        helper.onCreate(database);
+
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 1)");
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (2, 2)");
+        database.execSQL("DELETE FROM " + Tables.TIME + " WHERE " + BaseColumns._ID + " = 1");
+
+        assertEquals(1L, queryLong("SELECT COUNT(*) FROM " + Tables.DELETED_TIME));
+        assertEquals(3L, queryLong("SELECT " + TimeColumns.CHANGED +
+                " FROM " + Tables.DELETED_TIME + " WHERE " + BaseColumns._ID + " = 1"));
+    }
+
+    @Test
+    public void onUpgrade_recordRemovedTime() {
+        Context context = mock(Context.class);
+        WorkerBaseDatabase helper = new WorkerBaseDatabase(context);
+        helper.onCreate(database);
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 1)");
+
+        helper.onUpgrade(database, 1, WorkerDatabase.DATABASE_VERSION);
+        database.execSQL("DELETE FROM " + Tables.TIME);
+
+        assertEquals(1L, queryLong("SELECT COUNT(*) FROM " + Tables.DELETED_TIME));
+    }
+
+    @Test
+    public void onCreate_changedTimeIsUsingIndex() {
+        Context context = mock(Context.class);
+        WorkerDatabase helper = new WorkerDatabase(context);
+        helper.onCreate(database);
+
+        assertQueryPlanUsingIndex(
+                Indexes.TIME_CHANGED,
+                "SELECT * FROM " + Tables.TIME + " WHERE " + TimeColumns.CHANGED + " > ?",
+                "1"
+        );
+    }
+
+    @Test
+    public void onUpgrade_includeExistingTimeInChangeCounter() {
+        Context context = mock(Context.class);
+        WorkerBaseDatabase helper = new WorkerBaseDatabase(context);
+        helper.onCreate(database);
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 1)");
+
+        helper.onUpgrade(database, 1, WorkerDatabase.DATABASE_VERSION);
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (2, 2)");
+
+        assertEquals(1L, queryLong("SELECT COUNT(*) FROM " + Tables.BACKUP_STATE));
+        assertEquals(0L, queryLong("SELECT " + TimeColumns.CHANGED +
+                " FROM " + Tables.TIME + " WHERE " + BaseColumns._ID + " = 1"));
+        assertEquals(1L, queryLong("SELECT " + TimeColumns.CHANGED +
+                " FROM " + Tables.TIME + " WHERE " + BaseColumns._ID + " = 2"));
+    }
+
+    @Test
+    public void onUpgrade_clockOutDuplicatedActiveTime() {
+        Context context = mock(Context.class);
+        WorkerBaseDatabase helper = new WorkerBaseDatabase(context);
+        helper.onCreate(database);
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 1)");
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 3)");
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (2, 2)");
+
+        helper.onUpgrade(database, 1, WorkerDatabase.DATABASE_VERSION);
+
+        assertEquals(3L, queryLong("SELECT " + TimeColumns.STOP +
+                " FROM " + Tables.TIME + " WHERE " + BaseColumns._ID + " = 1"));
+        assertEquals(0L, queryLong("SELECT " + TimeColumns.STOP +
+                " FROM " + Tables.TIME + " WHERE " + BaseColumns._ID + " = 2"));
+        assertEquals(0L, queryLong("SELECT " + TimeColumns.STOP +
+                " FROM " + Tables.TIME + " WHERE " + BaseColumns._ID + " = 3"));
+    }
+
+    @Test(expected = SQLiteConstraintException.class)
+    public void onCreate_preventMultipleActiveTimeForProject() {
+        Context context = mock(Context.class);
+        WorkerDatabase helper = new WorkerDatabase(context);
+        helper.onCreate(database);
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 1)");
+
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 2)");
+    }
+
+    @Test
+    public void onUpgrade_populateDayForExistingTime() {
+        Context context = mock(Context.class);
+        WorkerBaseDatabase helper = new WorkerBaseDatabase(context);
+        helper.onCreate(database);
+
+        // 2016-01-02 01:00 (UTC) is 16802 days since the epoch.
+        database.execSQL("INSERT INTO " + Tables.TIME + " (" +
+                TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ") VALUES (1, 1451696400000)");
+
+        helper.onUpgrade(database, 1, WorkerDatabase.DATABASE_VERSION);
+
+        Cursor cursor = database.rawQuery("SELECT " + TimeColumns.DAY + " FROM " + Tables.TIME, null);
+        try {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(16802L, cursor.getLong(0));
+        } finally {
+            cursor.close();
+        }
+
+        assertQueryPlanUsingIndex(
+                Indexes.TIME_PROJECT_ACTIVE,
+                "SELECT * FROM " + Tables.TIME +
+                        " WHERE " + TimeColumns.PROJECT_ID + "=?" +
+                        " AND " + TimeColumns.STOP + " = 0",
+                "1"
+        );
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void onUpgrade_oldVersionIsLessThan1() {
         Context context = mock(Context.class);
@@ -129,6 +437,77 @@ public class WorkerDatabaseTest {
         helper.onDowngrade(database, 1, 2);
     }
 
+    @Test
+    public void getWritableDatabase_isUsingWriteAheadLogging() {
+        WorkerDatabase helper = new WorkerDatabase(RuntimeEnvironment.application);
+
+        try {
+            assertTrue(helper.getWritableDatabase().isWriteAheadLoggingEnabled());
+        } finally {
+            helper.close();
+            RuntimeEnvironment.application.deleteDatabase(Worker.DATABASE_NAME);
+        }
+    }
+
+    @Test
+    public void getWritableDatabase_readWhileWriteTransactionIsOpen()
+            throws InterruptedException {
+        WorkerDatabase helper = new WorkerDatabase(RuntimeEnvironment.application);
+        final SQLiteDatabase db = helper.getWritableDatabase();
+
+        final CountDownLatch transactionStarted = new CountDownLatch(1);
+        final CountDownLatch readCompleted = new CountDownLatch(1);
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                db.beginTransaction();
+                try {
+                    ContentValues values = new ContentValues();
+                    values.put(ProjectColumns.NAME, "Project name");
+                    db.insert(Tables.PROJECT, null, values);
+                    transactionStarted.countDown();
+
+                    // Keep the transaction open until the read is completed,
+                    // the timeout prevents the test from hanging if the
+                    // read is blocked by the transaction.
+                    readCompleted.await(5, TimeUnit.SECONDS);
+                    db.setTransactionSuccessful();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        });
+
+        try {
+            writer.start();
+            assertTrue(transactionStarted.await(5, TimeUnit.SECONDS));
+
+            // If the read had to wait for the write transaction, the project
+            // would have been committed before the read is completed.
+            assertEquals(0, countProjects(db));
+
+            readCompleted.countDown();
+            writer.join();
+            assertEquals(1, countProjects(db));
+        } finally {
+            readCompleted.countDown();
+            helper.close();
+            RuntimeEnvironment.application.deleteDatabase(Worker.DATABASE_NAME);
+        }
+    }
+
+    private static int countProjects(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM " + Tables.PROJECT, null);
+        try {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
     /**
      * Represent the base database, used primarily for upgrade related tests.
      */
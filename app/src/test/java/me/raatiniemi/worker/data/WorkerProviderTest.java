@@ -19,37 +19,66 @@ package me.raatiniemi.worker.data;
 import android.content.ContentProviderOperation;
 import android.content.ContentValues;
 import android.content.OperationApplicationException;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.net.Uri;
+import android.os.Bundle;
 import android.provider.BaseColumns;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowContentResolver;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.data.WorkerContract.Indexes;
+import me.raatiniemi.worker.data.WorkerContract.ProjectColumns;
 import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
 import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+import me.raatiniemi.worker.data.service.data.RetentionPolicy;
+import me.raatiniemi.worker.data.service.data.SnapshotBackup;
+import me.raatiniemi.worker.data.service.data.SnapshotManifest;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
+import static me.raatiniemi.worker.data.WorkerContract.Tables.DELETED_TIME;
 import static me.raatiniemi.worker.data.WorkerContract.Tables.PROJECT;
 import static me.raatiniemi.worker.data.WorkerContract.Tables.TIME;
 import static me.raatiniemi.worker.data.WorkerContract.TimeColumns.PROJECT_ID;
+import static me.raatiniemi.worker.data.WorkerContract.TimeColumns.STOP;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class, sdk = 21)
 public class WorkerProviderTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private SQLiteDatabase database;
     private WorkerProvider provider;
 
@@ -67,6 +96,23 @@ public class WorkerProviderTest {
         provider.openHelper = helper;
     }
 
+    private ShadowContentResolver attachProviderToContext() {
+        WorkerDatabase helper = provider.openHelper;
+        provider.attachInfo(RuntimeEnvironment.application, null);
+        provider.openHelper = helper;
+
+        return Shadows.shadowOf(RuntimeEnvironment.application.getContentResolver());
+    }
+
+    private List<Uri> getNotifiedUris(ShadowContentResolver contentResolver) {
+        List<Uri> uris = new ArrayList<>();
+        for (ShadowContentResolver.NotifiedUri notifiedUri : contentResolver.getNotifiedUris()) {
+            uris.add(notifiedUri.uri);
+        }
+
+        return uris;
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void getType_unknownUri() {
         Uri uri = new Uri.Builder()
@@ -104,6 +150,27 @@ public class WorkerProviderTest {
         assertEquals(TimeContract.STREAM_TYPE, mimeType);
     }
 
+    @Test
+    public void getType_withProjectsSummaryUri() {
+        String mimeType = provider.getType(ProjectContract.getItemSummaryUri(1));
+
+        assertEquals(TimeContract.STREAM_TYPE, mimeType);
+    }
+
+    @Test
+    public void getType_withTimeSummaryUri() {
+        String mimeType = provider.getType(TimeContract.getSummaryUri());
+
+        assertEquals(TimeContract.STREAM_TYPE, mimeType);
+    }
+
+    @Test
+    public void getType_withTimeExportUri() {
+        String mimeType = provider.getType(TimeContract.getExportUri());
+
+        assertEquals(TimeContract.STREAM_TYPE, mimeType);
+    }
+
     @Test
     public void getType_withTimeStreamUri() {
         String mimeType = provider.getType(TimeContract.getStreamUri());
@@ -219,6 +286,95 @@ public class WorkerProviderTest {
         );
     }
 
+    @Test
+    public void query_projectSummary() {
+        provider.query(
+                ProjectContract.getItemSummaryUri(1),
+                ProjectContract.getSummaryColumns(),
+                "",
+                new String[]{},
+                ""
+        );
+
+        verify(database).query(
+                eq(TIME),
+                eq(ProjectContract.getSummaryColumns()),
+                eq("(" + PROJECT_ID + "=?) AND (" + STOP + " > 0)"),
+                eq(new String[]{"1"}),
+                eq(null),
+                eq(null),
+                eq(""),
+                eq(null)
+        );
+    }
+
+    @Test
+    public void query_timeSummary() {
+        provider.query(
+                TimeContract.getSummaryUri(),
+                TimeContract.getSummaryColumns(),
+                "",
+                new String[]{},
+                ""
+        );
+
+        verify(database).query(
+                eq(TIME),
+                eq(TimeContract.getSummaryColumns()),
+                eq("(" + STOP + " > 0)"),
+                eq(new String[]{}),
+                eq(TimeContract.GROUP_BY_SUMMARY),
+                eq(null),
+                eq(""),
+                eq(null)
+        );
+    }
+
+    @Test
+    public void query_timeExport() {
+        provider.query(
+                TimeContract.getExportUri(),
+                TimeContract.getExportColumns(),
+                STOP + " > ?",
+                new String[]{"0"},
+                TimeContract.ORDER_BY_EXPORT
+        );
+
+        verify(database).query(
+                eq(TIME + " INNER JOIN " + PROJECT + " ON " + TIME + "." + PROJECT_ID +
+                        " = " + PROJECT + "." + BaseColumns._ID),
+                eq(TimeContract.getExportColumns()),
+                eq("(" + STOP + " > ?)"),
+                eq(new String[]{"0"}),
+                eq(null),
+                eq(null),
+                eq(TimeContract.ORDER_BY_EXPORT),
+                eq(null)
+        );
+    }
+
+    @Test
+    public void query_timeStream() {
+        provider.query(
+                TimeContract.getStreamUri(),
+                TimeContract.getColumns(),
+                PROJECT_ID + " IN (?,?)",
+                new String[]{"1", "2"},
+                ""
+        );
+
+        verify(database).query(
+                eq(TIME),
+                eq(TimeContract.getColumns()),
+                eq("(" + PROJECT_ID + " IN (?,?))"),
+                eq(new String[]{"1", "2"}),
+                eq(null),
+                eq(null),
+                eq(""),
+                eq(null)
+        );
+    }
+
     @Test
     public void query_time() {
         provider.query(
@@ -335,6 +491,126 @@ public class WorkerProviderTest {
         assertEquals(TimeContract.getItemUri(1), uri);
     }
 
+    private static ContentValues buildTimeValues() {
+        ContentValues values = new ContentValues();
+        values.put(PROJECT_ID, 1L);
+        values.put(WorkerContract.TimeColumns.START, 1L);
+        values.put(STOP, 0L);
+        values.put(WorkerContract.TimeColumns.REGISTERED, 0L);
+        values.put(WorkerContract.TimeColumns.DAY, 0L);
+
+        return values;
+    }
+
+    @Test
+    public void insert_timeWithCompiledStatement() {
+        SQLiteStatement statement = mock(SQLiteStatement.class);
+        when(database.compileStatement(anyString()))
+                .thenReturn(statement);
+        when(statement.executeInsert())
+                .thenReturn(1L);
+
+        provider.insert(TimeContract.getStreamUri(), buildTimeValues());
+        Uri uri = provider.insert(TimeContract.getStreamUri(), buildTimeValues());
+
+        assertEquals(TimeContract.getItemUri(1), uri);
+        verify(database, times(1)).compileStatement(anyString());
+        verify(database, never()).insertOrThrow(anyString(), anyString(), any(ContentValues.class));
+    }
+
+    @Test
+    public void update_timeItemWithCompiledStatement() {
+        SQLiteStatement statement = mock(SQLiteStatement.class);
+        when(database.compileStatement(anyString()))
+                .thenReturn(statement);
+        when(statement.executeUpdateDelete())
+                .thenReturn(1);
+
+        int numberOfRows = provider.update(TimeContract.getItemUri(2), buildTimeValues(), null, null);
+
+        assertEquals(1, numberOfRows);
+        verify(statement).bindLong(6, 2L);
+    }
+
+    @Test
+    public void query_activeTimeForProject() {
+        provider.query(
+                ProjectContract.getItemTimeUri(1),
+                TimeContract.getColumns(),
+                TimeContract.SELECTION_ACTIVE,
+                null,
+                null
+        );
+
+        verify(database).rawQuery(anyString(), eq(new String[]{"1"}));
+    }
+
+    @Test
+    public void insert_notifyProjectChange() {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        ContentValues values = new ContentValues();
+        when(database.insertOrThrow(eq(PROJECT), eq(null), eq(values)))
+                .thenReturn(1L);
+
+        provider.insert(ProjectContract.getStreamUri(), values);
+
+        List<Uri> uris = getNotifiedUris(contentResolver);
+        assertEquals(1, uris.size());
+        assertEquals(ProjectContract.getItemUri(1), uris.get(0));
+    }
+
+    @Test
+    public void insert_notifyProjectTimeChange() {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        ContentValues values = new ContentValues();
+        values.put(PROJECT_ID, 2L);
+        when(database.insertOrThrow(eq(TIME), eq(null), eq(values)))
+                .thenReturn(1L);
+
+        provider.insert(TimeContract.getStreamUri(), values);
+
+        List<Uri> uris = getNotifiedUris(contentResolver);
+        assertEquals(1, uris.size());
+        assertEquals(ProjectContract.getItemTimeUri(2), uris.get(0));
+    }
+
+    @Test
+    public void update_notifyChange() {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        when(database.update(eq(TIME), isA(ContentValues.class), anyString(), isA(String[].class)))
+                .thenReturn(1);
+
+        provider.update(TimeContract.getItemUri(1), new ContentValues(), null, null);
+
+        List<Uri> uris = getNotifiedUris(contentResolver);
+        assertEquals(1, uris.size());
+        assertEquals(TimeContract.getItemUri(1), uris.get(0));
+    }
+
+    @Test
+    public void update_withoutChangedRows() {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        when(database.update(eq(TIME), isA(ContentValues.class), anyString(), isA(String[].class)))
+                .thenReturn(0);
+
+        provider.update(TimeContract.getItemUri(1), new ContentValues(), null, null);
+
+        assertTrue(getNotifiedUris(contentResolver).isEmpty());
+    }
+
+    @Test
+    public void delete_notifyChange() {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        when(database.delete(eq(TIME), anyString(), isA(String[].class)))
+                .thenReturn(1);
+
+        provider.delete(TimeContract.getItemUri(1), null, null);
+
+        List<Uri> uris = getNotifiedUris(contentResolver);
+        assertEquals(1, uris.size());
+        assertEquals(TimeContract.getItemUri(1), uris.get(0));
+    }
+
     @Test
     public void update_projectItem() {
         ContentValues values = new ContentValues();
@@ -373,6 +649,39 @@ public class WorkerProviderTest {
         );
     }
 
+    @Test
+    public void update_timeStreamWithIdSelection() {
+        ContentValues values = new ContentValues();
+        provider.update(
+                TimeContract.getStreamUri(),
+                values,
+                BaseColumns._ID + " IN (?,?)",
+                new String[]{"1", "2"}
+        );
+
+        verify(database).update(
+                eq(TIME),
+                eq(values),
+                eq("(" + BaseColumns._ID + " IN (?,?))"),
+                eq(new String[]{"1", "2"})
+        );
+    }
+
+    @Test
+    public void delete_timeStreamWithIdSelection() {
+        provider.delete(
+                TimeContract.getStreamUri(),
+                BaseColumns._ID + " IN (?,?)",
+                new String[]{"1", "2"}
+        );
+
+        verify(database).delete(
+                eq(TIME),
+                eq("(" + BaseColumns._ID + " IN (?,?))"),
+                eq(new String[]{"1", "2"})
+        );
+    }
+
     @Test
     public void delete_projectItem() {
         provider.delete(
@@ -414,4 +723,404 @@ public class WorkerProviderTest {
         verify(database).setTransactionSuccessful();
         verify(database).endTransaction();
     }
+
+    @Test
+    public void applyBatch_notifyChangeOnceAfterTransaction()
+            throws OperationApplicationException {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        when(database.update(eq(TIME), isA(ContentValues.class), anyString(), isA(String[].class)))
+                .thenReturn(1);
+        ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+        operations.add(
+                ContentProviderOperation.newUpdate(TimeContract.getItemUri(1))
+                        .withValues(new ContentValues())
+                        .build()
+        );
+        operations.add(
+                ContentProviderOperation.newUpdate(TimeContract.getItemUri(1))
+                        .withValues(new ContentValues())
+                        .build()
+        );
+        operations.add(
+                ContentProviderOperation.newUpdate(TimeContract.getItemUri(2))
+                        .withValues(new ContentValues())
+                        .build()
+        );
+
+        provider.applyBatch(operations);
+
+        List<Uri> uris = getNotifiedUris(contentResolver);
+        assertEquals(2, uris.size());
+        assertEquals(TimeContract.getItemUri(1), uris.get(0));
+        assertEquals(TimeContract.getItemUri(2), uris.get(1));
+    }
+
+    private static File writeFile(File file, int length) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file)) {
+            stream.write(new byte[length]);
+        }
+
+        return file;
+    }
+
+    private static SQLiteDatabase createDatabase() {
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(
+                ":memory:",
+                null,
+                SQLiteDatabase.CREATE_IF_NECESSARY
+        );
+        new WorkerDatabase(RuntimeEnvironment.application).onCreate(db);
+
+        return db;
+    }
+
+    @Test
+    public void call_backup() throws IOException {
+        SQLiteDatabase source = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(source);
+        File directory = temporaryFolder.newFolder();
+
+        Bundle result = provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+
+        assertNotNull(result);
+        File snapshot = new File(result.getString(WorkerContract.EXTRA_SNAPSHOT));
+        assertTrue(snapshot.isFile());
+        assertEquals(snapshot, SnapshotManifest.read(directory).getLatestFile());
+        source.close();
+    }
+
+    @Test
+    public void call_backupWithoutChanges() throws IOException {
+        SQLiteDatabase source = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(source);
+        File directory = temporaryFolder.newFolder();
+        provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+        Bundle extras = new Bundle();
+        extras.putBoolean(WorkerContract.EXTRA_SKIP_UNCHANGED, true);
+
+        Bundle result = provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), extras);
+
+        assertNotNull(result);
+        assertFalse(result.containsKey(WorkerContract.EXTRA_SNAPSHOT));
+        assertEquals(1, SnapshotManifest.read(directory).getEntries().size());
+        source.close();
+    }
+
+    @Test
+    public void call_backupWithChanges() throws IOException {
+        SQLiteDatabase source = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(source);
+        File directory = temporaryFolder.newFolder();
+        provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+        ContentValues values = new ContentValues();
+        values.put(ProjectColumns.NAME, "Name");
+        source.insertOrThrow(PROJECT, null, values);
+        Bundle extras = new Bundle();
+        extras.putBoolean(WorkerContract.EXTRA_SKIP_UNCHANGED, true);
+
+        Bundle result = provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), extras);
+
+        assertNotNull(result);
+        File snapshot = new File(result.getString(WorkerContract.EXTRA_SNAPSHOT));
+        assertEquals(snapshot.length(), result.getLong(WorkerContract.EXTRA_SNAPSHOT_SIZE));
+        assertEquals(2, SnapshotManifest.read(directory).getEntries().size());
+        source.close();
+    }
+
+    @Test
+    public void call_backupWithoutDirectory() {
+        File directory = new File(temporaryFolder.getRoot(), "snapshots");
+
+        try {
+            provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+            fail("Backup without directory should fail");
+        } catch (RuntimeException e) {
+            verify(provider.openHelper, never()).getWritableDatabase();
+        }
+    }
+
+    @Test
+    public void call_restoreFromSnapshot() throws IOException {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        File directory = temporaryFolder.newFolder();
+        SQLiteDatabase source = createDatabase();
+        ContentValues values = new ContentValues();
+        values.put(ProjectColumns.NAME, "Name");
+        source.insertOrThrow(PROJECT, null, values);
+        new SnapshotBackup(directory, RetentionPolicy.DEFAULT).write(source, 1L);
+        source.close();
+
+        SQLiteDatabase target = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(target);
+
+        provider.call(WorkerContract.METHOD_RESTORE, directory.getPath(), null);
+
+        assertEquals(1, DatabaseUtils.queryNumEntries(target, PROJECT));
+        assertTrue(getNotifiedUris(contentResolver).contains(WorkerContract.getAuthorityUri()));
+        target.close();
+    }
+
+    /**
+     * Query the id and stop for the time, formatted as "id,stop;" for each row.
+     */
+    private static String queryTime(SQLiteDatabase db) {
+        StringBuilder builder = new StringBuilder();
+
+        Cursor cursor = db.rawQuery(
+                "SELECT " + BaseColumns._ID + ", " + STOP + " FROM " + TIME +
+                        " ORDER BY " + BaseColumns._ID,
+                null
+        );
+        try {
+            while (cursor.moveToNext()) {
+                builder.append(cursor.getLong(0)).append(',')
+                        .append(cursor.getLong(1)).append(';');
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return builder.toString();
+    }
+
+    @Test
+    public void call_restoreFromIncrementalSnapshot() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        SQLiteDatabase source = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(source);
+        source.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start) VALUES (1, 1)");
+        source.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start) VALUES (2, 2)");
+        provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+
+        source.execSQL("UPDATE " + TIME + " SET " + STOP + " = 3 WHERE " + BaseColumns._ID + " = 1");
+        source.execSQL("DELETE FROM " + TIME + " WHERE " + BaseColumns._ID + " = 2");
+        source.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start) VALUES (1, 4)");
+        provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+        source.close();
+
+        SQLiteDatabase target = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(target);
+        provider.call(WorkerContract.METHOD_RESTORE, directory.getPath(), null);
+
+        assertFalse(SnapshotManifest.read(directory).getLatest().isFull());
+        assertEquals("1,3;3,0;", queryTime(target));
+        target.close();
+    }
+
+    @Test
+    public void call_backupWithRemovedTime() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        SQLiteDatabase source = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(source);
+        source.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start, stop) VALUES (1, 1, 2)");
+        source.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start, stop) VALUES (1, 3, 4)");
+        source.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start, stop) VALUES (1, 5, 6)");
+        provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+
+        source.execSQL("DELETE FROM " + TIME + " WHERE " + BaseColumns._ID + " = 2");
+        provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+
+        // Only the removed time is included, not the remaining time.
+        SnapshotManifest.Entry latest = SnapshotManifest.read(directory).getLatest();
+        assertFalse(latest.isFull());
+        assertEquals(1L, latest.getNumberOfRecords());
+        assertEquals(0, DatabaseUtils.queryNumEntries(source, DELETED_TIME));
+        source.close();
+    }
+
+    @Test
+    public void call_restoreFromIncrementalSnapshotWithActiveTime() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        SQLiteDatabase source = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(source);
+        source.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start) VALUES (1, 1)");
+        provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+
+        source.execSQL("DELETE FROM " + TIME + " WHERE " + BaseColumns._ID + " = 1");
+        source.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start) VALUES (1, 2)");
+        provider.call(WorkerContract.METHOD_BACKUP, directory.getPath(), null);
+        source.close();
+
+        SQLiteDatabase target = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(target);
+        provider.call(WorkerContract.METHOD_RESTORE, directory.getPath(), null);
+
+        assertEquals("2,0;", queryTime(target));
+        assertEquals(1L, DatabaseUtils.longForQuery(
+                target,
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = ?",
+                new String[]{Indexes.TIME_PROJECT_ACTIVE}
+        ));
+        target.close();
+    }
+
+    @Test
+    public void call_restoreWithCorruptSnapshot() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        SQLiteDatabase source = createDatabase();
+        File snapshot = new SnapshotBackup(directory, RetentionPolicy.DEFAULT).write(source, 1L);
+        source.close();
+        writeFile(snapshot, 4);
+
+        SQLiteDatabase target = createDatabase();
+        target.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start) VALUES (1, 1)");
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(target);
+
+        try {
+            provider.call(WorkerContract.METHOD_RESTORE, directory.getPath(), null);
+            fail("Restore with corrupt snapshot should fail");
+        } catch (RuntimeException e) {
+            assertEquals(1, DatabaseUtils.queryNumEntries(target, TIME));
+        }
+        target.close();
+    }
+
+    @Test
+    public void call_restore() throws IOException {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        SQLiteDatabase target = SQLiteDatabase.openDatabase(
+                ":memory:",
+                null,
+                SQLiteDatabase.CREATE_IF_NECESSARY
+        );
+        new WorkerDatabase(RuntimeEnvironment.application).onCreate(target);
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(target);
+
+        File backup = new File(temporaryFolder.getRoot(), "backup");
+        SQLiteDatabase source = SQLiteDatabase.openOrCreateDatabase(backup, null);
+        new WorkerDatabase(RuntimeEnvironment.application).onCreate(source);
+        source.setVersion(WorkerDatabase.DATABASE_VERSION);
+        ContentValues values = new ContentValues();
+        values.put(ProjectColumns.NAME, "Name");
+        source.insertOrThrow(PROJECT, null, values);
+        source.close();
+
+        provider.call(WorkerContract.METHOD_RESTORE, backup.getPath(), null);
+
+        assertEquals(1, DatabaseUtils.queryNumEntries(target, PROJECT));
+        assertTrue(getNotifiedUris(contentResolver).contains(WorkerContract.getAuthorityUri()));
+        target.close();
+    }
+
+    @Test
+    public void call_restoreWithInvalidBackup() throws IOException {
+        File backup = writeFile(temporaryFolder.newFile(), 4);
+
+        try {
+            provider.call(WorkerContract.METHOD_RESTORE, backup.getPath(), null);
+            fail("Restore with invalid backup should fail");
+        } catch (RuntimeException e) {
+            verify(provider.openHelper, never()).getWritableDatabase();
+        }
+    }
+
+    @Test
+    public void call_restoreWithoutBackup() {
+        File backup = new File(temporaryFolder.getRoot(), "backup");
+
+        try {
+            provider.call(WorkerContract.METHOD_RESTORE, backup.getPath(), null);
+            fail("Restore without backup should fail");
+        } catch (RuntimeException e) {
+            verify(provider.openHelper, never()).getWritableDatabase();
+        }
+    }
+
+    private static Bundle buildDateExtras(long date) {
+        Bundle extras = new Bundle();
+        extras.putLong(WorkerContract.EXTRA_DATE, date);
+
+        return extras;
+    }
+
+    @Test
+    public void call_clockIn() {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        SQLiteDatabase db = createDatabase();
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(db);
+
+        Bundle result = provider.call(WorkerContract.METHOD_CLOCK_IN, "1", buildDateExtras(1L));
+
+        assertNotNull(result);
+        assertTrue(result.getBoolean(WorkerContract.EXTRA_CLOCK_ACTIVITY_CHANGED));
+        assertEquals("1,0;", queryTime(db));
+        assertTrue(getNotifiedUris(contentResolver).contains(ProjectContract.getItemTimeUri(1L)));
+        db.close();
+    }
+
+    @Test
+    public void call_clockInWithActiveTime() {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        SQLiteDatabase db = createDatabase();
+        db.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start) VALUES (1, 1)");
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(db);
+
+        Bundle result = provider.call(WorkerContract.METHOD_CLOCK_IN, "1", buildDateExtras(2L));
+
+        assertNotNull(result);
+        assertFalse(result.getBoolean(WorkerContract.EXTRA_CLOCK_ACTIVITY_CHANGED));
+        assertEquals("1,0;", queryTime(db));
+        assertTrue(getNotifiedUris(contentResolver).isEmpty());
+        db.close();
+    }
+
+    @Test
+    public void call_clockOut() {
+        ShadowContentResolver contentResolver = attachProviderToContext();
+        SQLiteDatabase db = createDatabase();
+        db.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start) VALUES (1, 1)");
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(db);
+
+        Bundle result = provider.call(WorkerContract.METHOD_CLOCK_OUT, "1", buildDateExtras(2L));
+
+        assertNotNull(result);
+        assertTrue(result.getBoolean(WorkerContract.EXTRA_CLOCK_ACTIVITY_CHANGED));
+        assertEquals("1,2;", queryTime(db));
+        assertTrue(getNotifiedUris(contentResolver).contains(ProjectContract.getItemTimeUri(1L)));
+        db.close();
+    }
+
+    @Test
+    public void call_clockOutWithoutActiveTime() {
+        SQLiteDatabase db = createDatabase();
+        db.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start, " + STOP + ") VALUES (1, 1, 2)");
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(db);
+
+        Bundle result = provider.call(WorkerContract.METHOD_CLOCK_OUT, "1", buildDateExtras(3L));
+
+        assertNotNull(result);
+        assertFalse(result.getBoolean(WorkerContract.EXTRA_CLOCK_ACTIVITY_CHANGED));
+        assertEquals("1,2;", queryTime(db));
+        db.close();
+    }
+
+    @Test
+    public void call_clockOutBeforeClockIn() {
+        SQLiteDatabase db = createDatabase();
+        db.execSQL("INSERT INTO " + TIME + " (" + PROJECT_ID + ", start) VALUES (1, 2)");
+        when(provider.openHelper.getWritableDatabase())
+                .thenReturn(db);
+
+        Bundle result = provider.call(WorkerContract.METHOD_CLOCK_OUT, "1", buildDateExtras(1L));
+
+        assertNotNull(result);
+        assertFalse(result.getBoolean(WorkerContract.EXTRA_CLOCK_ACTIVITY_CHANGED));
+        assertEquals("1,0;", queryTime(db));
+        db.close();
+    }
 }
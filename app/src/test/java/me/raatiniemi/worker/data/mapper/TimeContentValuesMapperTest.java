@@ -26,6 +26,7 @@ import org.robolectric.annotation.Config;
 
 import me.raatiniemi.worker.BuildConfig;
 import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
 import me.raatiniemi.worker.domain.exception.ClockOutBeforeClockInException;
 import me.raatiniemi.worker.domain.model.Time;
 
@@ -46,6 +47,7 @@ public class TimeContentValuesMapperTest {
         contentValues.put(TimeColumns.START, start);
         contentValues.put(TimeColumns.STOP, stop);
         contentValues.put(TimeColumns.REGISTERED, registered);
+        contentValues.put(TimeColumns.DAY, TimeContract.getDay(start));
 
         return contentValues;
     }
@@ -83,6 +85,7 @@ public class TimeContentValuesMapperTest {
         assertEquals(expected.get(TimeColumns.START), contentValues.get(TimeColumns.START));
         assertEquals(expected.get(TimeColumns.STOP), contentValues.get(TimeColumns.STOP));
         assertEquals(expected.get(TimeColumns.REGISTERED), contentValues.get(TimeColumns.REGISTERED));
+        assertEquals(expected.get(TimeColumns.DAY), contentValues.get(TimeColumns.DAY));
 
         expected = createContentValues(1L, 1L, 1L, 1L);
         time = createTime(1L, 1L, 1L, true);
@@ -95,5 +98,18 @@ public class TimeContentValuesMapperTest {
         assertEquals(expected.get(TimeColumns.START), contentValues.get(TimeColumns.START));
         assertEquals(expected.get(TimeColumns.STOP), contentValues.get(TimeColumns.STOP));
         assertEquals(expected.get(TimeColumns.REGISTERED), contentValues.get(TimeColumns.REGISTERED));
+        assertEquals(expected.get(TimeColumns.DAY), contentValues.get(TimeColumns.DAY));
+    }
+
+    @Test
+    public void transform_withDay()
+            throws ClockOutBeforeClockInException {
+        TimeContentValuesMapper entityMapper = new TimeContentValuesMapper();
+
+        // 2016-01-02 01:00 (UTC) is 16802 days since the epoch.
+        Time time = createTime(1L, 1451696400000L, 0L, false);
+        ContentValues contentValues = entityMapper.transform(time);
+
+        assertEquals(16802L, contentValues.get(TimeColumns.DAY));
     }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
+import me.raatiniemi.worker.domain.repository.ProjectRepository;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class CachedProjectRepositoryTest {
+    private ProjectRepository projectRepository;
+    private ProjectCache cache;
+    private CachedProjectRepository repository;
+
+    @Before
+    public void setUp() {
+        projectRepository = mock(ProjectRepository.class);
+        cache = new ProjectCache(10);
+        repository = new CachedProjectRepository(projectRepository, cache);
+    }
+
+    private Project buildProject() throws DomainException {
+        return new Project.Builder("Project name")
+                .id(1L)
+                .build();
+    }
+
+    @Test
+    public void get_withCachedProject() throws DomainException {
+        Project project = buildProject();
+        when(projectRepository.get(1L))
+                .thenReturn(project);
+
+        assertEquals(project, repository.get(1L));
+        assertEquals(project, repository.get(1L));
+
+        verify(projectRepository, times(1)).get(1L);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    public void get_withCachedProjectWithoutTime() throws DomainException {
+        Project project = buildProject();
+        when(projectRepository.get(1L))
+                .thenReturn(project);
+
+        List<Time> time = new ArrayList<>();
+        time.add(
+                new Time.Builder(1L)
+                        .startInMilliseconds(1L)
+                        .build()
+        );
+        repository.get(1L).addTime(time);
+
+        assertTrue(repository.get(1L).getTime().isEmpty());
+    }
+
+    @Test
+    public void get_populateCache() throws DomainException {
+        List<Project> projects = new ArrayList<>();
+        projects.add(buildProject());
+        when(projectRepository.get())
+                .thenReturn(projects);
+
+        repository.get();
+
+        assertEquals(projects.get(0), repository.get(1L));
+        verify(projectRepository, never()).get(1L);
+    }
+
+    @Test
+    public void add_cacheProject() throws DomainException {
+        Project project = buildProject();
+        when(projectRepository.add(project))
+                .thenReturn(project);
+
+        repository.add(project);
+
+        assertEquals(project, repository.get(1L));
+        verify(projectRepository, never()).get(1L);
+    }
+
+    @Test
+    public void remove_evictProject() throws DomainException {
+        Project project = buildProject();
+        when(projectRepository.get(1L))
+                .thenReturn(project);
+
+        repository.get(1L);
+        repository.remove(1L);
+        repository.get(1L);
+
+        verify(projectRepository, times(2)).get(1L);
+    }
+
+    @Test
+    public void onChange_withProjectUri() throws DomainException {
+        Project project = buildProject();
+        when(projectRepository.get(1L))
+                .thenReturn(project);
+
+        repository.get(1L);
+        cache.onChange(ProjectContract.getItemUri(1L));
+        repository.get(1L);
+
+        verify(projectRepository, times(2)).get(1L);
+    }
+
+    @Test
+    public void onChange_withTimeUri() throws DomainException {
+        Project project = buildProject();
+        when(projectRepository.get(1L))
+                .thenReturn(project);
+
+        repository.get(1L);
+        cache.onChange(ProjectContract.getItemTimeUri(1L));
+        cache.onChange(TimeContract.getItemUri(1L));
+        repository.get(1L);
+
+        verify(projectRepository, times(1)).get(1L);
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.data.WorkerContract;
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.model.Time;
+import me.raatiniemi.worker.domain.repository.TimeRepository;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class CachedTimeRepositoryTest {
+    private TimeRepository timeRepository;
+    private TimeCache cache;
+    private CachedTimeRepository repository;
+
+    @Before
+    public void setUp() {
+        timeRepository = mock(TimeRepository.class);
+        cache = new TimeCache(10);
+        repository = new CachedTimeRepository(timeRepository, cache);
+    }
+
+    private Time buildActiveTime() throws DomainException {
+        return new Time.Builder(1L)
+                .id(1L)
+                .startInMilliseconds(1L)
+                .build();
+    }
+
+    private Time buildInactiveTime() throws DomainException {
+        return new Time.Builder(1L)
+                .id(1L)
+                .startInMilliseconds(1L)
+                .stopInMilliseconds(2L)
+                .build();
+    }
+
+    @Test
+    public void get_withCachedTime() throws DomainException {
+        Time time = buildInactiveTime();
+        when(timeRepository.get(1L))
+                .thenReturn(time);
+
+        assertEquals(time, repository.get(1L));
+        assertEquals(time, repository.get(1L));
+
+        verify(timeRepository, times(1)).get(1L);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    public void get_withoutTime() throws DomainException {
+        assertNull(repository.get(1L));
+        assertNull(repository.get(1L));
+
+        verify(timeRepository, times(2)).get(1L);
+    }
+
+    @Test
+    public void add_cacheTime() throws DomainException {
+        Time time = buildActiveTime();
+        when(timeRepository.add(time))
+                .thenReturn(time);
+
+        repository.add(time);
+
+        assertEquals(time, repository.get(1L));
+        assertEquals(time, repository.getActiveTimeForProject(1L));
+        verify(timeRepository, never()).get(1L);
+        verify(timeRepository, never()).getActiveTimeForProject(1L);
+    }
+
+    @Test
+    public void add_withChangeNotification() throws DomainException {
+        Time time = buildActiveTime();
+        when(timeRepository.add(time))
+                .thenReturn(time);
+        when(timeRepository.getActiveTimeForProject(1L))
+                .thenReturn(time);
+
+        repository.add(time);
+        cache.onChange(ProjectContract.getItemTimeUri(1L));
+
+        assertEquals(time, repository.getActiveTimeForProject(1L));
+        verify(timeRepository, times(1)).getActiveTimeForProject(1L);
+    }
+
+    @Test
+    public void add_withoutAddedTime() throws DomainException {
+        Time activeTime = buildActiveTime();
+        when(timeRepository.getActiveTimeForProject(1L))
+                .thenReturn(activeTime);
+        Time time = buildActiveTime();
+        when(timeRepository.add(time))
+                .thenReturn(null);
+
+        repository.getActiveTimeForProject(1L);
+        repository.add(time);
+        cache.onChange(ProjectContract.getItemTimeUri(1L));
+        repository.getActiveTimeForProject(1L);
+
+        verify(timeRepository, times(2)).getActiveTimeForProject(1L);
+    }
+
+    @Test
+    public void update_cacheTime() throws DomainException {
+        Time time = buildInactiveTime();
+        when(timeRepository.update(time))
+                .thenReturn(time);
+
+        repository.update(time);
+
+        assertEquals(time, repository.get(1L));
+        verify(timeRepository, never()).get(1L);
+    }
+
+    @Test
+    public void update_withChangeNotification() throws DomainException {
+        Time time = buildInactiveTime();
+        when(timeRepository.update(time))
+                .thenReturn(time);
+        when(timeRepository.get(1L))
+                .thenReturn(time);
+
+        repository.update(time);
+        cache.onChange(TimeContract.getItemUri(1L));
+
+        assertEquals(time, repository.get(1L));
+        verify(timeRepository, times(1)).get(1L);
+    }
+
+    @Test
+    public void update_withoutTime() throws DomainException {
+        Time time = buildInactiveTime();
+        when(timeRepository.get(1L))
+                .thenReturn(time);
+        when(timeRepository.update(time))
+                .thenReturn(null);
+
+        repository.get(1L);
+        repository.update(time);
+        cache.onChange(TimeContract.getItemUri(1L));
+        repository.get(1L);
+
+        verify(timeRepository, times(2)).get(1L);
+    }
+
+    @Test
+    public void update_clockOutActiveTime() throws DomainException {
+        Time activeTime = buildActiveTime();
+        when(timeRepository.getActiveTimeForProject(1L))
+                .thenReturn(activeTime);
+        Time time = buildInactiveTime();
+        when(timeRepository.update(time))
+                .thenReturn(time);
+
+        assertEquals(activeTime, repository.getActiveTimeForProject(1L));
+        repository.update(time);
+
+        assertNull(repository.getActiveTimeForProject(1L));
+        verify(timeRepository, times(1)).getActiveTimeForProject(1L);
+    }
+
+    @Test
+    public void remove_evictTime() throws DomainException {
+        Time time = buildInactiveTime();
+        when(timeRepository.get(1L))
+                .thenReturn(time);
+
+        repository.get(1L);
+        repository.remove(1L);
+        repository.get(1L);
+
+        verify(timeRepository, times(2)).get(1L);
+    }
+
+    @Test
+    public void get_withChangeWhileReading() throws DomainException {
+        final Time time = buildInactiveTime();
+        when(timeRepository.get(1L))
+                .thenAnswer(new Answer<Time>() {
+                    @Override
+                    public Time answer(InvocationOnMock invocation) {
+                        cache.onChange(TimeContract.getItemUri(1L));
+                        return time;
+                    }
+                });
+
+        repository.get(1L);
+        repository.get(1L);
+
+        verify(timeRepository, times(2)).get(1L);
+    }
+
+    @Test
+    public void getActiveTimeForProject_withChangeWhileReading() throws DomainException {
+        final Time time = buildActiveTime();
+        when(timeRepository.getActiveTimeForProject(1L))
+                .thenAnswer(new Answer<Time>() {
+                    @Override
+                    public Time answer(InvocationOnMock invocation) {
+                        cache.onChange(ProjectContract.getItemTimeUri(1L));
+                        return time;
+                    }
+                });
+
+        repository.getActiveTimeForProject(1L);
+        repository.getActiveTimeForProject(1L);
+
+        verify(timeRepository, times(2)).getActiveTimeForProject(1L);
+    }
+
+    @Test
+    public void getActiveTimeForProject_withClockOutWhileReading() throws DomainException {
+        final Time time = buildActiveTime();
+        when(timeRepository.getActiveTimeForProject(1L))
+                .thenAnswer(new Answer<Time>() {
+                    @Override
+                    public Time answer(InvocationOnMock invocation) {
+                        repository.clockOut(1L, new Date());
+                        return time;
+                    }
+                })
+                .thenReturn(null);
+        when(timeRepository.clockOut(eq(1L), any(Date.class)))
+                .thenReturn(true);
+
+        assertEquals(time, repository.getActiveTimeForProject(1L));
+
+        assertNull(repository.getActiveTimeForProject(1L));
+    }
+
+    @Test
+    public void getActiveTimeForProject_withoutActiveTime() throws DomainException {
+        assertNull(repository.getActiveTimeForProject(1L));
+        assertNull(repository.getActiveTimeForProject(1L));
+
+        verify(timeRepository, times(1)).getActiveTimeForProject(1L);
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void onChange_withTimeItemUri() throws DomainException {
+        Time time = buildActiveTime();
+        when(timeRepository.get(1L))
+                .thenReturn(time);
+        when(timeRepository.getActiveTimeForProject(1L))
+                .thenReturn(time);
+
+        repository.get(1L);
+        repository.getActiveTimeForProject(1L);
+        cache.onChange(TimeContract.getItemUri(1L));
+        repository.get(1L);
+        repository.getActiveTimeForProject(1L);
+
+        verify(timeRepository, times(2)).get(1L);
+        verify(timeRepository, times(2)).getActiveTimeForProject(1L);
+    }
+
+    @Test
+    public void onChange_withProjectTimeUri() throws DomainException {
+        Time time = buildInactiveTime();
+        when(timeRepository.get(1L))
+                .thenReturn(time);
+
+        repository.get(1L);
+        repository.getActiveTimeForProject(1L);
+        cache.onChange(ProjectContract.getItemTimeUri(1L));
+        repository.get(1L);
+        repository.getActiveTimeForProject(1L);
+
+        verify(timeRepository, times(2)).get(1L);
+        verify(timeRepository, times(2)).getActiveTimeForProject(1L);
+    }
+
+    @Test
+    public void onChange_withProjectUri() throws DomainException {
+        Time time = buildInactiveTime();
+        when(timeRepository.get(1L))
+                .thenReturn(time);
+
+        repository.get(1L);
+        cache.onChange(ProjectContract.getItemUri(1L));
+        repository.get(1L);
+
+        verify(timeRepository, times(1)).get(1L);
+    }
+
+    @Test
+    public void onChange_withAuthorityUri() throws DomainException {
+        Time time = buildInactiveTime();
+        when(timeRepository.get(1L))
+                .thenReturn(time);
+
+        repository.get(1L);
+        cache.onChange(WorkerContract.getAuthorityUri());
+        repository.get(1L);
+
+        verify(timeRepository, times(2)).get(1L);
+    }
+
+    @Test
+    public void updateRegistered_withChangeNotification() throws DomainException {
+        List<Time> times = new ArrayList<>();
+        times.add(buildInactiveTime().markAsRegistered());
+        when(timeRepository.updateRegistered(times))
+                .thenReturn(times);
+        when(timeRepository.get(1L))
+                .thenReturn(times.get(0));
+
+        repository.updateRegistered(times);
+        cache.onChange(TimeContract.getStreamUri());
+
+        assertEquals(times.get(0), repository.get(1L));
+        verify(timeRepository, times(1)).get(1L);
+    }
+
+    @Test
+    public void updateRegistered_withoutExistingTime() throws DomainException {
+        when(timeRepository.get(1L))
+                .thenReturn(buildInactiveTime())
+                .thenReturn(null);
+        repository.get(1L);
+
+        List<Time> times = new ArrayList<>();
+        times.add(buildInactiveTime().markAsRegistered());
+        List<Time> updatedTimes = new ArrayList<>();
+        updatedTimes.add(null);
+        when(timeRepository.updateRegistered(times))
+                .thenReturn(updatedTimes);
+
+        assertEquals(updatedTimes, repository.updateRegistered(times));
+
+        assertNull(repository.get(1L));
+        verify(timeRepository, times(2)).get(1L);
+    }
+
+    @Test
+    public void updateRegistered_withoutUpdatedTime() throws DomainException {
+        Time time = new Time.Builder(1L)
+                .id(2L)
+                .startInMilliseconds(1L)
+                .stopInMilliseconds(2L)
+                .build();
+        when(timeRepository.get(2L))
+                .thenReturn(time);
+        List<Time> times = new ArrayList<>();
+        times.add(buildInactiveTime().markAsRegistered());
+        List<Time> updatedTimes = new ArrayList<>();
+        updatedTimes.add(null);
+        when(timeRepository.updateRegistered(times))
+                .thenReturn(updatedTimes);
+
+        repository.get(2L);
+        repository.updateRegistered(times);
+        cache.onChange(TimeContract.getStreamUri());
+        repository.get(2L);
+
+        verify(timeRepository, times(2)).get(2L);
+    }
+}
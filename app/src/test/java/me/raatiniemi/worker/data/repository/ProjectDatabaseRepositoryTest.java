@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowContentResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.data.WorkerContract.ProjectColumns;
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerDatabase;
+import me.raatiniemi.worker.data.mapper.ProjectCursorMapper;
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.repository.query.Criteria;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ProjectDatabaseRepositoryTest {
+    private SQLiteDatabase database;
+    private ShadowContentResolver contentResolver;
+    private ProjectDatabaseRepository repository;
+
+    @Before
+    public void setUp() {
+        database = SQLiteDatabase.openDatabase(
+                ":memory:",
+                null,
+                SQLiteDatabase.CREATE_IF_NECESSARY
+        );
+        new WorkerDatabase(RuntimeEnvironment.application).onCreate(database);
+
+        WorkerDatabase helper = mock(WorkerDatabase.class);
+        when(helper.getReadableDatabase())
+                .thenReturn(database);
+        when(helper.getWritableDatabase())
+                .thenReturn(database);
+
+        contentResolver = Shadows.shadowOf(RuntimeEnvironment.application.getContentResolver());
+        repository = new ProjectDatabaseRepository(
+                helper,
+                RuntimeEnvironment.application.getContentResolver(),
+                new ProjectCursorMapper()
+        );
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    private List<Uri> getNotifiedUris() {
+        List<Uri> uris = new ArrayList<>();
+        for (ShadowContentResolver.NotifiedUri notifiedUri : contentResolver.getNotifiedUris()) {
+            uris.add(notifiedUri.uri);
+        }
+
+        return uris;
+    }
+
+    @Test
+    public void add() throws DomainException {
+        Project project = repository.add(new Project.Builder("Name").build());
+
+        assertEquals("Name", repository.get(project.getId()).getName());
+        assertEquals(Arrays.asList(ProjectContract.getItemUri(project.getId())), getNotifiedUris());
+    }
+
+    @Test
+    public void get() throws DomainException {
+        repository.add(new Project.Builder("Name #1").build());
+        repository.add(new Project.Builder("Name #2").build());
+
+        List<Project> projects = repository.get();
+
+        assertEquals(2, projects.size());
+        assertEquals("Name #1", projects.get(0).getName());
+        assertEquals("Name #2", projects.get(1).getName());
+    }
+
+    @Test
+    public void get_withoutProject() throws DomainException {
+        assertNull(repository.get(1L));
+    }
+
+    @Test
+    public void matching() throws DomainException {
+        repository.add(new Project.Builder("Name #1").build());
+        repository.add(new Project.Builder("Name #2").build());
+
+        List<Project> projects = repository.matching(
+                Criteria.equalTo(ProjectColumns.NAME, "name #2")
+        );
+
+        assertEquals(1, projects.size());
+        assertEquals("Name #2", projects.get(0).getName());
+    }
+
+    @Test
+    public void remove() throws DomainException {
+        Project project = repository.add(new Project.Builder("Name").build());
+        database.execSQL("INSERT INTO " + Tables.TIME + " (project_id, start) VALUES (?, 1)",
+                new Object[]{project.getId()});
+        contentResolver.getNotifiedUris().clear();
+
+        repository.remove(project.getId());
+
+        assertNull(repository.get(project.getId()));
+        assertEquals(0, DatabaseUtils.queryNumEntries(database, Tables.TIME));
+        assertEquals(
+                Arrays.asList(
+                        ProjectContract.getItemTimeUri(project.getId()),
+                        ProjectContract.getItemUri(project.getId())
+                ),
+                getNotifiedUris()
+        );
+    }
+
+    @Test
+    public void remove_withoutProject() {
+        repository.remove(1L);
+
+        assertTrue(getNotifiedUris().isEmpty());
+    }
+}
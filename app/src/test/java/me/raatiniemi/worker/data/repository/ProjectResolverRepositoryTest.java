@@ -19,6 +19,7 @@ package me.raatiniemi.worker.data.repository;
 import android.content.ContentResolver;
 import android.database.Cursor;
 import android.database.MatrixCursor;
+import android.net.Uri;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -41,7 +42,10 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -297,29 +301,24 @@ public class ProjectResolverRepositoryTest {
     public void add() throws InvalidProjectNameException {
         Project project = new Project.Builder("Name")
                 .build();
-        Cursor cursor = buildCursorWithNumberOfItems(1);
-        // insert...
         when(
                 contentResolver.insert(
                         ProjectContract.getStreamUri(),
                         contentValuesMapper.transform(project)
                 )
         ).thenReturn(ProjectContract.getItemUri(1));
-        // get...
-        when(
-                contentResolver.query(
-                        ProjectContract.getItemUri(1),
-                        ProjectContract.getColumns(),
-                        null,
-                        null,
-                        null
-                )
-        ).thenReturn(cursor);
 
         project = repository.add(project);
 
         assertNotNull(project);
         assertEquals(Long.valueOf(1L), project.getId());
-        verify(cursor).close();
+        assertEquals("Name", project.getName());
+        verify(contentResolver, never()).query(
+                any(Uri.class),
+                any(String[].class),
+                anyString(),
+                any(String[].class),
+                anyString()
+        );
     }
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowContentResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+import me.raatiniemi.worker.data.WorkerDatabase;
+import me.raatiniemi.worker.data.mapper.TimeContentValuesMapper;
+import me.raatiniemi.worker.data.mapper.TimeCursorMapper;
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class TimeDatabaseRepositoryTest {
+    private SQLiteDatabase database;
+    private ShadowContentResolver contentResolver;
+    private TimeDatabaseRepository repository;
+
+    @Before
+    public void setUp() {
+        database = SQLiteDatabase.openDatabase(
+                ":memory:",
+                null,
+                SQLiteDatabase.CREATE_IF_NECESSARY
+        );
+        new WorkerDatabase(RuntimeEnvironment.application).onCreate(database);
+
+        WorkerDatabase helper = mock(WorkerDatabase.class);
+        when(helper.getReadableDatabase())
+                .thenReturn(database);
+        when(helper.getWritableDatabase())
+                .thenReturn(database);
+
+        contentResolver = Shadows.shadowOf(RuntimeEnvironment.application.getContentResolver());
+        repository = new TimeDatabaseRepository(
+                helper,
+                RuntimeEnvironment.application.getContentResolver(),
+                new TimeCursorMapper(),
+                new TimeContentValuesMapper()
+        );
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    private List<Uri> getNotifiedUris() {
+        List<Uri> uris = new ArrayList<>();
+        for (ShadowContentResolver.NotifiedUri notifiedUri : contentResolver.getNotifiedUris()) {
+            uris.add(notifiedUri.uri);
+        }
+
+        return uris;
+    }
+
+    private static Time buildTime(long start, long stop) throws DomainException {
+        return new Time.Builder(1L)
+                .startInMilliseconds(start)
+                .stopInMilliseconds(stop)
+                .build();
+    }
+
+    @Test
+    public void add() throws DomainException {
+        Time time = repository.add(buildTime(1L, 2L));
+
+        assertNotNull(time.getId());
+        Time storedTime = repository.get(time.getId());
+        assertEquals(1L, storedTime.getStartInMilliseconds());
+        assertEquals(2L, storedTime.getStopInMilliseconds());
+        assertEquals(Arrays.asList(ProjectContract.getItemTimeUri(1L)), getNotifiedUris());
+    }
+
+    @Test
+    public void get_withoutTime() throws DomainException {
+        assertNull(repository.get(1L));
+    }
+
+    @Test
+    public void update() throws DomainException {
+        Time time = repository.add(buildTime(1L, 2L));
+        contentResolver.getNotifiedUris().clear();
+
+        repository.update(time.markAsRegistered());
+
+        assertTrue(repository.get(time.getId()).isRegistered());
+        assertEquals(Arrays.asList(TimeContract.getItemUri(time.getId())), getNotifiedUris());
+    }
+
+    @Test
+    public void update_withoutTime() throws DomainException {
+        Time time = new Time.Builder(1L)
+                .id(1L)
+                .startInMilliseconds(1L)
+                .build();
+
+        assertNull(repository.update(time));
+        assertTrue(getNotifiedUris().isEmpty());
+    }
+
+    @Test
+    public void updateRegistered() throws DomainException {
+        Time time = repository.add(buildTime(1L, 2L));
+        contentResolver.getNotifiedUris().clear();
+
+        repository.updateRegistered(Arrays.asList(time.markAsRegistered()));
+
+        assertTrue(repository.get(time.getId()).isRegistered());
+        assertEquals(Arrays.asList(TimeContract.getStreamUri()), getNotifiedUris());
+    }
+
+    @Test
+    public void remove() throws DomainException {
+        Time time = repository.add(buildTime(1L, 2L));
+        contentResolver.getNotifiedUris().clear();
+
+        repository.remove(time.getId());
+
+        assertNull(repository.get(time.getId()));
+        assertEquals(Arrays.asList(TimeContract.getItemUri(time.getId())), getNotifiedUris());
+    }
+
+    @Test
+    public void remove_withList() throws DomainException {
+        List<Time> times = Arrays.asList(
+                repository.add(buildTime(1L, 2L)),
+                repository.add(buildTime(3L, 4L))
+        );
+        contentResolver.getNotifiedUris().clear();
+
+        repository.remove(times);
+
+        assertNull(repository.get(times.get(0).getId()));
+        assertNull(repository.get(times.get(1).getId()));
+        assertEquals(Arrays.asList(TimeContract.getStreamUri()), getNotifiedUris());
+    }
+
+    @Test
+    public void clockIn() throws DomainException {
+        assertTrue(repository.clockIn(1L, new Date(1L)));
+
+        Time time = repository.getActiveTimeForProject(1L);
+        assertNotNull(time);
+        assertEquals(1L, time.getStartInMilliseconds());
+        assertEquals(Arrays.asList(ProjectContract.getItemTimeUri(1L)), getNotifiedUris());
+    }
+
+    @Test
+    public void clockIn_withActiveTime() {
+        repository.clockIn(1L, new Date(1L));
+        contentResolver.getNotifiedUris().clear();
+
+        assertFalse(repository.clockIn(1L, new Date(2L)));
+        assertTrue(getNotifiedUris().isEmpty());
+    }
+
+    @Test
+    public void clockOut() throws DomainException {
+        repository.clockIn(1L, new Date(1L));
+        contentResolver.getNotifiedUris().clear();
+
+        assertTrue(repository.clockOut(1L, new Date(2L)));
+
+        assertNull(repository.getActiveTimeForProject(1L));
+        assertEquals(Arrays.asList(ProjectContract.getItemTimeUri(1L)), getNotifiedUris());
+    }
+
+    @Test
+    public void clockOut_beforeClockIn() throws DomainException {
+        repository.clockIn(1L, new Date(2L));
+
+        assertFalse(repository.clockOut(1L, new Date(1L)));
+        assertNotNull(repository.getActiveTimeForProject(1L));
+    }
+
+    @Test
+    public void getRegisteredTimeSummary() throws DomainException {
+        repository.add(buildTime(1L, 2L));
+        repository.add(buildTime(3L, 6L));
+        repository.clockIn(1L, new Date(7L));
+
+        Project project = new Project.Builder("Name")
+                .id(1L)
+                .build();
+
+        assertEquals(4L, repository.getRegisteredTimeSummary(project, null));
+    }
+
+    @Test
+    public void getTimesheet() throws DomainException {
+        for (int day = 0; day < 12; day++) {
+            long start = day * TimeContract.DAY_IN_MILLISECONDS;
+            repository.add(buildTime(start, start + 1L));
+        }
+
+        Map<Date, List<Time>> result = repository.getTimesheet(1L, null, null);
+        assertEquals(10, result.size());
+
+        Date before = new Date(2 * TimeContract.DAY_IN_MILLISECONDS);
+        result = repository.getTimesheet(1L, before, null);
+        assertEquals(2, result.size());
+    }
+}
@@ -16,20 +16,28 @@
 
 package me.raatiniemi.worker.data.repository;
 
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.database.Cursor;
 import android.database.MatrixCursor;
+import android.net.Uri;
+import android.provider.BaseColumns;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.data.WorkerContract;
 import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
 import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
 import me.raatiniemi.worker.data.WorkerContract.TimeContract;
@@ -40,9 +48,17 @@ import me.raatiniemi.worker.domain.model.Project;
 import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.domain.repository.query.Criteria;
 
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -98,7 +114,7 @@ public class TimeResolverRepositoryTest {
                 contentResolver.query(
                         ProjectContract.getItemTimeUri(1),
                         TimeContract.getColumns(),
-                        "start>=? COLLATE NOCASE",
+                        "start>=?",
                         new String[]{"1234567890"},
                         null
                 )
@@ -117,7 +133,7 @@ public class TimeResolverRepositoryTest {
                 contentResolver.query(
                         ProjectContract.getItemTimeUri(1),
                         TimeContract.getColumns(),
-                        "start>=? COLLATE NOCASE",
+                        "start>=?",
                         new String[]{"1234567890"},
                         null
                 )
@@ -137,7 +153,7 @@ public class TimeResolverRepositoryTest {
                 contentResolver.query(
                         ProjectContract.getItemTimeUri(1),
                         TimeContract.getColumns(),
-                        "start>=? COLLATE NOCASE",
+                        "start>=?",
                         new String[]{"1234567890"},
                         null
                 )
@@ -157,7 +173,7 @@ public class TimeResolverRepositoryTest {
                 contentResolver.query(
                         ProjectContract.getItemTimeUri(1),
                         TimeContract.getColumns(),
-                        "start>=? COLLATE NOCASE",
+                        "start>=?",
                         new String[]{"1234567890"},
                         null
                 )
@@ -169,4 +185,459 @@ public class TimeResolverRepositoryTest {
         assertTrue(5 == time.size());
         verify(cursor).close();
     }
+
+    @Test
+    public void getTimesheet_withNullCursor() {
+        when(
+                contentResolver.query(
+                        isA(Uri.class),
+                        any(String[].class),
+                        anyString(),
+                        any(String[].class),
+                        anyString()
+                )
+        ).thenReturn(null);
+
+        Map<Date, List<Time>> timesheet = repository.getTimesheet(1, null, null);
+
+        assertTrue(timesheet.isEmpty());
+    }
+
+    @Test
+    public void getTimesheet_withEmptySegment() {
+        MatrixCursor segment = spy(new MatrixCursor(ProjectContract.getTimesheetColumns()));
+        when(
+                contentResolver.query(
+                        isA(Uri.class),
+                        any(String[].class),
+                        anyString(),
+                        any(String[].class),
+                        anyString()
+                )
+        ).thenReturn(segment);
+
+        Map<Date, List<Time>> timesheet = repository.getTimesheet(1, null, null);
+
+        assertTrue(timesheet.isEmpty());
+        verify(segment).close();
+        verify(contentResolver, times(1)).query(
+                isA(Uri.class),
+                any(String[].class),
+                anyString(),
+                any(String[].class),
+                anyString()
+        );
+    }
+
+    @Test
+    public void getTimesheet_withRowsOnMultipleDays() {
+        // 2016-01-02 and 2016-01-01 (UTC), with the latest item first.
+        long secondDay = 1451692800000L;
+        long firstDay = 1451606400000L;
+
+        MatrixCursor segment = spy(new MatrixCursor(ProjectContract.getTimesheetColumns()));
+        segment.addRow(new Object[]{secondDay + 3600000L, secondDay + 7200000L});
+        segment.addRow(new Object[]{firstDay + 3600000L, firstDay + 7200000L});
+
+        MatrixCursor cursor = buildCursor();
+        cursor.addRow(new Object[]{4L, 1L, secondDay + 7200000L, secondDay + 9000000L, 0L});
+        cursor.addRow(new Object[]{3L, 1L, secondDay + 3600000L, secondDay + 5400000L, 0L});
+        cursor.addRow(new Object[]{2L, 1L, firstDay + 7200000L, firstDay + 9000000L, 0L});
+        cursor.addRow(new Object[]{1L, 1L, firstDay + 3600000L, firstDay + 5400000L, 0L});
+
+        when(
+                contentResolver.query(
+                        isA(Uri.class),
+                        any(String[].class),
+                        anyString(),
+                        any(String[].class),
+                        anyString()
+                )
+        ).thenReturn(segment, cursor);
+
+        Map<Date, List<Time>> timesheet = repository.getTimesheet(1, null, null);
+
+        List<Date> dates = new ArrayList<>(timesheet.keySet());
+        assertEquals(2, dates.size());
+        assertEquals(new Date(secondDay + 3600000L), dates.get(0));
+        assertEquals(new Date(firstDay + 3600000L), dates.get(1));
+
+        List<Time> items = timesheet.get(dates.get(0));
+        assertEquals(2, items.size());
+        assertEquals(Long.valueOf(4L), items.get(0).getId());
+        assertEquals(Long.valueOf(3L), items.get(1).getId());
+
+        verify(segment).close();
+        verify(cursor).close();
+    }
+
+    @Test
+    public void getTimesheet_numberOfQueriesIsIndependentOfNumberOfRows() {
+        long day = 1451606400000L;
+
+        MatrixCursor segment = spy(new MatrixCursor(ProjectContract.getTimesheetColumns()));
+        segment.addRow(new Object[]{day, day + 1000L * 1000L});
+
+        MatrixCursor cursor = buildCursor();
+        for (long i = 1000; i > 0; i--) {
+            cursor.addRow(new Object[]{i, 1L, day + i * 1000L, day + i * 1000L + 500L, 0L});
+        }
+
+        when(
+                contentResolver.query(
+                        isA(Uri.class),
+                        any(String[].class),
+                        anyString(),
+                        any(String[].class),
+                        anyString()
+                )
+        ).thenReturn(segment, cursor);
+
+        Map<Date, List<Time>> timesheet = repository.getTimesheet(1, null, null);
+
+        assertEquals(1000, timesheet.get(new Date(day + 1000L)).size());
+        verify(contentResolver, times(2)).query(
+                isA(Uri.class),
+                any(String[].class),
+                anyString(),
+                any(String[].class),
+                anyString()
+        );
+    }
+
+    @Test
+    public void getTimesheet_beforeDay() {
+        // 2016-01-02 01:00 (UTC) is 16802 days since the epoch.
+        Date before = new Date(1451696400000L);
+        Criteria criteria = Criteria.equalTo(TimeColumns.REGISTERED, 0);
+
+        repository.getTimesheet(1, before, criteria);
+
+        verify(contentResolver).query(
+                isA(Uri.class),
+                eq(ProjectContract.getTimesheetColumns()),
+                eq("day<? AND registered=?"),
+                eq(new String[]{"16802", "0"}),
+                eq(ProjectContract.ORDER_BY_TIMESHEET_SEGMENT)
+        );
+    }
+
+    @Test
+    public void getTimesheet_withoutOffset() {
+        repository.getTimesheet(1, null, null);
+
+        ArgumentCaptor<Uri> captor = ArgumentCaptor.forClass(Uri.class);
+        verify(contentResolver).query(
+                captor.capture(),
+                any(String[].class),
+                anyString(),
+                any(String[].class),
+                anyString()
+        );
+        assertNull(captor.getValue().getQueryParameter(WorkerContract.QUERY_PARAMETER_OFFSET));
+    }
+
+    @Test
+    public void getProjectTimeSinceBeginningOfMonth_withProjects() throws DomainException {
+        List<Long> projectIds = new ArrayList<>();
+        for (long i = 1; i <= 1200; i++) {
+            projectIds.add(i);
+        }
+
+        when(
+                contentResolver.query(
+                        eq(TimeContract.getStreamUri()),
+                        any(String[].class),
+                        anyString(),
+                        any(String[].class),
+                        anyString()
+                )
+        ).thenReturn(null);
+
+        Map<Long, List<Time>> time = repository.getProjectTimeSinceBeginningOfMonth(projectIds);
+
+        assertEquals(1200, time.size());
+
+        // The projects should be retrieved in segments, to avoid
+        // exceeding the maximum number of arguments in SQLite.
+        verify(contentResolver, times(3)).query(
+                eq(TimeContract.getStreamUri()),
+                any(String[].class),
+                anyString(),
+                any(String[].class),
+                anyString()
+        );
+    }
+
+    @Test
+    public void getRegisteredTimeSummary_withNullCursor() throws DomainException {
+        when(
+                contentResolver.query(
+                        ProjectContract.getItemSummaryUri(1),
+                        ProjectContract.getSummaryColumns(),
+                        null,
+                        new String[]{},
+                        null
+                )
+        ).thenReturn(null);
+
+        assertEquals(0L, repository.getRegisteredTimeSummary(project, null));
+    }
+
+    @Test
+    public void getRegisteredTimeSummary_withRow() throws DomainException {
+        MatrixCursor cursor = spy(new MatrixCursor(ProjectContract.getSummaryColumns()));
+        cursor.addRow(new Object[]{3600000L});
+        when(
+                contentResolver.query(
+                        ProjectContract.getItemSummaryUri(1),
+                        ProjectContract.getSummaryColumns(),
+                        "start>=?",
+                        new String[]{"1234567890"},
+                        null
+                )
+        ).thenReturn(cursor);
+
+        Criteria criteria = Criteria.moreThanOrEqualTo(TimeColumns.START, 1234567890);
+        long summary = repository.getRegisteredTimeSummary(project, criteria);
+
+        assertEquals(3600000L, summary);
+        verify(cursor).close();
+    }
+
+    @Test
+    public void getRegisteredTimeSummary_withProjects() throws DomainException {
+        Project secondProject = new Project.Builder("Name #2")
+                .id(2L)
+                .build();
+
+        MatrixCursor cursor = spy(new MatrixCursor(TimeContract.getSummaryColumns()));
+        cursor.addRow(new Object[]{2L, 3600000L});
+        when(
+                contentResolver.query(
+                        TimeContract.getSummaryUri(),
+                        TimeContract.getSummaryColumns(),
+                        "project_id IN (?,?) AND (start>=?)",
+                        new String[]{"1", "2", "1234567890"},
+                        null
+                )
+        ).thenReturn(cursor);
+
+        Criteria criteria = Criteria.moreThanOrEqualTo(TimeColumns.START, 1234567890);
+        Map<Long, Long> summary = repository.getRegisteredTimeSummary(
+                Arrays.asList(project, secondProject),
+                criteria
+        );
+
+        assertEquals(Long.valueOf(0L), summary.get(1L));
+        assertEquals(Long.valueOf(3600000L), summary.get(2L));
+        verify(cursor).close();
+    }
+
+    @Test
+    public void add() throws DomainException {
+        Time time = new Time.Builder(1L)
+                .startInMilliseconds(1L)
+                .stopInMilliseconds(2L)
+                .register()
+                .build();
+        when(
+                contentResolver.insert(
+                        TimeContract.getStreamUri(),
+                        new TimeContentValuesMapper().transform(time)
+                )
+        ).thenReturn(TimeContract.getItemUri(2L));
+
+        Time addedTime = repository.add(time);
+
+        assertEquals(Long.valueOf(2L), addedTime.getId());
+        assertEquals(1L, addedTime.getProjectId());
+        assertEquals(1L, addedTime.getStartInMilliseconds());
+        assertEquals(2L, addedTime.getStopInMilliseconds());
+        assertTrue(addedTime.isRegistered());
+        verify(contentResolver, never()).query(
+                any(Uri.class),
+                any(String[].class),
+                anyString(),
+                any(String[].class),
+                anyString()
+        );
+    }
+
+    @Test
+    public void update() throws DomainException {
+        Time time = new Time.Builder(1L)
+                .id(1L)
+                .startInMilliseconds(1L)
+                .build();
+        when(
+                contentResolver.update(
+                        TimeContract.getItemUri(1L),
+                        new TimeContentValuesMapper().transform(time),
+                        null,
+                        null
+                )
+        ).thenReturn(1);
+
+        assertEquals(time, repository.update(time));
+        verify(contentResolver, never()).query(
+                any(Uri.class),
+                any(String[].class),
+                anyString(),
+                any(String[].class),
+                anyString()
+        );
+    }
+
+    @Test
+    public void update_withoutRow() throws DomainException {
+        Time time = new Time.Builder(1L)
+                .id(1L)
+                .startInMilliseconds(1L)
+                .build();
+
+        assertNull(repository.update(time));
+    }
+
+    @Test
+    public void update_withList() throws Exception {
+        List<Time> times = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            times.add(
+                    new Time.Builder(1L)
+                            .id(i)
+                            .startInMilliseconds(i)
+                            .stopInMilliseconds(i + 1)
+                            .register()
+                            .build()
+            );
+        }
+        when(
+                contentResolver.applyBatch(
+                        eq(WorkerContract.AUTHORITY),
+                        isA(ArrayList.class)
+                )
+        ).thenReturn(
+                new ContentProviderResult[]{
+                        new ContentProviderResult(1),
+                        new ContentProviderResult(0),
+                        new ContentProviderResult(1)
+                }
+        );
+
+        List<Time> updatedTimes = repository.update(times);
+
+        assertEquals(3, updatedTimes.size());
+        assertEquals(times.get(0), updatedTimes.get(0));
+        assertNull(updatedTimes.get(1));
+        assertEquals(times.get(2), updatedTimes.get(2));
+        verify(contentResolver, times(1)).applyBatch(
+                eq(WorkerContract.AUTHORITY),
+                isA(ArrayList.class)
+        );
+        verify(contentResolver, never()).query(
+                any(Uri.class),
+                any(String[].class),
+                anyString(),
+                any(String[].class),
+                anyString()
+        );
+    }
+
+    @Test
+    public void updateRegistered_withSegments() throws Exception {
+        List<Time> times = new ArrayList<>();
+        for (long i = 1; i <= 1200; i++) {
+            Time.Builder builder = new Time.Builder(1L)
+                    .id(i)
+                    .startInMilliseconds(i)
+                    .stopInMilliseconds(i + 1);
+
+            // Every tenth item should be unregistered.
+            if (0 != i % 10) {
+                builder.register();
+            }
+            times.add(builder.build());
+        }
+        when(contentResolver.applyBatch(eq(WorkerContract.AUTHORITY), isA(ArrayList.class)))
+                .thenReturn(new ContentProviderResult[]{
+                        new ContentProviderResult(360),
+                        new ContentProviderResult(360),
+                        new ContentProviderResult(360),
+                        new ContentProviderResult(120)
+                });
+
+        List<Time> updatedTimes = repository.updateRegistered(times);
+
+        ArgumentCaptor<ArrayList> captor = ArgumentCaptor.forClass(ArrayList.class);
+        verify(contentResolver, times(1)).applyBatch(
+                eq(WorkerContract.AUTHORITY),
+                captor.capture()
+        );
+        // 1080 registered items in three segments, 120 unregistered items in one.
+        assertEquals(4, captor.getValue().size());
+        assertEquals(times, updatedTimes);
+        verify(contentResolver, never()).query(
+                any(Uri.class),
+                any(String[].class),
+                anyString(),
+                any(String[].class),
+                anyString()
+        );
+    }
+
+    @Test
+    public void updateRegistered_withMissingRows() throws Exception {
+        List<Time> times = new ArrayList<>();
+        times.add(new Time.Builder(1L).id(1L).register().build());
+        times.add(new Time.Builder(1L).id(2L).register().build());
+        times.add(new Time.Builder(1L).id(3L).build());
+        when(contentResolver.applyBatch(eq(WorkerContract.AUTHORITY), isA(ArrayList.class)))
+                .thenReturn(new ContentProviderResult[]{
+                        new ContentProviderResult(1),
+                        new ContentProviderResult(1)
+                });
+        MatrixCursor cursor = new MatrixCursor(new String[]{BaseColumns._ID});
+        cursor.addRow(new Object[]{1L});
+        cursor.addRow(new Object[]{3L});
+        when(
+                contentResolver.query(
+                        eq(TimeContract.getStreamUri()),
+                        any(String[].class),
+                        anyString(),
+                        any(String[].class),
+                        anyString()
+                )
+        ).thenReturn(cursor);
+
+        List<Time> updatedTimes = repository.updateRegistered(times);
+
+        assertEquals(3, updatedTimes.size());
+        assertEquals(times.get(0), updatedTimes.get(0));
+        assertNull(updatedTimes.get(1));
+        assertEquals(times.get(2), updatedTimes.get(2));
+        assertTrue(cursor.isClosed());
+    }
+
+    @Test
+    public void remove_withSegments() throws Exception {
+        List<Time> times = new ArrayList<>();
+        for (long i = 1; i <= 1000; i++) {
+            times.add(
+                    new Time.Builder(1L)
+                            .id(i)
+                            .startInMilliseconds(i)
+                            .build()
+            );
+        }
+
+        repository.remove(times);
+
+        ArgumentCaptor<ArrayList> captor = ArgumentCaptor.forClass(ArrayList.class);
+        verify(contentResolver, times(1)).applyBatch(
+                eq(WorkerContract.AUTHORITY),
+                captor.capture()
+        );
+        assertEquals(2, captor.getValue().size());
+    }
 }
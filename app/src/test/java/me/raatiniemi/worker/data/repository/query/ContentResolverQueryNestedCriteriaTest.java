@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.repository.query;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import me.raatiniemi.worker.domain.repository.query.Criteria;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class ContentResolverQueryNestedCriteriaTest {
+    @Test(expected = IllegalArgumentException.class)
+    public void from_withOrderedNestedCriteria() {
+        ContentResolverQuery.from(
+                Criteria.and(
+                        Criteria.equalTo("foo", 1L),
+                        Criteria.lessThan("bar", 2L).orderBy("bar")
+                )
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void from_withLimitedNestedCriteria() {
+        ContentResolverQuery.from(
+                Criteria.or(
+                        Criteria.equalTo("foo", 1L),
+                        Criteria.and(
+                                Criteria.lessThan("bar", 2L),
+                                Criteria.moreThan("bar", 3L)
+                        ).limit(1)
+                )
+        );
+    }
+
+    @Test
+    public void from_withOrderedAndLimitedCriteria() {
+        ContentResolverQuery query = ContentResolverQuery.from(
+                Criteria.and(
+                        Criteria.equalTo("foo", 1L),
+                        Criteria.lessThan("bar", 2L)
+                ).orderByDescending("bar").limit(10)
+        );
+
+        assertEquals("foo=? AND bar<?", query.getSelection());
+        assertEquals("bar DESC", query.getSortOrder());
+        assertEquals("10", query.getLimit());
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.runners.Parameterized.Parameters;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 
 import me.raatiniemi.worker.domain.repository.query.Criteria;
 
@@ -63,6 +64,76 @@ public class ContentResolverQueryTest {
                         "foo=? COLLATE NOCASE",
                         new String[]{"bar"},
                         Criteria.equalTo("foo", "bar")
+                },
+                {
+                        "equalTo criteria with number",
+                        "foo=?",
+                        new String[]{"1"},
+                        Criteria.equalTo("foo", 1L)
+                },
+                {
+                        "equalTo criteria with boolean",
+                        "foo=?",
+                        new String[]{"1"},
+                        Criteria.equalTo("foo", true)
+                },
+                {
+                        "in criteria",
+                        "foo IN (?,?)",
+                        new String[]{"1", "2"},
+                        Criteria.in("foo", Arrays.asList(1L, 2L))
+                },
+                {
+                        "in criteria with text",
+                        "foo COLLATE NOCASE IN (?,?)",
+                        new String[]{"bar", "baz"},
+                        Criteria.in("foo", Arrays.asList("bar", "baz"))
+                },
+                {
+                        "in criteria without values",
+                        "0",
+                        new String[]{},
+                        Criteria.in("foo", Collections.emptyList())
+                },
+                {
+                        "between criteria",
+                        "foo BETWEEN ? AND ?",
+                        new String[]{"1", "2"},
+                        Criteria.between("foo", 1L, 2L)
+                },
+                {
+                        "and criteria",
+                        "foo=? AND bar<?",
+                        new String[]{"1", "2"},
+                        Criteria.and(
+                                Criteria.equalTo("foo", 1L),
+                                null,
+                                Criteria.lessThan("bar", 2L)
+                        )
+                },
+                {
+                        "and criteria with nested or criteria",
+                        "foo=? AND (bar<? OR bar>?)",
+                        new String[]{"1", "2", "3"},
+                        Criteria.and(
+                                Criteria.equalTo("foo", 1L),
+                                Criteria.or(
+                                        Criteria.lessThan("bar", 2L),
+                                        Criteria.moreThan("bar", 3L)
+                                )
+                        )
+                },
+                {
+                        "and criteria with nested and criteria",
+                        "foo=? AND bar<? AND bar>?",
+                        new String[]{"1", "2", "3"},
+                        Criteria.and(
+                                Criteria.equalTo("foo", 1L),
+                                Criteria.and(
+                                        Criteria.lessThan("bar", 2L),
+                                        Criteria.moreThan("bar", 3L)
+                                )
+                        )
                 }
         });
     }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class RetentionPolicyTest {
+    private static SnapshotManifest.Entry buildEntry(long counter, boolean full) {
+        return new SnapshotManifest.Entry(
+                "backup-" + counter + ".gz",
+                counter,
+                full,
+                "generation",
+                full ? 0 : counter - 1,
+                counter,
+                0
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_withoutChains() {
+        new RetentionPolicy(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_withNegativeIncrementalSnapshots() {
+        new RetentionPolicy(1, -1);
+    }
+
+    @Test
+    public void isFullSnapshotRequired_withoutChain() {
+        RetentionPolicy policy = new RetentionPolicy(1, 1);
+
+        assertTrue(policy.isFullSnapshotRequired(
+                Collections.<SnapshotManifest.Entry>emptyList(),
+                "generation"
+        ));
+    }
+
+    @Test
+    public void isFullSnapshotRequired_withDifferentGeneration() {
+        RetentionPolicy policy = new RetentionPolicy(1, 1);
+
+        assertTrue(policy.isFullSnapshotRequired(
+                Collections.singletonList(buildEntry(1, true)),
+                "another generation"
+        ));
+    }
+
+    @Test
+    public void isFullSnapshotRequired_withIncrementalSnapshotsRemaining() {
+        RetentionPolicy policy = new RetentionPolicy(1, 2);
+
+        assertFalse(policy.isFullSnapshotRequired(
+                Arrays.asList(buildEntry(1, true), buildEntry(2, false)),
+                "generation"
+        ));
+    }
+
+    @Test
+    public void isFullSnapshotRequired_withoutIncrementalSnapshotsRemaining() {
+        RetentionPolicy policy = new RetentionPolicy(1, 2);
+
+        assertTrue(policy.isFullSnapshotRequired(
+                Arrays.asList(buildEntry(1, true), buildEntry(2, false), buildEntry(3, false)),
+                "generation"
+        ));
+    }
+
+    @Test
+    public void getExpiredEntries_withinRetention() {
+        RetentionPolicy policy = new RetentionPolicy(2, 1);
+        List<SnapshotManifest.Entry> entries = Arrays.asList(
+                buildEntry(1, true),
+                buildEntry(2, false),
+                buildEntry(3, true)
+        );
+
+        assertEquals(0, policy.getExpiredEntries(entries).size());
+    }
+
+    @Test
+    public void getExpiredEntries_withExpiredChain() {
+        RetentionPolicy policy = new RetentionPolicy(1, 1);
+        SnapshotManifest.Entry full = buildEntry(1, true);
+        SnapshotManifest.Entry incremental = buildEntry(2, false);
+        List<SnapshotManifest.Entry> entries = Arrays.asList(
+                full,
+                incremental,
+                buildEntry(3, true),
+                buildEntry(4, false)
+        );
+
+        assertEquals(Arrays.asList(full, incremental), policy.getExpiredEntries(entries));
+    }
+
+    @Test
+    public void getExpiredEntries_withoutFullSnapshot() {
+        RetentionPolicy policy = new RetentionPolicy(1, 1);
+        List<SnapshotManifest.Entry> entries = new ArrayList<>();
+        entries.add(buildEntry(2, false));
+
+        assertEquals(entries, policy.getExpiredEntries(entries));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class SnapshotManifestTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SnapshotManifest.Entry buildEntry(long counter, boolean full) throws IOException {
+        SnapshotManifest.Entry entry = new SnapshotManifest.Entry(
+                "backup-" + counter + ".gz",
+                counter,
+                full,
+                "generation",
+                full ? 0 : counter - 1,
+                counter,
+                counter
+        );
+        assertTrue(entry.getFile(temporaryFolder.getRoot()).createNewFile());
+
+        return entry;
+    }
+
+    @Test
+    public void read_withoutManifest() throws IOException {
+        SnapshotManifest manifest = SnapshotManifest.read(temporaryFolder.getRoot());
+
+        assertTrue(manifest.getEntries().isEmpty());
+        assertNull(manifest.getLatest());
+    }
+
+    @Test
+    public void read_afterWrite() throws IOException {
+        SnapshotManifest manifest = SnapshotManifest.read(temporaryFolder.getRoot());
+        manifest.add(buildEntry(1, true));
+        manifest.add(buildEntry(2, false));
+        manifest.write();
+
+        manifest = SnapshotManifest.read(temporaryFolder.getRoot());
+
+        assertEquals(2, manifest.getEntries().size());
+        SnapshotManifest.Entry latest = manifest.getLatest();
+        assertEquals("backup-2.gz", latest.getName());
+        assertEquals(2L, latest.getTimestamp());
+        assertEquals(false, latest.isFull());
+        assertEquals("generation", latest.getGeneration());
+        assertEquals(1L, latest.getBaseCounter());
+        assertEquals(2L, latest.getCounter());
+        assertEquals(2L, latest.getNumberOfRecords());
+    }
+
+    @Test(expected = IOException.class)
+    public void read_withMalformedManifest() throws IOException {
+        File file = new File(temporaryFolder.getRoot(), SnapshotManifest.FILE_NAME);
+        try (FileOutputStream stream = new FileOutputStream(file)) {
+            stream.write("1\nbackup-1.gz\tmalformed\n".getBytes("UTF-8"));
+        }
+
+        SnapshotManifest.read(temporaryFolder.getRoot());
+    }
+
+    @Test
+    public void getChain_fromLatestFullSnapshot() throws IOException {
+        SnapshotManifest manifest = SnapshotManifest.read(temporaryFolder.getRoot());
+        manifest.add(buildEntry(1, true));
+        manifest.add(buildEntry(2, true));
+        manifest.add(buildEntry(3, false));
+
+        List<SnapshotManifest.Entry> chain = manifest.getChain();
+
+        assertEquals(2, chain.size());
+        assertEquals(2L, chain.get(0).getCounter());
+        assertEquals(3L, chain.get(1).getCounter());
+    }
+
+    @Test
+    public void getChain_withMissingSnapshot() throws IOException {
+        SnapshotManifest manifest = SnapshotManifest.read(temporaryFolder.getRoot());
+        SnapshotManifest.Entry full = buildEntry(1, true);
+        manifest.add(full);
+        manifest.add(buildEntry(2, false));
+        assertTrue(full.getFile(temporaryFolder.getRoot()).delete());
+
+        assertTrue(manifest.getChain().isEmpty());
+    }
+
+    @Test
+    public void getChain_withBrokenChain() throws IOException {
+        SnapshotManifest manifest = SnapshotManifest.read(temporaryFolder.getRoot());
+        manifest.add(buildEntry(1, true));
+        manifest.add(buildEntry(3, false));
+
+        assertTrue(manifest.getChain().isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.data.service.data.strategy;
+
+import android.database.MatrixCursor;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class StorageExportStrategyTest {
+    /**
+     * 2016-01-02 08:00 (UTC), i.e. day 16802.
+     */
+    private static final long START = 1451721600000L;
+
+    private static final long HOUR = 3600000L;
+
+    private static MatrixCursor buildCursor() {
+        MatrixCursor cursor = new MatrixCursor(TimeContract.getExportColumns());
+        cursor.addRow(new Object[]{"Project", START, START + HOUR, 1L, 16802L});
+        cursor.addRow(new Object[]{"Name, \"quoted\"", START + 2 * HOUR, START + 3 * HOUR, 0L, 16802L});
+        cursor.addRow(new Object[]{"Project", START + 24 * HOUR, 0L, 0L, 16803L});
+
+        return cursor;
+    }
+
+    @Test
+    public void export_asCsv() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        StorageExportStrategy.export(buildCursor(), new CsvExportWriter(writer));
+
+        assertEquals(
+                "record,date,project,start,stop,duration,registered,count\n" +
+                        "time,2016-01-02,Project,2016-01-02T08:00:00Z,2016-01-02T09:00:00Z,3600000,1,\n" +
+                        "time,2016-01-02,\"Name, \"\"quoted\"\"\",2016-01-02T10:00:00Z,2016-01-02T11:00:00Z,3600000,0,\n" +
+                        "day,2016-01-02,,,,7200000,3600000,2\n" +
+                        "time,2016-01-03,Project,2016-01-03T08:00:00Z,,,0,\n" +
+                        "day,2016-01-03,,,,0,0,1\n",
+                writer.toString()
+        );
+    }
+
+    @Test
+    public void export_asJson() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        StorageExportStrategy.export(buildCursor(), new JsonExportWriter(writer));
+
+        assertEquals(
+                "{\"days\":[" +
+                        "{\"date\":\"2016-01-02\",\"time\":[" +
+                        "{\"project\":\"Project\",\"start\":\"2016-01-02T08:00:00Z\"," +
+                        "\"stop\":\"2016-01-02T09:00:00Z\",\"duration\":3600000,\"registered\":true}," +
+                        "{\"project\":\"Name, \\\"quoted\\\"\",\"start\":\"2016-01-02T10:00:00Z\"," +
+                        "\"stop\":\"2016-01-02T11:00:00Z\",\"duration\":3600000,\"registered\":false}" +
+                        "],\"duration\":7200000,\"registered\":3600000,\"count\":2}," +
+                        "{\"date\":\"2016-01-03\",\"time\":[" +
+                        "{\"project\":\"Project\",\"start\":\"2016-01-03T08:00:00Z\"," +
+                        "\"stop\":null,\"duration\":null,\"registered\":false}" +
+                        "],\"duration\":0,\"registered\":0,\"count\":1}" +
+                        "]}",
+                writer.toString()
+        );
+    }
+
+    @Test
+    public void export_withoutTime() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        StorageExportStrategy.export(
+                new MatrixCursor(TimeContract.getExportColumns()),
+                new JsonExportWriter(writer)
+        );
+
+        assertEquals("{\"days\":[]}", writer.toString());
+    }
+}
@@ -32,9 +32,11 @@ import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.domain.repository.ProjectRepository;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
 
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +44,8 @@ import static org.mockito.Mockito.when;
 public class ClockActivityChangeTest {
     private ProjectRepository projectRepository;
     private TimeRepository timeRepository;
+    private ClockIn clockIn;
+    private ClockOut clockOut;
 
     private Project buildProject() throws InvalidProjectNameException {
         return new Project.Builder("Project name")
@@ -53,6 +57,8 @@ public class ClockActivityChangeTest {
     public void setUp() {
         projectRepository = mock(ProjectRepository.class);
         timeRepository = mock(TimeRepository.class);
+        clockIn = mock(ClockIn.class);
+        clockOut = mock(ClockOut.class);
     }
 
     @Test
@@ -65,11 +71,14 @@ public class ClockActivityChangeTest {
 
         ClockActivityChange clockActivityChange = new ClockActivityChange(
                 projectRepository,
-                timeRepository
+                timeRepository,
+                clockIn,
+                clockOut
         );
         clockActivityChange.execute(project, new Date());
 
-        verify(timeRepository).add(isA(Time.class));
+        verify(clockIn).execute(eq(1L), isA(Date.class));
+        verify(clockOut, never()).execute(anyLong(), isA(Date.class));
         verify(projectRepository).get(eq(1L));
         verify(timeRepository).getProjectTimeSinceBeginningOfMonth(eq(1L));
     }
@@ -92,11 +101,14 @@ public class ClockActivityChangeTest {
 
         ClockActivityChange clockActivityChange = new ClockActivityChange(
                 projectRepository,
-                timeRepository
+                timeRepository,
+                clockIn,
+                clockOut
         );
         clockActivityChange.execute(project, new Date());
 
-        verify(timeRepository).update(isA(Time.class));
+        verify(clockOut).execute(eq(1L), isA(Date.class));
+        verify(clockIn, never()).execute(anyLong(), isA(Date.class));
         verify(projectRepository).get(eq(1L));
         verify(timeRepository).getProjectTimeSinceBeginningOfMonth(eq(1L));
     }
@@ -25,9 +25,9 @@ import java.util.Date;
 
 import me.raatiniemi.worker.domain.exception.ClockActivityException;
 import me.raatiniemi.worker.domain.exception.DomainException;
-import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
 
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -44,11 +44,8 @@ public class ClockInTest {
 
     @Test(expected = ClockActivityException.class)
     public void execute_withActiveTime() throws DomainException {
-        Time time = new Time.Builder(1L)
-                .build();
-
-        when(timeRepository.getActiveTimeForProject(1L))
-                .thenReturn(time);
+        when(timeRepository.clockIn(eq(1L), isA(Date.class)))
+                .thenReturn(false);
 
         ClockIn clockIn = new ClockIn(timeRepository);
         clockIn.execute(1L, new Date());
@@ -56,12 +53,12 @@ public class ClockInTest {
 
     @Test
     public void execute() throws DomainException {
-        when(timeRepository.getActiveTimeForProject(1L))
-                .thenReturn(null);
+        when(timeRepository.clockIn(eq(1L), isA(Date.class)))
+                .thenReturn(true);
 
         ClockIn clockIn = new ClockIn(timeRepository);
         clockIn.execute(1L, new Date());
 
-        verify(timeRepository).add(isA(Time.class));
+        verify(timeRepository).clockIn(eq(1L), isA(Date.class));
     }
 }
@@ -24,10 +24,12 @@ import org.junit.runners.JUnit4;
 import java.util.Date;
 
 import me.raatiniemi.worker.domain.exception.ClockActivityException;
+import me.raatiniemi.worker.domain.exception.ClockOutBeforeClockInException;
 import me.raatiniemi.worker.domain.exception.DomainException;
 import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
 
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -44,6 +46,8 @@ public class ClockOutTest {
 
     @Test(expected = ClockActivityException.class)
     public void execute_withoutActiveTime() throws DomainException {
+        when(timeRepository.clockOut(eq(1L), isA(Date.class)))
+                .thenReturn(false);
         when(timeRepository.getActiveTimeForProject(1L))
                 .thenReturn(null);
 
@@ -51,17 +55,29 @@ public class ClockOutTest {
         clockOut.execute(1L, new Date());
     }
 
-    @Test
-    public void execute() throws DomainException {
+    @Test(expected = ClockOutBeforeClockInException.class)
+    public void execute_beforeClockIn() throws DomainException {
         Time time = new Time.Builder(1L)
+                .startInMilliseconds(2L)
                 .build();
 
+        when(timeRepository.clockOut(eq(1L), isA(Date.class)))
+                .thenReturn(false);
         when(timeRepository.getActiveTimeForProject(1L))
                 .thenReturn(time);
 
+        ClockOut clockOut = new ClockOut(timeRepository);
+        clockOut.execute(1L, new Date(1L));
+    }
+
+    @Test
+    public void execute() throws DomainException {
+        when(timeRepository.clockOut(eq(1L), isA(Date.class)))
+                .thenReturn(true);
+
         ClockOut clockOut = new ClockOut(timeRepository);
         clockOut.execute(1L, new Date());
 
-        verify(timeRepository).update(isA(Time.class));
+        verify(timeRepository).clockOut(eq(1L), isA(Date.class));
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.domain.interactor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.exception.InvalidStartingPointException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
+import me.raatiniemi.worker.domain.repository.TimeRepository;
+import me.raatiniemi.worker.domain.repository.query.Criteria;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(JUnit4.class)
+public class GetProjectTimeSummarySinceTest {
+    private TimeRepository timeRepository;
+    private GetProjectTimeSummarySince getProjectTimeSummarySince;
+    private Project project;
+
+    private static Criteria buildStartingPointCriteria(int startingPoint) {
+        return Criteria.moreThanOrEqualTo(
+                TimeColumns.START,
+                getMillisecondsForStartingPoint(startingPoint)
+        );
+    }
+
+    private static long getMillisecondsForStartingPoint(int startingPoint) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+
+        switch (startingPoint) {
+            case GetProjectTimeSince.DAY:
+                break;
+            case GetProjectTimeSince.WEEK:
+                calendar.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY);
+                break;
+            case GetProjectTimeSince.MONTH:
+                calendar.set(Calendar.DAY_OF_MONTH, 1);
+                break;
+            default:
+                throw new InvalidStartingPointException(
+                        "Starting point '" + startingPoint + "' is not valid"
+                );
+        }
+
+        return calendar.getTimeInMillis();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        timeRepository = mock(TimeRepository.class);
+        getProjectTimeSummarySince = new GetProjectTimeSummarySince(timeRepository);
+        project = new Project.Builder("Name")
+                .id(1L)
+                .build();
+    }
+
+    @Test
+    public void execute_withDay() throws DomainException {
+        getProjectTimeSummarySince.execute(project, GetProjectTimeSince.DAY);
+
+        verify(timeRepository)
+                .getRegisteredTimeSummary(
+                        project,
+                        buildStartingPointCriteria(GetProjectTimeSince.DAY)
+                );
+    }
+
+    @Test
+    public void execute_withMonth() throws DomainException {
+        getProjectTimeSummarySince.execute(project, GetProjectTimeSince.MONTH);
+
+        verify(timeRepository)
+                .getRegisteredTimeSummary(
+                        project,
+                        buildStartingPointCriteria(GetProjectTimeSince.MONTH)
+                );
+    }
+
+    @Test
+    public void execute_withProjects() throws DomainException {
+        List<Project> projects = Collections.singletonList(project);
+        getProjectTimeSummarySince.execute(projects, GetProjectTimeSince.WEEK);
+
+        verify(timeRepository)
+                .getRegisteredTimeSummary(
+                        projects,
+                        buildStartingPointCriteria(GetProjectTimeSince.WEEK)
+                );
+    }
+
+    @Test(expected = InvalidStartingPointException.class)
+    public void execute_withInvalidStartingPoint() throws DomainException {
+        getProjectTimeSummarySince.execute(project, -1);
+    }
+
+    @Test
+    public void isCalculableFromProjectTime_withMonth() {
+        assertTrue(getProjectTimeSummarySince.isCalculableFromProjectTime(GetProjectTimeSince.MONTH));
+    }
+
+    @Test
+    public void isCalculableFromProjectTime_withDay() {
+        assertTrue(getProjectTimeSummarySince.isCalculableFromProjectTime(GetProjectTimeSince.DAY));
+    }
+
+    @Test
+    public void calculateFromProjectTime() throws DomainException {
+        long startingPoint = getMillisecondsForStartingPoint(GetProjectTimeSince.DAY);
+        project.addTime(Arrays.asList(
+                new Time.Builder(1L)
+                        .startInMilliseconds(startingPoint - 1000L)
+                        .stopInMilliseconds(startingPoint)
+                        .build(),
+                new Time.Builder(1L)
+                        .startInMilliseconds(startingPoint)
+                        .stopInMilliseconds(startingPoint + 1000L)
+                        .build(),
+                new Time.Builder(1L)
+                        .startInMilliseconds(startingPoint + 2000L)
+                        .build()
+        ));
+
+        long actual = getProjectTimeSummarySince.calculateFromProjectTime(
+                project,
+                GetProjectTimeSince.DAY
+        );
+
+        assertEquals(1000L, actual);
+        verifyZeroInteractions(timeRepository);
+    }
+}
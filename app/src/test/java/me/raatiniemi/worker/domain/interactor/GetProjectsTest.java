@@ -22,17 +22,27 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import me.raatiniemi.worker.domain.exception.DomainException;
 import me.raatiniemi.worker.domain.exception.InvalidProjectNameException;
 import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.domain.repository.ProjectRepository;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -73,6 +83,82 @@ public class GetProjectsTest {
         assertEquals(projects, actual);
 
         verify(projectRepository, times(1)).get();
-        verify(timeRepository, times(2)).getProjectTimeSinceBeginningOfMonth(anyLong());
+        verify(timeRepository, times(1)).getProjectTimeSinceBeginningOfMonth(anyListOf(Long.class));
+        verify(timeRepository, never()).getProjectTimeSinceBeginningOfMonth(anyLong());
+    }
+
+    @Test
+    public void execute_withRegisteredTime() throws DomainException {
+        List<Project> projects = new ArrayList<>();
+        projects.add(buildProject(1L, "Project #1"));
+        projects.add(buildProject(2L, "Project #2"));
+
+        Map<Long, List<Time>> time = new HashMap<>();
+        time.put(1L, Collections.singletonList(
+                new Time.Builder(1L)
+                        .id(1L)
+                        .startInMilliseconds(1L)
+                        .build()
+        ));
+        time.put(2L, Collections.<Time>emptyList());
+
+        when(projectRepository.get())
+                .thenReturn(projects);
+        when(timeRepository.getProjectTimeSinceBeginningOfMonth(Arrays.asList(1L, 2L)))
+                .thenReturn(time);
+
+        GetProjects getProjects = new GetProjects(
+                projectRepository,
+                timeRepository
+        );
+        List<Project> actual = getProjects.execute();
+
+        assertTrue(actual.get(0).isActive());
+        assertFalse(actual.get(1).isActive());
+    }
+
+    @Test
+    public void execute_withoutProjects() throws DomainException {
+        when(projectRepository.get())
+                .thenReturn(new ArrayList<Project>());
+
+        GetProjects getProjects = new GetProjects(
+                projectRepository,
+                timeRepository
+        );
+        getProjects.execute();
+
+        verify(timeRepository, never()).getProjectTimeSinceBeginningOfMonth(anyListOf(Long.class));
+    }
+
+    @Test
+    public void execute_withProjectId() throws DomainException {
+        Project project = buildProject(1L, "Project #1");
+        when(projectRepository.get(1L))
+                .thenReturn(project);
+
+        GetProjects getProjects = new GetProjects(
+                projectRepository,
+                timeRepository
+        );
+        Project actual = getProjects.execute(1L);
+
+        assertEquals(project, actual);
+
+        verify(timeRepository, times(1)).getProjectTimeSinceBeginningOfMonth(1L);
+        verify(timeRepository, never()).getProjectTimeSinceBeginningOfMonth(anyListOf(Long.class));
+    }
+
+    @Test
+    public void execute_withoutProjectWithId() throws DomainException {
+        GetProjects getProjects = new GetProjects(
+                projectRepository,
+                timeRepository
+        );
+        Project actual = getProjects.execute(1L);
+
+        assertNull(actual);
+
+        verify(timeRepository, never()).getProjectTimeSinceBeginningOfMonth(anyLong());
     }
 }
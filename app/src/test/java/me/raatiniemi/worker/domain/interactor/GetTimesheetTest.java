@@ -21,6 +21,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.Date;
+
 import me.raatiniemi.worker.domain.exception.DomainException;
 import me.raatiniemi.worker.domain.repository.TimeRepository;
 import me.raatiniemi.worker.domain.repository.query.Criteria;
@@ -43,16 +45,26 @@ public class GetTimesheetTest {
     @Test
     public void execute_hideRegisteredTime() throws DomainException {
         GetTimesheet getTimesheet = new GetTimesheet(timeRepository);
-        getTimesheet.execute(1L, 0, true);
+        getTimesheet.execute(1L, null, true);
 
-        verify(timeRepository).getTimesheet(eq(1L), eq(0), any(Criteria.class));
+        verify(timeRepository).getTimesheet(eq(1L), isNull(Date.class), any(Criteria.class));
     }
 
     @Test
     public void execute_withRegisteredTime() throws DomainException {
         GetTimesheet getTimesheet = new GetTimesheet(timeRepository);
-        getTimesheet.execute(1L, 0, false);
+        getTimesheet.execute(1L, null, false);
+
+        verify(timeRepository).getTimesheet(eq(1L), isNull(Date.class), isNull(Criteria.class));
+    }
+
+    @Test
+    public void execute_beforeDate() throws DomainException {
+        Date before = new Date();
+
+        GetTimesheet getTimesheet = new GetTimesheet(timeRepository);
+        getTimesheet.execute(1L, before, false);
 
-        verify(timeRepository).getTimesheet(eq(1L), eq(0), isNull(Criteria.class));
+        verify(timeRepository).getTimesheet(eq(1L), eq(before), isNull(Criteria.class));
     }
 }
@@ -96,7 +96,7 @@ public class MarkRegisteredTimeTest {
         expectedTime.add(buildRegisteredTime());
         expectedTime.add(buildRegisteredTime());
 
-        verify(timeRepository, times(1)).update(expectedTime);
+        verify(timeRepository, times(1)).updateRegistered(expectedTime);
     }
 
     @Test
@@ -116,7 +116,7 @@ public class MarkRegisteredTimeTest {
         expectedTime.add(buildTime());
         expectedTime.add(buildTime());
 
-        verify(timeRepository, times(1)).update(expectedTime);
+        verify(timeRepository, times(1)).updateRegistered(expectedTime);
     }
 
     @Test
@@ -136,6 +136,6 @@ public class MarkRegisteredTimeTest {
         expectedTime.add(buildRegisteredTime());
         expectedTime.add(buildRegisteredTime());
 
-        verify(timeRepository, times(1)).update(expectedTime);
+        verify(timeRepository, times(1)).updateRegistered(expectedTime);
     }
 }
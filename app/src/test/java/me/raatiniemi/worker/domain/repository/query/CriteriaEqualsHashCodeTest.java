@@ -87,6 +87,36 @@ public class CriteriaEqualsHashCodeTest {
                                 Boolean.FALSE,
                                 criteria,
                                 Criteria.lessThan("foo", "bar")
+                        },
+                        {
+                                "With different value type",
+                                Boolean.FALSE,
+                                Criteria.equalTo("foo", 1),
+                                Criteria.equalTo("foo", "1")
+                        },
+                        {
+                                "With same combined criteria",
+                                Boolean.TRUE,
+                                Criteria.and(criteria, Criteria.lessThan("baz", 1)),
+                                Criteria.and(criteria, Criteria.lessThan("baz", 1))
+                        },
+                        {
+                                "With different combined criteria",
+                                Boolean.FALSE,
+                                Criteria.and(criteria, Criteria.lessThan("baz", 1)),
+                                Criteria.or(criteria, Criteria.lessThan("baz", 1))
+                        },
+                        {
+                                "With different order",
+                                Boolean.FALSE,
+                                criteria.orderBy("foo"),
+                                criteria.orderByDescending("foo")
+                        },
+                        {
+                                "With different limit",
+                                Boolean.FALSE,
+                                criteria.limit(1),
+                                criteria.limit(2)
                         }
                 }
         );
@@ -70,6 +70,40 @@ public class CriteriaTest {
                                 "More than",
                                 "foo>1",
                                 Criteria.moreThan("foo", 1)
+                        },
+                        {
+                                "In",
+                                "foo IN [1, 2]",
+                                Criteria.in("foo", Arrays.asList(1, 2))
+                        },
+                        {
+                                "Between",
+                                "foo BETWEEN 1 AND 2",
+                                Criteria.between("foo", 1, 2)
+                        },
+                        {
+                                "And",
+                                "(foo=1 AND bar<2)",
+                                Criteria.and(
+                                        Criteria.equalTo("foo", 1),
+                                        Criteria.lessThan("bar", 2)
+                                )
+                        },
+                        {
+                                "Or",
+                                "(foo=1 OR bar<2)",
+                                Criteria.or(
+                                        Criteria.equalTo("foo", 1),
+                                        Criteria.lessThan("bar", 2)
+                                )
+                        },
+                        {
+                                "Order and limit",
+                                "foo>1 bar asc baz desc limit 10",
+                                Criteria.moreThan("foo", 1)
+                                        .orderBy("bar")
+                                        .orderByDescending("baz")
+                                        .limit(10)
                         }
                 }
         );
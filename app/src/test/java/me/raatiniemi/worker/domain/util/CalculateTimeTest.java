@@ -98,4 +98,11 @@ public class CalculateTimeTest {
     public void calculateTime() {
         assertEquals(expected, CalculateTime.calculateTime(milliseconds));
     }
+
+    @Test
+    public void calculateMinutes() {
+        long minutes = expected.getHours() * 60 + expected.getMinutes();
+
+        assertEquals(minutes, CalculateTime.calculateMinutes(milliseconds));
+    }
 }
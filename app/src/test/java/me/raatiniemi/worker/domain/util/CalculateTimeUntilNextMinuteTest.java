@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.domain.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class CalculateTimeUntilNextMinuteTest {
+    private long expected;
+    private long milliseconds;
+
+    public CalculateTimeUntilNextMinuteTest(long expected, long milliseconds) {
+        this.expected = expected;
+        this.milliseconds = milliseconds;
+    }
+
+    @Parameters
+    public static Collection<Object[]> getParameters() {
+        return Arrays.asList(
+                new Object[][]{
+                        {30000L, 0L},
+                        {1L, 29999L},
+                        {60000L, 30000L},
+                        {59999L, 30001L},
+                        {30000L, 60000L},
+                        {45000L, 3645000L}
+                }
+        );
+    }
+
+    @Test
+    public void calculateMillisecondsUntilNextMinute() {
+        assertEquals(
+                expected,
+                CalculateTime.calculateMillisecondsUntilNextMinute(milliseconds)
+        );
+    }
+}
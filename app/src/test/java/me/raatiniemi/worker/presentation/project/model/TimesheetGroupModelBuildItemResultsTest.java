@@ -21,6 +21,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
@@ -53,16 +54,12 @@ public class TimesheetGroupModelBuildItemResultsTest {
     private static TimesheetGroupModel buildTimesheetGroupWithNumberOfChildModelItems(
             int numberOfChildModelItems
     ) throws ClockOutBeforeClockInException {
-        TimesheetGroupModel groupModel = new TimesheetGroupModel(new Date());
-        if (0 == numberOfChildModelItems) {
-            return groupModel;
-        }
-
+        List<TimesheetChildModel> children = new ArrayList<>();
         for (int i = 0; i < numberOfChildModelItems; i++) {
-            groupModel.add(new TimesheetChildModel(buildTime()));
+            children.add(new TimesheetChildModel(buildTime()));
         }
 
-        return groupModel;
+        return new TimesheetGroupModel(new Date(), children);
     }
 
     private static Time buildTime() throws ClockOutBeforeClockInException {
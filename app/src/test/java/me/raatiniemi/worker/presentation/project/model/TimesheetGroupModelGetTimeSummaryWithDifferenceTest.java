@@ -103,10 +103,10 @@ public class TimesheetGroupModelGetTimeSummaryWithDifferenceTest {
 
     @Test
     public void getTimeSummaryWithDifference() {
-        TimesheetGroupModel item = new TimesheetGroupModel(new Date());
-        for (TimesheetChildModel child : children) {
-            item.add(child);
-        }
+        TimesheetGroupModel item = new TimesheetGroupModel(
+                new Date(),
+                Arrays.asList(children)
+        );
 
         assertEquals(expected, item.getTimeSummaryWithDifference());
     }
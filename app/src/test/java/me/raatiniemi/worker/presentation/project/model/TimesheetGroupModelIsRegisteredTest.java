@@ -92,10 +92,10 @@ public class TimesheetGroupModelIsRegisteredTest {
 
     @Test
     public void isRegistered() {
-        TimesheetGroupModel item = new TimesheetGroupModel(new Date());
-        for (TimesheetChildModel child : children) {
-            item.add(child);
-        }
+        TimesheetGroupModel item = new TimesheetGroupModel(
+                new Date(),
+                Arrays.asList(children)
+        );
 
         assertEquals(expected, item.isRegistered());
     }
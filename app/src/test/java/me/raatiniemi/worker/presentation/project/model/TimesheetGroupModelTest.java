@@ -4,12 +4,32 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.Arrays;
 import java.util.Date;
 
+import me.raatiniemi.worker.domain.exception.ClockOutBeforeClockInException;
+import me.raatiniemi.worker.domain.model.Time;
+
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
 
 @RunWith(JUnit4.class)
 public class TimesheetGroupModelTest {
+    private static TimesheetChildModel buildTimesheetChildModel(long id, boolean registered)
+            throws ClockOutBeforeClockInException {
+        Time.Builder builder = new Time.Builder(1L)
+                .id(id)
+                .startInMilliseconds(1L)
+                .stopInMilliseconds(3600001L);
+
+        if (registered) {
+            builder.register();
+        }
+
+        return new TimesheetChildModel(builder.build());
+    }
+
     @Test
     public void getId() {
         Date date = new Date();
@@ -17,4 +37,45 @@ public class TimesheetGroupModelTest {
 
         assertEquals(date.getTime(), groupModel.getId());
     }
+
+    @Test
+    public void withChild() throws ClockOutBeforeClockInException {
+        TimesheetGroupModel groupModel = new TimesheetGroupModel(
+                new Date(),
+                Arrays.asList(
+                        buildTimesheetChildModel(1L, true),
+                        buildTimesheetChildModel(2L, false)
+                )
+        );
+
+        TimesheetGroupModel updatedGroupModel = groupModel.withChild(
+                1,
+                buildTimesheetChildModel(2L, true)
+        );
+
+        assertFalse(groupModel.isRegistered());
+        assertTrue(updatedGroupModel.isRegistered());
+        assertEquals(2, updatedGroupModel.size());
+        assertEquals(groupModel.getId(), updatedGroupModel.getId());
+    }
+
+    @Test
+    public void withoutChild() throws ClockOutBeforeClockInException {
+        TimesheetGroupModel groupModel = new TimesheetGroupModel(
+                new Date(),
+                Arrays.asList(
+                        buildTimesheetChildModel(1L, true),
+                        buildTimesheetChildModel(2L, false)
+                )
+        );
+
+        TimesheetGroupModel updatedGroupModel = groupModel.withoutChild(1);
+
+        assertEquals(2, groupModel.size());
+        assertEquals("2.00 (-6.00)", groupModel.getTimeSummaryWithDifference());
+        assertEquals(1, updatedGroupModel.size());
+        assertEquals(1L, updatedGroupModel.get(0).getId());
+        assertEquals("1.00 (-7.00)", updatedGroupModel.getTimeSummaryWithDifference());
+        assertTrue(updatedGroupModel.isRegistered());
+    }
 }
@@ -85,4 +85,18 @@ public class ProjectsModelGetTimeSummaryTest {
 
         assertEquals(expected, model.getTimeSummary());
     }
+
+    @Test
+    public void getTimeSummary_withRegisteredTimeSummary() throws InvalidProjectNameException {
+        Project project = new Project.Builder("Project name")
+                .build();
+
+        long registeredTimeSummary = 0L;
+        for (Time time : registeredTime) {
+            registeredTimeSummary += time.getTime();
+        }
+        ProjectsModel model = new ProjectsModel(project, registeredTimeSummary);
+
+        assertEquals(expected, model.getTimeSummary());
+    }
 }
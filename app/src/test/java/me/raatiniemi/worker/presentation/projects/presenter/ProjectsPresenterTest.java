@@ -32,7 +32,9 @@ import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowContextImpl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -42,15 +44,15 @@ import me.raatiniemi.worker.Worker;
 import me.raatiniemi.worker.domain.exception.ClockOutBeforeClockInException;
 import me.raatiniemi.worker.domain.exception.DomainException;
 import me.raatiniemi.worker.domain.interactor.ClockActivityChange;
-import me.raatiniemi.worker.domain.interactor.GetProjectTimeSince;
+import me.raatiniemi.worker.domain.interactor.GetProjectTimeSummarySince;
 import me.raatiniemi.worker.domain.interactor.GetProjects;
 import me.raatiniemi.worker.domain.interactor.RemoveProject;
 import me.raatiniemi.worker.domain.model.Project;
-import me.raatiniemi.worker.domain.model.Time;
 import me.raatiniemi.worker.presentation.model.OngoingNotificationActionEvent;
 import me.raatiniemi.worker.presentation.projects.model.ProjectsModel;
 import me.raatiniemi.worker.presentation.projects.view.ProjectsView;
 import me.raatiniemi.worker.presentation.settings.model.TimeSummaryStartingPointChangeEvent;
+import me.raatiniemi.worker.presentation.view.adapter.ListDiff;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
@@ -72,7 +74,7 @@ public class ProjectsPresenterTest {
     private Context context = RuntimeEnvironment.application.getBaseContext();
     private EventBus eventBus;
     private GetProjects getProjects;
-    private GetProjectTimeSince getProjectTimeSince;
+    private GetProjectTimeSummarySince getProjectTimeSummarySince;
     private ClockActivityChange clockActivityChange;
     private RemoveProject removeProject;
     private ProjectsPresenter presenter;
@@ -83,14 +85,14 @@ public class ProjectsPresenterTest {
     public void setUp() {
         eventBus = mock(EventBus.class);
         getProjects = mock(GetProjects.class);
-        getProjectTimeSince = mock(GetProjectTimeSince.class);
+        getProjectTimeSummarySince = mock(GetProjectTimeSummarySince.class);
         clockActivityChange = mock(ClockActivityChange.class);
         removeProject = mock(RemoveProject.class);
         presenter = new ProjectsPresenter(
                 context,
                 eventBus,
                 getProjects,
-                getProjectTimeSince,
+                getProjectTimeSummarySince,
                 clockActivityChange,
                 removeProject
         );
@@ -123,14 +125,17 @@ public class ProjectsPresenterTest {
     public void beginRefreshingActiveProjects() throws DomainException {
         Project activeProject = mock(Project.class);
         when(activeProject.isActive()).thenReturn(true);
+        when(activeProject.getId()).thenReturn(2L);
+        when(activeProject.getElapsed()).thenReturn(0L);
         List<ProjectsModel> projects = new ArrayList<>();
         projects.add(new ProjectsModel(new Project.Builder("Name").build()));
         projects.add(new ProjectsModel(activeProject));
         when(view.getProjects()).thenReturn(projects);
+        when(view.getPositionsForActiveProjects()).thenReturn(Collections.singletonList(1));
         presenter.attachView(view);
 
         presenter.beginRefreshingActiveProjects();
-        rxSchedulersRule.advanceTimeTo(60, TimeUnit.SECONDS);
+        rxSchedulersRule.advanceTimeBy(30, TimeUnit.SECONDS);
         presenter.stopRefreshingActiveProjects();
 
         List<Integer> positions = new ArrayList<>();
@@ -139,30 +144,92 @@ public class ProjectsPresenterTest {
     }
 
     @Test
-    public void refreshActiveProjects() throws DomainException {
+    public void beginRefreshingActiveProjects_beforeElapsedTimeChange() throws DomainException {
         Project activeProject = mock(Project.class);
         when(activeProject.isActive()).thenReturn(true);
+        when(activeProject.getId()).thenReturn(2L);
+        when(activeProject.getElapsed()).thenReturn(0L);
+        List<ProjectsModel> projects = new ArrayList<>();
+        projects.add(new ProjectsModel(activeProject));
+        when(view.getProjects()).thenReturn(projects);
+        when(view.getPositionsForActiveProjects()).thenReturn(Collections.singletonList(0));
+        presenter.attachView(view);
+
+        presenter.beginRefreshingActiveProjects();
+        rxSchedulersRule.advanceTimeBy(29, TimeUnit.SECONDS);
+        presenter.stopRefreshingActiveProjects();
+        rxSchedulersRule.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        verify(view, never()).refreshPositions(anyListOf(Integer.class));
+    }
+
+    @Test
+    public void beginRefreshingActiveProjects_withoutActiveProjects() throws DomainException {
         List<ProjectsModel> projects = new ArrayList<>();
         projects.add(new ProjectsModel(new Project.Builder("Name").build()));
+        when(view.getProjects()).thenReturn(projects);
+        when(view.getPositionsForActiveProjects()).thenReturn(new ArrayList<Integer>());
+        presenter.attachView(view);
+
+        presenter.beginRefreshingActiveProjects();
+        rxSchedulersRule.advanceTimeBy(60, TimeUnit.SECONDS);
+        presenter.stopRefreshingActiveProjects();
+
+        verify(view, never()).refreshPositions(anyListOf(Integer.class));
+    }
+
+    @Test
+    public void activeProjectsChanged() throws DomainException {
+        Project activeProject = mock(Project.class);
+        when(activeProject.isActive()).thenReturn(true);
+        when(activeProject.getId()).thenReturn(2L);
+        when(activeProject.getElapsed()).thenReturn(0L);
+        List<ProjectsModel> projects = new ArrayList<>();
         projects.add(new ProjectsModel(activeProject));
         when(view.getProjects()).thenReturn(projects);
+        when(view.getPositionsForActiveProjects()).thenReturn(new ArrayList<Integer>());
         presenter.attachView(view);
+        presenter.beginRefreshingActiveProjects();
 
-        presenter.refreshActiveProjects();
+        when(view.getPositionsForActiveProjects()).thenReturn(Collections.singletonList(0));
+        presenter.activeProjectsChanged();
+        rxSchedulersRule.advanceTimeBy(30, TimeUnit.SECONDS);
+        presenter.stopRefreshingActiveProjects();
 
-        List<Integer> positions = new ArrayList<>();
-        positions.add(1);
-        verify(view).refreshPositions(positions);
+        verify(view).refreshPositions(Collections.singletonList(0));
     }
 
     @Test
-    public void refreshActiveProjects_withoutAttachedView() throws DomainException {
+    public void activeProjectsChanged_withoutRefreshing() throws DomainException {
         Project activeProject = mock(Project.class);
         when(activeProject.isActive()).thenReturn(true);
         List<ProjectsModel> projects = new ArrayList<>();
-        projects.add(new ProjectsModel(new Project.Builder("Name").build()));
         projects.add(new ProjectsModel(activeProject));
         when(view.getProjects()).thenReturn(projects);
+        when(view.getPositionsForActiveProjects()).thenReturn(Collections.singletonList(0));
+        presenter.attachView(view);
+
+        presenter.activeProjectsChanged();
+        rxSchedulersRule.advanceTimeBy(60, TimeUnit.SECONDS);
+
+        verify(view, never()).refreshPositions(anyListOf(Integer.class));
+    }
+
+    @Test
+    public void refreshActiveProjects() throws DomainException {
+        when(view.getPositionsForActiveProjects()).thenReturn(Collections.singletonList(1));
+        presenter.attachView(view);
+
+        presenter.refreshActiveProjects();
+
+        List<Integer> positions = new ArrayList<>();
+        positions.add(1);
+        verify(view).refreshPositions(positions);
+    }
+
+    @Test
+    public void refreshActiveProjects_withoutAttachedView() throws DomainException {
+        when(view.getPositionsForActiveProjects()).thenReturn(Collections.singletonList(1));
 
         presenter.refreshActiveProjects();
 
@@ -177,13 +244,13 @@ public class ProjectsPresenterTest {
                         .build()
         );
         when(getProjects.execute()).thenReturn(projects);
-        when(getProjectTimeSince.execute(any(Project.class), anyInt()))
-                .thenReturn(anyListOf(Time.class));
+        when(getProjectTimeSummarySince.execute(anyListOf(Project.class), anyInt()))
+                .thenReturn(new HashMap<Long, Long>());
         presenter.attachView(view);
 
         presenter.getProjects();
 
-        verify(getProjectTimeSince).execute(any(Project.class), anyInt());
+        verify(getProjectTimeSummarySince).execute(anyListOf(Project.class), anyInt());
         verify(view).addProjects(anyListOf(ProjectsModel.class));
     }
 
@@ -195,13 +262,13 @@ public class ProjectsPresenterTest {
                         .build()
         );
         when(getProjects.execute()).thenReturn(projects);
-        when(getProjectTimeSince.execute(any(Project.class), anyInt()))
+        when(getProjectTimeSummarySince.execute(anyListOf(Project.class), anyInt()))
                 .thenThrow(new ClockOutBeforeClockInException());
         presenter.attachView(view);
 
         presenter.getProjects();
 
-        verify(getProjectTimeSince).execute(any(Project.class), anyInt());
+        verify(getProjectTimeSummarySince).execute(anyListOf(Project.class), anyInt());
         verify(view).addProjects(anyListOf(ProjectsModel.class));
     }
 
@@ -222,7 +289,7 @@ public class ProjectsPresenterTest {
 
         presenter.getProjects();
 
-        verify(getProjectTimeSince, never()).execute(any(Project.class), anyInt());
+        verify(getProjectTimeSummarySince, never()).execute(anyListOf(Project.class), anyInt());
         verify(view).showGetProjectsErrorMessage();
     }
 
@@ -277,8 +344,8 @@ public class ProjectsPresenterTest {
         ProjectsModel projectsModel = new ProjectsModel(project);
         when(clockActivityChange.execute(eq(project), any(Date.class)))
                 .thenReturn(project);
-        when(getProjectTimeSince.execute(any(Project.class), anyInt()))
-                .thenReturn(anyListOf(Time.class));
+        when(getProjectTimeSummarySince.execute(any(Project.class), anyInt()))
+                .thenReturn(0L);
         presenter.attachView(view);
 
         presenter.clockActivityChange(projectsModel, new Date());
@@ -290,7 +357,7 @@ public class ProjectsPresenterTest {
                 eq(Worker.NOTIFICATION_ON_GOING_ID),
                 isA(Notification.class)
         );
-        verify(getProjectTimeSince).execute(any(Project.class), anyInt());
+        verify(getProjectTimeSummarySince).execute(any(Project.class), anyInt());
         verify(view).updateProject(projectsModel);
     }
 
@@ -354,34 +421,110 @@ public class ProjectsPresenterTest {
     }
 
     @Test
-    public void onEventMainThread_changeTimeSummaryStartingPoint() {
+    public void onEventMainThread_changeTimeSummaryStartingPoint() throws DomainException {
+        Project project = new Project.Builder("Name")
+                .id(1L)
+                .build();
+        List<ProjectsModel> projects = new ArrayList<>();
+        projects.add(new ProjectsModel(project, 1L));
+        when(view.getProjects()).thenReturn(projects);
+        when(getProjectTimeSummarySince.isCalculableFromProjectTime(anyInt()))
+                .thenReturn(true);
+        when(getProjectTimeSummarySince.calculateFromProjectTime(eq(project), anyInt()))
+                .thenReturn(2L);
+        presenter.attachView(view);
+
+        presenter.onEventMainThread(new TimeSummaryStartingPointChangeEvent());
+
+        verify(getProjectTimeSummarySince, never()).execute(anyListOf(Project.class), anyInt());
+        verify(view).updateProjects(anyListOf(ProjectsModel.class), isA(ListDiff.class));
+    }
+
+    @Test
+    public void onEventMainThread_changeTimeSummaryStartingPointBeforeMonth() throws DomainException {
+        Project project = new Project.Builder("Name")
+                .id(1L)
+                .build();
+        List<ProjectsModel> projects = new ArrayList<>();
+        projects.add(new ProjectsModel(project, 1L));
+        when(view.getProjects()).thenReturn(projects);
+        when(getProjectTimeSummarySince.isCalculableFromProjectTime(anyInt()))
+                .thenReturn(false);
+        when(getProjectTimeSummarySince.execute(anyListOf(Project.class), anyInt()))
+                .thenReturn(new HashMap<Long, Long>());
         presenter.attachView(view);
 
         presenter.onEventMainThread(new TimeSummaryStartingPointChangeEvent());
 
-        verify(view).reloadProjects();
+        verify(getProjectTimeSummarySince).execute(anyListOf(Project.class), anyInt());
+        verify(view).updateProjects(anyListOf(ProjectsModel.class), isA(ListDiff.class));
     }
 
     @Test
     public void onEventMainThread_changeTimeSummaryStartingPointWithoutAttachedView() {
         presenter.onEventMainThread(new TimeSummaryStartingPointChangeEvent());
 
-        verify(view, never()).reloadProjects();
+        verify(view, never()).updateProjects(anyListOf(ProjectsModel.class), any(ListDiff.class));
+    }
+
+    @Test
+    public void onEventMainThread_ongoingNotification() throws DomainException {
+        Project project = new Project.Builder("Name")
+                .id(1L)
+                .build();
+        List<ProjectsModel> projects = new ArrayList<>();
+        projects.add(new ProjectsModel(project, 1L));
+        when(view.getProjects()).thenReturn(projects);
+        when(getProjects.execute(1L)).thenReturn(project);
+        presenter.attachView(view);
+
+        presenter.onEventMainThread(
+                new OngoingNotificationActionEvent(1L, OngoingNotificationActionEvent.ACTION_CLOCK_OUT)
+        );
+
+        verify(getProjects).execute(1L);
+        verify(view).updateProject(isA(ProjectsModel.class));
+        verify(view, never()).updateProjects(anyListOf(ProjectsModel.class), any(ListDiff.class));
+    }
+
+    @Test
+    public void onEventMainThread_ongoingNotificationWithClockIn() throws DomainException {
+        Project project = new Project.Builder("Name")
+                .id(1L)
+                .build();
+        List<ProjectsModel> projects = new ArrayList<>();
+        projects.add(new ProjectsModel(project, 1L));
+        when(view.getProjects()).thenReturn(projects);
+        when(getProjects.execute(1L)).thenReturn(project);
+        presenter.attachView(view);
+
+        presenter.onEventMainThread(
+                new OngoingNotificationActionEvent(1L, OngoingNotificationActionEvent.ACTION_CLOCK_IN)
+        );
+
+        verify(getProjectTimeSummarySince, never()).execute(any(Project.class), anyInt());
+        verify(view).updateProject(isA(ProjectsModel.class));
     }
 
     @Test
-    public void onEventMainThread_ongoingNotification() {
+    public void onEventMainThread_ongoingNotificationWithoutProject() throws DomainException {
+        when(view.getProjects()).thenReturn(new ArrayList<ProjectsModel>());
         presenter.attachView(view);
 
-        presenter.onEventMainThread(new OngoingNotificationActionEvent(1));
+        presenter.onEventMainThread(
+                new OngoingNotificationActionEvent(1L, OngoingNotificationActionEvent.ACTION_CLOCK_OUT)
+        );
 
-        verify(view).reloadProjects();
+        verify(getProjects, never()).execute(1L);
+        verify(view, never()).updateProject(any(ProjectsModel.class));
     }
 
     @Test
     public void onEventMainThread_ongoingNotificationWithoutAttachedView() {
-        presenter.onEventMainThread(new OngoingNotificationActionEvent(1));
+        presenter.onEventMainThread(
+                new OngoingNotificationActionEvent(1L, OngoingNotificationActionEvent.ACTION_CLOCK_OUT)
+        );
 
-        verify(view, never()).reloadProjects();
+        verify(view, never()).updateProject(any(ProjectsModel.class));
     }
 }
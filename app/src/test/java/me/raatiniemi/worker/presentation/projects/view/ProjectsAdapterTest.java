@@ -25,6 +25,9 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import me.raatiniemi.worker.BuildConfig;
 import me.raatiniemi.worker.domain.exception.InvalidProjectNameException;
 import me.raatiniemi.worker.domain.model.Project;
@@ -32,6 +35,9 @@ import me.raatiniemi.worker.presentation.projects.model.ProjectsModel;
 
 import static junit.framework.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class, sdk = 21)
@@ -78,6 +84,71 @@ public class ProjectsAdapterTest {
         assertEquals(3, position);
     }
 
+    @Test
+    public void getPositionsForActiveProjects_withAddedProjects() throws InvalidProjectNameException {
+        adapter.add(buildProjectsModel(1L, "Project #1"));
+        adapter.add(buildActiveProjectsModel(2L, "Project #2"));
+        adapter.add(0, buildActiveProjectsModel(3L, "Project #3"));
+
+        assertEquals(Arrays.asList(0, 2), adapter.getPositionsForActiveProjects());
+    }
+
+    @Test
+    public void getPositionsForActiveProjects_withRemovedProject() throws InvalidProjectNameException {
+        adapter.add(buildActiveProjectsModel(1L, "Project #1"));
+        adapter.add(buildProjectsModel(2L, "Project #2"));
+        adapter.add(buildActiveProjectsModel(3L, "Project #3"));
+
+        adapter.remove(1);
+
+        assertEquals(Arrays.asList(0, 1), adapter.getPositionsForActiveProjects());
+    }
+
+    @Test
+    public void getPositionsForActiveProjects_withChangedProject() throws InvalidProjectNameException {
+        adapter.add(buildProjectsModel(1L, "Project #1"));
+        adapter.add(buildActiveProjectsModel(2L, "Project #2"));
+
+        adapter.set(0, buildActiveProjectsModel(1L, "Project #1"));
+        adapter.set(1, buildProjectsModel(2L, "Project #2"));
+
+        assertEquals(Collections.singletonList(0), adapter.getPositionsForActiveProjects());
+    }
+
+    @Test
+    public void getPositionsForActiveProjects_withMovedProject() throws InvalidProjectNameException {
+        adapter.add(buildActiveProjectsModel(1L, "Project #1"));
+        adapter.add(buildProjectsModel(2L, "Project #2"));
+        adapter.add(buildActiveProjectsModel(3L, "Project #3"));
+
+        adapter.notifyItemMoved(0, 2);
+
+        assertEquals(Arrays.asList(1, 2), adapter.getPositionsForActiveProjects());
+    }
+
+    @Test
+    public void onActiveProjectsChange() throws InvalidProjectNameException {
+        ProjectsAdapter.OnActiveProjectsChangeListener listener = mock(ProjectsAdapter.OnActiveProjectsChangeListener.class);
+        adapter.setOnActiveProjectsChangeListener(listener);
+
+        adapter.add(buildProjectsModel(1L, "Project #1"));
+        adapter.add(buildActiveProjectsModel(2L, "Project #2"));
+        adapter.notifyItemChanged(1, ProjectsAdapter.PAYLOAD_CLOCKED_IN_SINCE);
+
+        verify(listener, times(1)).onActiveProjectsChange();
+    }
+
+    private ProjectsModel buildActiveProjectsModel(long projectId, String projectName)
+            throws InvalidProjectNameException {
+
+        Project project = mock(Project.class);
+        when(project.getId()).thenReturn(projectId);
+        when(project.getName()).thenReturn(projectName);
+        when(project.isActive()).thenReturn(true);
+
+        return new ProjectsModel(project);
+    }
+
     private ProjectsModel buildProjectsModel(long projectId, String projectName)
             throws InvalidProjectNameException {
 
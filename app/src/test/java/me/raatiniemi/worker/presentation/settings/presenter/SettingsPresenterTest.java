@@ -30,6 +30,7 @@ import java.io.File;
 import me.raatiniemi.worker.BuildConfig;
 import me.raatiniemi.worker.domain.interactor.GetProjectTimeSince;
 import me.raatiniemi.worker.presentation.settings.model.Backup;
+import me.raatiniemi.worker.presentation.settings.model.BackupStatistics;
 import me.raatiniemi.worker.presentation.settings.model.BackupSuccessfulEvent;
 import me.raatiniemi.worker.presentation.settings.model.TimeSummaryStartingPointChangeEvent;
 import me.raatiniemi.worker.presentation.settings.view.SettingsView;
@@ -79,6 +80,30 @@ public class SettingsPresenterTest {
         verify(view).setLatestBackup(backup);
     }
 
+    @Test
+    public void onEventMainThread_successfulBackupEventWithStatistics() {
+        Backup backup = new Backup(new File("backup-file"));
+        BackupStatistics statistics = new BackupStatistics(10L, 100L, false);
+        BackupSuccessfulEvent event = new BackupSuccessfulEvent(backup, statistics);
+        presenter.attachView(view);
+
+        presenter.onEventMainThread(event);
+
+        verify(view).setLatestBackup(backup);
+        verify(view).setLatestBackupStatistics(statistics);
+    }
+
+    @Test
+    public void onEventMainThread_successfulBackupEventWithoutStatistics() {
+        Backup backup = new Backup(new File("backup-file"));
+        BackupSuccessfulEvent event = new BackupSuccessfulEvent(backup);
+        presenter.attachView(view);
+
+        presenter.onEventMainThread(event);
+
+        verify(view, never()).setLatestBackupStatistics(any(BackupStatistics.class));
+    }
+
     @Test
     public void onEventMainThread_successfulBackupEventWithoutView() {
         Backup backup = new Backup(new File("backup-file"));
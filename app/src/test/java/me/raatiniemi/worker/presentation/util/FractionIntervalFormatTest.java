@@ -74,4 +74,14 @@ public class FractionIntervalFormatTest {
 
         assertEquals(expected, intervalFormat.format(intervalInMilliseconds));
     }
+
+    @Test
+    public void format_withBuilder() {
+        DateIntervalFormat intervalFormat = new FractionIntervalFormat();
+        StringBuilder builder = new StringBuilder("interval: ");
+
+        intervalFormat.format(intervalInMilliseconds, builder);
+
+        assertEquals("interval: " + expected, builder.toString());
+    }
 }
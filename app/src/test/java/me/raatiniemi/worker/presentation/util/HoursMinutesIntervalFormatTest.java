@@ -82,4 +82,14 @@ public class HoursMinutesIntervalFormatTest {
 
         assertEquals(expected, intervalFormat.format(intervalInMilliseconds));
     }
+
+    @Test
+    public void format_withBuilder() {
+        DateIntervalFormat intervalFormat = new HoursMinutesIntervalFormat();
+        StringBuilder builder = new StringBuilder("interval: ");
+
+        intervalFormat.format(intervalInMilliseconds, builder);
+
+        assertEquals("interval: " + expected, builder.toString());
+    }
 }
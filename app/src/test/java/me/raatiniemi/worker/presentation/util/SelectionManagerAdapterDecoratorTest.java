@@ -28,6 +28,7 @@ import me.raatiniemi.worker.BuildConfig;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @RunWith(RobolectricGradleTestRunner.class)
@@ -72,4 +73,55 @@ public class SelectionManagerAdapterDecoratorTest {
         verify(adapter).notifyDataSetChanged();
         verify(selectionListener, never()).onDeselect();
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void selectItem_withSelectionNotifier() {
+        SelectionManagerAdapterDecorator.SelectionNotifier<String> selectionNotifier =
+                mock(SelectionManagerAdapterDecorator.SelectionNotifier.class);
+        selectionManager = new SelectionManagerAdapterDecorator<>(
+                selectionNotifier,
+                selectionListener
+        );
+
+        selectionManager.selectItem("selectItem");
+
+        verify(selectionNotifier).notifySelectionChanged("selectItem");
+        verify(selectionListener).onSelect();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deselectItem_withSelectionNotifier() {
+        SelectionManagerAdapterDecorator.SelectionNotifier<String> selectionNotifier =
+                mock(SelectionManagerAdapterDecorator.SelectionNotifier.class);
+        selectionManager = new SelectionManagerAdapterDecorator<>(
+                selectionNotifier,
+                selectionListener
+        );
+
+        selectionManager.deselectItem("deselectItem");
+
+        verify(selectionNotifier).notifySelectionChanged("deselectItem");
+        verify(selectionListener).onDeselect();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deselectItems_withSelectionNotifier() {
+        SelectionManagerAdapterDecorator.SelectionNotifier<String> selectionNotifier =
+                mock(SelectionManagerAdapterDecorator.SelectionNotifier.class);
+        selectionManager = new SelectionManagerAdapterDecorator<>(
+                selectionNotifier,
+                selectionListener
+        );
+        selectionManager.selectItem("first");
+        selectionManager.selectItem("second");
+
+        selectionManager.deselectItems();
+
+        verify(selectionNotifier, times(2)).notifySelectionChanged("first");
+        verify(selectionNotifier, times(2)).notifySelectionChanged("second");
+        verify(selectionListener, never()).onDeselect();
+    }
 }
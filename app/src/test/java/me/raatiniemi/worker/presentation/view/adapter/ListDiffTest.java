@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.presentation.view.adapter;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class ListDiffTest {
+    /**
+     * Items are compared by the first character, and the contents with the
+     * whole string, i.e. "a1" and "a2" are the same item with changed contents.
+     */
+    private static final ListDiff.Callback<String> callback = new ListDiff.Callback<String>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull String oldItem, @NonNull String newItem) {
+            return oldItem.charAt(0) == newItem.charAt(0);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull String oldItem, @NonNull String newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull String oldItem, @NonNull String newItem) {
+            return newItem;
+        }
+    };
+
+    private static List<String> apply(List<String> oldItems, final List<String> newItems) {
+        final List<String> items = new ArrayList<>(oldItems);
+
+        ListDiff.calculate(oldItems, newItems, callback)
+                .dispatchUpdatesTo(new ListDiff.UpdateCallback() {
+                    @Override
+                    public void onInserted(int position, int count) {
+                        items.addAll(position, newItems.subList(position, position + count));
+                    }
+
+                    @Override
+                    public void onRemoved(int position, int count) {
+                        items.subList(position, position + count).clear();
+                    }
+
+                    @Override
+                    public void onMoved(int fromPosition, int toPosition) {
+                        items.add(toPosition, items.remove(fromPosition));
+                    }
+
+                    @Override
+                    public void onChanged(int position, int count, Object payload) {
+                        items.set(position, (String) payload);
+                    }
+                });
+
+        return items;
+    }
+
+    private static List<String> dispatch(List<String> oldItems, List<String> newItems) {
+        final List<String> operations = new ArrayList<>();
+
+        ListDiff.calculate(oldItems, newItems, callback)
+                .dispatchUpdatesTo(new ListDiff.UpdateCallback() {
+                    @Override
+                    public void onInserted(int position, int count) {
+                        operations.add("insert " + position + " " + count);
+                    }
+
+                    @Override
+                    public void onRemoved(int position, int count) {
+                        operations.add("remove " + position + " " + count);
+                    }
+
+                    @Override
+                    public void onMoved(int fromPosition, int toPosition) {
+                        operations.add("move " + fromPosition + " " + toPosition);
+                    }
+
+                    @Override
+                    public void onChanged(int position, int count, Object payload) {
+                        operations.add("change " + position + " " + count + " " + payload);
+                    }
+                });
+
+        return operations;
+    }
+
+    @Test
+    public void dispatchUpdatesTo_withoutChanges() {
+        List<String> operations = dispatch(
+                Arrays.asList("a", "b", "c"),
+                Arrays.asList("a", "b", "c")
+        );
+
+        assertEquals(0, operations.size());
+    }
+
+    @Test
+    public void dispatchUpdatesTo_withChangedItem() {
+        List<String> operations = dispatch(
+                Arrays.asList("a", "b1", "c"),
+                Arrays.asList("a", "b2", "c")
+        );
+
+        assertEquals(Arrays.asList("change 1 1 b2"), operations);
+    }
+
+    @Test
+    public void dispatchUpdatesTo_withInsertedItems() {
+        List<String> operations = dispatch(
+                Arrays.asList("a", "d"),
+                Arrays.asList("a", "b", "c", "d")
+        );
+
+        assertEquals(Arrays.asList("insert 1 2"), operations);
+    }
+
+    @Test
+    public void dispatchUpdatesTo_withRemovedItems() {
+        List<String> operations = dispatch(
+                Arrays.asList("a", "b", "c", "d"),
+                Arrays.asList("a", "d")
+        );
+
+        assertEquals(Arrays.asList("remove 1 2"), operations);
+    }
+
+    @Test
+    public void dispatchUpdatesTo_withMovedItem() {
+        List<String> operations = dispatch(
+                Arrays.asList("a", "b", "c", "d"),
+                Arrays.asList("b", "c", "d", "a")
+        );
+
+        assertEquals(Arrays.asList("move 0 3"), operations);
+    }
+
+    @Test
+    public void dispatchUpdatesTo_withCombinedChanges() {
+        List<String> operations = dispatch(
+                Arrays.asList("a", "b", "c1", "d"),
+                Arrays.asList("d", "c2", "e", "a")
+        );
+
+        assertEquals(
+                Arrays.asList(
+                        "remove 1 1",
+                        "move 1 0",
+                        "move 2 0",
+                        "insert 2 1",
+                        "change 1 1 c2"
+                ),
+                operations
+        );
+    }
+
+    @Test
+    public void dispatchUpdatesTo_withReorderedItems() {
+        List<String> oldItems = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h");
+        List<String> newItems = Arrays.asList("h", "c", "i", "a", "g", "e2", "b", "j");
+
+        assertEquals(newItems, apply(oldItems, newItems));
+    }
+
+    @Test
+    public void dispatchUpdatesTo_withLargeLists() {
+        // The beginning and end of the lists differ, i.e. the whole lists
+        // have to be compared for the changes in the middle.
+        List<String> oldItems = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            oldItems.add(String.valueOf((char) ('\u0100' + i)));
+        }
+        List<String> newItems = new ArrayList<>(oldItems);
+        newItems.add(newItems.remove(0));
+        newItems.remove(newItems.size() / 2);
+        newItems.add(0, "0");
+
+        assertEquals(newItems, apply(oldItems, newItems));
+    }
+}
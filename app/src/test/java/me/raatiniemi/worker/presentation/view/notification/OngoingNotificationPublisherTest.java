@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.presentation.view.notification;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import me.raatiniemi.worker.BuildConfig;
+import me.raatiniemi.worker.Worker;
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.interactor.GetProjectTimeSummarySince;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
+import me.raatiniemi.worker.domain.repository.TimeRepository;
+import me.raatiniemi.worker.presentation.util.Settings;
+import rx.schedulers.TestScheduler;
+
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class OngoingNotificationPublisherTest {
+    private Context context;
+    private NotificationManager manager;
+    private TimeRepository timeRepository;
+    private TestScheduler scheduler;
+    private OngoingNotificationPublisher publisher;
+
+    @Before
+    public void setUp() {
+        context = spy(RuntimeEnvironment.application);
+        manager = mock(NotificationManager.class);
+        timeRepository = mock(TimeRepository.class);
+        scheduler = new TestScheduler();
+        publisher = new OngoingNotificationPublisher(
+                context,
+                manager,
+                new GetProjectTimeSummarySince(timeRepository),
+                scheduler
+        );
+
+        Settings.enableOngoingNotification(RuntimeEnvironment.application);
+        Settings.enableOngoingNotificationChronometer(RuntimeEnvironment.application);
+    }
+
+    private static List<Project> buildProjects(long id, boolean active) throws DomainException {
+        Project project = new Project.Builder("Name")
+                .id(id)
+                .build();
+
+        long now = new Date().getTime();
+        Time.Builder time = new Time.Builder(id)
+                .startInMilliseconds(now - 60000);
+        if (!active) {
+            time.stopInMilliseconds(now);
+        }
+        project.addTime(Collections.singletonList(time.build()));
+
+        return Collections.singletonList(project);
+    }
+
+    @Test
+    public void publish_withoutWorkOnCallingThread() throws DomainException {
+        publisher.publish(buildProjects(1L, true));
+
+        verifyZeroInteractions(manager);
+    }
+
+    @Test
+    public void publish_withoutDatabaseAccess() throws DomainException {
+        publisher.publish(buildProjects(1L, true));
+        scheduler.triggerActions();
+
+        verify(context, never()).getContentResolver();
+        verifyZeroInteractions(timeRepository);
+    }
+
+    @Test
+    public void publish_withActiveProject() throws DomainException {
+        publisher.publish(buildProjects(1L, true));
+        scheduler.triggerActions();
+
+        verify(manager).notify(
+                eq("1"),
+                eq(Worker.NOTIFICATION_ON_GOING_ID),
+                isA(Notification.class)
+        );
+    }
+
+    @Test
+    public void publish_withUnchangedActiveProject() throws DomainException {
+        List<Project> projects = buildProjects(1L, true);
+
+        publisher.publish(projects);
+        publisher.publish(projects);
+        scheduler.triggerActions();
+
+        verify(manager, times(1)).notify(
+                eq("1"),
+                eq(Worker.NOTIFICATION_ON_GOING_ID),
+                isA(Notification.class)
+        );
+    }
+
+    @Test
+    public void publish_withInactiveProject() throws DomainException {
+        List<Project> projects = buildProjects(1L, false);
+
+        publisher.publish(projects);
+        publisher.publish(projects);
+        scheduler.triggerActions();
+
+        verify(manager, times(1)).cancel("1", Worker.NOTIFICATION_ON_GOING_ID);
+        verify(manager, never()).notify(
+                eq("1"),
+                eq(Worker.NOTIFICATION_ON_GOING_ID),
+                isA(Notification.class)
+        );
+    }
+
+    @Test
+    public void publish_withClockedOutProject() throws DomainException {
+        publisher.publish(buildProjects(1L, true));
+        publisher.publish(buildProjects(1L, false));
+        scheduler.triggerActions();
+
+        verify(manager).cancel("1", Worker.NOTIFICATION_ON_GOING_ID);
+    }
+
+    @Test
+    public void publish_withDisabledOngoingNotification() throws DomainException {
+        Settings.disableOngoingNotification(RuntimeEnvironment.application);
+
+        publisher.publish(buildProjects(1L, true));
+        scheduler.triggerActions();
+
+        verify(manager).cancel("1", Worker.NOTIFICATION_ON_GOING_ID);
+        verify(manager, never()).notify(
+                eq("1"),
+                eq(Worker.NOTIFICATION_ON_GOING_ID),
+                isA(Notification.class)
+        );
+    }
+}
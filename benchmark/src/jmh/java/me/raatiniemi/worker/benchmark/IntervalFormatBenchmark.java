@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import me.raatiniemi.worker.presentation.util.DateIntervalFormat;
+import me.raatiniemi.worker.presentation.util.FractionIntervalFormat;
+import me.raatiniemi.worker.presentation.util.HoursMinutesIntervalFormat;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IntervalFormatBenchmark {
+    @Param({Intervals.SMALL, Intervals.MEDIUM, Intervals.LARGE})
+    public int size;
+
+    private long[] lengths;
+
+    private DateIntervalFormat fractionIntervalFormat;
+
+    private DateIntervalFormat hoursMinutesIntervalFormat;
+
+    /**
+     * Builder reused between the formatted intervals.
+     */
+    private final StringBuilder builder = new StringBuilder(16);
+
+    @Setup
+    public void setUp() {
+        lengths = Intervals.lengths(size);
+
+        fractionIntervalFormat = new FractionIntervalFormat();
+        hoursMinutesIntervalFormat = new HoursMinutesIntervalFormat();
+    }
+
+    private void format(DateIntervalFormat intervalFormat, Blackhole blackhole) {
+        for (long length : lengths) {
+            blackhole.consume(intervalFormat.format(length));
+        }
+    }
+
+    /**
+     * Format the intervals into the reused builder, run with the `gc`-profiler
+     * the normalized allocation rate should be zero.
+     */
+    private void formatWithBuilder(DateIntervalFormat intervalFormat, Blackhole blackhole) {
+        for (long length : lengths) {
+            builder.setLength(0);
+            blackhole.consume(intervalFormat.format(length, builder));
+        }
+    }
+
+    @Benchmark
+    public void fractionIntervalFormat(Blackhole blackhole) {
+        format(fractionIntervalFormat, blackhole);
+    }
+
+    @Benchmark
+    public void fractionIntervalFormatWithBuilder(Blackhole blackhole) {
+        formatWithBuilder(fractionIntervalFormat, blackhole);
+    }
+
+    @Benchmark
+    public void hoursMinutesIntervalFormat(Blackhole blackhole) {
+        format(hoursMinutesIntervalFormat, blackhole);
+    }
+
+    @Benchmark
+    public void hoursMinutesIntervalFormatWithBuilder(Blackhole blackhole) {
+        formatWithBuilder(hoursMinutesIntervalFormat, blackhole);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import me.raatiniemi.worker.domain.exception.ClockOutBeforeClockInException;
+import me.raatiniemi.worker.domain.model.Time;
+
+/**
+ * Datasets with intervals used by the benchmarks.
+ * <p>
+ * The intervals are generated with a fixed seed, i.e. the same dataset is
+ * used between the runs which keeps the results comparable.
+ */
+final class Intervals {
+    /**
+     * Sizes for the datasets, used as parameter for the benchmarks.
+     */
+    static final String SMALL = "1000";
+    static final String MEDIUM = "100000";
+    static final String LARGE = "1000000";
+
+    private static final long SEED = 20160101L;
+
+    /**
+     * Timestamp for the first interval, 2016-01-01 00:00:00 UTC.
+     */
+    private static final long FIRST_START = 1451606400000L;
+
+    private static final long MINUTE_IN_MILLISECONDS = 60000L;
+
+    /**
+     * Maximum length of an interval, ten hours.
+     */
+    private static final int MAXIMUM_INTERVAL_IN_MINUTES = 600;
+
+    private Intervals() {
+    }
+
+    /**
+     * Generate the length of the intervals in milliseconds.
+     *
+     * @param size Number of intervals.
+     * @return Length of the intervals.
+     */
+    static long[] lengths(int size) {
+        Random random = new Random(SEED);
+
+        long[] lengths = new long[size];
+        for (int i = 0; i < size; i++) {
+            // Include seconds to exercise the rounding of minutes.
+            lengths[i] = (1 + random.nextInt(MAXIMUM_INTERVAL_IN_MINUTES)) * MINUTE_IN_MILLISECONDS
+                    + random.nextInt(60) * 1000L;
+        }
+
+        return lengths;
+    }
+
+    /**
+     * Generate the start and stop timestamps for consecutive intervals.
+     *
+     * @param size Number of intervals.
+     * @return Start and stop timestamps, indexed as [interval][0 = start, 1 = stop].
+     */
+    static long[][] timestamps(int size) {
+        long[] lengths = lengths(size);
+
+        long[][] timestamps = new long[size][2];
+        long start = FIRST_START;
+        for (int i = 0; i < size; i++) {
+            timestamps[i][0] = start;
+            timestamps[i][1] = start + lengths[i];
+
+            start = timestamps[i][1] + MINUTE_IN_MILLISECONDS;
+        }
+
+        return timestamps;
+    }
+
+    /**
+     * Generate time for consecutive intervals, the last time is active.
+     *
+     * @param projectId Id for the project.
+     * @param size      Number of intervals.
+     * @return Time for the intervals.
+     * @throws ClockOutBeforeClockInException If the generated time is invalid.
+     */
+    static List<Time> time(long projectId, int size) throws ClockOutBeforeClockInException {
+        long[][] timestamps = timestamps(size);
+
+        List<Time> time = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Time.Builder builder = new Time.Builder(projectId)
+                    .id((long) i + 1)
+                    .startInMilliseconds(timestamps[i][0]);
+
+            if (i < size - 1) {
+                builder.stopInMilliseconds(timestamps[i][1]);
+            }
+
+            time.add(builder.build());
+        }
+
+        return time;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.benchmark;
+
+import android.content.UriMatcher;
+import android.net.Uri;
+import android.os.Bundle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import me.raatiniemi.worker.data.WorkerContract;
+import me.raatiniemi.worker.data.WorkerContract.ProjectContract;
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+/**
+ * Compare the resolver repositories with the database repositories, i.e. the
+ * round-trip through the content provider with the direct database access.
+ * <p>
+ * The resolver path builds the URI and the extras in the same way as the
+ * resolver repositories, and resolves them in the same way as the provider,
+ * i.e. matching the URI, parsing the id and assembling the SQL from the
+ * selection for every call. The database path binds the parameters to the
+ * same SQL that is used by the database repositories. The binder transaction
+ * is not included, i.e. the numbers are the lower bound for the resolver path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+    private static final int PROJECTS_TIME = 1;
+
+    private static final String COLUMNS = "_id," +
+            TimeColumns.PROJECT_ID + "," +
+            TimeColumns.START + "," +
+            TimeColumns.STOP + "," +
+            TimeColumns.REGISTERED;
+
+    private static final String SELECTION_SINCE = TimeColumns.START + ">=? OR " +
+            TimeContract.SELECTION_ACTIVE;
+
+    private static final String SELECT_SINCE = "SELECT " + COLUMNS +
+            " FROM " + Tables.TIME +
+            " WHERE " + TimeColumns.PROJECT_ID + "=? AND (" + SELECTION_SINCE + ")" +
+            " ORDER BY " + ProjectContract.ORDER_BY_TIME;
+
+    private static final String CLOCK_IN = "INSERT INTO " + Tables.TIME + " (" +
+            TimeColumns.PROJECT_ID + "," +
+            TimeColumns.START + "," +
+            TimeColumns.STOP + "," +
+            TimeColumns.REGISTERED + "," +
+            TimeColumns.DAY + ") SELECT ?,?,0,0,? WHERE NOT EXISTS (" +
+            "SELECT 1 FROM " + Tables.TIME + " WHERE " +
+            TimeColumns.PROJECT_ID + "=? AND " + TimeContract.SELECTION_ACTIVE + ")";
+
+    private static final String CLOCK_OUT = "UPDATE " + Tables.TIME + " SET " +
+            TimeColumns.STOP + "=? WHERE " +
+            TimeColumns.PROJECT_ID + "=? AND " +
+            TimeContract.SELECTION_ACTIVE + " AND " +
+            TimeColumns.START + "<=?";
+
+    private final UriMatcher uriMatcher = new UriMatcher(UriMatcher.NO_MATCH);
+    private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+
+    @Param({Intervals.SMALL, Intervals.MEDIUM})
+    private int size;
+
+    private TimeTable table;
+
+    private PreparedStatement selectSinceStatement;
+    private PreparedStatement clockInStatement;
+    private PreparedStatement clockOutStatement;
+
+    private long since;
+    private long date;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        uriMatcher.addURI(WorkerContract.AUTHORITY, "projects/#/time", PROJECTS_TIME);
+
+        long[][] timestamps = Intervals.timestamps(size);
+        table = new TimeTable();
+        table.populate(1L, timestamps);
+
+        // Roughly the time registered during a month, i.e. the same amount of
+        // rows are read regardless of the size of the dataset.
+        since = timestamps[size - 100][0];
+        date = timestamps[size - 1][1];
+
+        selectSinceStatement = table.getConnection().prepareStatement(SELECT_SINCE);
+        clockInStatement = table.getConnection().prepareStatement(CLOCK_IN);
+        clockOutStatement = table.getConnection().prepareStatement(CLOCK_OUT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        for (PreparedStatement statement : statementCache.values()) {
+            statement.close();
+        }
+        statementCache.clear();
+
+        selectSinceStatement.close();
+        clockInStatement.close();
+        clockOutStatement.close();
+        table.close();
+    }
+
+    private PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statementCache.get(sql);
+        if (null == statement) {
+            statement = table.getConnection().prepareStatement(sql);
+            statementCache.put(sql, statement);
+        }
+
+        return statement;
+    }
+
+    private static int read(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    public int timeSinceWithResolver() throws SQLException {
+        // Resolver repository.
+        Uri uri = ProjectContract.getItemTimeUri(1L);
+        String[] selectionArgs = new String[]{String.valueOf(since)};
+
+        // Provider, the selection is assembled from the URI and the selection
+        // from the repository, same as the selection builder.
+        if (PROJECTS_TIME != uriMatcher.match(uri)) {
+            throw new IllegalStateException("Unknown uri: " + uri);
+        }
+        String projectId = ProjectContract.getItemId(uri);
+        String sql = "SELECT " + COLUMNS +
+                " FROM " + Tables.TIME +
+                " WHERE (" + TimeColumns.PROJECT_ID + "=?) AND (" + SELECTION_SINCE + ")" +
+                " ORDER BY " + ProjectContract.ORDER_BY_TIME;
+
+        PreparedStatement statement = prepare(sql);
+        statement.setString(1, projectId);
+        statement.setString(2, selectionArgs[0]);
+
+        return read(statement);
+    }
+
+    @Benchmark
+    public int timeSinceWithDatabase() throws SQLException {
+        selectSinceStatement.setString(1, String.valueOf(1L));
+        selectSinceStatement.setString(2, String.valueOf(since));
+
+        return read(selectSinceStatement);
+    }
+
+    /**
+     * The project is clocked in and out again, i.e. both of the calls have
+     * time to write.
+     */
+    @Benchmark
+    public boolean clockActivityWithResolver() throws SQLException {
+        return call(WorkerContract.METHOD_CLOCK_IN)
+                && call(WorkerContract.METHOD_CLOCK_OUT);
+    }
+
+    @Benchmark
+    public boolean clockActivityWithDatabase() throws SQLException {
+        return clockIn(2L, date) && clockOut(2L, date);
+    }
+
+    private boolean call(String method) throws SQLException {
+        // Resolver repository.
+        Uri uri = WorkerContract.getAuthorityUri();
+        Bundle extras = new Bundle();
+        extras.putLong(WorkerContract.EXTRA_DATE, date);
+        String arg = String.valueOf(2L);
+
+        // Provider.
+        if (!WorkerContract.AUTHORITY.equals(uri.getAuthority())) {
+            throw new IllegalStateException("Unknown uri: " + uri);
+        }
+        long projectId = Long.parseLong(arg);
+        long date = extras.getLong(WorkerContract.EXTRA_DATE, System.currentTimeMillis());
+
+        boolean changed;
+        if (WorkerContract.METHOD_CLOCK_IN.equals(method)) {
+            changed = clockIn(projectId, date);
+        } else {
+            changed = clockOut(projectId, date);
+        }
+
+        Bundle result = new Bundle();
+        result.putBoolean(WorkerContract.EXTRA_CLOCK_ACTIVITY_CHANGED, changed);
+
+        // Resolver repository.
+        return result.getBoolean(WorkerContract.EXTRA_CLOCK_ACTIVITY_CHANGED);
+    }
+
+    private boolean clockIn(long projectId, long date) throws SQLException {
+        clockInStatement.setLong(1, projectId);
+        clockInStatement.setLong(2, date);
+        clockInStatement.setLong(3, TimeContract.getDay(date));
+        clockInStatement.setLong(4, projectId);
+
+        return 0 < clockInStatement.executeUpdate();
+    }
+
+    private boolean clockOut(long projectId, long date) throws SQLException {
+        clockOutStatement.setLong(1, date);
+        clockOutStatement.setLong(2, projectId);
+        clockOutStatement.setLong(3, date);
+
+        return 0 < clockOutStatement.executeUpdate();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import me.raatiniemi.worker.domain.exception.DomainException;
+import me.raatiniemi.worker.domain.model.Project;
+import me.raatiniemi.worker.domain.model.Time;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TimeBenchmark {
+    @Param({Intervals.SMALL, Intervals.MEDIUM, Intervals.LARGE})
+    public int size;
+
+    private long[][] timestamps;
+
+    private Project project;
+
+    @Setup
+    public void setUp() throws DomainException {
+        timestamps = Intervals.timestamps(size);
+
+        project = new Project.Builder("Project name")
+                .id(1L)
+                .build();
+        project.addTime(Intervals.time(1L, size));
+    }
+
+    /**
+     * Build time with the same chain as is used when mapping the cursor.
+     */
+    @Benchmark
+    public void buildTime(Blackhole blackhole) throws DomainException {
+        for (int i = 0; i < timestamps.length; i++) {
+            Time time = new Time.Builder(1L)
+                    .id((long) i)
+                    .startInMilliseconds(timestamps[i][0])
+                    .stopInMilliseconds(timestamps[i][1])
+                    .build();
+
+            blackhole.consume(time);
+        }
+    }
+
+    /**
+     * Retrieve the elapsed time for a project, the active time is the last
+     * of the project time.
+     */
+    @Benchmark
+    public long getElapsed() {
+        return project.getElapsed();
+    }
+}
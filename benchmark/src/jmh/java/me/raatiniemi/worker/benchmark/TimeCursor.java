@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.benchmark;
+
+import android.database.AbstractCursor;
+import android.provider.BaseColumns;
+
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+/**
+ * Cursor stand-in with time, backed by arrays.
+ * <p>
+ * The values are kept as primitives, i.e. the cost of retrieving the values
+ * is kept low and the benchmarks are measuring the mappers rather than the
+ * cursor implementation.
+ */
+class TimeCursor extends AbstractCursor {
+    private static final int ID = 0;
+    private static final int PROJECT_ID = 1;
+    private static final int START = 2;
+    private static final int STOP = 3;
+    private static final int REGISTERED = 4;
+
+    private final String[] columns = TimeContract.getColumns();
+
+    private final long[][] values;
+
+    /**
+     * Constructor.
+     *
+     * @param projectId  Id for the project.
+     * @param timestamps Start and stop timestamps, see {@link Intervals#timestamps(int)}.
+     */
+    TimeCursor(long projectId, long[][] timestamps) {
+        // Verify that the column order match the contract, otherwise the
+        // indexes for the values would be wrong.
+        if (!BaseColumns._ID.equals(columns[ID])
+                || !TimeColumns.PROJECT_ID.equals(columns[PROJECT_ID])
+                || !TimeColumns.START.equals(columns[START])
+                || !TimeColumns.STOP.equals(columns[STOP])
+                || !TimeColumns.REGISTERED.equals(columns[REGISTERED])) {
+            throw new IllegalStateException("Columns do not match the time contract");
+        }
+
+        values = new long[timestamps.length][];
+        for (int i = 0; i < timestamps.length; i++) {
+            values[i] = new long[]{
+                    i + 1,
+                    projectId,
+                    timestamps[i][0],
+                    timestamps[i][1],
+                    i % 2
+            };
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return values.length;
+    }
+
+    @Override
+    public String[] getColumnNames() {
+        return columns;
+    }
+
+    @Override
+    public String getString(int column) {
+        return String.valueOf(getLong(column));
+    }
+
+    @Override
+    public short getShort(int column) {
+        return (short) getLong(column);
+    }
+
+    @Override
+    public int getInt(int column) {
+        return (int) getLong(column);
+    }
+
+    @Override
+    public long getLong(int column) {
+        return values[getPosition()][column];
+    }
+
+    @Override
+    public float getFloat(int column) {
+        return getLong(column);
+    }
+
+    @Override
+    public double getDouble(int column) {
+        return getLong(column);
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        return false;
+    }
+}
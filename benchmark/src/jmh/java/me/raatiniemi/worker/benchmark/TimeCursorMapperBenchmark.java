@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import me.raatiniemi.worker.data.mapper.TimeCursorMapper;
+import me.raatiniemi.worker.domain.exception.DomainException;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TimeCursorMapperBenchmark {
+    @Param({Intervals.SMALL, Intervals.MEDIUM, Intervals.LARGE})
+    public int size;
+
+    private TimeCursor cursor;
+
+    private TimeCursorMapper mapper;
+
+    @Setup
+    public void setUp() {
+        cursor = new TimeCursor(1L, Intervals.timestamps(size));
+        mapper = new TimeCursorMapper();
+    }
+
+    @Benchmark
+    public void transform(Blackhole blackhole) throws DomainException {
+        cursor.moveToPosition(-1);
+        while (cursor.moveToNext()) {
+            blackhole.consume(mapper.transform(cursor));
+        }
+    }
+}
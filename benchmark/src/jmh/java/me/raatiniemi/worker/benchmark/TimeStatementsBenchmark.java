@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.benchmark;
+
+import android.content.ContentValues;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+/**
+ * Compare the compiled time statements used by the provider, with the
+ * content values path used for the other operations.
+ * <p>
+ * The content values path assembles the SQL from the values and selection
+ * for every call, in the same way as the framework database, and looks up the
+ * prepared statement from a cache keyed by the SQL, same as the statement
+ * cache for the framework connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimeStatementsBenchmark {
+    private static final String UPDATE = "UPDATE " + Tables.TIME + " SET " +
+            TimeColumns.PROJECT_ID + "=?," +
+            TimeColumns.START + "=?," +
+            TimeColumns.STOP + "=?," +
+            TimeColumns.REGISTERED + "=?," +
+            TimeColumns.DAY + "=? WHERE _id=?";
+
+    private static final String CLOCK_OUT = "UPDATE " + Tables.TIME + " SET " +
+            TimeColumns.STOP + "=? WHERE " +
+            TimeColumns.PROJECT_ID + "=? AND " +
+            TimeContract.SELECTION_ACTIVE + " AND " +
+            TimeColumns.START + "<=?";
+
+    private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+
+    private TimeTable table;
+
+    private PreparedStatement insertStatement;
+    private PreparedStatement updateStatement;
+    private PreparedStatement clockOutStatement;
+
+    private long id;
+    private long start;
+
+    private static ContentValues buildValues(long projectId, long start, long stop) {
+        ContentValues values = new ContentValues();
+        values.put(TimeColumns.PROJECT_ID, projectId);
+        values.put(TimeColumns.START, start);
+        values.put(TimeColumns.STOP, stop);
+        values.put(TimeColumns.REGISTERED, 0L);
+        values.put(TimeColumns.DAY, TimeContract.getDay(start));
+
+        return values;
+    }
+
+    /**
+     * The table is created for each iteration, i.e. the inserted rows from
+     * the previous iteration do not affect the next.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() throws SQLException {
+        table = new TimeTable();
+        table.populate(1L, new long[][]{{1L, 2L}});
+        id = 1L;
+        start = 0L;
+
+        insertStatement = table.getConnection().prepareStatement(TimeTable.INSERT);
+        updateStatement = table.getConnection().prepareStatement(UPDATE);
+        clockOutStatement = table.getConnection().prepareStatement(CLOCK_OUT);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException {
+        for (PreparedStatement statement : statementCache.values()) {
+            statement.close();
+        }
+        statementCache.clear();
+
+        insertStatement.close();
+        updateStatement.close();
+        clockOutStatement.close();
+        table.close();
+    }
+
+    private PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statementCache.get(sql);
+        if (null == statement) {
+            statement = table.getConnection().prepareStatement(sql);
+            statementCache.put(sql, statement);
+        }
+
+        return statement;
+    }
+
+    private int execute(String sql, Object[] bindArgs) throws SQLException {
+        PreparedStatement statement = prepare(sql);
+        for (int i = 0; i < bindArgs.length; i++) {
+            statement.setObject(i + 1, bindArgs[i]);
+        }
+
+        return statement.executeUpdate();
+    }
+
+    private int update(ContentValues values, String selection, String[] selectionArgs)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder(120);
+        sql.append("UPDATE ").append(Tables.TIME).append(" SET ");
+
+        Object[] bindArgs = new Object[values.size() + selectionArgs.length];
+        int i = 0;
+        for (String column : values.keySet()) {
+            sql.append(0 < i ? "," : "").append(column).append("=?");
+            bindArgs[i++] = values.get(column);
+        }
+        for (String selectionArg : selectionArgs) {
+            bindArgs[i++] = selectionArg;
+        }
+        sql.append(" WHERE ").append(selection);
+
+        return execute(sql.toString(), bindArgs);
+    }
+
+    @Benchmark
+    public int insertWithStatement() throws SQLException {
+        start++;
+
+        insertStatement.setLong(1, 2L);
+        insertStatement.setLong(2, start);
+        insertStatement.setLong(3, start + 1);
+        insertStatement.setLong(4, 0L);
+        insertStatement.setLong(5, TimeContract.getDay(start));
+
+        return insertStatement.executeUpdate();
+    }
+
+    @Benchmark
+    public int insertWithContentValues() throws SQLException {
+        start++;
+        ContentValues values = buildValues(2L, start, start + 1);
+
+        StringBuilder sql = new StringBuilder(120);
+        sql.append("INSERT INTO ").append(Tables.TIME).append('(');
+
+        Object[] bindArgs = new Object[values.size()];
+        int i = 0;
+        for (String column : values.keySet()) {
+            sql.append(0 < i ? "," : "").append(column);
+            bindArgs[i++] = values.get(column);
+        }
+        sql.append(") VALUES (");
+        for (i = 0; i < bindArgs.length; i++) {
+            sql.append(0 < i ? ",?" : "?");
+        }
+        sql.append(')');
+
+        return execute(sql.toString(), bindArgs);
+    }
+
+    @Benchmark
+    public int updateWithStatement() throws SQLException {
+        start++;
+
+        updateStatement.setLong(1, 1L);
+        updateStatement.setLong(2, 1L);
+        updateStatement.setLong(3, start);
+        updateStatement.setLong(4, 0L);
+        updateStatement.setLong(5, TimeContract.getDay(1L));
+        updateStatement.setLong(6, id);
+
+        return updateStatement.executeUpdate();
+    }
+
+    @Benchmark
+    public int updateWithContentValues() throws SQLException {
+        start++;
+
+        return update(
+                buildValues(1L, 1L, start),
+                "(_id=?)",
+                new String[]{String.valueOf(id)}
+        );
+    }
+
+    /**
+     * The project is clocked out and in again, i.e. every clock out have
+     * active time to update.
+     */
+    @Benchmark
+    public int clockOutWithStatement() throws SQLException {
+        start++;
+        clockIn();
+
+        clockOutStatement.setLong(1, start + 1);
+        clockOutStatement.setLong(2, 3L);
+        clockOutStatement.setLong(3, start + 1);
+
+        return clockOutStatement.executeUpdate();
+    }
+
+    @Benchmark
+    public int clockOutWithContentValues() throws SQLException {
+        start++;
+        clockIn();
+
+        ContentValues values = new ContentValues();
+        values.put(TimeColumns.STOP, start + 1);
+
+        return update(
+                values,
+                "(" + TimeColumns.PROJECT_ID + "=?) AND (" + TimeContract.SELECTION_ACTIVE + ")" +
+                        " AND (" + TimeColumns.START + "<=?)",
+                new String[]{"3", String.valueOf(start + 1)}
+        );
+    }
+
+    private void clockIn() throws SQLException {
+        insertStatement.setLong(1, 3L);
+        insertStatement.setLong(2, start);
+        insertStatement.setLong(3, 0L);
+        insertStatement.setLong(4, 0L);
+        insertStatement.setLong(5, TimeContract.getDay(start));
+        insertStatement.executeUpdate();
+    }
+}
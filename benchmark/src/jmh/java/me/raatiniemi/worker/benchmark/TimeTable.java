@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2016 Worker Project
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 2 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.raatiniemi.worker.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import me.raatiniemi.worker.data.WorkerContract.Indexes;
+import me.raatiniemi.worker.data.WorkerContract.Tables;
+import me.raatiniemi.worker.data.WorkerContract.TimeColumns;
+import me.raatiniemi.worker.data.WorkerContract.TimeContract;
+
+/**
+ * In-memory database with the `time`-table, used by the database benchmarks.
+ * <p>
+ * The framework database requires the native SQLite from the Android runtime,
+ * i.e. the benchmarks are running against the SQLite JDBC driver with the
+ * same table structure as the application. The numbers are only comparable
+ * between the paths within a benchmark, and not with the numbers on a device.
+ */
+final class TimeTable implements AutoCloseable {
+    static final String INSERT = "INSERT INTO " + Tables.TIME + " (" +
+            TimeColumns.PROJECT_ID + "," +
+            TimeColumns.START + "," +
+            TimeColumns.STOP + "," +
+            TimeColumns.REGISTERED + "," +
+            TimeColumns.DAY + ") VALUES (?,?,?,?,?)";
+
+    private final Connection connection;
+
+    TimeTable() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + Tables.TIME + " ( " +
+                    "_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    TimeColumns.PROJECT_ID + " INTEGER NOT NULL, " +
+                    TimeColumns.START + " INTEGER NOT NULL, " +
+                    TimeColumns.STOP + " INTEGER DEFAULT 0, " +
+                    TimeColumns.REGISTERED + " INTEGER NOT NULL DEFAULT 0, " +
+                    TimeColumns.DAY + " INTEGER NOT NULL DEFAULT 0, " +
+                    TimeColumns.CHANGED + " INTEGER NOT NULL DEFAULT 0)");
+            statement.execute("CREATE INDEX " + Indexes.TIME_PROJECT_START +
+                    " ON " + Tables.TIME + " (" +
+                    TimeColumns.PROJECT_ID + ", " + TimeColumns.START + ")");
+            statement.execute("CREATE INDEX " + Indexes.TIME_PROJECT_DAY +
+                    " ON " + Tables.TIME + " (" +
+                    TimeColumns.PROJECT_ID + ", " + TimeColumns.DAY + ")");
+            statement.execute("CREATE UNIQUE INDEX " + Indexes.TIME_PROJECT_ACTIVE +
+                    " ON " + Tables.TIME + " (" + TimeColumns.PROJECT_ID + ")" +
+                    " WHERE " + TimeContract.SELECTION_ACTIVE);
+        }
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Populate the table with time for a project.
+     *
+     * @param projectId  Id for the project.
+     * @param timestamps Start and stop timestamps, see {@link Intervals#timestamps(int)}.
+     * @throws SQLException If the time can't be written.
+     */
+    void populate(long projectId, long[][] timestamps) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (long[] timestamp : timestamps) {
+                statement.setLong(1, projectId);
+                statement.setLong(2, timestamp[0]);
+                statement.setLong(3, timestamp[1]);
+                statement.setLong(4, 0L);
+                statement.setLong(5, TimeContract.getDay(timestamp[0]));
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}